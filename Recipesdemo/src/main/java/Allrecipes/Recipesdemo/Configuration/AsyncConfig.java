@@ -2,6 +2,7 @@ package Allrecipes.Recipesdemo.Configuration;
 
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import org.springframework.context.annotation.Bean;
 import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
@@ -9,6 +10,7 @@ import java.util.concurrent.Executor;
 
 @Configuration
 @EnableAsync
+@EnableScheduling
 public class AsyncConfig {
 
     @Bean(name = "taskExecutor")
@@ -21,4 +23,19 @@ public class AsyncConfig {
         executor.initialize();
         return executor;
     }
+
+    /**
+     * Small dedicated pool for resizing photos. The queue is bounded and rejects when full,
+     * so an upload burst can never push image work onto request threads.
+     */
+    @Bean(name = "photoVariantExecutor")
+    public ThreadPoolTaskExecutor photoVariantExecutor() {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(2);
+        executor.setMaxPoolSize(2);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("PhotoVariant-");
+        executor.initialize();
+        return executor;
+    }
 }
@@ -162,7 +162,7 @@ public class AdminController {
 
         return handleRequest(authHeader, UserType.ADMIN, () -> {
             Pageable pageable = PageRequest.of(page, size, Sort.by(Sort.Direction.DESC, sortBy));
-            Page<RecipeResponse> recipes = recipeService.getAllRecipesWithResponse(pageable);
+            Page<RecipeResponse> recipes = recipeService.getAllRecipesForAdmin(pageable);
             return recipes;
         });
     }
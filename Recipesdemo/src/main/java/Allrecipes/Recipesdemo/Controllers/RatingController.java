@@ -1,21 +1,41 @@
 package Allrecipes.Recipesdemo.Controllers;
 
+import Allrecipes.Recipesdemo.DTOs.RatingStatisticsDTO;
 import Allrecipes.Recipesdemo.Entities.Enums.UserType;
+import Allrecipes.Recipesdemo.Exceptions.ResourceNotFoundException;
+import Allrecipes.Recipesdemo.Rating.LeaderboardPage;
 import Allrecipes.Recipesdemo.Rating.RatingResponse;
+import Allrecipes.Recipesdemo.Rating.RatingStatsReport;
+import Allrecipes.Recipesdemo.Rating.RatingUpdateRequest;
+import Allrecipes.Recipesdemo.Rating.RatingWindow;
 import Allrecipes.Recipesdemo.Security.JWT.JWT;
+import Allrecipes.Recipesdemo.Request.BulkRatingRequest;
+import Allrecipes.Recipesdemo.Response.BulkRatingResponse;
+import Allrecipes.Recipesdemo.Response.CursorPage;
+import Allrecipes.Recipesdemo.Service.RatingBulkService;
+import Allrecipes.Recipesdemo.Service.RatingExportService;
 import Allrecipes.Recipesdemo.Service.RatingService;
+import Allrecipes.Recipesdemo.Service.RatingStatisticsService;
 import Allrecipes.Recipesdemo.Repositories.UserRepository;
 import Allrecipes.Recipesdemo.Entities.User;
 import Allrecipes.Recipesdemo.Entities.UserDetails;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import jakarta.validation.Valid;
+import jakarta.validation.ValidationException;
 
 import javax.security.auth.login.LoginException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
 import java.util.List;
 
 /**
@@ -28,6 +48,9 @@ import java.util.List;
 public class RatingController {
 
     private final RatingService ratingService;
+    private final RatingStatisticsService ratingStatisticsService;
+    private final RatingExportService ratingExportService;
+    private final RatingBulkService ratingBulkService;
     private final UserRepository userRepository;
     private final JWT jwtUtil;
 
@@ -47,6 +70,61 @@ public class RatingController {
         }
     }
 
+    /**
+     * Creates or replaces the caller's rating of a recipe.
+     */
+    @PutMapping("/recipe/{recipeId}")
+    public ResponseEntity<?> rateRecipe(@PathVariable Long recipeId, @RequestBody @Valid RatingUpdateRequest ratingRequest,
+                                        HttpServletRequest request) {
+        try {
+            UserDetails userDetails = getUserDetailsFromRequest(request);
+            User user = userRepository.findById(userDetails.getUserId())
+                    .orElseThrow(() -> new IllegalArgumentException("Invalid user ID"));
+            RatingResponse response = ratingService.rateRecipe(recipeId, ratingRequest, user);
+            log.info("Recipe ID {} rated by User ID {}", recipeId, user.getId());
+            return ResponseEntity.ok(response);
+        } catch (ResourceNotFoundException e) {
+            log.warn("Rating failed for Recipe ID {}: {}", recipeId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (ValidationException | IllegalArgumentException e) {
+            log.warn("Invalid rating for Recipe ID {}: {}", recipeId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (LoginException e) {
+            log.warn("Unauthorized rating attempt for Recipe ID {}: {}", recipeId, e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unauthorized: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error rating Recipe ID: {}", recipeId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Imports a batch of ratings for partner integrations; admin only. Each item is reported as
+     * created, updated, unchanged or rejected, and rejected items do not fail the batch.
+     */
+    @PostMapping("/bulk")
+    public ResponseEntity<?> importRatings(@RequestBody @Valid BulkRatingRequest bulkRequest, HttpServletRequest request) {
+        try {
+            UserDetails userDetails = getUserDetailsFromRequest(request);
+            if (userDetails.getUserType() != UserType.ADMIN) {
+                log.warn("User ID {} is not allowed to import ratings.", userDetails.getUserId());
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body("You are not authorized to import ratings.");
+            }
+            log.debug("Importing {} ratings.", bulkRequest.getRatings().size());
+            BulkRatingResponse response = ratingBulkService.importRatings(bulkRequest.getRatings());
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid bulk rating import: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (LoginException e) {
+            log.warn("Unauthorized bulk rating import: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body("Unauthorized: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error importing ratings.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred: " + e.getMessage());
+        }
+    }
+
     @DeleteMapping("/{id}")
     public ResponseEntity<?> deleteRating(@PathVariable Long id, HttpServletRequest request) {
         try {
@@ -76,19 +154,38 @@ public class RatingController {
         }
     }
 
+    /**
+     * Active ratings in id order, one keyset-paginated slice at a time; pass {@code nextCursor} back as {@code after}.
+     */
     @GetMapping
-    public ResponseEntity<?> getAllRatings() {
+    public ResponseEntity<?> getAllRatings(@RequestParam(required = false) String after,
+                                           @RequestParam(defaultValue = "50") int limit) {
         try {
-            log.debug("Fetching all ratings.");
-            List<RatingResponse> ratings = ratingService.getAllRatings();
-            log.info("Retrieved {} ratings.", ratings.size());
-            return ResponseEntity.ok(ratings);
+            log.debug("Fetching ratings after cursor - Limit: {}", limit);
+            CursorPage<RatingResponse> slice = ratingService.getRatingsAfter(after, limit);
+            log.info("Retrieved {} ratings.", slice.content().size());
+            return ResponseEntity.ok(slice);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid rating cursor: {}", after);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
         } catch (Exception e) {
             log.error("Error retrieving all ratings.", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred: " + e.getMessage());
         }
     }
 
+    /**
+     * Every active rating as newline-delimited JSON, streamed as it is read from the database.
+     */
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public void exportRatings(HttpServletResponse response) throws IOException {
+        log.debug("Exporting all active ratings.");
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"ratings.ndjson\"");
+        ratingExportService.export(response.getOutputStream());
+    }
+
     @GetMapping("/recipe/{recipeId}")
     public ResponseEntity<?> getRatingsByRecipeId(@PathVariable Long recipeId) {
         try {
@@ -105,6 +202,70 @@ public class RatingController {
         }
     }
 
+    /**
+     * Top-rated recipes by Bayesian average, overall or within a category. Send back the
+     * {@code snapshot} from the first page to page through a stable ranking.
+     */
+    @GetMapping("/top")
+    public ResponseEntity<?> getTopRatedRecipes(@RequestParam(required = false) Long category,
+                                                @RequestParam(required = false) Long snapshot,
+                                                @RequestParam(defaultValue = "0") int offset,
+                                                @RequestParam(defaultValue = "20") int limit) {
+        try {
+            log.debug("Fetching top-rated recipes - Category: {}, Snapshot: {}, Offset: {}, Limit: {}",
+                    category, snapshot, offset, limit);
+            LeaderboardPage page = ratingStatisticsService.getTopRatedRecipes(category, snapshot, offset, limit);
+            return ResponseEntity.ok(page);
+        } catch (IllegalStateException e) {
+            log.warn("Top-rated board not ready: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error retrieving top-rated recipes.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred: " + e.getMessage());
+        }
+    }
+
+    @GetMapping("/recipe/{recipeId}/statistics")
+    public ResponseEntity<?> getRatingStatistics(@PathVariable Long recipeId) {
+        try {
+            log.debug("Fetching rating statistics for Recipe ID: {}", recipeId);
+            RatingStatisticsDTO statistics = ratingStatisticsService.getStatistics(recipeId);
+            return ResponseEntity.ok(statistics);
+        } catch (ResourceNotFoundException e) {
+            log.warn("Recipe not found: {}", recipeId);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Recipe not found: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error retrieving rating statistics for Recipe ID: {}", recipeId, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Rating distribution and trend for a recipe, a category or the whole site over a date range.
+     */
+    @GetMapping("/statistics")
+    public ResponseEntity<?> getRatingDistribution(@RequestParam(required = false) Long recipe,
+                                                   @RequestParam(required = false) Long category,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+                                                   @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+                                                   @RequestParam(required = false) String window) {
+        try {
+            log.debug("Fetching rating distribution - Recipe: {}, Category: {}, From: {}, To: {}, Window: {}",
+                    recipe, category, from, to, window);
+            RatingStatsReport report = ratingStatisticsService.getDistribution(recipe, category, from, to,
+                    RatingWindow.fromParam(window));
+            return ResponseEntity.ok(report);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid rating distribution request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
+        } catch (ResourceNotFoundException e) {
+            log.warn("Recipe not found: {}", recipe);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Recipe not found: " + e.getMessage());
+        } catch (Exception e) {
+            log.error("Error retrieving rating distribution.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body("An error occurred: " + e.getMessage());
+        }
+    }
 
     @GetMapping("/user/{userId}")
     public ResponseEntity<?> getRatingsByUserId(@PathVariable Long userId) {
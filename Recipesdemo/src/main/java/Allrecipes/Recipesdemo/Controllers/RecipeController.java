@@ -4,15 +4,32 @@ import Allrecipes.Recipesdemo.Entities.Category;
 import Allrecipes.Recipesdemo.Entities.User;
 import Allrecipes.Recipesdemo.Entities.UserDetails;
 import Allrecipes.Recipesdemo.Exceptions.ErrorMessages;
+import Allrecipes.Recipesdemo.Exceptions.InvalidRecipeDataException;
+import Allrecipes.Recipesdemo.Exceptions.PhotoTooLargeException;
 import Allrecipes.Recipesdemo.Exceptions.RecipeNotFoundException;
 import Allrecipes.Recipesdemo.Exceptions.UnauthorizedActionException;
 import Allrecipes.Recipesdemo.Mappers.RecipeMapper;
+import Allrecipes.Recipesdemo.Photo.PhotoSize;
+import Allrecipes.Recipesdemo.Photo.PhotoStreamer;
 import Allrecipes.Recipesdemo.Recipe.Recipe;
+import Allrecipes.Recipesdemo.Recipe.RecipeCursor;
 import Allrecipes.Recipesdemo.Recipe.RecipeResponse;
+import Allrecipes.Recipesdemo.Recipe.RecipeSummary;
+import Allrecipes.Recipesdemo.Recipe.TrendingRecipe;
 import Allrecipes.Recipesdemo.Repositories.UserRepository;
+import Allrecipes.Recipesdemo.Response.CursorPage;
+import Allrecipes.Recipesdemo.Search.Facet;
+import Allrecipes.Recipesdemo.Search.FacetQuery;
+import Allrecipes.Recipesdemo.Search.FacetResult;
+import Allrecipes.Recipesdemo.Search.Suggestion;
+import Allrecipes.Recipesdemo.Search.SuggestionIndex;
+import Allrecipes.Recipesdemo.Request.MealPlanRequest;
+import Allrecipes.Recipesdemo.Request.PantryRequest;
 import Allrecipes.Recipesdemo.Request.RecipeCreateRequest;
 import Allrecipes.Recipesdemo.Security.JWT.JWT;
 import Allrecipes.Recipesdemo.Service.CategoryService;
+import Allrecipes.Recipesdemo.Service.RecipePhotoService;
+import Allrecipes.Recipesdemo.Service.RecipeQueryService;
 import Allrecipes.Recipesdemo.Service.RecipeService;
 import io.jsonwebtoken.MalformedJwtException;
 import jakarta.validation.Valid;
@@ -23,15 +40,21 @@ import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 
 import javax.security.auth.login.LoginException;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @RestController
@@ -41,9 +64,15 @@ import java.util.stream.Collectors;
 @CrossOrigin
 public class RecipeController {
 
+    // List endpoints return lightweight RecipeSummary records instead of RecipeResponse for this view.
+    private static final String SUMMARY_VIEW = "summary";
+
     private final RecipeService recipeService;
+    private final RecipeQueryService recipeQueryService;
     private final UserRepository userRepository;
     private final CategoryService categoryService;
+    private final RecipePhotoService recipePhotoService;
+    private final PhotoStreamer photoStreamer;
     private final JWT jwtUtil;
 
 
@@ -55,7 +84,10 @@ public class RecipeController {
             recipeService.createRecipe(request, user);
             log.info("Recipe created successfully by User ID: {}", user.getId());
             return ResponseEntity.status(HttpStatus.CREATED).body("Recipe created successfully.");
-        } catch (IllegalArgumentException e) {
+        } catch (PhotoTooLargeException e) {
+            log.warn("Recipe creation rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IllegalArgumentException | InvalidRecipeDataException e) {
             log.warn("Recipe creation failed: {}", e.getMessage());
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
         } catch (Exception e) {
@@ -64,15 +96,107 @@ public class RecipeController {
         }
     }
 
+    @PostMapping(consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> createRecipeWithPhoto(@RequestPart("recipe") @Valid RecipeCreateRequest request,
+                                                   @RequestPart(value = "photo", required = false) MultipartFile photo,
+                                                   HttpServletRequest httpRequest) {
+        try {
+            log.debug("Attempting to create a new recipe with a multipart photo.");
+            User user = getCurrentUser(httpRequest);
+            recipeService.createRecipe(request, user, photo);
+            log.info("Recipe created successfully by User ID: {}", user.getId());
+            return ResponseEntity.status(HttpStatus.CREATED).body("Recipe created successfully.");
+        } catch (PhotoTooLargeException e) {
+            log.warn("Recipe creation rejected: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IllegalArgumentException | InvalidRecipeDataException e) {
+            log.warn("Recipe creation failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error creating recipe.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * A single recipe. With {@code servings}, ingredient amounts are rescaled from the recipe's own
+     * servings to that number.
+     */
     @GetMapping("/{id}")
-    public ResponseEntity<?> getRecipeById(@PathVariable Long id) {
+    public ResponseEntity<?> getRecipeById(@PathVariable Long id,
+                                           @RequestParam(defaultValue = "true") boolean inlinePhoto,
+                                           @RequestParam(required = false) Integer servings) {
         Recipe recipe = recipeService.getRecipeById(id);
-        RecipeResponse response = RecipeMapper.toRecipeResponse(recipe);
-        return ResponseEntity.ok(response);
+        recipeQueryService.recordView(id);
+        String photo = inlinePhoto ? recipePhotoService.getPhotoAsBase64(recipe) : null;
+        if (servings == null) {
+            return ResponseEntity.ok(recipeService.withRatings(RecipeMapper.toRecipeResponse(recipe, photo)));
+        }
+        try {
+            return ResponseEntity.ok(recipeService.withRatings(RecipeMapper.toRecipeResponse(recipe, photo, servings)));
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            log.warn("Cannot scale Recipe ID {} to {} servings: {}", id, servings, e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
+        }
+    }
+
+    /**
+     * Several recipes for a meal plan, each rescaled to its own servings.
+     */
+    @PostMapping("/meal-plan")
+    public ResponseEntity<?> getMealPlan(@RequestBody @Valid MealPlanRequest request) {
+        try {
+            log.debug("Scaling {} recipes for a meal plan.", request.getRecipes().size());
+            return ResponseEntity.ok(recipeService.getScaledRecipes(request.getRecipes()));
+        } catch (RecipeNotFoundException e) {
+            log.warn("Meal plan references a missing recipe: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            log.warn("Invalid meal plan: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error building meal plan.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+
+    @GetMapping("/{id}/photo")
+    public void getRecipePhoto(@PathVariable Long id,
+                               @RequestParam(name = "v", required = false) String version,
+                               @RequestParam(defaultValue = "full") String size,
+                               HttpServletRequest request,
+                               HttpServletResponse response) throws IOException {
+        log.debug("Streaming {} photo for Recipe ID: {}", size, id);
+        PhotoSize photoSize = PhotoSize.fromParam(size);
+        if (photoSize == null) {
+            response.sendError(HttpStatus.BAD_REQUEST.value(), "Unknown photo size: " + size);
+            return;
+        }
+        Optional<String> hash = recipePhotoService.findPhotoHash(id);
+        if (hash.isEmpty()) {
+            log.warn("No photo found for Recipe ID: {}", id);
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Photo for recipe " + id + " not found.");
+            return;
+        }
+        Optional<Path> file = recipePhotoService.locate(hash.get(), photoSize);
+        if (file.isEmpty() && photoSize.isVariant()) {
+            // Variant not generated yet: serve the original, but don't let it be cached as the variant for long.
+            photoSize = PhotoSize.FULL;
+            version = null;
+            file = recipePhotoService.locate(hash.get(), PhotoSize.FULL);
+        }
+        if (file.isEmpty()) {
+            log.warn("Photo {} for Recipe ID {} is missing from the store.", hash.get(), id);
+            response.sendError(HttpStatus.NOT_FOUND.value(), "Photo for recipe " + id + " not found.");
+            return;
+        }
+        photoStreamer.write(hash.get(), photoSize, file.get(), version, request, response);
     }
 
     @GetMapping("/batch")
-    public ResponseEntity<?> getRecipesByIds(@RequestParam String ids) {
+    public ResponseEntity<?> getRecipesByIds(@RequestParam String ids,
+                                             @RequestParam(defaultValue = "false") boolean inlinePhoto,
+                                             @RequestParam(defaultValue = "full") String view) {
         try {
             log.debug("Fetching recipes by batch IDs: {}", ids);
             String[] idArray = ids.split(",");
@@ -81,8 +205,13 @@ public class RecipeController {
                     .map(String::trim)
                     .map(Long::valueOf)
                     .collect(Collectors.toList());
-            
-            List<RecipeResponse> responses = recipeService.getRecipesByIds(recipeIds);
+
+            if (SUMMARY_VIEW.equals(view)) {
+                List<RecipeSummary> summaries = recipeQueryService.getSummariesByIds(recipeIds);
+                log.info("Retrieved {} recipe summaries from batch request.", summaries.size());
+                return ResponseEntity.ok(summaries);
+            }
+            List<RecipeResponse> responses = recipeService.getRecipesByIds(recipeIds, inlinePhoto);
             log.info("Retrieved {} recipes from batch request.", responses.size());
             return ResponseEntity.ok(responses);
         } catch (NumberFormatException e) {
@@ -94,11 +223,149 @@ public class RecipeController {
         }
     }
 
+    /**
+     * Ranked full-text search. {@code title} is accepted as an alias of {@code q} for older clients.
+     */
+    @GetMapping("/search")
+    public ResponseEntity<?> searchRecipes(@RequestParam(required = false) String q,
+                                           @RequestParam(required = false) String title,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "10") int size,
+                                           @RequestParam(defaultValue = "full") String view) {
+        String query = q != null ? q : title;
+        try {
+            log.debug("Searching recipes - Query: {}, Page: {}, Size: {}", query, page, size);
+            Pageable pageable = PageRequest.of(page, size);
+            Page<?> resultPage;
+            if (SUMMARY_VIEW.equals(view)) {
+                Page<Long> ids = recipeService.searchRecipeIds(query, pageable);
+                resultPage = new PageImpl<>(recipeQueryService.getSummariesByIds(ids.getContent()), pageable, ids.getTotalElements());
+            } else {
+                resultPage = recipeService.searchRecipes(query, pageable);
+            }
+
+            Map<String, Object> responseBody = new HashMap<>();
+            responseBody.put("content", resultPage.getContent());
+            responseBody.put("totalPages", resultPage.getTotalPages());
+            responseBody.put("totalElements", resultPage.getTotalElements());
+            responseBody.put("size", resultPage.getSize());
+            responseBody.put("number", resultPage.getNumber());
+
+            log.info("Search for '{}' matched {} recipes.", query, resultPage.getTotalElements());
+            return ResponseEntity.ok(responseBody);
+        } catch (InvalidRecipeDataException | IllegalArgumentException e) {
+            log.warn("Invalid search request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error searching recipes for '{}'.", query, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * Combined filters with facet counts. Values of one filter are alternatives; different filters
+     * must all match. {@code categoryMode=all} requires every listed category instead of any.
+     */
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterRecipes(@RequestParam(required = false) List<Long> categories,
+                                           @RequestParam(defaultValue = "any") String categoryMode,
+                                           @RequestParam(required = false) Boolean containsGluten,
+                                           @RequestParam(required = false) List<String> cookingTime,
+                                           @RequestParam(required = false) List<String> servings,
+                                           @RequestParam(required = false) List<String> status,
+                                           @RequestParam(required = false) List<Long> author,
+                                           @RequestParam(defaultValue = "0") int page,
+                                           @RequestParam(defaultValue = "10") int size) {
+        try {
+            log.debug("Filtering recipes - Categories: {} ({}), Page: {}, Size: {}", categories, categoryMode, page, size);
+            FacetQuery query = new FacetQuery()
+                    .select(Facet.CATEGORY, categories)
+                    .matchAllCategories("all".equalsIgnoreCase(categoryMode))
+                    .select(Facet.CONTAINS_GLUTEN, containsGluten != null ? List.of(containsGluten) : null)
+                    .select(Facet.COOKING_TIME, cookingTime)
+                    .select(Facet.SERVINGS, servings)
+                    .select(Facet.STATUS, status != null ? status.stream().map(String::toUpperCase).toList() : null)
+                    .select(Facet.AUTHOR, author);
+            FacetResult result = recipeQueryService.filter(query, page, size);
+
+            Map<String, Object> responseBody = new HashMap<>();
+            responseBody.put("content", recipeQueryService.getSummariesByIds(result.recipeIds()));
+            responseBody.put("totalElements", result.total());
+            responseBody.put("totalPages", size > 0 ? (result.total() + size - 1) / size : 0);
+            responseBody.put("size", size);
+            responseBody.put("number", page);
+            responseBody.put("facets", result.facets());
+
+            log.info("Filter matched {} recipes.", result.total());
+            return ResponseEntity.ok(responseBody);
+        } catch (IllegalStateException e) {
+            log.warn("Recipe filter requested before the facet index was ready.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error filtering recipes.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * "What can I cook": recipes ranked by how much of them the given pantry covers, fewest missing
+     * ingredients first. Each result lists the ingredients still to buy.
+     */
+    @PostMapping("/pantry")
+    public ResponseEntity<?> findByPantry(@RequestBody @Valid PantryRequest request) {
+        try {
+            log.debug("Pantry search with {} ingredients.", request.getIngredients().size());
+            int limit = request.getLimit() != null ? request.getLimit() : 20;
+            return ResponseEntity.ok(recipeQueryService.findByPantry(request.getIngredients(), limit, request.getMaxMissing()));
+        } catch (IllegalStateException e) {
+            log.warn("Pantry search requested before the pantry index was ready.");
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(e.getMessage());
+        } catch (Exception e) {
+            log.error("Error running pantry search.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * Typeahead over recipe titles, ingredient names and category names. {@code type} restricts the
+     * completions to one of {@code title}, {@code ingredient} or {@code category}.
+     */
+    @GetMapping("/suggest")
+    public ResponseEntity<?> suggest(@RequestParam String prefix,
+                                     @RequestParam(required = false) String type,
+                                     @RequestParam(defaultValue = "10") int limit) {
+        try {
+            Suggestion.Type kind = type != null && !type.isEmpty() ? Suggestion.Type.valueOf(type.toUpperCase()) : null;
+            return ResponseEntity.ok(recipeQueryService.suggest(prefix, kind, Math.min(limit, SuggestionIndex.TOP_K)));
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid suggestion type: {}", type);
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, "unknown type " + type));
+        } catch (Exception e) {
+            log.error("Error fetching suggestions for '{}'.", prefix, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * Recipes ranked by recent views, favorites and ratings, with older activity decaying away.
+     */
+    @GetMapping("/trending")
+    public ResponseEntity<?> getTrendingRecipes(@RequestParam(defaultValue = "20") int limit) {
+        try {
+            log.debug("Fetching trending recipes - Limit: {}", limit);
+            List<TrendingRecipe> trending = recipeQueryService.getTrending(limit);
+            return ResponseEntity.ok(trending);
+        } catch (Exception e) {
+            log.error("Error retrieving trending recipes.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+
     @GetMapping("/old/{id}")
     public ResponseEntity<?> OldgetRecipeById(@PathVariable Long id) {
         try {
             log.debug("Fetching recipe with ID: {}", id);
-            RecipeResponse recipeResponse = recipeService.toRecipeResponse(recipeService.getRecipeById(id)); // New line
+            RecipeResponse recipeResponse = recipeService.withRatings(recipeService.toRecipeResponse(recipeService.getRecipeById(id), true)); // New line
             return ResponseEntity.ok(recipeResponse); // Updated to return RecipeResponse - New line
         } catch (RecipeNotFoundException e) {
             log.warn("Recipe not found for ID: {}", id);
@@ -113,21 +380,40 @@ public class RecipeController {
     public ResponseEntity<?> getAllRecipes(
             @RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size,
-            @RequestParam(required = false) Long category) {
+            @RequestParam(required = false) Long category,
+            @RequestParam(defaultValue = "false") boolean inlinePhoto,
+            @RequestParam(defaultValue = "full") String view,
+            @RequestParam(required = false) String after,
+            @RequestParam(required = false) Integer limit,
+            @RequestParam(required = false) String sort,
+            @RequestParam(defaultValue = "false") boolean includeTotal) {
         try {
+            if (after != null || limit != null) {
+                // Cursor mode: keyset pagination over summaries, no OFFSET and no COUNT(*).
+                log.debug("Fetching recipes after cursor - Limit: {}, Sort: {}, Category: {}", limit, sort, category);
+                CursorPage<RecipeSummary> slice = recipeQueryService.getSummariesAfter(category,
+                        RecipeCursor.Order.fromParam(sort), after, limit != null ? limit : size, includeTotal);
+                return ResponseEntity.ok(slice);
+            }
             log.debug("Fetching recipes with pagination - Page: {}, Size: {}, Category: {}", page, size, category);
             Pageable pageable = PageRequest.of(page, size);
-            Page<RecipeResponse> resultPage;
+            Page<?> resultPage;
 
-            if (category != null) {
+            if (SUMMARY_VIEW.equals(view)) {
+                resultPage = category != null
+                        ? recipeQueryService.getSummariesByCategory(category, pageable)
+                        : recipeQueryService.getSummaries(pageable);
+            } else if (category != null) {
                 Page<Recipe> recipePage = recipeService.getRecipesByCategory(category, pageable);
                 List<RecipeResponse> responses = recipePage.getContent()
                         .stream()
-                        .map(RecipeMapper::toRecipeResponse)
+                        .map(recipe -> inlinePhoto
+                                ? RecipeMapper.toRecipeResponse(recipe, recipePhotoService.getPhotoAsBase64(recipe))
+                                : RecipeMapper.toRecipeResponse(recipe))
                         .collect(Collectors.toList());
-                resultPage = new PageImpl<>(responses, pageable, recipePage.getTotalElements());
+                resultPage = new PageImpl<>(recipeService.withRatings(responses), pageable, recipePage.getTotalElements());
             } else {
-                resultPage = recipeService.getAllRecipesWithResponse(pageable);
+                resultPage = recipeService.getAllRecipesWithResponse(pageable, inlinePhoto);
             }
 
             Map<String, Object> responseBody = new HashMap<>();
@@ -139,6 +425,9 @@ public class RecipeController {
 
             log.info("Retrieved {} recipes.", resultPage.getTotalElements());
             return ResponseEntity.ok(responseBody);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid recipe listing request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
         } catch (Exception e) {
             log.error("Error retrieving recipes.", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -162,11 +451,80 @@ public class RecipeController {
         } catch (UnauthorizedActionException e) {
             log.warn("Unauthorized update attempt by User ID {} on Recipe ID {}", user != null ? user.getId() : "Unknown", id);
             return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ErrorMessages.UNAUTHORIZED_ACTION);
+        } catch (PhotoTooLargeException e) {
+            log.warn("Photo rejected for Recipe ID {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IllegalArgumentException | InvalidRecipeDataException e) {
+            log.warn("Recipe update failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
         } catch (Exception e) {
             log.error("Error updating recipe with ID: {}", id, e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
         }
     }
+
+    @PutMapping(value = "/{id}", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> updateRecipeWithPhoto(@PathVariable Long id,
+                                                   @RequestPart("recipe") @Valid RecipeCreateRequest request,
+                                                   @RequestPart(value = "photo", required = false) MultipartFile photo,
+                                                   HttpServletRequest httpRequest) {
+        User user = null;
+        try {
+            log.debug("Attempting to update recipe with ID {} with a multipart photo", id);
+            user = getCurrentUser(httpRequest);
+            recipeService.updateRecipe(id, request, user, photo);
+            log.info("Recipe with ID {} updated successfully by User ID {}", id, user.getId());
+            return ResponseEntity.ok("Recipe updated successfully.");
+        } catch (RecipeNotFoundException e) {
+            log.warn("Recipe not found for update: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(String.format(ErrorMessages.RECIPE_NOT_FOUND, id));
+        } catch (UnauthorizedActionException e) {
+            log.warn("Unauthorized update attempt by User ID {} on Recipe ID {}", user != null ? user.getId() : "Unknown", id);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ErrorMessages.UNAUTHORIZED_ACTION);
+        } catch (PhotoTooLargeException e) {
+            log.warn("Photo rejected for Recipe ID {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IllegalArgumentException | InvalidRecipeDataException e) {
+            log.warn("Recipe update failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error updating recipe with ID: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+
+    /**
+     * Replaces a recipe's photo with the raw image sent as the request body. Unlike multipart uploads the
+     * body is never spooled by the container; it is streamed from the socket straight into the photo store.
+     */
+    @PutMapping(value = "/{id}/photo", consumes = {MediaType.IMAGE_JPEG_VALUE, MediaType.IMAGE_PNG_VALUE,
+            MediaType.IMAGE_GIF_VALUE, "image/webp", MediaType.APPLICATION_OCTET_STREAM_VALUE})
+    public ResponseEntity<?> replaceRecipePhoto(@PathVariable Long id, HttpServletRequest httpRequest) {
+        User user = null;
+        try {
+            log.debug("Attempting to replace photo of recipe with ID: {}", id);
+            user = getCurrentUser(httpRequest);
+            Recipe recipe = recipeService.replacePhoto(id, httpRequest.getInputStream(), user);
+            log.info("Photo of Recipe ID {} replaced by User ID {}", id, user.getId());
+            return ResponseEntity.ok(recipeService.withRatings(RecipeMapper.toRecipeResponse(recipe)));
+        } catch (RecipeNotFoundException e) {
+            log.warn("Recipe not found for photo upload: {}", id);
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(String.format(ErrorMessages.RECIPE_NOT_FOUND, id));
+        } catch (UnauthorizedActionException e) {
+            log.warn("Unauthorized photo upload by User ID {} on Recipe ID {}", user != null ? user.getId() : "Unknown", id);
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).body(ErrorMessages.UNAUTHORIZED_ACTION);
+        } catch (PhotoTooLargeException e) {
+            log.warn("Photo rejected for Recipe ID {}: {}", id, e.getMessage());
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(e.getMessage());
+        } catch (IllegalArgumentException | InvalidRecipeDataException e) {
+            log.warn("Photo upload failed: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error uploading photo for recipe with ID: {}", id, e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+
     @GetMapping("/categories")
     public ResponseEntity<List<Category>> getAllCategories() {
         // fetch categories from the DB or service
@@ -227,11 +585,16 @@ public class RecipeController {
         }
     }
     @GetMapping("/my")
-    public ResponseEntity<?> getMyRecipes(HttpServletRequest request) {
+    public ResponseEntity<?> getMyRecipes(HttpServletRequest request,
+                                          @RequestParam(defaultValue = "false") boolean inlinePhoto,
+                                          @RequestParam(defaultValue = "full") String view) {
         try {
             // Reuse your existing getCurrentUser() to parse the JWT from the header
             User currentUser = getCurrentUser(request);
-            List<RecipeResponse> myRecipes = recipeService.getRecipesCreatedByUser(currentUser.getId());
+            if (SUMMARY_VIEW.equals(view)) {
+                return ResponseEntity.ok(recipeQueryService.getSummariesByAuthor(currentUser.getId()));
+            }
+            List<RecipeResponse> myRecipes = recipeService.getRecipesCreatedByUser(currentUser.getId(), inlinePhoto);
             return ResponseEntity.ok(myRecipes);
         } catch (IllegalArgumentException e) {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(e.getMessage());
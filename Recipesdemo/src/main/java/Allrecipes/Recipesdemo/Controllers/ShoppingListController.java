@@ -0,0 +1,46 @@
+package Allrecipes.Recipesdemo.Controllers;
+
+import Allrecipes.Recipesdemo.Exceptions.ErrorMessages;
+import Allrecipes.Recipesdemo.Exceptions.RecipeNotFoundException;
+import Allrecipes.Recipesdemo.Request.MealPlanRequest;
+import Allrecipes.Recipesdemo.Response.ShoppingListItem;
+import Allrecipes.Recipesdemo.Service.ShoppingListService;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/shopping-list")
+@RequiredArgsConstructor
+@Slf4j
+@CrossOrigin
+public class ShoppingListController {
+
+    private final ShoppingListService shoppingListService;
+
+    /**
+     * Merged ingredient totals for a set of recipes, each scaled to the servings given for it.
+     */
+    @PostMapping
+    public ResponseEntity<?> buildShoppingList(@RequestBody @Valid MealPlanRequest request) {
+        try {
+            log.debug("Building a shopping list for {} recipes.", request.getRecipes().size());
+            List<ShoppingListItem> items = shoppingListService.buildShoppingList(request.getRecipes());
+            return ResponseEntity.ok(items);
+        } catch (RecipeNotFoundException e) {
+            log.warn("Shopping list references a missing recipe: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.NOT_FOUND).body(e.getMessage());
+        } catch (IllegalArgumentException | ArithmeticException e) {
+            log.warn("Invalid shopping list request: {}", e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(String.format(ErrorMessages.INVALID_REQUEST, e.getMessage()));
+        } catch (Exception e) {
+            log.error("Error building shopping list.", e);
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(ErrorMessages.INTERNAL_ERROR);
+        }
+    }
+}
@@ -2,11 +2,14 @@ package Allrecipes.Recipesdemo.DTOs;
 
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
 @Data
+@NoArgsConstructor
 @AllArgsConstructor
 public class RatingStatisticsDTO {
     private Long recipeId;
     private double averageRating;
     private long totalRatings;
+    private long[] histogram; // ratings per score, index 0 holding the ones
 }
@@ -0,0 +1,47 @@
+package Allrecipes.Recipesdemo.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * A deleted {@link Rating} moved out of {@code ratings} by {@code RatingCompactionJob}, keeping its
+ * original id and timestamps. Recipe and user are plain ids so archived rows never hold up deleting
+ * either. Nothing reads the archive at runtime; it exists for audits and recovery.
+ */
+@Entity
+@Table(name = "ratings_archive",
+        indexes = @Index(name = "idx_ratings_archive_recipe", columnList = "recipe_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class ArchivedRating {
+
+    @Id
+    private Long id;
+
+    @Column(name = "recipe_id", nullable = false)
+    private Long recipeId;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(nullable = false)
+    private int score;
+
+    @Column(length = 500)
+    private String comment;
+
+    private LocalDateTime createdAt;
+
+    // When the rating was deleted.
+    private LocalDateTime updatedAt;
+
+    private LocalDateTime scoredAt;
+
+    @Column(nullable = false)
+    private LocalDateTime archivedAt;
+}
@@ -0,0 +1,36 @@
+package Allrecipes.Recipesdemo.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+/**
+ * One entry of the ingredient dictionary. Every {@link Ingredient} row points at the entry for its
+ * normalized name, so "Tomato", "tomatoes " and "TOMATO" share a single id.
+ */
+@Entity
+@Table(name = "canonical_ingredients")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class CanonicalIngredient {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @EqualsAndHashCode.Include
+    private Long id;
+
+    /**
+     * The lookup key, see {@code TextAnalyzer.key}.
+     */
+    @Column(name = "normalized_name", nullable = false, unique = true, length = 191)
+    private String normalizedName;
+
+    /**
+     * The name as first written, for display.
+     */
+    @Column(nullable = false)
+    private String name;
+}
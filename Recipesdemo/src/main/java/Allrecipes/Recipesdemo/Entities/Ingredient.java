@@ -1,5 +1,8 @@
 package Allrecipes.Recipesdemo.Entities;
 
+import Allrecipes.Recipesdemo.Quantity.ParsedQuantity;
+import Allrecipes.Recipesdemo.Quantity.Rational;
+import Allrecipes.Recipesdemo.Quantity.Unit;
 import Allrecipes.Recipesdemo.Recipe.Recipe;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
@@ -29,6 +32,30 @@ public class Ingredient {
     @NotBlank(message = "Ingredient unit is mandatory")
     private String unit;
 
+    /**
+     * {@link #quantity} parsed into an exact fraction; both null when it has no number.
+     */
+    @Column(name = "amount_numerator")
+    private Long amountNumerator;
+
+    @Column(name = "amount_denominator")
+    private Long amountDenominator;
+
+    /**
+     * {@link #unit} mapped to a canonical unit; null only for rows the backfill has not reached yet.
+     */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "unit_code", length = 20)
+    private Unit unitCode;
+
+    /**
+     * The dictionary entry for {@link #name}; null only for rows the backfill has not reached yet.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "canonical_ingredient_id")
+    @JsonIgnore
+    private CanonicalIngredient canonical;
+
     @ManyToOne
     @JoinColumn(name = "recipe_id", nullable = false)
     @JsonIgnore
@@ -48,6 +75,17 @@ public class Ingredient {
         this.recipe = recipe;
     }
 
+    @JsonIgnore
+    public Rational getAmount() {
+        return amountNumerator != null && amountDenominator != null ? Rational.of(amountNumerator, amountDenominator) : null;
+    }
+
+    public void setParsedQuantity(ParsedQuantity parsed) {
+        this.amountNumerator = parsed.amount() != null ? parsed.amount().getNumerator() : null;
+        this.amountDenominator = parsed.amount() != null ? parsed.amount().getDenominator() : null;
+        this.unitCode = parsed.unit();
+    }
+
     // ✅ Add a default no-args constructor (needed for JPA)
     public Ingredient() {}
 
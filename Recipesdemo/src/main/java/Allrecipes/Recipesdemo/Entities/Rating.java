@@ -4,9 +4,21 @@ import Allrecipes.Recipesdemo.Recipe.Recipe;
 import jakarta.persistence.*;
 import lombok.*;
 
+import java.time.LocalDateTime;
+
+/**
+ * A user's score and optional review text for a recipe; at most one per user and recipe, enforced
+ * by the unique constraint. Deleting a rating only flags it, and rating again revives the row until
+ * {@code RatingCompactionJob} moves it to {@link ArchivedRating}.
+ */
 @Entity
 @Table(name = "ratings",
-        uniqueConstraints = @UniqueConstraint(columnNames = {"recipe_id", "user_id"}))
+        uniqueConstraints = @UniqueConstraint(columnNames = {"recipe_id", "user_id"}),
+        indexes = {
+                @Index(name = "idx_ratings_recipe_deleted", columnList = "recipe_id, deleted"),
+                @Index(name = "idx_ratings_user_deleted", columnList = "user_id, deleted"),
+                @Index(name = "idx_ratings_deleted_updated", columnList = "deleted, updatedAt, id")
+        })
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -34,4 +46,25 @@ public class Rating {
 
     @Column(nullable = false)
     private boolean deleted = false;
+
+    private LocalDateTime createdAt;
+
+    private LocalDateTime updatedAt;
+
+    // When the current score was given; rating_daily_stats counts the score on this day.
+    private LocalDateTime scoredAt;
+
+    @PrePersist
+    protected void onCreate() {
+        createdAt = LocalDateTime.now();
+        updatedAt = createdAt;
+        if (scoredAt == null) {
+            scoredAt = createdAt;
+        }
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
 }
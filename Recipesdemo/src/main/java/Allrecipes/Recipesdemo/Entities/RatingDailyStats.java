@@ -0,0 +1,60 @@
+package Allrecipes.Recipesdemo.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.io.Serializable;
+import java.time.LocalDate;
+
+/**
+ * Number of live ratings per score that one recipe received on one day, bucketed by when the
+ * current score was given. Buckets add up, so any range of days, recipes or categories is summarized
+ * by summing them; nothing needs the raw ratings.
+ *
+ * Maintained like {@link RecipeRatingStats}: deltas from the rating write paths, repaired by
+ * {@code RatingStatsReconciliationJob}.
+ */
+@Entity
+@Table(name = "rating_daily_stats")
+@IdClass(RatingDailyStats.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RatingDailyStats {
+
+    @Id
+    @Column(name = "recipe_id")
+    @EqualsAndHashCode.Include
+    private Long recipeId;
+
+    @Id
+    @Column(nullable = false)
+    @EqualsAndHashCode.Include
+    private LocalDate day;
+
+    @Column(name = "count_1", nullable = false)
+    private long count1;
+
+    @Column(name = "count_2", nullable = false)
+    private long count2;
+
+    @Column(name = "count_3", nullable = false)
+    private long count3;
+
+    @Column(name = "count_4", nullable = false)
+    private long count4;
+
+    @Column(name = "count_5", nullable = false)
+    private long count5;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private Long recipeId;
+        private LocalDate day;
+    }
+}
@@ -0,0 +1,74 @@
+package Allrecipes.Recipesdemo.Entities;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+
+/**
+ * Running totals of the active ratings of one recipe.
+ *
+ * Rows are never written through JPA; {@code RecipeRatingStatsRepository} applies deltas with a
+ * single upsert inside the transaction that changes the rating, and {@code RatingStatsReconciliationJob}
+ * rewrites them from {@code ratings} to repair any drift.
+ *
+ * {@code average_score} is computed by the database from the totals and indexed together with the
+ * recipe id, so the top-rated listing can page through it as a keyset.
+ */
+@Entity
+@Table(name = "recipe_rating_stats",
+        indexes = @Index(name = "idx_recipe_rating_stats_average", columnList = "average_score, recipe_id"))
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@EqualsAndHashCode(onlyExplicitlyIncluded = true)
+public class RecipeRatingStats {
+
+    @Id
+    @Column(name = "recipe_id")
+    @EqualsAndHashCode.Include
+    private Long recipeId;
+
+    @Column(name = "score_sum", nullable = false)
+    private long scoreSum;
+
+    @Column(name = "rating_count", nullable = false)
+    private long ratingCount;
+
+    @Column(name = "count_1", nullable = false)
+    private long count1;
+
+    @Column(name = "count_2", nullable = false)
+    private long count2;
+
+    @Column(name = "count_3", nullable = false)
+    private long count3;
+
+    @Column(name = "count_4", nullable = false)
+    private long count4;
+
+    @Column(name = "count_5", nullable = false)
+    private long count5;
+
+    // Rounded to a fixed scale so a cursor holding it compares exactly; null without ratings.
+    @Column(name = "average_score", insertable = false, updatable = false,
+            columnDefinition = "DECIMAL(5,4) GENERATED ALWAYS AS " +
+                    "(CASE WHEN rating_count > 0 THEN ROUND(CAST(score_sum AS DECIMAL(20,4)) / rating_count, 4) END)")
+    private BigDecimal averageScore;
+
+    /**
+     * The mean score, or null without ratings.
+     */
+    public Double getAverage() {
+        return ratingCount > 0 ? (double) scoreSum / ratingCount : null;
+    }
+
+    /**
+     * Number of ratings per score, index 0 holding the ones.
+     */
+    public long[] getHistogram() {
+        return new long[]{count1, count2, count3, count4, count5};
+    }
+}
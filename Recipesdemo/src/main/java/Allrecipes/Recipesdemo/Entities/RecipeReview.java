@@ -1,64 +0,0 @@
-package Allrecipes.Recipesdemo.Entities;
-
-import Allrecipes.Recipesdemo.Recipe.Recipe;
-import Allrecipes.Recipesdemo.Entities.Enums.UserType;
-import com.fasterxml.jackson.annotation.JsonIgnore;
-import jakarta.persistence.*;
-import lombok.*;
-
-import java.time.LocalDateTime;
-
-@Entity
-@Table(name = "recipe_reviews")
-@Getter
-@Setter
-@NoArgsConstructor
-@AllArgsConstructor
-@Builder
-@EqualsAndHashCode(onlyExplicitlyIncluded = true)
-public class RecipeReview {
-
-    @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
-    @EqualsAndHashCode.Include
-    private Long id;
-
-    @Column(nullable = false)
-    private Integer score;
-
-    @Lob
-    private String comment;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "recipe_id", nullable = false)
-    @ToString.Exclude
-    @JsonIgnore
-    private Recipe recipe;
-
-    @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "user_id", nullable = false)
-    @ToString.Exclude
-    @JsonIgnore
-    private User user;
-
-    private LocalDateTime createdAt;
-
-    @PrePersist
-    protected void onCreate() {
-        createdAt = LocalDateTime.now();
-    }
-
-    public void setRecipe(Recipe recipe) {
-        this.recipe = recipe;
-        if (recipe != null && !recipe.getRecipeReviews().contains(this)) {
-            recipe.getRecipeReviews().add(this);
-        }
-    }
-
-    public void setUser(User user) {
-        this.user = user;
-        if (user != null && !user.getRecipeReviews().contains(this)) {
-            user.getRecipeReviews().add(this);
-        }
-    }
-}
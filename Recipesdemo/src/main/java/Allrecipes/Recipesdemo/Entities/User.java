@@ -48,12 +48,6 @@ public class User {
     @JsonIgnore
     private Set<Recipe> favorites = new HashSet<>();
 
-    @OneToMany(mappedBy = "user", cascade = CascadeType.ALL, orphanRemoval = true)
-    @Builder.Default
-    @ToString.Exclude
-    @JsonIgnore
-    private Set<RecipeReview> recipeReviews = new HashSet<>();
-
     public void addFavorite(Recipe recipe) {
         this.favorites.add(recipe);
         recipe.getFavorites().add(this);
@@ -63,14 +57,4 @@ public class User {
         this.favorites.remove(recipe);
         recipe.getFavorites().remove(this);
     }
-
-    public void addRecipeReview(RecipeReview recipeReview) {
-        this.recipeReviews.add(recipeReview);
-        recipeReview.setUser(this);
-    }
-
-    public void removeRecipeReview(RecipeReview recipeReview) {
-        this.recipeReviews.remove(recipeReview);
-        recipeReview.setUser(null);
-    }
 }
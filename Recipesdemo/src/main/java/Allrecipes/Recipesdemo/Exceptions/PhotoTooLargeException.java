@@ -0,0 +1,7 @@
+package Allrecipes.Recipesdemo.Exceptions;
+
+public class PhotoTooLargeException extends InvalidRecipeDataException {
+    public PhotoTooLargeException(String message) {
+        super(message);
+    }
+}
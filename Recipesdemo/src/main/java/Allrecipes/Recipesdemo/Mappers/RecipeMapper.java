@@ -3,7 +3,9 @@ package Allrecipes.Recipesdemo.Mappers;
 import Allrecipes.Recipesdemo.DTOs.IngredientDto;
 import Allrecipes.Recipesdemo.Entities.Category;
 import Allrecipes.Recipesdemo.Entities.Ingredient;
-import Allrecipes.Recipesdemo.Entities.RecipeReview;
+import Allrecipes.Recipesdemo.Entities.Rating;
+import Allrecipes.Recipesdemo.Photo.PhotoUrls;
+import Allrecipes.Recipesdemo.Quantity.IngredientScaler;
 import Allrecipes.Recipesdemo.Recipe.Recipe;
 import Allrecipes.Recipesdemo.Recipe.RecipeResponse;
 import Allrecipes.Recipesdemo.Response.RecipeReviewResponse;
@@ -18,7 +20,17 @@ public class RecipeMapper {
 
     private static final Logger logger = LoggerFactory.getLogger(RecipeMapper.class);
 
+    /**
+     * Maps a recipe with a photo URL only; use this for anything that returns more than one recipe.
+     */
     public static RecipeResponse toRecipeResponse(Recipe recipe) {
+        return toRecipeResponse(recipe, null);
+    }
+
+    /**
+     * Maps a recipe, additionally inlining the given Base64 photo for legacy clients.
+     */
+    public static RecipeResponse toRecipeResponse(Recipe recipe, String photoBase64) {
         if (recipe == null) {
             logger.error("Attempted to map a null Recipe object to RecipeResponse");
             throw new IllegalArgumentException("Recipe cannot be null");
@@ -41,20 +53,41 @@ public class RecipeMapper {
                 .dietaryInfo(recipe.getDietaryInfo())
                 .status(recipe.getStatus() != null ? recipe.getStatus().name() : "Unknown")
                 .createdByUsername(recipe.getCreatedBy() != null ? recipe.getCreatedBy().getUsername() : "Unknown")
-                .photo(recipe.getPhotoAsBase64())
+                .photo(photoBase64)
+                .photoUrl(PhotoUrls.forRecipe(recipe.getId(), recipe.getPhotoHash()))
+                .photoHash(recipe.getPhotoHash())
+                .photoWidth(recipe.getPhotoWidth())
+                .photoHeight(recipe.getPhotoHeight())
                 .containsGluten(recipe.getContainsGluten()) // Include containsGluten
                 .categories(categoryNames)
 
                 .build();
     }
 
+    /**
+     * Maps a recipe rescaled to {@code servings}, with every ingredient amount multiplied to match.
+     *
+     * @throws IllegalArgumentException when {@code servings} or the recipe's own servings is not positive
+     */
+    public static RecipeResponse toRecipeResponse(Recipe recipe, String photoBase64, int servings) {
+        RecipeResponse response = toRecipeResponse(recipe, photoBase64);
+        if (servings != recipe.getServings()) {
+            response.setIngredients(IngredientScaler.scale(recipe.getIngredients(),
+                    IngredientScaler.factor(recipe.getServings(), servings)));
+            response.setServings(servings);
+        }
+        return response;
+    }
 
-    public static RecipeReviewResponse toRecipeReviewResponse(RecipeReview review) {
+    /**
+     * Maps a rating to the review shape; reviews are ratings with a comment.
+     */
+    public static RecipeReviewResponse toRecipeReviewResponse(Rating review) {
         if (review == null) {
-            logger.error("Attempted to map a null RecipeReview object to RecipeReviewResponse");
-            throw new IllegalArgumentException("RecipeReview cannot be null");
+            logger.error("Attempted to map a null Rating object to RecipeReviewResponse");
+            throw new IllegalArgumentException("Rating cannot be null");
         }
-        logger.info("Mapping RecipeReview with ID: {}", review.getId());
+        logger.info("Mapping review with Rating ID: {}", review.getId());
         return RecipeReviewResponse.builder()
                 .id(review.getId())
                 .score(review.getScore())
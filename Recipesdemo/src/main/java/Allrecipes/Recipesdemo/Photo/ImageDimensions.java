@@ -0,0 +1,44 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReader;
+import javax.imageio.stream.ImageInputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Optional;
+
+@Getter
+@AllArgsConstructor
+public class ImageDimensions {
+    private final int width;
+    private final int height;
+
+    /**
+     * Reads width and height from the image header without decoding the pixels.
+     * Returns empty for formats ImageIO cannot read (e.g. WebP without a plugin).
+     */
+    public static Optional<ImageDimensions> read(Path file) {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            if (in == null) {
+                return Optional.empty();
+            }
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return Optional.empty();
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                return Optional.of(new ImageDimensions(reader.getWidth(0), reader.getHeight(0)));
+            } finally {
+                reader.dispose();
+            }
+        } catch (IOException e) {
+            return Optional.empty();
+        }
+    }
+}
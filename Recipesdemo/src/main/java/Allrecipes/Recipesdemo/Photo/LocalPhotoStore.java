@@ -0,0 +1,159 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.*;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * {@link PhotoStore} backed by the local filesystem under {@code app.recipe-photos.directory}.
+ *
+ * Files are sharded by the first two bytes of their hash ({@code ab/cd/abcd...}) so no
+ * single directory grows unbounded. Uploads are written to a temp file first and moved
+ * into place atomically once the hash is known. Variants such as thumbnails sit next to the
+ * original as {@code <hash>-<variant>}.
+ */
+@Component
+@Slf4j
+public class LocalPhotoStore implements PhotoStore {
+
+    private static final Pattern HASH_PATTERN = Pattern.compile("^[0-9a-f]{64}$");
+    private static final Pattern VARIANT_PATTERN = Pattern.compile("^[a-z0-9]+$");
+    private static final String TEMP_DIR = ".tmp";
+
+    private final Path root;
+
+    public LocalPhotoStore(@Value("${app.recipe-photos.directory}") String directory) {
+        this.root = Paths.get(directory).toAbsolutePath().normalize();
+    }
+
+    @Override
+    public StoredPhoto save(InputStream in) throws IOException {
+        Path tempDir = root.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "upload-", ".part");
+
+        try {
+            MessageDigest digest = newDigest();
+            long size;
+            try (OutputStream out = new DigestOutputStream(Files.newOutputStream(temp), digest)) {
+                size = in.transferTo(out);
+            }
+            String hash = HexFormat.of().formatHex(digest.digest());
+
+            Path target = pathFor(hash);
+            if (Files.exists(target)) {
+                log.debug("Photo {} already stored, discarding duplicate upload.", hash);
+                return new StoredPhoto(hash, size);
+            }
+            Files.createDirectories(target.getParent());
+            try {
+                Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            } catch (FileAlreadyExistsException e) {
+                // Another upload of the same bytes won the race; its copy is identical.
+                log.debug("Photo {} stored concurrently, discarding duplicate upload.", hash);
+            }
+            log.info("Stored photo {} ({} bytes).", hash, size);
+            return new StoredPhoto(hash, size);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public StoredPhoto save(byte[] bytes) throws IOException {
+        return save(new ByteArrayInputStream(bytes));
+    }
+
+    @Override
+    public boolean exists(String hash) {
+        return isValidHash(hash) && Files.isRegularFile(pathFor(hash));
+    }
+
+    @Override
+    public Optional<Path> locate(String hash) {
+        return exists(hash) ? Optional.of(pathFor(hash)) : Optional.empty();
+    }
+
+    @Override
+    public InputStream open(String hash) throws IOException {
+        if (!isValidHash(hash)) {
+            throw new NoSuchFileException("Invalid photo hash: " + hash);
+        }
+        return Files.newInputStream(pathFor(hash));
+    }
+
+    @Override
+    public void delete(String hash) throws IOException {
+        if (isValidHash(hash)) {
+            Files.deleteIfExists(pathFor(hash));
+        }
+    }
+
+    @Override
+    public void saveVariant(String hash, String variant, byte[] bytes) throws IOException {
+        if (!isValidHash(hash) || !isValidVariant(variant)) {
+            throw new IllegalArgumentException("Invalid photo variant: " + hash + "/" + variant);
+        }
+        Path tempDir = root.resolve(TEMP_DIR);
+        Files.createDirectories(tempDir);
+        Path temp = Files.createTempFile(tempDir, "variant-", ".part");
+        try {
+            Files.write(temp, bytes);
+            Path target = variantPathFor(hash, variant);
+            Files.createDirectories(target.getParent());
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public Optional<Path> locateVariant(String hash, String variant) {
+        if (!isValidHash(hash) || !isValidVariant(variant)) {
+            return Optional.empty();
+        }
+        Path path = variantPathFor(hash, variant);
+        return Files.isRegularFile(path) ? Optional.of(path) : Optional.empty();
+    }
+
+    @Override
+    public String getRoot() {
+        return root.toString();
+    }
+
+    private Path pathFor(String hash) {
+        return root.resolve(hash.substring(0, 2)).resolve(hash.substring(2, 4)).resolve(hash);
+    }
+
+    private Path variantPathFor(String hash, String variant) {
+        return pathFor(hash).resolveSibling(hash + "-" + variant);
+    }
+
+    private static boolean isValidVariant(String variant) {
+        return variant != null && VARIANT_PATTERN.matcher(variant).matches();
+    }
+
+    private static boolean isValidHash(String hash) {
+        return hash != null && HASH_PATTERN.matcher(hash).matches();
+    }
+
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import lombok.Getter;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Image formats we accept for recipe photos, recognised by their leading magic bytes.
+ */
+@Getter
+public enum PhotoFormat {
+
+    JPEG("image/jpeg", "jpg"),
+    PNG("image/png", "png"),
+    GIF("image/gif", "gif"),
+    WEBP("image/webp", "webp");
+
+    /**
+     * Number of leading bytes needed to tell the formats apart.
+     */
+    public static final int HEADER_LENGTH = 12;
+
+    private final String contentType;
+    private final String extension;
+
+    PhotoFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    /**
+     * Detects the format from the first bytes of an image, or returns null if it is not a supported image.
+     */
+    public static PhotoFormat detect(byte[] header, int length) {
+        if (length >= 3 && (header[0] & 0xFF) == 0xFF && (header[1] & 0xFF) == 0xD8 && (header[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (length >= 8 && (header[0] & 0xFF) == 0x89 && header[1] == 'P' && header[2] == 'N' && header[3] == 'G'
+                && header[4] == 0x0D && header[5] == 0x0A && header[6] == 0x1A && header[7] == 0x0A) {
+            return PNG;
+        }
+        if (length >= 6 && header[0] == 'G' && header[1] == 'I' && header[2] == 'F' && header[3] == '8'
+                && (header[4] == '7' || header[4] == '9') && header[5] == 'a') {
+            return GIF;
+        }
+        if (length >= 12 && header[0] == 'R' && header[1] == 'I' && header[2] == 'F' && header[3] == 'F'
+                && header[8] == 'W' && header[9] == 'E' && header[10] == 'B' && header[11] == 'P') {
+            return WEBP;
+        }
+        return null;
+    }
+
+    public static PhotoFormat detect(Path file) throws IOException {
+        try (InputStream in = Files.newInputStream(file)) {
+            byte[] header = new byte[HEADER_LENGTH];
+            int read = in.readNBytes(header, 0, HEADER_LENGTH);
+            return detect(header, read);
+        }
+    }
+}
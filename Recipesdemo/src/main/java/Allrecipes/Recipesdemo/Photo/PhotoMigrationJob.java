@@ -0,0 +1,133 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Drains photos left in the legacy {@code recipes.photo} Blob column into the {@link PhotoStore}.
+ *
+ * The entity no longer maps that column, so this works on plain JDBC: it walks recipes in id order,
+ * streams each Blob into the store, records the hash and clears the Blob. Rows are handled in batches
+ * of {@code app.recipe-photos.migration.batch-size}; a row that fails is logged and skipped so the
+ * job always makes progress. Once the column is empty (or gone) the job is a no-op.
+ */
+@Component
+@Slf4j
+public class PhotoMigrationJob {
+
+    private static final String LEGACY_TABLE = "recipes";
+    private static final String LEGACY_COLUMN = "photo";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final PhotoStore photoStore;
+    private final PhotoVariantGenerator photoVariantGenerator;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public PhotoMigrationJob(JdbcTemplate jdbcTemplate,
+                             PhotoStore photoStore,
+                             PhotoVariantGenerator photoVariantGenerator,
+                             @Value("${app.recipe-photos.migration.enabled:true}") boolean enabled,
+                             @Value("${app.recipe-photos.migration.batch-size:50}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.photoStore = photoStore;
+        this.photoVariantGenerator = photoVariantGenerator;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.debug("Legacy photo migration disabled.");
+            return;
+        }
+        if (!legacyColumnExists()) {
+            log.debug("No legacy photo column on {}; nothing to migrate.", LEGACY_TABLE);
+            return;
+        }
+        migrate();
+    }
+
+    /**
+     * Runs the migration to completion and returns the number of photos moved.
+     */
+    public int migrate() {
+        log.info("Migrating legacy recipe photos into {} in batches of {}.", photoStore.getRoot(), batchSize);
+        long lastId = 0;
+        int migrated = 0;
+        int failed = 0;
+
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM recipes WHERE id > ? AND photo IS NOT NULL AND photo_hash IS NULL ORDER BY id LIMIT ?",
+                    Long.class, lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            for (Long id : ids) {
+                if (migrateOne(id)) {
+                    migrated++;
+                } else {
+                    failed++;
+                }
+            }
+            lastId = ids.get(ids.size() - 1);
+            log.debug("Migrated photos up to Recipe ID {} ({} so far).", lastId, migrated);
+        }
+
+        log.info("Legacy photo migration finished: {} migrated, {} failed.", migrated, failed);
+        return migrated;
+    }
+
+    private boolean migrateOne(Long id) {
+        try {
+            StoredPhoto stored = jdbcTemplate.query("SELECT photo FROM recipes WHERE id = ?", (ResultSet rs) -> {
+                if (!rs.next()) {
+                    return null;
+                }
+                try (InputStream in = rs.getBinaryStream(1)) {
+                    return in == null ? null : photoStore.save(in);
+                } catch (IOException e) {
+                    throw new IllegalStateException("Could not store photo", e);
+                }
+            }, id);
+            if (stored == null) {
+                return false;
+            }
+            ImageDimensions dimensions = photoStore.locate(stored.getHash()).flatMap(ImageDimensions::read).orElse(null);
+            jdbcTemplate.update("UPDATE recipes SET photo_hash = ?, photo_directory = ?, photo_width = ?, photo_height = ?, photo = NULL WHERE id = ?",
+                    stored.getHash(), photoStore.getRoot(),
+                    dimensions != null ? dimensions.getWidth() : null,
+                    dimensions != null ? dimensions.getHeight() : null,
+                    id);
+            photoVariantGenerator.requestVariants(stored.getHash());
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to migrate photo for Recipe ID {}: {}", id, e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean legacyColumnExists() {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet columns = connection.getMetaData()
+                    .getColumns(connection.getCatalog(), null, LEGACY_TABLE, LEGACY_COLUMN)) {
+                return columns.next();
+            }
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
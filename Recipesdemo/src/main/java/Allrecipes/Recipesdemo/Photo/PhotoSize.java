@@ -0,0 +1,39 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import lombok.Getter;
+
+/**
+ * Sizes a recipe photo can be requested in. Everything except {@link #FULL} is a
+ * pre-generated variant stored next to the original.
+ */
+@Getter
+public enum PhotoSize {
+
+    THUMB("thumb", 160),
+    CARD("card", 320),
+    FULL("full", 0);
+
+    private final String param;
+    private final int maxWidth;
+
+    PhotoSize(String param, int maxWidth) {
+        this.param = param;
+        this.maxWidth = maxWidth;
+    }
+
+    public boolean isVariant() {
+        return this != FULL;
+    }
+
+    /**
+     * Resolves the {@code size} request parameter, or returns null if it names no known size.
+     */
+    public static PhotoSize fromParam(String param) {
+        for (PhotoSize size : values()) {
+            if (size.param.equalsIgnoreCase(param)) {
+                return size;
+            }
+        }
+        return null;
+    }
+}
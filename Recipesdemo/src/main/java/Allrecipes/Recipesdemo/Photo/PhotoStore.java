@@ -0,0 +1,49 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Path;
+import java.util.Optional;
+
+/**
+ * Content-addressed storage for recipe photos.
+ *
+ * Every image is kept once under the hex SHA-256 of its bytes, so recipes only
+ * need to remember the hash. Saving the same bytes twice is a no-op.
+ */
+public interface PhotoStore {
+
+    /**
+     * Streams the given bytes into the store, hashing them on the way.
+     *
+     * @param in the photo bytes; the stream is consumed but not closed.
+     * @return the hash and size of the stored photo.
+     * @throws IOException if the bytes could not be written.
+     */
+    StoredPhoto save(InputStream in) throws IOException;
+
+    StoredPhoto save(byte[] bytes) throws IOException;
+
+    boolean exists(String hash);
+
+    /**
+     * Resolves the file backing a stored photo, if the store is file based and the photo exists.
+     */
+    Optional<Path> locate(String hash);
+
+    InputStream open(String hash) throws IOException;
+
+    void delete(String hash) throws IOException;
+
+    /**
+     * Stores a derived rendition (e.g. a thumbnail) of the photo {@code hash} next to the original.
+     */
+    void saveVariant(String hash, String variant, byte[] bytes) throws IOException;
+
+    Optional<Path> locateVariant(String hash, String variant);
+
+    /**
+     * The directory (or bucket) this store writes to, recorded on each recipe.
+     */
+    String getRoot();
+}
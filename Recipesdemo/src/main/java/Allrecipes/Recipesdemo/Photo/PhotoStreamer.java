@@ -0,0 +1,180 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Writes a stored photo file to an HTTP response.
+ *
+ * Handles strong ETags (the content hash), {@code If-None-Match}, single byte ranges with
+ * {@code If-Range}, and cache headers. The body is handed to Tomcat's sendfile when the connector
+ * supports it, otherwise it is copied with {@link FileChannel#transferTo}, so the file is never
+ * fully loaded into memory either way.
+ */
+@Component
+@Slf4j
+public class PhotoStreamer {
+
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final long versionedMaxAge;
+    private final long unversionedMaxAge;
+
+    public PhotoStreamer(@Value("${app.recipe-photos.cache.versioned-max-age:31536000}") long versionedMaxAge,
+                         @Value("${app.recipe-photos.cache.max-age:300}") long unversionedMaxAge) {
+        this.versionedMaxAge = versionedMaxAge;
+        this.unversionedMaxAge = unversionedMaxAge;
+    }
+
+    /**
+     * Streams {@code file}, the {@code size} rendition of the photo whose content hash is {@code hash}.
+     *
+     * @param version the {@code v} query parameter the client sent; when it matches the hash the URL
+     *                can never point at different bytes, so the response is marked immutable.
+     */
+    public void write(String hash, PhotoSize size, Path file, String version,
+                      HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String etag = "\"" + (size.isVariant() ? hash + "-" + size.getParam() : hash) + "\"";
+        long length = Files.size(file);
+
+        response.setHeader(HttpHeaders.ETAG, etag);
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(hash, version));
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        if (matchesAny(request.getHeader(HttpHeaders.IF_NONE_MATCH), etag)) {
+            response.setStatus(HttpServletResponse.SC_NOT_MODIFIED);
+            return;
+        }
+
+        PhotoFormat format = PhotoFormat.detect(file);
+        response.setContentType(format != null ? format.getContentType() : "application/octet-stream");
+
+        long start = 0;
+        long end = length - 1;
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(etag))) {
+            long[] bounds = parseRange(range, length);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + length);
+                response.setStatus(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + length);
+            }
+        }
+
+        long count = end - start + 1;
+        response.setContentLengthLong(count);
+        if ("HEAD".equals(request.getMethod()) || count == 0) {
+            return;
+        }
+
+        if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            request.setAttribute(SENDFILE_FILENAME, file.toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+            return;
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            long position = start;
+            long remaining = count;
+            while (remaining > 0) {
+                long sent = channel.transferTo(position, remaining, out);
+                if (sent <= 0) {
+                    break;
+                }
+                position += sent;
+                remaining -= sent;
+            }
+        }
+    }
+
+    private String cacheControl(String hash, String version) {
+        if (PhotoUrls.isVersionOf(hash, version)) {
+            return "public, max-age=" + versionedMaxAge + ", immutable";
+        }
+        return "public, max-age=" + unversionedMaxAge;
+    }
+
+    private static boolean matchesAny(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Parses a {@code Range} header against a resource of the given length.
+     *
+     * @return {@code {start, end}} (inclusive) for a single satisfiable range, an empty array when the
+     * header should be ignored and the whole file sent, or null when the range is unsatisfiable.
+     */
+    static long[] parseRange(String header, long length) {
+        if (!header.startsWith("bytes=")) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        if (spec.contains(",")) {
+            // Multipart ranges are rare for images; serving the whole file is always allowed.
+            return new long[0];
+        }
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, length - suffix);
+                end = length - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? length - 1 : Math.min(Long.parseLong(last), length - 1);
+            }
+            if (start >= length || start > end) {
+                return null;
+            }
+            return new long[]{start, end};
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
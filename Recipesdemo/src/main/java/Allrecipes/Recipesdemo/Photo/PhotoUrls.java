@@ -0,0 +1,38 @@
+package Allrecipes.Recipesdemo.Photo;
+
+/**
+ * Builds the public URLs clients use to fetch recipe photos.
+ */
+public final class PhotoUrls {
+
+    /**
+     * Length of the hash prefix used as the cache-busting version; long enough to never repeat for one recipe.
+     */
+    private static final int VERSION_LENGTH = 16;
+
+    private PhotoUrls() {
+    }
+
+    /**
+     * The versioned photo URL for a recipe, or null if it has no photo. Because the version is derived from
+     * the content hash, the URL changes whenever the photo does and can be cached indefinitely.
+     */
+    public static String forRecipe(Long recipeId, String photoHash) {
+        if (recipeId == null || photoHash == null) {
+            return null;
+        }
+        return "/api/recipes/" + recipeId + "/photo?v=" + version(photoHash);
+    }
+
+    /**
+     * True when {@code version} is exactly the version {@link #forRecipe} puts in URLs for this hash,
+     * so only the current URL is served as immutable.
+     */
+    public static boolean isVersionOf(String photoHash, String version) {
+        return photoHash != null && version != null && version.equals(version(photoHash));
+    }
+
+    private static String version(String photoHash) {
+        return photoHash.substring(0, Math.min(VERSION_LENGTH, photoHash.length()));
+    }
+}
@@ -0,0 +1,206 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Generates the resized variants listed in {@link PhotoSize} for stored photos.
+ *
+ * Work runs on the bounded {@code photoVariantExecutor}. When its queue is full the request is
+ * dropped instead of blocking the caller; the photo endpoint serves the original meanwhile and
+ * asks again, so variants catch up once the burst has passed.
+ *
+ * Variants are encoded as {@code app.recipe-photos.variants.format} at
+ * {@code app.recipe-photos.variants.quality}. The JDK ships no WebP encoder, so "webp" only takes
+ * effect when an ImageIO WebP plugin is on the classpath and falls back to JPEG otherwise.
+ */
+@Component
+@Slf4j
+public class PhotoVariantGenerator {
+
+    private static final String FALLBACK_FORMAT = "jpeg";
+
+    private final PhotoStore photoStore;
+    private final ThreadPoolTaskExecutor executor;
+    private final String format;
+    private final float quality;
+    private final Set<String> pending = ConcurrentHashMap.newKeySet();
+
+    public PhotoVariantGenerator(PhotoStore photoStore,
+                                 @Qualifier("photoVariantExecutor") ThreadPoolTaskExecutor executor,
+                                 @Value("${app.recipe-photos.variants.format:jpeg}") String format,
+                                 @Value("${app.recipe-photos.variants.quality:0.8}") float quality) {
+        this.photoStore = photoStore;
+        this.executor = executor;
+        this.format = resolveFormat(format);
+        this.quality = quality;
+    }
+
+    /**
+     * Queues variant generation for a photo. Never blocks; duplicate requests for a photo that is
+     * already queued are ignored.
+     */
+    public void requestVariants(String hash) {
+        if (hash == null || !pending.add(hash)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    generateVariants(hash);
+                } finally {
+                    pending.remove(hash);
+                }
+            });
+        } catch (TaskRejectedException e) {
+            pending.remove(hash);
+            log.warn("Photo variant queue is full; deferring variants for {}.", hash);
+        }
+    }
+
+    /**
+     * Generates any missing variants of a photo on the calling thread.
+     */
+    public void generateVariants(String hash) {
+        Path original = photoStore.locate(hash).orElse(null);
+        if (original == null) {
+            log.warn("Cannot generate variants, photo {} is not in the store.", hash);
+            return;
+        }
+        try {
+            int largest = 0;
+            boolean missing = false;
+            for (PhotoSize size : PhotoSize.values()) {
+                if (size.isVariant() && photoStore.locateVariant(hash, size.getParam()).isEmpty()) {
+                    missing = true;
+                    largest = Math.max(largest, size.getMaxWidth());
+                }
+            }
+            if (!missing) {
+                return;
+            }
+
+            BufferedImage source = decode(original, largest);
+            if (source == null) {
+                log.warn("Photo {} is not in a format we can resize.", hash);
+                return;
+            }
+            for (PhotoSize size : PhotoSize.values()) {
+                if (size.isVariant() && photoStore.locateVariant(hash, size.getParam()).isEmpty()) {
+                    photoStore.saveVariant(hash, size.getParam(), encode(resize(source, size.getMaxWidth())));
+                }
+            }
+            log.debug("Generated variants for photo {}.", hash);
+        } catch (IOException | RuntimeException e) {
+            log.error("Failed to generate variants for photo {}: {}", hash, e.getMessage());
+        }
+    }
+
+    /**
+     * Decodes the image, letting the reader skip pixels when the source is far larger than
+     * {@code targetWidth} so a 5MB upload never needs a full-resolution bitmap.
+     */
+    private BufferedImage decode(Path file, int targetWidth) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(file.toFile())) {
+            Iterator<ImageReader> readers = ImageIO.getImageReaders(in);
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                ImageReadParam param = reader.getDefaultReadParam();
+                int subsampling = Math.max(1, reader.getWidth(0) / (targetWidth * 2));
+                param.setSourceSubsampling(subsampling, subsampling, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private static BufferedImage resize(BufferedImage source, int maxWidth) {
+        int width = source.getWidth();
+        int height = source.getHeight();
+        BufferedImage current = source;
+
+        // Halve step by step; a single bilinear pass from far above the target loses too much detail.
+        while (width > maxWidth) {
+            width = Math.max(maxWidth, width / 2);
+            height = Math.max(1, (int) Math.round((double) source.getHeight() * width / source.getWidth()));
+            BufferedImage step = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                g.setColor(Color.WHITE);
+                g.fillRect(0, 0, width, height);
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        }
+
+        if (current.getType() != BufferedImage.TYPE_INT_RGB) {
+            BufferedImage rgb = new BufferedImage(current.getWidth(), current.getHeight(), BufferedImage.TYPE_INT_RGB);
+            Graphics2D g = rgb.createGraphics();
+            try {
+                g.drawImage(current, 0, 0, Color.WHITE, null);
+            } finally {
+                g.dispose();
+            }
+            current = rgb;
+        }
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image) throws IOException {
+        ImageWriter writer = ImageIO.getImageWritersByFormatName(format).next();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ImageOutputStream out = ImageIO.createImageOutputStream(bytes)) {
+            writer.setOutput(out);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                if (param.getCompressionType() == null && param.getCompressionTypes().length > 0) {
+                    param.setCompressionType(param.getCompressionTypes()[0]);
+                }
+                param.setCompressionQuality(quality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return bytes.toByteArray();
+    }
+
+    private static String resolveFormat(String requested) {
+        if (ImageIO.getImageWritersByFormatName(requested).hasNext()) {
+            return requested;
+        }
+        log.warn("No ImageIO writer for photo variant format '{}'; using {}.", requested, FALLBACK_FORMAT);
+        return FALLBACK_FORMAT;
+    }
+}
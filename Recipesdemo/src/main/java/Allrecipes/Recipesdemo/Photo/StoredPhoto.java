@@ -0,0 +1,13 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@AllArgsConstructor
+@ToString
+public class StoredPhoto {
+    private final String hash;
+    private final long size;
+}
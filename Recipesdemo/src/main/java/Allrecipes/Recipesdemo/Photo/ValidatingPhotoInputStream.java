@@ -0,0 +1,78 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import Allrecipes.Recipesdemo.Exceptions.InvalidRecipeDataException;
+import Allrecipes.Recipesdemo.Exceptions.PhotoTooLargeException;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Wraps an upload so it can be streamed straight into the {@link PhotoStore}.
+ *
+ * The magic bytes are checked before anything is read through, and the byte count is enforced
+ * while the data flows, so an oversized or non-image upload fails part-way without ever being
+ * held in memory. Only the buffer used to peek at the header is allocated.
+ */
+public class ValidatingPhotoInputStream extends FilterInputStream {
+
+    private final long maxBytes;
+    private final PhotoFormat format;
+    private long count;
+
+    public ValidatingPhotoInputStream(InputStream in, long maxBytes) throws IOException {
+        super(new BufferedInputStream(in));
+        this.maxBytes = maxBytes;
+
+        this.in.mark(PhotoFormat.HEADER_LENGTH);
+        byte[] header = this.in.readNBytes(PhotoFormat.HEADER_LENGTH);
+        this.in.reset();
+
+        this.format = PhotoFormat.detect(header, header.length);
+        if (format == null) {
+            throw new InvalidRecipeDataException("Unsupported photo format; expected JPEG, PNG, GIF or WebP");
+        }
+    }
+
+    public PhotoFormat getFormat() {
+        return format;
+    }
+
+    @Override
+    public int read() throws IOException {
+        int b = super.read();
+        if (b != -1) {
+            count(1);
+        }
+        return b;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        int read = super.read(b, off, len);
+        if (read > 0) {
+            count(read);
+        }
+        return read;
+    }
+
+    @Override
+    public long skip(long n) throws IOException {
+        long skipped = super.skip(n);
+        count(skipped);
+        return skipped;
+    }
+
+    @Override
+    public boolean markSupported() {
+        return false;
+    }
+
+    private void count(long bytes) {
+        count += bytes;
+        if (count > maxBytes) {
+            throw new PhotoTooLargeException("Photo exceeds the maximum size of " + maxBytes + " bytes");
+        }
+    }
+}
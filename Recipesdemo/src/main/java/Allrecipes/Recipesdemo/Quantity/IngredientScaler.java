@@ -0,0 +1,74 @@
+package Allrecipes.Recipesdemo.Quantity;
+
+import Allrecipes.Recipesdemo.Entities.Ingredient;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Rescales ingredient lines for a different number of servings.
+ *
+ * Works from the amount and unit parsed when the ingredient was saved, so no text is parsed per
+ * request. The result is re-expressed in the most readable unit of the same system (3 tsp becomes
+ * 1 tbsp). Ingredients without a parsed amount, such as "salt, to taste", are left as written.
+ */
+public final class IngredientScaler {
+
+    /**
+     * The most servings a recipe can be scaled to; beyond it exact amounts start to overflow.
+     */
+    public static final int MAX_SERVINGS = 1000;
+
+    private IngredientScaler() {
+    }
+
+    /**
+     * The factor that turns a recipe for {@code from} servings into one for {@code to}.
+     *
+     * @throws IllegalArgumentException when either count is not positive or {@code to} is above
+     *                                  {@link #MAX_SERVINGS}
+     */
+    public static Rational factor(int from, int to) {
+        if (from <= 0 || to <= 0) {
+            throw new IllegalArgumentException("Servings must be positive.");
+        }
+        if (to > MAX_SERVINGS) {
+            throw new IllegalArgumentException("Servings must be at most " + MAX_SERVINGS + ".");
+        }
+        return Rational.of(to, from);
+    }
+
+    public static List<String> scale(List<Ingredient> ingredients, Rational factor) {
+        if (ingredients == null || ingredients.isEmpty()) {
+            return Collections.emptyList();
+        }
+        return ingredients.stream().map(ingredient -> describe(ingredient, factor)).toList();
+    }
+
+    /**
+     * One ingredient line in the same "quantity unit of name" shape as unscaled responses.
+     */
+    public static String describe(Ingredient ingredient, Rational factor) {
+        Rational amount = ingredient.getAmount();
+        Unit unit = ingredient.getUnitCode();
+        if (amount == null || unit == null) {
+            return line(ingredient.getQuantity(), ingredient.getUnit(), ingredient.getName());
+        }
+        Rational scaled = amount.multiply(factor);
+        Unit shown = unit.bestFor(scaled);
+        if (shown == unit) {
+            String unitText = unit == Unit.PIECE || unit == Unit.OTHER || factor.equals(Rational.ONE)
+                    ? ingredient.getUnit() : unit.label(scaled);
+            return line(scaled.format(), unitText, ingredient.getName());
+        }
+        Rational converted = unit.convert(scaled, shown);
+        return line(converted.format(), shown.label(converted), ingredient.getName());
+    }
+
+    private static String line(String quantity, String unit, String name) {
+        if (unit == null || unit.isBlank()) {
+            return String.format("%s %s", quantity, name);
+        }
+        return String.format("%s %s of %s", quantity, unit, name);
+    }
+}
@@ -0,0 +1,7 @@
+package Allrecipes.Recipesdemo.Quantity;
+
+/**
+ * A structured ingredient amount. {@code amount} is null when the text has no number ("to taste").
+ */
+public record ParsedQuantity(Rational amount, Unit unit) {
+}
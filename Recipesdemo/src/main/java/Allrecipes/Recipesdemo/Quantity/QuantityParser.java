@@ -0,0 +1,88 @@
+package Allrecipes.Recipesdemo.Quantity;
+
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parses the free-text {@code quantity} and {@code unit} of an ingredient.
+ *
+ * Understands whole numbers, decimals ("1.5", "1,5"), fractions ("3/4"), mixed numbers
+ * ("1 1/2"), Unicode fractions ("1½") and "a"/"an". Ranges ("1-2", "2 to 3") keep their lower
+ * bound. When the unit field is blank, a unit written after the number ("2 cups") is used instead.
+ */
+public final class QuantityParser {
+
+    private static final Map<Character, String> VULGAR_FRACTIONS = Map.ofEntries(
+            Map.entry('½', "1/2"), Map.entry('⅓', "1/3"), Map.entry('⅔', "2/3"),
+            Map.entry('¼', "1/4"), Map.entry('¾', "3/4"), Map.entry('⅕', "1/5"),
+            Map.entry('⅖', "2/5"), Map.entry('⅗', "3/5"), Map.entry('⅘', "4/5"),
+            Map.entry('⅙', "1/6"), Map.entry('⅚', "5/6"), Map.entry('⅛', "1/8"),
+            Map.entry('⅜', "3/8"), Map.entry('⅝', "5/8"), Map.entry('⅞', "7/8"));
+
+    private static final Pattern MIXED = Pattern.compile("^(\\d+)\\s+(\\d+)\\s*/\\s*(\\d+)");
+    private static final Pattern FRACTION = Pattern.compile("^(\\d+)\\s*/\\s*(\\d+)");
+    private static final Pattern DECIMAL = Pattern.compile("^(\\d+(?:[.,]\\d+)?|[.,]\\d+)");
+    private static final Pattern ARTICLE = Pattern.compile("^(an?)\\b", Pattern.CASE_INSENSITIVE);
+    private static final Pattern RANGE_TAIL = Pattern.compile("^(?:-|–|—|to\\b|or\\b)\\s*[\\d.,/\\s]*", Pattern.CASE_INSENSITIVE);
+
+    private QuantityParser() {
+    }
+
+    public static ParsedQuantity parse(String quantity, String unit) {
+        String text = normalize(quantity);
+        Rational amount = null;
+        String rest = text;
+        try {
+            Matcher matcher;
+            if ((matcher = MIXED.matcher(text)).find()) {
+                amount = Rational.of(Long.parseLong(matcher.group(1)))
+                        .add(Rational.of(Long.parseLong(matcher.group(2)), Long.parseLong(matcher.group(3))));
+            } else if ((matcher = FRACTION.matcher(text)).find()) {
+                amount = Rational.of(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)));
+            } else if ((matcher = DECIMAL.matcher(text)).find()) {
+                amount = Rational.parseDecimal(matcher.group(1).startsWith(".") || matcher.group(1).startsWith(",")
+                        ? "0" + matcher.group(1) : matcher.group(1));
+            } else if ((matcher = ARTICLE.matcher(text)).find()) {
+                amount = Rational.ONE;
+            }
+            if (amount != null) {
+                rest = text.substring(matcher.end()).trim();
+                Matcher range = RANGE_TAIL.matcher(rest);
+                if (range.find()) {
+                    rest = rest.substring(range.end()).trim();
+                }
+            }
+        } catch (ArithmeticException | NumberFormatException e) {
+            amount = null;
+            rest = text;
+        }
+
+        Unit parsedUnit = Unit.parse(unit);
+        if ((unit == null || unit.isBlank()) && amount != null && !rest.isEmpty()) {
+            parsedUnit = Unit.parse(rest);
+        }
+        return new ParsedQuantity(amount, parsedUnit);
+    }
+
+    private static String normalize(String quantity) {
+        if (quantity == null) {
+            return "";
+        }
+        StringBuilder out = new StringBuilder(quantity.length() + 4);
+        for (int i = 0; i < quantity.length(); i++) {
+            char c = quantity.charAt(i);
+            String fraction = VULGAR_FRACTIONS.get(c);
+            if (fraction != null) {
+                // "1½" reads as the mixed number "1 1/2".
+                if (out.length() > 0 && Character.isDigit(out.charAt(out.length() - 1))) {
+                    out.append(' ');
+                }
+                out.append(fraction);
+            } else {
+                out.append(c == '⁄' ? '/' : c);
+            }
+        }
+        return out.toString().trim();
+    }
+}
@@ -0,0 +1,176 @@
+package Allrecipes.Recipesdemo.Quantity;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * An exact fraction, always stored in lowest terms with a positive denominator.
+ *
+ * Ingredient amounts are kept this way so "1 1/3 cups" scaled by 3/4 is exactly one cup rather
+ * than 0.9999. Arithmetic throws {@link ArithmeticException} on overflow.
+ */
+public final class Rational implements Comparable<Rational> {
+
+    public static final Rational ZERO = new Rational(0, 1);
+    public static final Rational ONE = new Rational(1, 1);
+
+    // Denominators cooks actually write; anything else is shown as a decimal.
+    private static final long[] KITCHEN_DENOMINATORS = {2, 3, 4, 8};
+    private static final double APPROXIMATION_TOLERANCE = 0.03;
+
+    private final long numerator;
+    private final long denominator;
+
+    private Rational(long numerator, long denominator) {
+        this.numerator = numerator;
+        this.denominator = denominator;
+    }
+
+    public static Rational of(long value) {
+        return new Rational(value, 1);
+    }
+
+    public static Rational of(long numerator, long denominator) {
+        if (denominator == 0) {
+            throw new ArithmeticException("Zero denominator");
+        }
+        if (denominator < 0) {
+            numerator = Math.negateExact(numerator);
+            denominator = Math.negateExact(denominator);
+        }
+        long gcd = gcd(Math.abs(numerator), denominator);
+        return new Rational(numerator / gcd, denominator / gcd);
+    }
+
+    /**
+     * Parses a plain decimal such as "1.25"; "1,5" is accepted as well.
+     */
+    public static Rational parseDecimal(String text) {
+        BigDecimal value = new BigDecimal(text.replace(',', '.')).stripTrailingZeros();
+        if (value.scale() <= 0) {
+            return of(value.longValueExact());
+        }
+        return of(value.unscaledValue().longValueExact(), BigDecimal.TEN.pow(value.scale()).longValueExact());
+    }
+
+    public long getNumerator() {
+        return numerator;
+    }
+
+    public long getDenominator() {
+        return denominator;
+    }
+
+    public Rational add(Rational other) {
+        long gcd = gcd(denominator, other.denominator);
+        long left = Math.multiplyExact(numerator, other.denominator / gcd);
+        long right = Math.multiplyExact(other.numerator, denominator / gcd);
+        return of(Math.addExact(left, right), Math.multiplyExact(denominator, other.denominator / gcd));
+    }
+
+    public Rational multiply(Rational other) {
+        // Cross-reduce first so intermediate products stay small.
+        long g1 = gcd(Math.abs(numerator), other.denominator);
+        long g2 = gcd(Math.abs(other.numerator), denominator);
+        return of(Math.multiplyExact(numerator / g1, other.numerator / g2),
+                Math.multiplyExact(denominator / g2, other.denominator / g1));
+    }
+
+    public Rational divide(Rational other) {
+        if (other.numerator == 0) {
+            throw new ArithmeticException("Division by zero");
+        }
+        return multiply(of(other.denominator, other.numerator));
+    }
+
+    public boolean isZero() {
+        return numerator == 0;
+    }
+
+    public double toDouble() {
+        return (double) numerator / denominator;
+    }
+
+    /**
+     * Formats for a recipe card: "2", "1 1/2", "3/4". Awkward fractions are snapped to the nearest
+     * half, third, quarter or eighth when that is within 3%, otherwise shown with up to two decimals.
+     */
+    public String format() {
+        Rational shown = this;
+        if (!isKitchenDenominator(denominator)) {
+            shown = approximate();
+            if (shown == null) {
+                return BigDecimal.valueOf(toDouble()).setScale(2, RoundingMode.HALF_UP).stripTrailingZeros().toPlainString();
+            }
+        }
+        long whole = shown.numerator / shown.denominator;
+        long remainder = Math.abs(shown.numerator % shown.denominator);
+        if (remainder == 0) {
+            return Long.toString(whole);
+        }
+        String fraction = remainder + "/" + shown.denominator;
+        if (whole == 0) {
+            return shown.numerator < 0 ? "-" + fraction : fraction;
+        }
+        return whole + " " + fraction;
+    }
+
+    private Rational approximate() {
+        double value = toDouble();
+        Rational best = null;
+        double bestError = Double.MAX_VALUE;
+        for (long candidate : KITCHEN_DENOMINATORS) {
+            long rounded = Math.round(value * candidate);
+            if (rounded == 0) {
+                continue;
+            }
+            double error = Math.abs(value - (double) rounded / candidate);
+            if (error < bestError) {
+                bestError = error;
+                best = of(rounded, candidate);
+            }
+        }
+        return best != null && bestError <= Math.abs(value) * APPROXIMATION_TOLERANCE ? best : null;
+    }
+
+    private static boolean isKitchenDenominator(long denominator) {
+        if (denominator == 1) {
+            return true;
+        }
+        for (long candidate : KITCHEN_DENOMINATORS) {
+            if (candidate == denominator) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static long gcd(long a, long b) {
+        while (b != 0) {
+            long t = a % b;
+            a = b;
+            b = t;
+        }
+        return a == 0 ? 1 : a;
+    }
+
+    @Override
+    public int compareTo(Rational other) {
+        return Long.compare(Math.multiplyExact(numerator, other.denominator), Math.multiplyExact(other.numerator, denominator));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Rational other && numerator == other.numerator && denominator == other.denominator;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(numerator) * 31 + Long.hashCode(denominator);
+    }
+
+    @Override
+    public String toString() {
+        return denominator == 1 ? Long.toString(numerator) : numerator + "/" + denominator;
+    }
+}
@@ -0,0 +1,182 @@
+package Allrecipes.Recipesdemo.Quantity;
+
+import java.util.*;
+
+/**
+ * Canonical cooking units.
+ *
+ * Volume units are defined in millilitres and mass units in grams (metric kitchen measures: a
+ * teaspoon is 5 ml, a cup 240 ml). Units without a dimension (pinch, clove, can...) only convert to
+ * themselves. The factor between every pair of units is computed once into {@link #CONVERSIONS}.
+ */
+public enum Unit {
+
+    MILLILITER(Dimension.VOLUME, Ladder.METRIC_VOLUME, Rational.ONE, "ml", "ml", "milliliter", "millilitre", "cc"),
+    LITER(Dimension.VOLUME, Ladder.METRIC_VOLUME, Rational.of(1000), "l", "l", "liter", "litre", "ltr"),
+    TEASPOON(Dimension.VOLUME, Ladder.US_VOLUME, Rational.of(5), "tsp", "tsp", "teaspoon", "tsps"),
+    TABLESPOON(Dimension.VOLUME, Ladder.US_VOLUME, Rational.of(15), "tbsp", "tbsp", "tablespoon", "tbs", "tbl", "tbsps"),
+    FLUID_OUNCE(Dimension.VOLUME, null, Rational.of(30), "fl oz", "fl oz", "floz", "fluid ounce", "fl. oz"),
+    CUP(Dimension.VOLUME, Ladder.US_VOLUME, Rational.of(240), "cup", "cups", "c"),
+    PINT(Dimension.VOLUME, null, Rational.of(480), "pint", "pints", "pt"),
+    QUART(Dimension.VOLUME, null, Rational.of(960), "quart", "quarts", "qt"),
+    GALLON(Dimension.VOLUME, null, Rational.of(3840), "gallon", "gallons", "gal"),
+    MILLIGRAM(Dimension.MASS, Ladder.METRIC_MASS, Rational.of(1, 1000), "mg", "mg", "milligram"),
+    GRAM(Dimension.MASS, Ladder.METRIC_MASS, Rational.ONE, "g", "g", "gram", "gramme", "gr"),
+    KILOGRAM(Dimension.MASS, Ladder.METRIC_MASS, Rational.of(1000), "kg", "kg", "kilogram", "kilo", "kgs"),
+    OUNCE(Dimension.MASS, Ladder.IMPERIAL_MASS, Rational.of(2835, 100), "oz", "oz", "ounce"),
+    POUND(Dimension.MASS, Ladder.IMPERIAL_MASS, Rational.of(4536, 10), "lb", "lb", "pound", "lbs"),
+    PIECE(Dimension.NONE, null, Rational.ONE, "", "", "piece", "pc", "pcs", "whole", "unit", "each", "ea", "x", "item"),
+    PINCH(Dimension.NONE, null, Rational.ONE, "pinch", "pinches"),
+    DASH(Dimension.NONE, null, Rational.ONE, "dash", "dashes"),
+    CLOVE(Dimension.NONE, null, Rational.ONE, "clove", "cloves"),
+    SLICE(Dimension.NONE, null, Rational.ONE, "slice", "slices"),
+    CAN(Dimension.NONE, null, Rational.ONE, "can", "cans", "tin"),
+    PACKAGE(Dimension.NONE, null, Rational.ONE, "package", "packages", "pkg", "pack", "packet"),
+    BUNCH(Dimension.NONE, null, Rational.ONE, "bunch", "bunches"),
+    SPRIG(Dimension.NONE, null, Rational.ONE, "sprig", "sprigs"),
+    STICK(Dimension.NONE, null, Rational.ONE, "stick", "sticks"),
+    /**
+     * Unit text we do not recognize; the amount still scales but the text is kept as written.
+     */
+    OTHER(Dimension.NONE, null, Rational.ONE, "", "");
+
+    public enum Dimension {
+        VOLUME,
+        MASS,
+        NONE
+    }
+
+    /**
+     * Units a scaled amount may move between for display, smallest first.
+     */
+    enum Ladder {
+        US_VOLUME,
+        METRIC_VOLUME,
+        METRIC_MASS,
+        IMPERIAL_MASS
+    }
+
+    private static final Map<String, Unit> ALIASES = new HashMap<>();
+    private static final Rational[][] CONVERSIONS;
+
+    static {
+        for (Unit unit : values()) {
+            if (unit == OTHER) {
+                continue;
+            }
+            ALIASES.put(unit.singular, unit);
+            ALIASES.put(unit.plural, unit);
+            for (String alias : unit.aliases) {
+                ALIASES.put(alias, unit);
+            }
+        }
+        Unit[] units = values();
+        CONVERSIONS = new Rational[units.length][units.length];
+        for (Unit from : units) {
+            for (Unit to : units) {
+                if (from == to) {
+                    CONVERSIONS[from.ordinal()][to.ordinal()] = Rational.ONE;
+                } else if (from.dimension != Dimension.NONE && from.dimension == to.dimension) {
+                    CONVERSIONS[from.ordinal()][to.ordinal()] = from.base.divide(to.base);
+                }
+            }
+        }
+    }
+
+    private final Dimension dimension;
+    private final Ladder ladder;
+    private final Rational base;
+    private final String singular;
+    private final String plural;
+    private final String[] aliases;
+
+    Unit(Dimension dimension, Ladder ladder, Rational base, String singular, String plural, String... aliases) {
+        this.dimension = dimension;
+        this.ladder = ladder;
+        this.base = base;
+        this.singular = singular;
+        this.plural = plural;
+        this.aliases = aliases;
+    }
+
+    public Dimension getDimension() {
+        return dimension;
+    }
+
+    Ladder getLadder() {
+        return ladder;
+    }
+
+    /**
+     * The unit as printed after an amount.
+     */
+    public String label(Rational amount) {
+        return amount != null && amount.compareTo(Rational.ONE) > 0 ? plural : singular;
+    }
+
+    /**
+     * Recognizes free-text unit spellings. Blank means a plain count; unknown text gives {@link #OTHER}.
+     * A lone capital "T" is a tablespoon and a lone "t" a teaspoon, as in handwritten recipes.
+     */
+    public static Unit parse(String text) {
+        if (text == null || text.isBlank()) {
+            return PIECE;
+        }
+        String trimmed = text.trim();
+        if (trimmed.equals("T")) {
+            return TABLESPOON;
+        }
+        if (trimmed.equals("t")) {
+            return TEASPOON;
+        }
+        String key = trimmed.toLowerCase(Locale.ROOT).replaceAll("\\.$", "").replaceAll("\\s+", " ");
+        Unit unit = ALIASES.get(key);
+        if (unit == null && key.endsWith("s")) {
+            unit = ALIASES.get(key.substring(0, key.length() - 1));
+        }
+        return unit != null ? unit : OTHER;
+    }
+
+    public boolean convertsTo(Unit other) {
+        return CONVERSIONS[ordinal()][other.ordinal()] != null;
+    }
+
+    /**
+     * Converts an amount of this unit into {@code target}.
+     *
+     * @throws IllegalArgumentException when the units measure different things
+     */
+    public Rational convert(Rational amount, Unit target) {
+        Rational factor = CONVERSIONS[ordinal()][target.ordinal()];
+        if (factor == null) {
+            throw new IllegalArgumentException("Cannot convert " + this + " to " + target);
+        }
+        return amount.multiply(factor);
+    }
+
+    /**
+     * The unit a scaled amount reads best in: the largest unit on this unit's ladder that keeps the
+     * amount at least one (a quarter for cups), so 3 tsp becomes 1 tbsp and 1/8 cup becomes 2 tbsp.
+     * Units off any ladder stay as they are.
+     */
+    public Unit bestFor(Rational amount) {
+        if (ladder == null || amount.isZero()) {
+            return this;
+        }
+        Unit best = null;
+        for (Unit candidate : values()) {
+            if (candidate.ladder != ladder) {
+                continue;
+            }
+            if (best == null) {
+                best = candidate;
+            }
+            Rational converted = convert(amount, candidate);
+            Rational minimum = candidate == CUP ? Rational.of(1, 4) : Rational.ONE;
+            if (converted.compareTo(minimum) >= 0) {
+                best = candidate;
+            }
+        }
+        return best;
+    }
+}
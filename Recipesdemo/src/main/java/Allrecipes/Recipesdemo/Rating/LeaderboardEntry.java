@@ -0,0 +1,10 @@
+package Allrecipes.Recipesdemo.Rating;
+
+import Allrecipes.Recipesdemo.Recipe.RecipeSummary;
+
+/**
+ * A recipe's place on the top-rated board. {@code weightedRating} is the Bayesian average the board
+ * is sorted by; the recipe's plain average is on the summary.
+ */
+public record LeaderboardEntry(int rank, RecipeSummary recipe, double weightedRating) {
+}
@@ -0,0 +1,10 @@
+package Allrecipes.Recipesdemo.Rating;
+
+import java.util.List;
+
+/**
+ * One page of the top-rated board. Pass {@code snapshot} back with the next page to keep reading
+ * the same ranking; {@code total} is the number of ranked recipes in that snapshot.
+ */
+public record LeaderboardPage(long snapshot, int total, List<LeaderboardEntry> entries) {
+}
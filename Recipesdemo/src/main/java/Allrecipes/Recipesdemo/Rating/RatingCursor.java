@@ -0,0 +1,28 @@
+package Allrecipes.Recipesdemo.Rating;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Opaque position in the keyset-paginated rating listing: the id of the last rating the client has
+ * seen. Ratings are listed in id order, so the id alone is a stable key.
+ */
+public record RatingCursor(long id) {
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(id).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RatingCursor decode(String cursor) {
+        try {
+            long id = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (id < 0) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            return new RatingCursor(id);
+        } catch (IllegalArgumentException e) {
+            // Also covers bad Base64 and NumberFormatException.
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package Allrecipes.Recipesdemo.Rating;
+
+import java.util.Arrays;
+
+/**
+ * Counts of ratings per score, 1 to 5. Distributions merge by adding counts, and since scores are
+ * small integers the counts determine the mean, variance and percentiles exactly.
+ */
+public final class RatingDistribution {
+
+    private final long[] counts = new long[5];
+
+    /**
+     * Adds {@code [count1, ..., count5]} taken from {@code row} starting at {@code offset}.
+     */
+    public void add(Object[] row, int offset) {
+        for (int score = 0; score < 5; score++) {
+            Object value = row[offset + score];
+            counts[score] += value != null ? ((Number) value).longValue() : 0;
+        }
+    }
+
+    public void add(RatingDistribution other) {
+        for (int score = 0; score < 5; score++) {
+            counts[score] += other.counts[score];
+        }
+    }
+
+    public long[] getHistogram() {
+        return Arrays.copyOf(counts, counts.length);
+    }
+
+    public long getCount() {
+        long total = 0;
+        for (long count : counts) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * The mean score, or null when empty.
+     */
+    public Double getMean() {
+        long n = getCount();
+        if (n == 0) {
+            return null;
+        }
+        long sum = 0;
+        for (int score = 0; score < 5; score++) {
+            sum += counts[score] * (score + 1);
+        }
+        return (double) sum / n;
+    }
+
+    /**
+     * The population variance of the scores, or null when empty.
+     */
+    public Double getVariance() {
+        Double mean = getMean();
+        if (mean == null) {
+            return null;
+        }
+        double squares = 0;
+        for (int score = 0; score < 5; score++) {
+            double deviation = score + 1 - mean;
+            squares += counts[score] * deviation * deviation;
+        }
+        return squares / getCount();
+    }
+
+    /**
+     * The smallest score that at least {@code p} (0 to 1) of the ratings are at or below, or null
+     * when empty.
+     */
+    public Integer percentile(double p) {
+        long n = getCount();
+        if (n == 0) {
+            return null;
+        }
+        long rank = Math.max(1, (long) Math.ceil(p * n));
+        long seen = 0;
+        for (int score = 0; score < 5; score++) {
+            seen += counts[score];
+            if (seen >= rank) {
+                return score + 1;
+            }
+        }
+        return 5;
+    }
+}
@@ -0,0 +1,27 @@
+package Allrecipes.Recipesdemo.Rating;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Distribution of the ratings given in {@code [from, to]} for a recipe, a category or the whole site.
+ * {@code trend} is the least-squares slope of the window means, in stars per window, weighted by the
+ * number of ratings in each window; null with fewer than two rated windows.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RatingStatsReport(Long recipeId,
+                               Long categoryId,
+                               LocalDate from,
+                               LocalDate to,
+                               RatingWindow window,
+                               long count,
+                               long[] histogram,
+                               Double mean,
+                               Double variance,
+                               Integer median,
+                               Integer p90,
+                               List<RatingTrendPoint> windows,
+                               Double trend) {
+}
@@ -0,0 +1,9 @@
+package Allrecipes.Recipesdemo.Rating;
+
+import java.time.LocalDate;
+
+/**
+ * Ratings given within one window; {@code mean} is null for a window without ratings.
+ */
+public record RatingTrendPoint(LocalDate start, long count, Double mean) {
+}
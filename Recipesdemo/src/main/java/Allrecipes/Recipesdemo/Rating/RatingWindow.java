@@ -0,0 +1,34 @@
+package Allrecipes.Recipesdemo.Rating;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Locale;
+
+/**
+ * Bucket sizes for rating trends. Each window starts on the first day it covers.
+ */
+public enum RatingWindow {
+    DAY,
+    WEEK,
+    MONTH;
+
+    public LocalDate start(LocalDate day) {
+        return switch (this) {
+            case DAY -> day;
+            case WEEK -> day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+            case MONTH -> day.withDayOfMonth(1);
+        };
+    }
+
+    public static RatingWindow fromParam(String param) {
+        if (param == null || param.isEmpty()) {
+            return WEEK;
+        }
+        try {
+            return valueOf(param.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Unknown window: " + param);
+        }
+    }
+}
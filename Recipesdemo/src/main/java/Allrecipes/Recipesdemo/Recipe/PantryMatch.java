@@ -0,0 +1,12 @@
+package Allrecipes.Recipesdemo.Recipe;
+
+import java.util.List;
+
+/**
+ * One "what can I cook" result: the recipe and how well the pantry covers it.
+ */
+public record PantryMatch(RecipeSummary recipe,
+                          int matchedIngredients,
+                          int missingIngredients,
+                          List<String> missing) {
+}
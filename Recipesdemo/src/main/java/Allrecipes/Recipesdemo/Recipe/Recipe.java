@@ -2,7 +2,6 @@ package Allrecipes.Recipesdemo.Recipe;
 
 import Allrecipes.Recipesdemo.Entities.Category;
 import Allrecipes.Recipesdemo.Entities.Ingredient;
-import Allrecipes.Recipesdemo.Entities.RecipeReview;
 import Allrecipes.Recipesdemo.Entities.User;
 import Allrecipes.Recipesdemo.Entities.Enums.RecipeStatus;
 import com.fasterxml.jackson.annotation.JsonIgnore;
@@ -10,14 +9,21 @@ import jakarta.persistence.*;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.Positive;
 import lombok.*;
+import org.hibernate.annotations.BatchSize;
 
-import java.sql.Blob;
-import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
 
 @Entity
 @Table(name = "recipes")
+@NamedEntityGraph(name = Recipe.SUMMARY_GRAPH, attributeNodes = {
+        @NamedAttributeNode("createdBy"),
+        @NamedAttributeNode("categories")
+})
+@NamedEntityGraph(name = Recipe.ADMIN_GRAPH, attributeNodes = {
+        @NamedAttributeNode("createdBy"),
+        @NamedAttributeNode("ingredients")
+})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -26,6 +32,12 @@ import java.util.*;
 @EqualsAndHashCode(onlyExplicitlyIncluded = true)
 public class Recipe {
 
+    // Fetch plans for RecipeRepository. Collections not named in a plan are loaded in batches
+    // (see @BatchSize below) rather than one query per recipe. A plan names at most one collection:
+    // joining two multiplies their rows, and the ingredients list would keep the duplicates.
+    public static final String SUMMARY_GRAPH = "Recipe.summary";
+    public static final String ADMIN_GRAPH = "Recipe.admin";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     @EqualsAndHashCode.Include
@@ -39,15 +51,20 @@ public class Recipe {
 
     private String photoDirectory;
 
-    @Lob
-    @JsonIgnore
-    private Blob photo;
+    // SHA-256 of the photo in the PhotoStore; the bytes themselves never live in this table.
+    @Column(length = 64)
+    private String photoHash;
+
+    private Integer photoWidth;
+
+    private Integer photoHeight;
 
 
     @Lob
     private String description;
 
     @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL)
+    @BatchSize(size = 50)
     private List<Ingredient> ingredients = new ArrayList<>();
 
     @Lob
@@ -75,8 +92,10 @@ public class Recipe {
 
     @Column(nullable = false)
     private boolean containsGluten = true;
+
 @ManyToMany
 @JsonIgnore
+@BatchSize(size = 50)
 private Set<Category> categories;
 
     @ManyToMany(mappedBy = "favorites", fetch = FetchType.LAZY)
@@ -85,31 +104,8 @@ private Set<Category> categories;
     @JsonIgnore
     private Set<User> favorites = new HashSet<>();
 
-    @OneToMany(mappedBy = "recipe", cascade = CascadeType.ALL, orphanRemoval = true)
-    @Builder.Default
-    @ToString.Exclude
-    @JsonIgnore
-    private Set<RecipeReview> recipeReviews = new HashSet<>();
-
-    public String getPhotoAsBase64() {
-        if (photo == null) {
-            return null;
-        }
-        try {
-            int blobLength = (int) photo.length();
-            byte[] blobAsBytes = photo.getBytes(1, blobLength);
-            return Base64.getEncoder().encodeToString(blobAsBytes);
-        } catch (Exception e) {
-            throw new RuntimeException("Error reading photo Blob", e);
-        }
-    }
-
-    public void setPhotoFromBase64(String photoBase64) throws SQLException {
-        if (photoBase64 != null) {
-            this.photo = new javax.sql.rowset.serial.SerialBlob(Base64.getDecoder().decode(photoBase64));
-        } else {
-            this.photo = null;
-        }
+    public boolean hasPhoto() {
+        return photoHash != null;
     }
 
 
@@ -144,15 +140,6 @@ private Set<Category> categories;
         ingredient.setRecipe(null);
     }
 
-    public void addRecipeReview(RecipeReview recipeReview) {
-        this.recipeReviews.add(recipeReview);
-        recipeReview.setRecipe(this);
-    }
-
-    public void removeRecipeReview(RecipeReview recipeReview) {
-        this.recipeReviews.remove(recipeReview);
-        recipeReview.setRecipe(null);
-    }
 
     public String formatCookingTime(int minutes) {
         int hours = minutes / 60;
@@ -0,0 +1,89 @@
+package Allrecipes.Recipesdemo.Recipe;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.Locale;
+
+/**
+ * Opaque position in a keyset-paginated recipe listing: the sort key and id of the last recipe the
+ * client has seen. Clients get it back as {@code nextCursor} and send it unchanged as {@code after}.
+ */
+public record RecipeCursor(Order order, String key, long id) {
+
+    /**
+     * Listing orders that support cursors. Both are descending, with the recipe id as tie-breaker.
+     */
+    public enum Order {
+        NEWEST,
+        RATING;
+
+        public static Order fromParam(String param) {
+            if (param == null || param.isEmpty()) {
+                return NEWEST;
+            }
+            try {
+                return valueOf(param.toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown sort order: " + param);
+            }
+        }
+    }
+
+    private static final String SEPARATOR = "|";
+
+    public static RecipeCursor newest(LocalDateTime createdAt, long id) {
+        return new RecipeCursor(Order.NEWEST, createdAt.toString(), id);
+    }
+
+    /**
+     * Position in the rating order. The rating is the stored average, so it compares exactly; zero
+     * means the position is among the recipes that have no ratings yet.
+     */
+    public static RecipeCursor rating(BigDecimal rating, long id) {
+        return new RecipeCursor(Order.RATING, rating.toPlainString(), id);
+    }
+
+    public LocalDateTime createdAt() {
+        try {
+            return LocalDateTime.parse(key);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    public BigDecimal rating() {
+        try {
+            return new BigDecimal(key);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+
+    public String encode() {
+        String raw = order.name() + SEPARATOR + key + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static RecipeCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\|", -1);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Invalid cursor.");
+            }
+            RecipeCursor decoded = new RecipeCursor(Order.valueOf(parts[0]), parts[1], Long.parseLong(parts[2]));
+            if (decoded.order() == Order.RATING) {
+                decoded.rating();
+            } else {
+                decoded.createdAt();
+            }
+            return decoded;
+        } catch (IllegalArgumentException e) {
+            // Also covers bad Base64, unknown orders and NumberFormatException.
+            throw new IllegalArgumentException("Invalid cursor.");
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package Allrecipes.Recipesdemo.Recipe;
 
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 
@@ -8,6 +9,7 @@ import java.util.List;
 
 @Data
 @Builder
+@AllArgsConstructor
 public class RecipeResponse {
     private Long id;
     private String title;
@@ -19,9 +21,15 @@ public class RecipeResponse {
     private String dietaryInfo;
     private String status;
     private String createdByUsername;
-    private String photo;
+    private String photo; // Base64, only filled when the client asks for inline photos
     private List<String> categories;
     private boolean containsGluten; // Add this field
+    private String photoUrl;
+    private String photoHash;
+    private Integer photoWidth;
+    private Integer photoHeight;
+    private Double averageRating;
+    private long ratingCount;
 
     public RecipeResponse() {
     }
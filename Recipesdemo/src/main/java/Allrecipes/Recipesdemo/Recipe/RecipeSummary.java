@@ -0,0 +1,22 @@
+package Allrecipes.Recipesdemo.Recipe;
+
+import java.util.List;
+
+/**
+ * Immutable list view of a recipe: what a card needs and nothing more. Returned by the list
+ * endpoints when called with {@code view=summary}.
+ */
+public record RecipeSummary(Long id,
+                            String title,
+                            int cookingTime,
+                            int servings,
+                            boolean containsGluten,
+                            String status,
+                            String createdByUsername,
+                            List<String> categories,
+                            Double averageRating,
+                            long ratingCount,
+                            String photoUrl,
+                            Integer photoWidth,
+                            Integer photoHeight) {
+}
@@ -0,0 +1,22 @@
+package Allrecipes.Recipesdemo.Recipe;
+
+import Allrecipes.Recipesdemo.Entities.Enums.RecipeStatus;
+
+import java.time.LocalDateTime;
+
+/**
+ * Scalar columns of a recipe listing row, selected by JPQL constructor expression so no entity is
+ * hydrated. Collections and aggregates are added by {@code RecipeQueryService}.
+ */
+public record RecipeSummaryRow(Long id,
+                               String title,
+                               int cookingTime,
+                               int servings,
+                               boolean containsGluten,
+                               RecipeStatus status,
+                               String createdByUsername,
+                               String photoHash,
+                               Integer photoWidth,
+                               Integer photoHeight,
+                               LocalDateTime createdAt) {
+}
@@ -0,0 +1,8 @@
+package Allrecipes.Recipesdemo.Recipe;
+
+/**
+ * A recipe's place in the trending feed. {@code score} is its decayed activity: weighted views,
+ * favorites and ratings, each counting half as much after every half-life.
+ */
+public record TrendingRecipe(int rank, RecipeSummary recipe, double score) {
+}
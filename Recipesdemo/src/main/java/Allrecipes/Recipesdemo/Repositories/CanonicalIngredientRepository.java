@@ -0,0 +1,17 @@
+package Allrecipes.Recipesdemo.Repositories;
+
+import Allrecipes.Recipesdemo.Entities.CanonicalIngredient;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface CanonicalIngredientRepository extends JpaRepository<CanonicalIngredient, Long> {
+
+    Optional<CanonicalIngredient> findByNormalizedName(String normalizedName);
+
+    List<CanonicalIngredient> findByNormalizedNameIn(Collection<String> normalizedNames);
+}
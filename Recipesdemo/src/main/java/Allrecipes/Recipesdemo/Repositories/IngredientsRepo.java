@@ -2,11 +2,25 @@ package Allrecipes.Recipesdemo.Repositories;
 
 import Allrecipes.Recipesdemo.Entities.Ingredient;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface IngredientsRepo extends JpaRepository<Ingredient, Long> {
     List<Ingredient> findByRecipe_Id(Long recipeId);
+
+    /**
+     * Every ingredient of the given recipes as scalars, in one query. A recipe without ingredients
+     * still yields one row, with nulls after {@code servings}.
+     *
+     * @return {@code [recipeId, servings, canonicalId, canonicalName, name, quantity, unit,
+     * amountNumerator, amountDenominator, unitCode]}
+     */
+    @Query("SELECT r.id, r.servings, c.id, c.name, i.name, i.quantity, i.unit, i.amountNumerator, i.amountDenominator, " +
+            "i.unitCode FROM Recipe r LEFT JOIN r.ingredients i LEFT JOIN i.canonical c WHERE r.id IN :recipeIds")
+    List<Object[]> findShoppingRows(@Param("recipeIds") Collection<Long> recipeIds);
 }
@@ -0,0 +1,79 @@
+package Allrecipes.Recipesdemo.Repositories;
+
+import Allrecipes.Recipesdemo.Entities.RatingDailyStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Repository
+public interface RatingDailyStatsRepository extends JpaRepository<RatingDailyStats, RatingDailyStats.Key> {
+
+    /**
+     * Adds the given per-score deltas to a recipe's bucket for {@code day}, creating it if needed.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO rating_daily_stats (recipe_id, day, count_1, count_2, count_3, count_4, count_5) " +
+            "VALUES (:recipeId, :day, :c1, :c2, :c3, :c4, :c5) " +
+            "ON DUPLICATE KEY UPDATE count_1 = count_1 + VALUES(count_1), count_2 = count_2 + VALUES(count_2), " +
+            "count_3 = count_3 + VALUES(count_3), count_4 = count_4 + VALUES(count_4), count_5 = count_5 + VALUES(count_5)",
+            nativeQuery = true)
+    void applyDelta(@Param("recipeId") Long recipeId, @Param("day") LocalDate day,
+                    @Param("c1") long c1, @Param("c2") long c2, @Param("c3") long c3, @Param("c4") long c4,
+                    @Param("c5") long c5);
+
+    /**
+     * Moves one rating from {@code removedScore} given on {@code removedDay} to {@code addedScore}
+     * given on {@code addedDay}; either side may be null.
+     */
+    default void applyChange(Long recipeId, Integer removedScore, LocalDate removedDay,
+                             Integer addedScore, LocalDate addedDay) {
+        if (removedScore != null && removedDay != null && removedDay.equals(addedDay)) {
+            long[] counts = new long[6];
+            counts[removedScore]--;
+            counts[addedScore]++;
+            if (!removedScore.equals(addedScore)) {
+                applyDelta(recipeId, addedDay, counts[1], counts[2], counts[3], counts[4], counts[5]);
+            }
+            return;
+        }
+        if (removedScore != null && removedDay != null) {
+            long[] counts = new long[6];
+            counts[removedScore]--;
+            applyDelta(recipeId, removedDay, counts[1], counts[2], counts[3], counts[4], counts[5]);
+        }
+        if (addedScore != null && addedDay != null) {
+            long[] counts = new long[6];
+            counts[addedScore]++;
+            applyDelta(recipeId, addedDay, counts[1], counts[2], counts[3], counts[4], counts[5]);
+        }
+    }
+
+    /**
+     * @return {@code [day, count1, ..., count5]} for the recipe's days in {@code [from, to]}.
+     */
+    @Query("SELECT d.day, d.count1, d.count2, d.count3, d.count4, d.count5 FROM RatingDailyStats d " +
+            "WHERE d.recipeId = :recipeId AND d.day BETWEEN :from AND :to")
+    List<Object[]> findByRecipe(@Param("recipeId") Long recipeId, @Param("from") LocalDate from,
+                                @Param("to") LocalDate to);
+
+    /**
+     * @return {@code [day, count1, ..., count5]} summed over the category's recipes, per day in {@code [from, to]}.
+     */
+    @Query("SELECT d.day, SUM(d.count1), SUM(d.count2), SUM(d.count3), SUM(d.count4), SUM(d.count5) " +
+            "FROM RatingDailyStats d WHERE d.day BETWEEN :from AND :to AND d.recipeId IN " +
+            "(SELECT r.id FROM Recipe r JOIN r.categories c WHERE c.id = :categoryId) GROUP BY d.day")
+    List<Object[]> findByCategory(@Param("categoryId") Long categoryId, @Param("from") LocalDate from,
+                                  @Param("to") LocalDate to);
+
+    /**
+     * @return {@code [day, count1, ..., count5]} summed over all recipes, per day in {@code [from, to]}.
+     */
+    @Query("SELECT d.day, SUM(d.count1), SUM(d.count2), SUM(d.count3), SUM(d.count4), SUM(d.count5) " +
+            "FROM RatingDailyStats d WHERE d.day BETWEEN :from AND :to GROUP BY d.day")
+    List<Object[]> findOverall(@Param("from") LocalDate from, @Param("to") LocalDate to);
+}
@@ -2,31 +2,61 @@ package Allrecipes.Recipesdemo.Repositories;
 
 import Allrecipes.Recipesdemo.Entities.Rating;
 import Allrecipes.Recipesdemo.Entities.User;
+import Allrecipes.Recipesdemo.Rating.RatingResponse;
 import Allrecipes.Recipesdemo.Recipe.Recipe;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
+
 @Repository
 public interface RatingRepository extends JpaRepository<Rating, Long> {
     Rating findByUserAndRecipe(User user, Recipe recipe);
-    @Query("SELECT AVG(r.score) FROM Rating r WHERE r.recipe.id = :recipeId AND r.deleted = false")
-    Double findAverageRatingByRecipeId(Long recipeId);
-    long countByRecipeId(Long recipeId);
     @Query("SELECT r FROM Rating r WHERE r.recipe.id = :recipeId AND r.deleted = false")
     Page<Rating> findByRecipe_IdAndDeletedFalse(Long recipeId, Pageable pageable);
     List<Rating> findByRecipe_Id(Long recipeId);
     boolean existsByRecipeIdAndUserId(Long recipeId, Long userId);
-    @Query("SELECT r FROM Rating r WHERE r.deleted = false")
-    List<Rating> findAllActive();
+
+    /**
+     * Active ratings with an id above {@code afterId}, in id order, projected straight into
+     * responses so neither the rating nor its recipe and user are loaded as entities.
+     */
+    @Query("SELECT new Allrecipes.Recipesdemo.Rating.RatingResponse(r.id, r.score, r.comment, rc.id, u.id, rc.name, u.username) " +
+            "FROM Rating r JOIN r.recipe rc JOIN r.user u WHERE r.deleted = false AND r.id > :afterId ORDER BY r.id")
+    List<RatingResponse> findActiveAfter(@Param("afterId") long afterId, Pageable pageable);
 
 
     @Query("SELECT r FROM Rating r WHERE r.user.id = :userId AND r.deleted = false")
     Page<Rating> findByUser_IdAndDeletedFalse(Long userId, Pageable pageable);
-    @Query("SELECT r.recipe FROM Rating r WHERE r.deleted = false GROUP BY r.recipe.id ORDER BY AVG(r.score) DESC")
-    List<Recipe> findTopRatedRecipes(Pageable pageable);
     @Query("SELECT COUNT(r) > 0 FROM Rating r WHERE r.id = :ratingId AND r.user.id = :userId AND r.deleted = false")
     boolean isRatingOwner(Long ratingId, Long userId);
+
+    /**
+     * Inserts a rating unless the user already has one for the recipe, relying on the unique
+     * constraint rather than a prior lookup. IGNORE also turns a missing recipe or user into a
+     * no-op, which the caller tells apart from a duplicate by what {@link #findForUpdate} finds.
+     *
+     * @return 1 when a row was inserted, 0 otherwise
+     */
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO ratings (recipe_id, user_id, score, comment, deleted, created_at, updated_at, scored_at) " +
+            "VALUES (:recipeId, :userId, :score, :comment, false, :now, :now, :now)", nativeQuery = true)
+    int insertIfAbsent(@Param("recipeId") Long recipeId, @Param("userId") Long userId, @Param("score") int score,
+                       @Param("comment") String comment, @Param("now") LocalDateTime now);
+
+    /**
+     * The user's rating of a recipe, deleted or not, locked for the rest of the transaction.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT r FROM Rating r WHERE r.recipe.id = :recipeId AND r.user.id = :userId")
+    Optional<Rating> findForUpdate(@Param("recipeId") Long recipeId, @Param("userId") Long userId);
 }
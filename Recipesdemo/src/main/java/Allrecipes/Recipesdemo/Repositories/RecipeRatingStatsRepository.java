@@ -0,0 +1,71 @@
+package Allrecipes.Recipesdemo.Repositories;
+
+import Allrecipes.Recipesdemo.Entities.RecipeRatingStats;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface RecipeRatingStatsRepository extends JpaRepository<RecipeRatingStats, Long> {
+
+    /**
+     * Adds the given deltas to a recipe's totals, creating the row on its first rating. One
+     * statement, so concurrent raters serialize on the row lock instead of losing updates.
+     */
+    @Modifying
+    @Query(value = "INSERT INTO recipe_rating_stats (recipe_id, score_sum, rating_count, count_1, count_2, count_3, count_4, count_5) " +
+            "VALUES (:recipeId, :sum, :count, :c1, :c2, :c3, :c4, :c5) " +
+            "ON DUPLICATE KEY UPDATE score_sum = score_sum + VALUES(score_sum), rating_count = rating_count + VALUES(rating_count), " +
+            "count_1 = count_1 + VALUES(count_1), count_2 = count_2 + VALUES(count_2), count_3 = count_3 + VALUES(count_3), " +
+            "count_4 = count_4 + VALUES(count_4), count_5 = count_5 + VALUES(count_5)",
+            nativeQuery = true)
+    void applyDelta(@Param("recipeId") Long recipeId, @Param("sum") long sum, @Param("count") long count,
+                    @Param("c1") long c1, @Param("c2") long c2, @Param("c3") long c3, @Param("c4") long c4,
+                    @Param("c5") long c5);
+
+    /**
+     * @return {@code [scoreSum, ratingCount]}, read from the database rather than the persistence
+     * context so it reflects {@link #applyDelta} calls made earlier in the transaction.
+     */
+    @Query("SELECT s.scoreSum, s.ratingCount FROM RecipeRatingStats s WHERE s.recipeId = :recipeId")
+    List<Object[]> findTotals(@Param("recipeId") Long recipeId);
+
+    /**
+     * @return {@code [recipeId, scoreSum, ratingCount]} for the given recipes that have live ratings.
+     */
+    @Query("SELECT s.recipeId, s.scoreSum, s.ratingCount FROM RecipeRatingStats s " +
+            "WHERE s.recipeId IN :recipeIds AND s.ratingCount > 0")
+    List<Object[]> findTotalsByRecipeIdIn(@Param("recipeIds") Collection<Long> recipeIds);
+
+    /**
+     * Applies the change from {@code removedScore} to {@code addedScore}; either may be null for a
+     * rating that was created or deleted.
+     *
+     * @return whether the totals changed
+     */
+    default boolean applyChange(Long recipeId, Integer removedScore, Integer addedScore) {
+        long[] counts = new long[6];
+        long sum = 0;
+        long count = 0;
+        if (removedScore != null) {
+            counts[removedScore]--;
+            sum -= removedScore;
+            count--;
+        }
+        if (addedScore != null) {
+            counts[addedScore]++;
+            sum += addedScore;
+            count++;
+        }
+        if (count == 0 && sum == 0) {
+            return false;
+        }
+        applyDelta(recipeId, sum, count, counts[1], counts[2], counts[3], counts[4], counts[5]);
+        return true;
+    }
+}
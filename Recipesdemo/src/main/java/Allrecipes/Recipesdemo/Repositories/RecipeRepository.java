@@ -4,34 +4,70 @@ import Allrecipes.Recipesdemo.Recipe.Recipe;
 import Allrecipes.Recipesdemo.Entities.Enums.RecipeStatus;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
-import java.sql.Blob;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface RecipeRepository extends JpaRepository<Recipe, Long> {
 
+    @EntityGraph(Recipe.ADMIN_GRAPH)
     List<Recipe> findByStatus(RecipeStatus status);
 
+    @EntityGraph(Recipe.SUMMARY_GRAPH)
     List<Recipe> findByCreatedById(Long userId);
 
-    List<Recipe> findByTitleContainingIgnoreCase(String title);
+    // Paged listings run in two phases: page over ids only, then load that page with a fetch plan.
+    // Joining collections into the paged query would make Hibernate paginate in memory. The id
+    // queries return a List so Spring Data issues no count; totals come from RecipeCountCache.
+
+    @Query("SELECT r.id FROM Recipe r")
+    List<Long> findIds(Pageable pageable);
+
+    @Query("SELECT r.id FROM Recipe r JOIN r.categories c WHERE c.id = :categoryId")
+    List<Long> findIdsByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query("SELECT COUNT(r) FROM Recipe r JOIN r.categories c WHERE c.id = :categoryId")
+    long countByCategoryId(@Param("categoryId") Long categoryId);
+
+    @EntityGraph(Recipe.SUMMARY_GRAPH)
+    @Query("SELECT r FROM Recipe r WHERE r.id IN :ids")
+    List<Recipe> findSummariesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(Recipe.ADMIN_GRAPH)
+    @Query("SELECT r FROM Recipe r WHERE r.id IN :ids")
+    List<Recipe> findForAdminByIdIn(@Param("ids") Collection<Long> ids);
+
+    @EntityGraph(Recipe.SUMMARY_GRAPH)
+    @Query("SELECT r FROM Recipe r")
+    List<Recipe> findAllSummaries();
+
+    // Detail views need the same joins as summaries; ingredients come in by @BatchSize.
+    @EntityGraph(Recipe.SUMMARY_GRAPH)
+    @Query("SELECT r FROM Recipe r WHERE r.id = :id")
+    Optional<Recipe> findDetailById(@Param("id") Long id);
+
+    @EntityGraph(Recipe.SUMMARY_GRAPH)
+    @Query("SELECT DISTINCT r FROM Recipe r WHERE r.id IN :ids")
+    List<Recipe> findDetailsByIdIn(@Param("ids") Collection<Long> ids);
+
     @Query("SELECT r FROM Recipe r LEFT JOIN FETCH r.categories WHERE r.id = :id")
     Optional<Recipe> findByIdWithCategories(@Param("id") Long id);
     Page<Recipe> findById(Long id, Pageable pageable);
 
-    @Query("SELECT r FROM Recipe r WHERE r.photo IS NOT NULL")
+    @Query("SELECT r FROM Recipe r WHERE r.photoHash IS NOT NULL")
     List<Recipe> findRecipesWithPhotos();
 
-    @Modifying
-    @Query("UPDATE Recipe r SET r.photo = :photo WHERE r.id = :id")
-    void updatePhoto(@Param("id") Long id, @Param("photo") Blob photo);
+    @Query("SELECT r.photoHash FROM Recipe r WHERE r.id = :id")
+    Optional<String> findPhotoHashById(@Param("id") Long id);
 
+    @Modifying
+    @Query("UPDATE Recipe r SET r.photoHash = :photoHash, r.photoDirectory = :photoDirectory WHERE r.id = :id")
+    void updatePhoto(@Param("id") Long id, @Param("photoHash") String photoHash, @Param("photoDirectory") String photoDirectory);
 
-    @Query("SELECT r FROM Recipe r JOIN r.categories c WHERE c.id = :categoryId")
-    Page<Recipe> findByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
 }
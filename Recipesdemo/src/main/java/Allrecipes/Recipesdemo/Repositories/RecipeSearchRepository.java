@@ -0,0 +1,54 @@
+package Allrecipes.Recipesdemo.Repositories;
+
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Scalar reads that feed the search and facet index rebuilds; nothing here hydrates entities.
+ */
+public interface RecipeSearchRepository extends Repository<Recipe, Long> {
+
+    /**
+     * @return {@code [id, title, description, preparationSteps, containsGluten, cookingTime, servings, status,
+     * authorId]} for the next recipes after {@code afterId}.
+     */
+    @Query("SELECT r.id, r.title, r.description, r.preparationSteps, r.containsGluten, r.cookingTime, r.servings, " +
+            "r.status, r.createdBy.id FROM Recipe r WHERE r.id > :afterId ORDER BY r.id")
+    List<Object[]> findIndexRowsAfter(@Param("afterId") Long afterId, Pageable limit);
+
+    /**
+     * @return {@code [recipeId, ingredientName]} pairs.
+     */
+    @Query("SELECT i.recipe.id, i.name FROM Ingredient i WHERE i.recipe.id IN :ids")
+    List<Object[]> findIngredientNames(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return {@code [recipeId, categoryId, categoryName]} triples.
+     */
+    @Query("SELECT r.id, c.id, c.name FROM Recipe r JOIN r.categories c WHERE r.id IN :ids")
+    List<Object[]> findCategories(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return {@code [recipeId, favoriteCount]} for recipes with at least one favorite.
+     */
+    @Query("SELECT r.id, COUNT(u) FROM Recipe r JOIN r.favorites u WHERE r.id IN :ids GROUP BY r.id")
+    List<Object[]> findFavoriteCounts(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return {@code [recipeId, scoreSum, ratingCount]} for recipes with at least one live rating.
+     */
+    @Query("SELECT s.recipeId, s.scoreSum, s.ratingCount FROM RecipeRatingStats s WHERE s.recipeId IN :ids AND s.ratingCount > 0")
+    List<Object[]> findRatingTotals(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT r.id FROM Recipe r WHERE LOWER(r.title) LIKE LOWER(CONCAT('%', :title, '%')) ORDER BY r.id DESC")
+    List<Long> findIdsByTitleContaining(@Param("title") String title, Pageable pageable);
+
+    @Query("SELECT COUNT(r) FROM Recipe r WHERE LOWER(r.title) LIKE LOWER(CONCAT('%', :title, '%'))")
+    long countByTitleContaining(@Param("title") String title);
+}
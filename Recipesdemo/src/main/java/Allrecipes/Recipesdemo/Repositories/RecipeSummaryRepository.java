@@ -0,0 +1,100 @@
+package Allrecipes.Recipesdemo.Repositories;
+
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import Allrecipes.Recipesdemo.Recipe.RecipeSummaryRow;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.Repository;
+import org.springframework.data.repository.query.Param;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Read-only projections over recipes. Nothing returned here is a managed entity.
+ */
+public interface RecipeSummaryRepository extends Repository<Recipe, Long> {
+
+    String SUMMARY_ROW = "SELECT new Allrecipes.Recipesdemo.Recipe.RecipeSummaryRow(" +
+            "r.id, r.title, r.cookingTime, r.servings, r.containsGluten, r.status, u.username, " +
+            "r.photoHash, r.photoWidth, r.photoHeight, r.createdAt) ";
+
+    // List results: Spring Data applies the page window but issues no count; totals come from RecipeCountCache.
+
+    @Query(SUMMARY_ROW + "FROM Recipe r LEFT JOIN r.createdBy u")
+    List<RecipeSummaryRow> findRows(Pageable pageable);
+
+    @Query(SUMMARY_ROW + "FROM Recipe r LEFT JOIN r.createdBy u JOIN r.categories c WHERE c.id = :categoryId")
+    List<RecipeSummaryRow> findRowsByCategoryId(@Param("categoryId") Long categoryId, Pageable pageable);
+
+    @Query(SUMMARY_ROW + "FROM Recipe r LEFT JOIN r.createdBy u WHERE r.id IN :ids")
+    List<RecipeSummaryRow> findRowsByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query(SUMMARY_ROW + "FROM Recipe r LEFT JOIN r.createdBy u WHERE u.id = :userId ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeSummaryRow> findRowsByCreatedById(@Param("userId") Long userId);
+
+    // Keyset pagination: each query returns the rows strictly after the given (key, id) position in
+    // descending order. The first page passes a position above every real row. Callers pass
+    // PageRequest.of(0, n) purely as a row limit; no count query is issued for a List result.
+
+    @Query(SUMMARY_ROW + "FROM Recipe r LEFT JOIN r.createdBy u " +
+            "WHERE r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeSummaryRow> findRowsNewestAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                               Pageable limit);
+
+    @Query(SUMMARY_ROW + "FROM Recipe r LEFT JOIN r.createdBy u JOIN r.categories c WHERE c.id = :categoryId " +
+            "AND (r.createdAt < :createdAt OR (r.createdAt = :createdAt AND r.id < :id)) " +
+            "ORDER BY r.createdAt DESC, r.id DESC")
+    List<RecipeSummaryRow> findRowsNewestAfterInCategory(@Param("categoryId") Long categoryId,
+                                                         @Param("createdAt") LocalDateTime createdAt, @Param("id") Long id,
+                                                         Pageable limit);
+
+    // The rating order is read from the (average_score, recipe_id) index of recipe_rating_stats and
+    // returns [recipeId, averageScore] keys only; rows are loaded by id for the slice. Recipes without
+    // ratings have no average and follow the rated ones, newest id first.
+
+    @Query("SELECT s.recipeId, s.averageScore FROM RecipeRatingStats s " +
+            "WHERE s.averageScore < :rating OR (s.averageScore = :rating AND s.recipeId < :id) " +
+            "ORDER BY s.averageScore DESC, s.recipeId DESC")
+    List<Object[]> findRatingKeysAfter(@Param("rating") BigDecimal rating, @Param("id") Long id, Pageable limit);
+
+    @Query("SELECT s.recipeId, s.averageScore FROM RecipeRatingStats s JOIN Recipe r ON r.id = s.recipeId " +
+            "JOIN r.categories c WHERE c.id = :categoryId " +
+            "AND (s.averageScore < :rating OR (s.averageScore = :rating AND s.recipeId < :id)) " +
+            "ORDER BY s.averageScore DESC, s.recipeId DESC")
+    List<Object[]> findRatingKeysAfterInCategory(@Param("categoryId") Long categoryId,
+                                                 @Param("rating") BigDecimal rating, @Param("id") Long id,
+                                                 Pageable limit);
+
+    @Query("SELECT r.id FROM Recipe r WHERE r.id < :id AND NOT EXISTS (SELECT 1 FROM RecipeRatingStats s " +
+            "WHERE s.recipeId = r.id AND s.averageScore IS NOT NULL) ORDER BY r.id DESC")
+    List<Long> findUnratedIdsAfter(@Param("id") Long id, Pageable limit);
+
+    @Query("SELECT r.id FROM Recipe r JOIN r.categories c WHERE c.id = :categoryId AND r.id < :id " +
+            "AND NOT EXISTS (SELECT 1 FROM RecipeRatingStats s WHERE s.recipeId = r.id AND s.averageScore IS NOT NULL) " +
+            "ORDER BY r.id DESC")
+    List<Long> findUnratedIdsAfterInCategory(@Param("categoryId") Long categoryId, @Param("id") Long id,
+                                             Pageable limit);
+
+    @Query("SELECT COUNT(r) FROM Recipe r")
+    long countAll();
+
+    @Query("SELECT COUNT(r) FROM Recipe r JOIN r.categories c WHERE c.id = :categoryId")
+    long countByCategoryId(@Param("categoryId") Long categoryId);
+
+    /**
+     * @return {@code [recipeId, categoryName]} pairs.
+     */
+    @Query("SELECT r.id, c.name FROM Recipe r JOIN r.categories c WHERE r.id IN :ids")
+    List<Object[]> findCategoryNames(@Param("ids") Collection<Long> ids);
+
+    /**
+     * @return {@code [recipeId, averageScore, count]} for recipes with at least one live rating.
+     */
+    @Query("SELECT s.recipeId, CAST(s.scoreSum AS double) / s.ratingCount, s.ratingCount FROM RecipeRatingStats s " +
+            "WHERE s.recipeId IN :ids AND s.ratingCount > 0")
+    List<Object[]> findRatingAggregates(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,20 @@
+package Allrecipes.Recipesdemo.Request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+/**
+ * Request DTO for importing many ratings at once. Items are validated one by one by the import so
+ * that a bad item is reported in the results instead of failing the whole batch.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class BulkRatingRequest {
+
+    @NotEmpty(message = "At least one rating is required")
+    private List<RatingCreateRequest> ratings;
+}
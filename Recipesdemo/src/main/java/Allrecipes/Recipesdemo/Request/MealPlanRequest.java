@@ -0,0 +1,41 @@
+package Allrecipes.Recipesdemo.Request;
+
+import Allrecipes.Recipesdemo.Quantity.IngredientScaler;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Positive;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MealPlanRequest {
+
+    @NotEmpty(message = "Meal plan recipes are mandatory")
+    @Valid
+    private List<Entry> recipes;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    @Builder
+    public static class Entry {
+
+        @NotNull(message = "Recipe ID is mandatory")
+        private Long recipeId;
+
+        /**
+         * Servings to scale to; the recipe's own servings when omitted.
+         */
+        @Positive(message = "Servings must be positive")
+        @Max(value = IngredientScaler.MAX_SERVINGS, message = "Servings must be at most " + IngredientScaler.MAX_SERVINGS)
+        private Integer servings;
+    }
+}
@@ -0,0 +1,24 @@
+package Allrecipes.Recipesdemo.Request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.*;
+
+import java.util.List;
+
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PantryRequest {
+
+    @NotEmpty(message = "Pantry ingredients are mandatory")
+    private List<String> ingredients;
+
+    private Integer limit;
+
+    /**
+     * Leave out recipes missing more ingredients than this.
+     */
+    private Integer maxMissing;
+}
@@ -3,6 +3,7 @@ package Allrecipes.Recipesdemo.Request;
 import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 /**
@@ -19,6 +20,7 @@ public class RatingCreateRequest {
     @Max(value = 5, message = "Score must be at most 5")
     private Integer score;
 
+    @Size(max = 500, message = "Comment must be at most 500 characters")
     private String comment;
 
     @NotNull(message = "Recipe ID is required")
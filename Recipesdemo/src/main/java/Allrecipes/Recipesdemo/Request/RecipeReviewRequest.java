@@ -4,6 +4,7 @@ import jakarta.validation.constraints.Max;
 import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
 import lombok.*;
 
 @Getter
@@ -19,6 +20,7 @@ public class RecipeReviewRequest {
     private Integer score;
 
     @NotBlank(message = "Comment is mandatory")
+    @Size(max = 500, message = "Comment must be at most 500 characters")
     private String comment;
 
     @NotNull(message = "Recipe ID is required")
@@ -0,0 +1,10 @@
+package Allrecipes.Recipesdemo.Response;
+
+import java.util.List;
+
+/**
+ * Result of a bulk rating import: counts per outcome and one result per request item, in request order.
+ */
+public record BulkRatingResponse(int created, int updated, int unchanged, int rejected,
+                                 List<BulkRatingResult> results) {
+}
@@ -0,0 +1,21 @@
+package Allrecipes.Recipesdemo.Response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+/**
+ * Outcome of one item of a bulk rating import; {@code index} is its position in the request.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BulkRatingResult(int index, Status status, String error) {
+
+    public enum Status {
+        CREATED,
+        UPDATED,
+        UNCHANGED,
+        REJECTED
+    }
+
+    public static BulkRatingResult rejected(int index, String error) {
+        return new BulkRatingResult(index, Status.REJECTED, error);
+    }
+}
@@ -0,0 +1,13 @@
+package Allrecipes.Recipesdemo.Response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One slice of a keyset-paginated listing. {@code nextCursor} is null on the last slice;
+ * {@code approximateTotal} is only present when the client asked for it and may lag behind writes.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record CursorPage<T>(List<T> content, String nextCursor, Long approximateTotal) {
+}
@@ -23,5 +23,9 @@ public interface RatingMapper {
     // Reverse mapping if needed
     @Mapping(source = "recipeId", target = "recipe.id")
     @Mapping(source = "userId", target = "user.id")
+    @Mapping(target = "createdAt", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "scoredAt", ignore = true)
+    @Mapping(target = "deleted", ignore = true)
     Rating toEntity(RatingResponse ratingResponse);
 }
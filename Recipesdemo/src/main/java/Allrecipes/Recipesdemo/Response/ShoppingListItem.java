@@ -0,0 +1,20 @@
+package Allrecipes.Recipesdemo.Response;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * One line of a shopping list: the total of an ingredient across the requested recipes.
+ *
+ * {@code quantity} and {@code unit} are null when the amount could not be totalled (for example
+ * "to taste"); {@code notes} then carries the amounts as the recipes wrote them.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record ShoppingListItem(Long ingredientId,
+                               String name,
+                               String quantity,
+                               String unit,
+                               List<String> notes,
+                               List<Long> recipeIds) {
+}
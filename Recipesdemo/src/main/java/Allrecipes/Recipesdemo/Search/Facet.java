@@ -0,0 +1,55 @@
+package Allrecipes.Recipesdemo.Search;
+
+import lombok.Getter;
+
+/**
+ * The dimensions recipes can be filtered and counted on. Every recipe has exactly one value per
+ * dimension, except {@link #CATEGORY}, which has one per category.
+ */
+@Getter
+public enum Facet {
+    CATEGORY("category"),
+    CONTAINS_GLUTEN("containsGluten"),
+    COOKING_TIME("cookingTime"),
+    SERVINGS("servings"),
+    STATUS("status"),
+    AUTHOR("author");
+
+    private final String param;
+
+    Facet(String param) {
+        this.param = param;
+    }
+
+    /**
+     * Cooking time buckets, in minutes.
+     */
+    public static String cookingTimeBucket(int minutes) {
+        if (minutes <= 15) {
+            return "0-15";
+        }
+        if (minutes <= 30) {
+            return "16-30";
+        }
+        if (minutes <= 60) {
+            return "31-60";
+        }
+        if (minutes <= 120) {
+            return "61-120";
+        }
+        return "121+";
+    }
+
+    public static String servingsBucket(int servings) {
+        if (servings <= 2) {
+            return "1-2";
+        }
+        if (servings <= 4) {
+            return "3-4";
+        }
+        if (servings <= 6) {
+            return "5-6";
+        }
+        return "7+";
+    }
+}
@@ -0,0 +1,50 @@
+package Allrecipes.Recipesdemo.Search;
+
+import Allrecipes.Recipesdemo.Entities.Category;
+import Allrecipes.Recipesdemo.Entities.Enums.RecipeStatus;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * The filterable attributes of one recipe.
+ */
+public record FacetDocument(long recipeId,
+                            Set<Long> categoryIds,
+                            boolean containsGluten,
+                            int cookingTime,
+                            int servings,
+                            RecipeStatus status,
+                            Long authorId) {
+
+    public static FacetDocument from(Recipe recipe) {
+        Set<Long> categoryIds = recipe.getCategories() == null ? Set.of()
+                : recipe.getCategories().stream().map(Category::getId).collect(Collectors.toSet());
+        return new FacetDocument(
+                recipe.getId(),
+                categoryIds,
+                recipe.getContainsGluten(),
+                recipe.getCookingTime(),
+                recipe.getServings(),
+                recipe.getStatus(),
+                recipe.getCreatedBy() != null ? recipe.getCreatedBy().getId() : null);
+    }
+
+    /**
+     * The facet values this recipe is counted under.
+     */
+    Map<Facet, List<String>> values() {
+        Map<Facet, List<String>> values = new EnumMap<>(Facet.class);
+        values.put(Facet.CATEGORY, categoryIds.stream().map(String::valueOf).toList());
+        values.put(Facet.CONTAINS_GLUTEN, List.of(String.valueOf(containsGluten)));
+        values.put(Facet.COOKING_TIME, List.of(Facet.cookingTimeBucket(cookingTime)));
+        values.put(Facet.SERVINGS, List.of(Facet.servingsBucket(servings)));
+        values.put(Facet.STATUS, status != null ? List.of(status.name()) : List.of());
+        values.put(Facet.AUTHOR, authorId != null ? List.of(String.valueOf(authorId)) : List.of());
+        return values;
+    }
+}
@@ -0,0 +1,39 @@
+package Allrecipes.Recipesdemo.Search;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Selected facet values. Values within a facet are alternatives (OR), except categories when
+ * {@code matchAllCategories} is set; different facets must all match (AND). A facet with no
+ * selection does not filter.
+ */
+public final class FacetQuery {
+
+    private final Map<Facet, Set<String>> selections = new EnumMap<>(Facet.class);
+    private boolean matchAllCategories;
+
+    public FacetQuery select(Facet facet, Collection<?> values) {
+        if (values != null && !values.isEmpty()) {
+            Set<String> selected = selections.computeIfAbsent(facet, f -> new LinkedHashSet<>());
+            values.forEach(value -> selected.add(String.valueOf(value)));
+        }
+        return this;
+    }
+
+    public FacetQuery matchAllCategories(boolean matchAll) {
+        this.matchAllCategories = matchAll;
+        return this;
+    }
+
+    public Set<String> selected(Facet facet) {
+        return selections.get(facet);
+    }
+
+    public boolean isMatchAllCategories() {
+        return matchAllCategories;
+    }
+}
@@ -0,0 +1,11 @@
+package Allrecipes.Recipesdemo.Search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of filtered recipe ids (newest first), the total number of matches and, per facet,
+ * how many recipes each value would match given the selections on the other facets.
+ */
+public record FacetResult(List<Long> recipeIds, long total, Map<String, Map<String, Long>> facets) {
+}
@@ -0,0 +1,10 @@
+package Allrecipes.Recipesdemo.Search;
+
+import java.util.List;
+
+/**
+ * A window of the rating leaderboard: recipe ids in rank order with their weighted ratings, the
+ * snapshot they were read from and the number of ranked recipes in that snapshot.
+ */
+public record LeaderboardSlice(long snapshot, int total, List<Long> recipeIds, List<Double> scores) {
+}
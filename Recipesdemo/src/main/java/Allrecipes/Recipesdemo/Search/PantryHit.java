@@ -0,0 +1,9 @@
+package Allrecipes.Recipesdemo.Search;
+
+import java.util.List;
+
+/**
+ * A recipe found for a pantry: how many of its ingredients the pantry covers and which are missing.
+ */
+public record PantryHit(long recipeId, int matched, int missing, List<String> missingIngredients) {
+}
@@ -0,0 +1,274 @@
+package Allrecipes.Recipesdemo.Search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Ingredient-to-recipe posting index for "what can I cook" queries.
+ *
+ * Ingredient names are normalized with {@link TextAnalyzer} ("Tomatoes ", "tomato" and "TOMATO" share
+ * one key) and each key owns a bitmap of recipe ids. Recipes are also bucketed by how many distinct
+ * ingredients they have. A query ORs the pantry's postings into a candidate set and then visits the
+ * buckets from the smallest recipes up. A recipe with {@code n} ingredients misses at least
+ * {@code n - pantrySize} of them, so once the top-k are all better than that bound the remaining
+ * buckets are skipped.
+ *
+ * Rebuilds follow the same pattern as {@link RecipeSearchIndex}: built aside, writes journaled,
+ * swapped in one step.
+ */
+@Component
+@Slf4j
+public class PantryIndex {
+
+    private static final Comparator<PantryHit> BEST_FIRST = Comparator.comparingInt(PantryHit::missing)
+            .thenComparing(Comparator.comparingInt(PantryHit::matched).reversed())
+            .thenComparing(Comparator.comparingLong(PantryHit::recipeId).reversed());
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment current = new Segment();
+    private Rebuild rebuilding;
+    private volatile boolean ready;
+
+    /**
+     * Adds or replaces a recipe's ingredients.
+     */
+    public void index(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            current.put(document);
+            if (rebuilding != null) {
+                rebuilding.journal.add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long recipeId) {
+        lock.writeLock().lock();
+        try {
+            current.remove(recipeId);
+            if (rebuilding != null) {
+                rebuilding.journal.add(recipeId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Recipes that use at least one pantry ingredient, fewest missing ingredients first, then most
+     * ingredients covered.
+     *
+     * @param maxMissing recipes missing more ingredients than this are left out; null for no limit
+     */
+    public List<PantryHit> query(Collection<String> pantry, int limit, Integer maxMissing) {
+        Set<String> keys = new HashSet<>();
+        for (String name : pantry) {
+            String key = normalize(name);
+            if (!key.isEmpty()) {
+                keys.add(key);
+            }
+        }
+        if (keys.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return current.query(keys, limit, maxMissing != null ? maxMissing : Integer.MAX_VALUE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Rebuild startRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = new Rebuild();
+            return rebuilding;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding != rebuild) {
+                log.warn("Discarding a pantry index rebuild that was superseded.");
+                return;
+            }
+            for (Object change : rebuild.journal) {
+                if (change instanceof SearchDocument document) {
+                    rebuild.segment.put(document);
+                } else {
+                    rebuild.segment.remove((Long) change);
+                }
+            }
+            rebuild.segment.optimize();
+            current = rebuild.segment;
+            rebuilding = null;
+            ready = true;
+            log.info("Pantry index rebuilt with {} recipes and {} ingredients.", current.recipes.size(), current.postings.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding == rebuild) {
+                rebuilding = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * The key an ingredient name is indexed and looked up under.
+     */
+    static String normalize(String name) {
+        return TextAnalyzer.key(name);
+    }
+
+    /**
+     * A segment under construction. {@link #add} is not thread-safe; one loader fills it.
+     */
+    public static final class Rebuild {
+        private final Segment segment = new Segment();
+        private final List<Object> journal = new ArrayList<>();
+
+        public void add(SearchDocument document) {
+            segment.put(document);
+        }
+    }
+
+    /**
+     * A recipe's distinct ingredient keys, with the name each was first written as.
+     */
+    private record Ingredients(String[] keys, String[] names) {
+    }
+
+    private static final class Segment {
+        private final Map<String, RoaringBitmap> postings = new HashMap<>();
+        // Ingredient count -> recipes with exactly that many distinct ingredients.
+        private final TreeMap<Integer, RoaringBitmap> bySize = new TreeMap<>();
+        private final Map<Integer, Ingredients> recipes = new HashMap<>();
+
+        void put(SearchDocument document) {
+            remove(document.recipeId());
+            Map<String, String> distinct = new LinkedHashMap<>();
+            for (String name : document.ingredients()) {
+                String key = normalize(name);
+                if (!key.isEmpty()) {
+                    distinct.putIfAbsent(key, name.trim());
+                }
+            }
+            if (distinct.isEmpty()) {
+                return;
+            }
+            int id = Math.toIntExact(document.recipeId());
+            for (String key : distinct.keySet()) {
+                postings.computeIfAbsent(key, k -> new RoaringBitmap()).add(id);
+            }
+            bySize.computeIfAbsent(distinct.size(), n -> new RoaringBitmap()).add(id);
+            recipes.put(id, new Ingredients(distinct.keySet().toArray(new String[0]),
+                    distinct.values().toArray(new String[0])));
+        }
+
+        void remove(long recipeId) {
+            int id = Math.toIntExact(recipeId);
+            Ingredients previous = recipes.remove(id);
+            if (previous == null) {
+                return;
+            }
+            for (String key : previous.keys()) {
+                RoaringBitmap bitmap = postings.get(key);
+                if (bitmap != null) {
+                    bitmap.remove(id);
+                    if (bitmap.isEmpty()) {
+                        postings.remove(key);
+                    }
+                }
+            }
+            RoaringBitmap sized = bySize.get(previous.keys().length);
+            sized.remove(id);
+            if (sized.isEmpty()) {
+                bySize.remove(previous.keys().length);
+            }
+        }
+
+        void optimize() {
+            postings.values().forEach(RoaringBitmap::runOptimize);
+            bySize.values().forEach(RoaringBitmap::runOptimize);
+        }
+
+        List<PantryHit> query(Set<String> pantry, int limit, int maxMissing) {
+            RoaringBitmap candidates = new RoaringBitmap();
+            for (String key : pantry) {
+                RoaringBitmap posting = postings.get(key);
+                if (posting != null) {
+                    candidates.or(posting);
+                }
+            }
+            if (candidates.isEmpty()) {
+                return List.of();
+            }
+
+            // Worst hit on top, so it can be evicted by a better one.
+            PriorityQueue<PantryHit> best = new PriorityQueue<>(limit + 1, BEST_FIRST.reversed());
+            for (Map.Entry<Integer, RoaringBitmap> bucket : bySize.entrySet()) {
+                int size = bucket.getKey();
+                int bound = best.size() < limit ? maxMissing : Math.min(maxMissing, best.peek().missing());
+                if (size - pantry.size() > bound) {
+                    break;
+                }
+                IntIterator ids = RoaringBitmap.and(candidates, bucket.getValue()).getIntIterator();
+                while (ids.hasNext()) {
+                    int id = ids.next();
+                    String[] keys = recipes.get(id).keys();
+                    int matched = 0;
+                    for (String key : keys) {
+                        if (pantry.contains(key)) {
+                            matched++;
+                        }
+                    }
+                    int missing = keys.length - matched;
+                    if (missing > maxMissing) {
+                        continue;
+                    }
+                    best.add(new PantryHit(id, matched, missing, null));
+                    if (best.size() > limit) {
+                        best.poll();
+                    }
+                }
+            }
+
+            List<PantryHit> ranked = new ArrayList<>(best);
+            ranked.sort(BEST_FIRST);
+            List<PantryHit> hits = new ArrayList<>(ranked.size());
+            for (PantryHit hit : ranked) {
+                Ingredients ingredients = recipes.get((int) hit.recipeId());
+                List<String> missing = new ArrayList<>(hit.missing());
+                for (int i = 0; i < ingredients.keys().length; i++) {
+                    if (!pantry.contains(ingredients.keys()[i])) {
+                        missing.add(ingredients.names()[i]);
+                    }
+                }
+                hits.add(new PantryHit(hit.recipeId(), hit.matched(), hit.missing(), missing));
+            }
+            return hits;
+        }
+    }
+}
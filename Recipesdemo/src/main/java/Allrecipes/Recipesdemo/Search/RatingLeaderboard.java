@@ -0,0 +1,387 @@
+package Allrecipes.Recipesdemo.Search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Top-rated recipes, overall and per category, kept sorted in memory.
+ *
+ * Recipes are ranked by a Bayesian average, {@code (C * m + sum) / (C + n)}, where {@code n} and
+ * {@code sum} are the recipe's rating count and score total, {@code m} is the mean over all ratings
+ * and {@code C} is {@code app.ratings.leaderboard.prior-weight}. A recipe with one 5-star vote is
+ * pulled towards the site mean until enough ratings back it up.
+ *
+ * Rating and category changes update sorted sets in place. Readers never see those sets: they page
+ * through immutable snapshots, published at most once per {@code app.ratings.leaderboard.refresh-interval}
+ * and only after a change. The most recent {@code app.ratings.leaderboard.retained-snapshots} stay
+ * addressable by number, so a client that passes back the snapshot of its first page gets every
+ * later page from the same ranking. {@code m} moves with every vote; scores are only recomputed
+ * at publish time once it has drifted noticeably.
+ *
+ * Rebuilds follow the same pattern as {@link RecipeSearchIndex}: built aside, writes journaled,
+ * swapped in one step.
+ */
+@Component
+@Slf4j
+public class RatingLeaderboard {
+
+    // Re-score everything once the site mean has moved this far from the one in use.
+    private static final double MEAN_DRIFT = 0.01;
+
+    private static final Comparator<Entry> RANKING = Comparator.comparingDouble((Entry entry) -> entry.score).reversed()
+            .thenComparing(Comparator.comparingLong((Entry entry) -> entry.count).reversed())
+            .thenComparing(Comparator.comparingLong((Entry entry) -> entry.recipeId).reversed());
+
+    private final double priorWeight;
+    private final long refreshMillis;
+    private final int retainedSnapshots;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private Board board = new Board();
+    private Rebuild rebuilding;
+    private long nextVersion = 1;
+    // Written under the lock; read without it so serving a page never blocks on writers.
+    private volatile boolean dirty;
+    private volatile long lastPublished;
+    private volatile List<Snapshot> retained = List.of();
+    private volatile Snapshot latest = new Snapshot(0, Ranking.EMPTY, Map.of());
+    private volatile boolean ready;
+
+    public RatingLeaderboard(@Value("${app.ratings.leaderboard.prior-weight:10}") double priorWeight,
+                             @Value("${app.ratings.leaderboard.refresh-interval:1s}") Duration refreshInterval,
+                             @Value("${app.ratings.leaderboard.retained-snapshots:8}") int retainedSnapshots) {
+        this.priorWeight = priorWeight;
+        this.refreshMillis = refreshInterval.toMillis();
+        this.retainedSnapshots = Math.max(1, retainedSnapshots);
+    }
+
+    /**
+     * Records a recipe's current rating totals.
+     */
+    public void updateTotals(long recipeId, long scoreSum, long ratingCount) {
+        Totals totals = new Totals(recipeId, scoreSum, ratingCount);
+        lock.lock();
+        try {
+            if (board.apply(totals, priorWeight)) {
+                dirty = true;
+            }
+            if (rebuilding != null) {
+                rebuilding.journal.add(totals);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Records the categories a recipe belongs to.
+     */
+    public void updateCategories(long recipeId, Collection<Long> categoryIds) {
+        Categories categories = new Categories(recipeId, categoryIds.stream().mapToLong(Long::longValue).distinct().toArray());
+        lock.lock();
+        try {
+            board.apply(categories);
+            if (rebuilding != null) {
+                rebuilding.journal.add(categories);
+            }
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(long recipeId) {
+        lock.lock();
+        try {
+            board.remove(recipeId);
+            if (rebuilding != null) {
+                rebuilding.journal.add(recipeId);
+            }
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Up to {@code limit} recipes starting at rank {@code offset} (0-based).
+     *
+     * @param categoryId only recipes in this category; null for the overall board
+     * @param snapshot   the snapshot of an earlier page, to keep paging through the same ranking; null,
+     *                   or a snapshot that is no longer retained, reads the latest one
+     */
+    public LeaderboardSlice page(Long categoryId, Long snapshot, int offset, int limit) {
+        Snapshot source = snapshot(snapshot);
+        Ranking ranking = categoryId != null ? source.byCategory().getOrDefault(categoryId, Ranking.EMPTY) : source.overall();
+        int from = Math.min(Math.max(0, offset), ranking.ids.length);
+        int to = Math.min(ranking.ids.length, from + Math.max(0, limit));
+        List<Long> ids = new ArrayList<>(to - from);
+        List<Double> scores = new ArrayList<>(to - from);
+        for (int i = from; i < to; i++) {
+            ids.add(ranking.ids[i]);
+            scores.add(ranking.scores[i]);
+        }
+        return new LeaderboardSlice(source.version(), ranking.ids.length, ids, scores);
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Rebuild startRebuild() {
+        lock.lock();
+        try {
+            rebuilding = new Rebuild(priorWeight);
+            return rebuilding;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void finishRebuild(Rebuild rebuild) {
+        lock.lock();
+        try {
+            if (rebuilding != rebuild) {
+                log.warn("Discarding a rating leaderboard rebuild that was superseded.");
+                return;
+            }
+            for (Object change : rebuild.journal) {
+                if (change instanceof Totals totals) {
+                    rebuild.board.apply(totals, priorWeight);
+                } else if (change instanceof Categories categories) {
+                    rebuild.board.apply(categories);
+                } else {
+                    rebuild.board.remove((Long) change);
+                }
+            }
+            rebuild.board.rescore(priorWeight);
+            board = rebuild.board;
+            rebuilding = null;
+            publish(System.currentTimeMillis());
+            ready = true;
+            log.info("Rating leaderboard rebuilt with {} ranked recipes (site mean {}).",
+                    board.overall.size(), String.format("%.2f", board.priorMean));
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void abortRebuild(Rebuild rebuild) {
+        lock.lock();
+        try {
+            if (rebuilding == rebuild) {
+                rebuilding = null;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private Snapshot snapshot(Long version) {
+        long now = System.currentTimeMillis();
+        if (dirty && now - lastPublished >= refreshMillis) {
+            lock.lock();
+            try {
+                if (dirty && now - lastPublished >= refreshMillis) {
+                    publish(now);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        Snapshot current = latest;
+        if (version != null && version != current.version()) {
+            for (Snapshot candidate : retained) {
+                if (candidate.version() == version) {
+                    return candidate;
+                }
+            }
+        }
+        return current;
+    }
+
+    // Caller holds the lock.
+    private void publish(long now) {
+        if (Math.abs(board.siteMean() - board.priorMean) > MEAN_DRIFT) {
+            board.rescore(priorWeight);
+        }
+        Map<Long, Ranking> byCategory = new HashMap<>(board.byCategory.size() * 2);
+        board.byCategory.forEach((categoryId, entries) -> byCategory.put(categoryId, Ranking.of(entries)));
+        Snapshot published = new Snapshot(nextVersion++, Ranking.of(board.overall), byCategory);
+        List<Snapshot> kept = new ArrayList<>(retainedSnapshots);
+        kept.add(published);
+        for (Snapshot previous : retained) {
+            if (kept.size() == retainedSnapshots) {
+                break;
+            }
+            kept.add(previous);
+        }
+        retained = List.copyOf(kept);
+        latest = published;
+        lastPublished = now;
+        dirty = false;
+    }
+
+    /**
+     * A board under construction. {@link #add} is not thread-safe; one loader fills it.
+     */
+    public static final class Rebuild {
+        private final Board board = new Board();
+        private final List<Object> journal = new ArrayList<>();
+        private final double priorWeight;
+
+        private Rebuild(double priorWeight) {
+            this.priorWeight = priorWeight;
+        }
+
+        public void add(long recipeId, long scoreSum, long ratingCount, Collection<Long> categoryIds) {
+            board.apply(new Categories(recipeId, categoryIds.stream().mapToLong(Long::longValue).distinct().toArray()));
+            board.apply(new Totals(recipeId, scoreSum, ratingCount), priorWeight);
+        }
+    }
+
+    private record Totals(long recipeId, long scoreSum, long ratingCount) {
+    }
+
+    private record Categories(long recipeId, long[] categoryIds) {
+    }
+
+    private record Snapshot(long version, Ranking overall, Map<Long, Ranking> byCategory) {
+    }
+
+    private static final class Ranking {
+        static final Ranking EMPTY = new Ranking(new long[0], new double[0]);
+
+        final long[] ids;
+        final double[] scores;
+
+        private Ranking(long[] ids, double[] scores) {
+            this.ids = ids;
+            this.scores = scores;
+        }
+
+        static Ranking of(Collection<Entry> entries) {
+            long[] ids = new long[entries.size()];
+            double[] scores = new double[entries.size()];
+            int i = 0;
+            for (Entry entry : entries) {
+                ids[i] = entry.recipeId;
+                scores[i] = entry.score;
+                i++;
+            }
+            return new Ranking(ids, scores);
+        }
+    }
+
+    private static final class Entry {
+        final long recipeId;
+        long sum;
+        long count;
+        long[] categories = new long[0];
+        double score;
+
+        Entry(long recipeId) {
+            this.recipeId = recipeId;
+        }
+
+        boolean ranked() {
+            return count > 0;
+        }
+    }
+
+    private static final class Board {
+        private final Map<Long, Entry> entries = new HashMap<>();
+        private final TreeSet<Entry> overall = new TreeSet<>(RANKING);
+        private final Map<Long, TreeSet<Entry>> byCategory = new HashMap<>();
+        private long totalSum;
+        private long totalCount;
+        private double priorMean;
+
+        double siteMean() {
+            return totalCount > 0 ? (double) totalSum / totalCount : priorMean;
+        }
+
+        /**
+         * Returns false when the recipe already had these totals.
+         */
+        boolean apply(Totals totals, double priorWeight) {
+            Entry existing = entries.get(totals.recipeId());
+            if (existing != null && existing.sum == totals.scoreSum() && existing.count == totals.ratingCount()) {
+                return false;
+            }
+            Entry entry = entries.computeIfAbsent(totals.recipeId(), Entry::new);
+            unlink(entry);
+            totalSum += totals.scoreSum() - entry.sum;
+            totalCount += totals.ratingCount() - entry.count;
+            entry.sum = totals.scoreSum();
+            entry.count = totals.ratingCount();
+            entry.score = score(entry, priorWeight);
+            link(entry);
+            return true;
+        }
+
+        void apply(Categories categories) {
+            Entry entry = entries.computeIfAbsent(categories.recipeId(), Entry::new);
+            unlink(entry);
+            entry.categories = categories.categoryIds();
+            link(entry);
+        }
+
+        void remove(long recipeId) {
+            Entry entry = entries.remove(recipeId);
+            if (entry != null) {
+                unlink(entry);
+                totalSum -= entry.sum;
+                totalCount -= entry.count;
+            }
+        }
+
+        /**
+         * Adopts the current site mean as the prior and re-sorts every ranking.
+         */
+        void rescore(double priorWeight) {
+            priorMean = siteMean();
+            overall.clear();
+            byCategory.clear();
+            for (Entry entry : entries.values()) {
+                entry.score = score(entry, priorWeight);
+                link(entry);
+            }
+        }
+
+        private double score(Entry entry, double priorWeight) {
+            return (priorWeight * priorMean + entry.sum) / (priorWeight + entry.count);
+        }
+
+        private void link(Entry entry) {
+            if (!entry.ranked()) {
+                return;
+            }
+            overall.add(entry);
+            for (long categoryId : entry.categories) {
+                byCategory.computeIfAbsent(categoryId, id -> new TreeSet<>(RANKING)).add(entry);
+            }
+        }
+
+        private void unlink(Entry entry) {
+            if (!entry.ranked()) {
+                return;
+            }
+            overall.remove(entry);
+            for (long categoryId : entry.categories) {
+                TreeSet<Entry> ranked = byCategory.get(categoryId);
+                if (ranked != null) {
+                    ranked.remove(entry);
+                    if (ranked.isEmpty()) {
+                        byCategory.remove(categoryId);
+                    }
+                }
+            }
+        }
+    }
+}
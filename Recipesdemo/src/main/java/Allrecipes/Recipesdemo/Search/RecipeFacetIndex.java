@@ -0,0 +1,274 @@
+package Allrecipes.Recipesdemo.Search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory bitmap index over recipe facets.
+ *
+ * Every facet value owns a compressed bitmap of the recipe ids that carry it. A query ORs the
+ * selected values of each facet, ANDs the facets together, and derives all facet counts from the
+ * same per-facet filters: the count for a value is the size of its bitmap intersected with every
+ * <em>other</em> facet's filter, so a user can see what widening one facet would give. Prefix and
+ * suffix intersections keep that to a linear number of bitmap operations per query.
+ *
+ * Rebuilds follow the same pattern as {@link RecipeSearchIndex}: built aside, writes journaled,
+ * swapped in one step.
+ */
+@Component
+@Slf4j
+public class RecipeFacetIndex {
+
+    /**
+     * The author facet has one value per user, so it only reports the most frequent ones.
+     */
+    static final int MAX_AUTHOR_VALUES = 20;
+
+    private static final Facet[] FACETS = Facet.values();
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment current = new Segment();
+    private Rebuild rebuilding;
+    private volatile boolean ready;
+
+    public void index(FacetDocument document) {
+        lock.writeLock().lock();
+        try {
+            current.put(document);
+            if (rebuilding != null) {
+                rebuilding.journal.add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long recipeId) {
+        lock.writeLock().lock();
+        try {
+            current.remove(recipeId);
+            if (rebuilding != null) {
+                rebuilding.journal.add(recipeId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Filters recipes and counts facets in one pass.
+     *
+     * @param page zero-based page number
+     * @param size page size
+     */
+    public FacetResult query(FacetQuery query, int page, int size) {
+        lock.readLock().lock();
+        try {
+            return current.query(query, page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public Rebuild startRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = new Rebuild();
+            return rebuilding;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding != rebuild) {
+                log.warn("Discarding a facet index rebuild that was superseded.");
+                return;
+            }
+            for (Object change : rebuild.journal) {
+                if (change instanceof FacetDocument document) {
+                    rebuild.segment.put(document);
+                } else {
+                    rebuild.segment.remove((Long) change);
+                }
+            }
+            rebuild.segment.optimize();
+            current = rebuild.segment;
+            rebuilding = null;
+            ready = true;
+            log.info("Facet index rebuilt with {} recipes.", current.live.getCardinality());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding == rebuild) {
+                rebuilding = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A segment under construction. {@link #add} is not thread-safe; one loader fills it.
+     */
+    public static final class Rebuild {
+        private final Segment segment = new Segment();
+        private final List<Object> journal = new ArrayList<>();
+
+        public void add(FacetDocument document) {
+            segment.put(document);
+        }
+    }
+
+    private static final class Segment {
+        private final RoaringBitmap live = new RoaringBitmap();
+        private final Map<Facet, Map<String, RoaringBitmap>> bitmaps = new EnumMap<>(Facet.class);
+        private final Map<Integer, FacetDocument> documents = new HashMap<>();
+
+        Segment() {
+            for (Facet facet : FACETS) {
+                bitmaps.put(facet, new HashMap<>());
+            }
+        }
+
+        void put(FacetDocument document) {
+            remove(document.recipeId());
+            int id = Math.toIntExact(document.recipeId());
+            document.values().forEach((facet, values) -> {
+                for (String value : values) {
+                    bitmaps.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(id);
+                }
+            });
+            live.add(id);
+            documents.put(id, document);
+        }
+
+        void remove(long recipeId) {
+            int id = Math.toIntExact(recipeId);
+            FacetDocument previous = documents.remove(id);
+            if (previous == null) {
+                return;
+            }
+            previous.values().forEach((facet, values) -> {
+                Map<String, RoaringBitmap> byValue = bitmaps.get(facet);
+                for (String value : values) {
+                    RoaringBitmap bitmap = byValue.get(value);
+                    if (bitmap != null) {
+                        bitmap.remove(id);
+                        if (bitmap.isEmpty()) {
+                            byValue.remove(value);
+                        }
+                    }
+                }
+            });
+            live.remove(id);
+        }
+
+        void optimize() {
+            live.runOptimize();
+            bitmaps.values().forEach(byValue -> byValue.values().forEach(RoaringBitmap::runOptimize));
+        }
+
+        FacetResult query(FacetQuery query, int page, int size) {
+            int n = FACETS.length;
+            // null means "no selection on this facet".
+            RoaringBitmap[] filters = new RoaringBitmap[n];
+            for (int i = 0; i < n; i++) {
+                filters[i] = filterFor(FACETS[i], query);
+            }
+            RoaringBitmap[] prefix = new RoaringBitmap[n + 1];
+            RoaringBitmap[] suffix = new RoaringBitmap[n + 1];
+            for (int i = 0; i < n; i++) {
+                prefix[i + 1] = and(prefix[i], filters[i]);
+            }
+            for (int i = n - 1; i >= 0; i--) {
+                suffix[i] = and(suffix[i + 1], filters[i]);
+            }
+
+            Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+            for (int i = 0; i < n; i++) {
+                RoaringBitmap others = and(prefix[i], suffix[i + 1]);
+                facets.put(FACETS[i].getParam(), count(FACETS[i], others == null ? live : others));
+            }
+
+            RoaringBitmap matches = prefix[n] == null ? live : prefix[n];
+            long total = matches.getLongCardinality();
+            List<Long> recipeIds = new ArrayList<>(size);
+            IntIterator newestFirst = matches.getReverseIntIterator();
+            long skip = (long) page * size;
+            while (newestFirst.hasNext() && recipeIds.size() < size) {
+                int id = newestFirst.next();
+                if (skip > 0) {
+                    skip--;
+                } else {
+                    recipeIds.add((long) id);
+                }
+            }
+            return new FacetResult(recipeIds, total, facets);
+        }
+
+        private RoaringBitmap filterFor(Facet facet, FacetQuery query) {
+            Set<String> selected = query.selected(facet);
+            if (selected == null) {
+                return null;
+            }
+            Map<String, RoaringBitmap> byValue = bitmaps.get(facet);
+            boolean matchAll = facet == Facet.CATEGORY && query.isMatchAllCategories();
+            RoaringBitmap filter = null;
+            for (String value : selected) {
+                RoaringBitmap bitmap = byValue.getOrDefault(value, new RoaringBitmap());
+                if (filter == null) {
+                    filter = bitmap.clone();
+                } else if (matchAll) {
+                    filter.and(bitmap);
+                } else {
+                    filter.or(bitmap);
+                }
+            }
+            return filter;
+        }
+
+        private Map<String, Long> count(Facet facet, RoaringBitmap base) {
+            List<Map.Entry<String, Long>> counts = new ArrayList<>();
+            bitmaps.get(facet).forEach((value, bitmap) -> {
+                long count = RoaringBitmap.andCardinality(base, bitmap);
+                if (count > 0) {
+                    counts.add(Map.entry(value, count));
+                }
+            });
+            counts.sort(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()));
+            Map<String, Long> result = new LinkedHashMap<>();
+            int limit = facet == Facet.AUTHOR ? Math.min(counts.size(), MAX_AUTHOR_VALUES) : counts.size();
+            for (Map.Entry<String, Long> entry : counts.subList(0, limit)) {
+                result.put(entry.getKey(), entry.getValue());
+            }
+            return result;
+        }
+
+        private static RoaringBitmap and(RoaringBitmap a, RoaringBitmap b) {
+            if (a == null) {
+                return b;
+            }
+            if (b == null) {
+                return a;
+            }
+            return RoaringBitmap.and(a, b);
+        }
+    }
+}
@@ -0,0 +1,618 @@
+package Allrecipes.Recipesdemo.Search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index over recipe text, ranked with BM25.
+ *
+ * Each recipe is one document. Its fields are analyzed with {@link TextAnalyzer} and weighted
+ * (title 3, categories and ingredient names 2, description and steps 1), which folds the fields
+ * into a single weighted term frequency and length, a simple form of BM25F.
+ *
+ * Postings are sorted arrays of internal doc numbers. A re-indexed recipe gets a new, higher
+ * number, so updates only ever append and a removal is one binary search per term. Once freed
+ * numbers outnumber live documents, or terms no recipe uses any more make up half the vocabulary
+ * (both past {@link #MIN_GARBAGE}), the segment is compacted: live documents are renumbered in
+ * their existing order and unused terms are dropped along with their trigrams. Scores accumulate in
+ * a per-thread array indexed by doc number, and only the documents in the matched postings are
+ * ranked and reset, so a query costs what it matches, not the index size. Queries take the read
+ * lock; writes take the write lock.
+ *
+ * Query terms that match nothing are corrected against the vocabulary: candidates sharing enough
+ * trigrams with the term are verified with a bounded Damerau-Levenshtein distance (one edit for
+ * terms of four or five letters, two for longer ones). Corrections score like the term they stand
+ * for, scaled down by {@link #FUZZY_PENALTY} per edit, so they rank into the same result list.
+ *
+ * {@link #startRebuild()} builds a fresh segment off to the side while the old one keeps serving.
+ * Writes that arrive meanwhile are applied to both, and the new segment is swapped in by
+ * {@link #finishRebuild(Rebuild)}.
+ */
+@Component
+@Slf4j
+public class RecipeSearchIndex {
+
+    static final float K1 = 1.2f;
+    static final float B = 0.75f;
+
+    static final int TITLE_WEIGHT = 3;
+    static final int CATEGORY_WEIGHT = 2;
+    static final int INGREDIENT_WEIGHT = 2;
+    static final int TEXT_WEIGHT = 1;
+
+    static final int MIN_FUZZY_LENGTH = 4;
+    static final int MAX_FUZZY_EXPANSIONS = 5;
+    // Score multiplier by edit distance.
+    static final float[] FUZZY_PENALTY = {1f, 0.5f, 0.25f};
+
+    // Freed doc numbers or unused terms tolerated before a segment is compacted.
+    static final int MIN_GARBAGE = 1024;
+
+    private static final ThreadLocal<ScoreBuffer> SCORE_BUFFER = ThreadLocal.withInitial(ScoreBuffer::new);
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment current = new Segment();
+    private Rebuild rebuilding;
+    private volatile boolean ready;
+
+    /**
+     * Adds or replaces a recipe.
+     */
+    public void index(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            current.put(document);
+            if (rebuilding != null) {
+                rebuilding.journal.add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long recipeId) {
+        lock.writeLock().lock();
+        try {
+            current.remove(recipeId);
+            if (rebuilding != null) {
+                rebuilding.journal.add(recipeId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Ranks recipes against a free-text query.
+     *
+     * @param page zero-based page number
+     * @param size page size
+     */
+    public SearchHits search(String query, int page, int size) {
+        Set<String> terms = new LinkedHashSet<>(TextAnalyzer.analyze(query));
+        if (terms.isEmpty() || size <= 0 || page < 0) {
+            return SearchHits.empty();
+        }
+        lock.readLock().lock();
+        try {
+            return current.search(terms, page, size);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * True once the first full build has finished; before that the index may be incomplete.
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return current.liveDocs;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Doc numbers handed out since the last compaction, live or freed.
+     */
+    int docSlots() {
+        lock.readLock().lock();
+        try {
+            return current.nextDoc;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    int vocabularySize() {
+        lock.readLock().lock();
+        try {
+            return current.terms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Rebuild startRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = new Rebuild();
+            return rebuilding;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding != rebuild) {
+                log.warn("Discarding a search index rebuild that was superseded.");
+                return;
+            }
+            for (Object change : rebuild.journal) {
+                if (change instanceof SearchDocument document) {
+                    rebuild.segment.put(document);
+                } else {
+                    rebuild.segment.remove((Long) change);
+                }
+            }
+            current = rebuild.segment;
+            rebuilding = null;
+            ready = true;
+            log.info("Search index rebuilt with {} recipes and {} terms.", current.liveDocs, current.terms.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding == rebuild) {
+                rebuilding = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * A segment under construction. {@link #add} is not thread-safe; one loader fills it.
+     */
+    public static final class Rebuild {
+        private final Segment segment = new Segment();
+        private final List<Object> journal = new ArrayList<>();
+
+        public void add(SearchDocument document) {
+            segment.put(document);
+        }
+    }
+
+    /**
+     * Edit distance allowed when correcting a query term of this length.
+     */
+    static int maxEdits(int length) {
+        if (length < MIN_FUZZY_LENGTH) {
+            return 0;
+        }
+        return length < 6 ? 1 : 2;
+    }
+
+    /**
+     * Optimal string alignment distance (Levenshtein plus adjacent transpositions), or
+     * {@code max + 1} as soon as it is known to exceed {@code max}.
+     */
+    static int editDistance(String a, String b, int max) {
+        int n = a.length();
+        int m = b.length();
+        if (Math.abs(n - m) > max) {
+            return max + 1;
+        }
+        int[] previous2 = new int[m + 1];
+        int[] previous = new int[m + 1];
+        int[] row = new int[m + 1];
+        for (int j = 0; j <= m; j++) {
+            previous[j] = j;
+        }
+        for (int i = 1; i <= n; i++) {
+            row[0] = i;
+            int rowMin = row[0];
+            for (int j = 1; j <= m; j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(row[j - 1] + 1, previous[j] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previous2[j - 2] + 1);
+                }
+                row[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > max) {
+                return max + 1;
+            }
+            int[] recycled = previous2;
+            previous2 = previous;
+            previous = row;
+            row = recycled;
+        }
+        return Math.min(previous[m], max + 1);
+    }
+
+    /**
+     * Padded trigrams of a term, so the first and last letters count as much as the middle ones.
+     */
+    static Set<String> trigrams(String term) {
+        String padded = "$" + term + "$";
+        Set<String> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= padded.length(); i++) {
+            grams.add(padded.substring(i, i + 3));
+        }
+        return grams;
+    }
+
+    private record Expansion(int termId, float boost) {
+    }
+
+    private static final class Segment {
+        private static final int INITIAL_CAPACITY = 1024;
+
+        private final Map<String, Integer> termIds = new HashMap<>();
+        private List<String> terms = new ArrayList<>();
+        private List<PostingList> postings = new ArrayList<>();
+        // Trigram -> ids of vocabulary terms containing it, for fuzzy candidate generation.
+        private final Map<String, IntList> gramTerms = new HashMap<>();
+        private final Map<Long, Integer> docByRecipe = new HashMap<>();
+        private long[] recipeByDoc = new long[INITIAL_CAPACITY];
+        private int[] docLength = new int[INITIAL_CAPACITY];
+        private int[][] docTerms = new int[INITIAL_CAPACITY][];
+        private int nextDoc;
+        private int liveDocs;
+        private long totalLength;
+        // Terms whose posting list is empty; they stay in the vocabulary until the next compaction.
+        private int unusedTerms;
+
+        void put(SearchDocument document) {
+            remove(document.recipeId());
+
+            Map<String, Integer> frequencies = new HashMap<>();
+            int length = 0;
+            length += addField(frequencies, document.title(), TITLE_WEIGHT);
+            length += addField(frequencies, document.description(), TEXT_WEIGHT);
+            length += addField(frequencies, document.preparationSteps(), TEXT_WEIGHT);
+            for (String ingredient : document.ingredients()) {
+                length += addField(frequencies, ingredient, INGREDIENT_WEIGHT);
+            }
+            for (String category : document.categories()) {
+                length += addField(frequencies, category, CATEGORY_WEIGHT);
+            }
+            if (frequencies.isEmpty()) {
+                return;
+            }
+
+            int doc = nextDoc++;
+            ensureCapacity(doc + 1);
+            int[] termsOfDoc = new int[frequencies.size()];
+            int i = 0;
+            for (Map.Entry<String, Integer> entry : frequencies.entrySet()) {
+                int termId = termIds.computeIfAbsent(entry.getKey(), this::addTerm);
+                PostingList list = postings.get(termId);
+                if (list.size == 0) {
+                    unusedTerms--;
+                }
+                list.append(doc, entry.getValue());
+                termsOfDoc[i++] = termId;
+            }
+            recipeByDoc[doc] = document.recipeId();
+            docLength[doc] = length;
+            docTerms[doc] = termsOfDoc;
+            docByRecipe.put(document.recipeId(), doc);
+            liveDocs++;
+            totalLength += length;
+        }
+
+        void remove(long recipeId) {
+            Integer doc = docByRecipe.remove(recipeId);
+            if (doc == null) {
+                return;
+            }
+            for (int termId : docTerms[doc]) {
+                PostingList list = postings.get(termId);
+                list.remove(doc);
+                if (list.size == 0) {
+                    unusedTerms++;
+                }
+            }
+            liveDocs--;
+            totalLength -= docLength[doc];
+            docTerms[doc] = null;
+            if (nextDoc - liveDocs > Math.max(MIN_GARBAGE, liveDocs)
+                    || unusedTerms > Math.max(MIN_GARBAGE, terms.size() / 2)) {
+                compact();
+            }
+        }
+
+        /**
+         * Renumbers live docs from zero in their current order, so postings stay sorted and ties
+         * still favour the later recipe, and drops terms that no doc uses.
+         */
+        private void compact() {
+            int[] newDoc = new int[nextDoc];
+            int live = 0;
+            for (int doc = 0; doc < nextDoc; doc++) {
+                if (docTerms[doc] == null) {
+                    newDoc[doc] = -1;
+                    continue;
+                }
+                newDoc[doc] = live;
+                recipeByDoc[live] = recipeByDoc[doc];
+                docLength[live] = docLength[doc];
+                docTerms[live] = docTerms[doc];
+                live++;
+            }
+            Arrays.fill(docTerms, live, nextDoc, null);
+            int capacity = Math.max(INITIAL_CAPACITY, live * 2);
+            if (recipeByDoc.length > capacity) {
+                recipeByDoc = Arrays.copyOf(recipeByDoc, capacity);
+                docLength = Arrays.copyOf(docLength, capacity);
+                docTerms = Arrays.copyOf(docTerms, capacity);
+            }
+            nextDoc = live;
+            docByRecipe.replaceAll((recipeId, doc) -> newDoc[doc]);
+
+            int[] newTerm = new int[terms.size()];
+            List<String> keptTerms = new ArrayList<>(terms.size() - unusedTerms);
+            List<PostingList> keptPostings = new ArrayList<>(terms.size() - unusedTerms);
+            termIds.clear();
+            gramTerms.clear();
+            for (int termId = 0; termId < terms.size(); termId++) {
+                PostingList list = postings.get(termId);
+                if (list.size == 0) {
+                    newTerm[termId] = -1;
+                    continue;
+                }
+                for (int i = 0; i < list.size; i++) {
+                    list.docs[i] = newDoc[list.docs[i]];
+                }
+                int kept = keptTerms.size();
+                newTerm[termId] = kept;
+                String term = terms.get(termId);
+                keptTerms.add(term);
+                keptPostings.add(list);
+                termIds.put(term, kept);
+                for (String gram : trigrams(term)) {
+                    gramTerms.computeIfAbsent(gram, g -> new IntList()).add(kept);
+                }
+            }
+            for (int doc = 0; doc < live; doc++) {
+                int[] termsOfDoc = docTerms[doc];
+                for (int i = 0; i < termsOfDoc.length; i++) {
+                    termsOfDoc[i] = newTerm[termsOfDoc[i]];
+                }
+            }
+            terms = keptTerms;
+            postings = keptPostings;
+            unusedTerms = 0;
+        }
+
+        SearchHits search(Set<String> terms, int page, int size) {
+            if (liveDocs == 0) {
+                return SearchHits.empty();
+            }
+            // Vocabulary term -> boost. Query terms that correct to the same term count it once.
+            Map<Integer, Float> boosts = new HashMap<>();
+            for (String term : terms) {
+                for (Expansion expansion : expand(term)) {
+                    boosts.merge(expansion.termId(), expansion.boost(), Math::max);
+                }
+            }
+
+            float averageLength = (float) totalLength / liveDocs;
+            ScoreBuffer buffer = SCORE_BUFFER.get().reset(nextDoc);
+            float[] scores = buffer.scores;
+            try {
+                for (Map.Entry<Integer, Float> term : boosts.entrySet()) {
+                    PostingList list = postings.get(term.getKey());
+                    float boost = term.getValue();
+                    double idf = Math.log(1 + (liveDocs - list.size + 0.5) / (list.size + 0.5));
+                    for (int i = 0; i < list.size; i++) {
+                        int doc = list.docs[i];
+                        int tf = list.freqs[i];
+                        float norm = K1 * (1 - B + B * docLength[doc] / averageLength);
+                        if (scores[doc] == 0f) {
+                            buffer.touched.add(doc);
+                        }
+                        scores[doc] += (float) (boost * idf * tf * (K1 + 1) / (tf + norm));
+                    }
+                }
+                return rank(scores, buffer.touched, page, size);
+            } finally {
+                buffer.clear();
+            }
+        }
+
+        private SearchHits rank(float[] scores, IntList touched, int page, int size) {
+            int hits = touched.size;
+            if (hits == 0) {
+                return SearchHits.empty();
+            }
+
+            long wanted = (long) (page + 1) * size;
+            if (wanted - size >= hits) {
+                return new SearchHits(List.of(), hits);
+            }
+            int k = (int) Math.min(wanted, hits);
+            // Min-heap of the best k docs; ties go to the more recently indexed recipe.
+            Comparator<Integer> byScore = Comparator.<Integer>comparingDouble(doc -> scores[doc])
+                    .thenComparingInt(doc -> doc);
+            PriorityQueue<Integer> top = new PriorityQueue<>(k, byScore);
+            for (int i = 0; i < hits; i++) {
+                int doc = touched.values[i];
+                if (top.size() < k) {
+                    top.add(doc);
+                } else {
+                    int weakest = top.peek();
+                    if (scores[doc] > scores[weakest] || (scores[doc] == scores[weakest] && doc > weakest)) {
+                        top.poll();
+                        top.add(doc);
+                    }
+                }
+            }
+            List<Integer> ranked = new ArrayList<>(top);
+            ranked.sort(byScore.reversed());
+            List<Long> recipeIds = new ArrayList<>(size);
+            for (int i = page * size; i < ranked.size(); i++) {
+                recipeIds.add(recipeByDoc[ranked.get(i)]);
+            }
+            return new SearchHits(recipeIds, hits);
+        }
+
+        private int addTerm(String term) {
+            int termId = postings.size();
+            terms.add(term);
+            postings.add(new PostingList());
+            unusedTerms++;
+            for (String gram : trigrams(term)) {
+                gramTerms.computeIfAbsent(gram, g -> new IntList()).add(termId);
+            }
+            return termId;
+        }
+
+        /**
+         * The vocabulary terms a query term stands for: itself when it occurs in any recipe,
+         * otherwise its closest corrections.
+         */
+        private List<Expansion> expand(String term) {
+            Integer exact = termIds.get(term);
+            if (exact != null && postings.get(exact).size > 0) {
+                return List.of(new Expansion(exact, 1f));
+            }
+            int maxEdits = maxEdits(term.length());
+            if (maxEdits == 0) {
+                return List.of();
+            }
+
+            // An edit touches at most four padded trigrams (a transposition spans two letters),
+            // so a term within maxEdits must share at least this many.
+            Set<String> grams = trigrams(term);
+            int minShared = Math.max(1, grams.size() - 4 * maxEdits);
+            Map<Integer, Integer> shared = new HashMap<>();
+            for (String gram : grams) {
+                IntList ids = gramTerms.get(gram);
+                if (ids != null) {
+                    for (int i = 0; i < ids.size; i++) {
+                        shared.merge(ids.values[i], 1, Integer::sum);
+                    }
+                }
+            }
+
+            List<int[]> matches = new ArrayList<>();
+            for (Map.Entry<Integer, Integer> candidate : shared.entrySet()) {
+                int termId = candidate.getKey();
+                if (candidate.getValue() < minShared || postings.get(termId).size == 0) {
+                    continue;
+                }
+                int distance = editDistance(term, terms.get(termId), maxEdits);
+                if (distance <= maxEdits) {
+                    matches.add(new int[]{termId, distance});
+                }
+            }
+            // Closest first, then the most common spelling.
+            matches.sort(Comparator.<int[]>comparingInt(match -> match[1])
+                    .thenComparing(match -> -postings.get(match[0]).size));
+            List<Expansion> expansions = new ArrayList<>();
+            for (int i = 0; i < matches.size() && i < MAX_FUZZY_EXPANSIONS; i++) {
+                expansions.add(new Expansion(matches.get(i)[0], FUZZY_PENALTY[matches.get(i)[1]]));
+            }
+            return expansions;
+        }
+
+        private static int addField(Map<String, Integer> frequencies, String text, int weight) {
+            int length = 0;
+            for (String term : TextAnalyzer.analyze(text)) {
+                frequencies.merge(term, weight, Integer::sum);
+                length += weight;
+            }
+            return length;
+        }
+
+        private void ensureCapacity(int capacity) {
+            if (capacity <= recipeByDoc.length) {
+                return;
+            }
+            int grown = Math.max(capacity, recipeByDoc.length * 2);
+            recipeByDoc = Arrays.copyOf(recipeByDoc, grown);
+            docLength = Arrays.copyOf(docLength, grown);
+            docTerms = Arrays.copyOf(docTerms, grown);
+        }
+    }
+
+    /**
+     * Per-thread score accumulator indexed by doc number, with the docs it has touched so only those
+     * are ranked and cleared. Queries run concurrently under the read lock, so it cannot live on the
+     * segment.
+     */
+    private static final class ScoreBuffer {
+        private float[] scores = new float[0];
+        private final IntList touched = new IntList();
+
+        ScoreBuffer reset(int docs) {
+            if (scores.length < docs) {
+                scores = new float[Math.max(docs, scores.length * 2)];
+            }
+            return this;
+        }
+
+        void clear() {
+            for (int i = 0; i < touched.size; i++) {
+                scores[touched.values[i]] = 0f;
+            }
+            touched.size = 0;
+        }
+    }
+
+    private static final class IntList {
+        private int[] values = new int[2];
+        private int size;
+
+        void add(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            values[size++] = value;
+        }
+    }
+
+    private static final class PostingList {
+        private int[] docs = new int[4];
+        private int[] freqs = new int[4];
+        private int size;
+
+        void append(int doc, int freq) {
+            if (size == docs.length) {
+                docs = Arrays.copyOf(docs, size * 2);
+                freqs = Arrays.copyOf(freqs, size * 2);
+            }
+            docs[size] = doc;
+            freqs[size] = freq;
+            size++;
+        }
+
+        void remove(int doc) {
+            int i = Arrays.binarySearch(docs, 0, size, doc);
+            if (i < 0) {
+                return;
+            }
+            System.arraycopy(docs, i + 1, docs, i, size - i - 1);
+            System.arraycopy(freqs, i + 1, freqs, i, size - i - 1);
+            size--;
+        }
+    }
+}
@@ -0,0 +1,239 @@
+package Allrecipes.Recipesdemo.Search;
+
+import Allrecipes.Recipesdemo.Entities.Enums.RecipeStatus;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import Allrecipes.Recipesdemo.Repositories.RecipeSearchRepository;
+import Allrecipes.Recipesdemo.Utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+
+/**
+ * Keeps {@link RecipeSearchIndex}, {@link RecipeFacetIndex}, {@link SuggestionIndex},
+ * {@link PantryIndex} and {@link RatingLeaderboard} in step with the database, and feeds
+ * {@link TrendingIndex} the ratings and favorites that commit.
+ *
+ * On startup the index is rebuilt in the background from scalar queries, walking recipes in id order
+ * in batches of {@code app.search.rebuild-batch-size}. After that, {@code RecipeService} and
+ * {@code AdminService} report each create, update, status change and delete, which is applied
+ * once its transaction commits, as are rating totals reported by {@code RatingService}. Totals from
+ * two close commits can land in the wrong order, so {@code RatingStatsReconciliationJob} also calls
+ * {@link #refreshRatings} with the committed totals after each batch it repairs. The same refresh
+ * sets suggestion popularity (favorites plus ratings); it also runs for a recipe whenever a
+ * favorite of it is added or removed, so favorites show up at once and rating counts within one
+ * reconciliation interval.
+ */
+@Component
+@Slf4j
+public class RecipeSearchIndexer {
+
+    private final RecipeSearchIndex index;
+    private final RecipeFacetIndex facetIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final PantryIndex pantryIndex;
+    private final RatingLeaderboard ratingLeaderboard;
+    private final TrendingIndex trendingIndex;
+    private final RecipeSearchRepository recipeSearchRepository;
+    private final int batchSize;
+
+    public RecipeSearchIndexer(RecipeSearchIndex index,
+                               RecipeFacetIndex facetIndex,
+                               SuggestionIndex suggestionIndex,
+                               PantryIndex pantryIndex,
+                               RatingLeaderboard ratingLeaderboard,
+                               TrendingIndex trendingIndex,
+                               RecipeSearchRepository recipeSearchRepository,
+                               @Value("${app.search.rebuild-batch-size:1000}") int batchSize) {
+        this.index = index;
+        this.facetIndex = facetIndex;
+        this.suggestionIndex = suggestionIndex;
+        this.pantryIndex = pantryIndex;
+        this.ratingLeaderboard = ratingLeaderboard;
+        this.trendingIndex = trendingIndex;
+        this.recipeSearchRepository = recipeSearchRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Rebuilds every index from the database. Queries keep using the previous indexes until
+     * the new ones are complete.
+     */
+    public void rebuild() {
+        long started = System.currentTimeMillis();
+        RecipeSearchIndex.Rebuild rebuild = index.startRebuild();
+        RecipeFacetIndex.Rebuild facetRebuild = facetIndex.startRebuild();
+        SuggestionIndex.Rebuild suggestionRebuild = suggestionIndex.startRebuild();
+        PantryIndex.Rebuild pantryRebuild = pantryIndex.startRebuild();
+        RatingLeaderboard.Rebuild leaderboardRebuild = ratingLeaderboard.startRebuild();
+        long lastId = 0;
+        int indexed = 0;
+        try {
+            while (true) {
+                List<Object[]> rows = recipeSearchRepository.findIndexRowsAfter(lastId, PageRequest.of(0, batchSize));
+                if (rows.isEmpty()) {
+                    break;
+                }
+                List<Long> ids = rows.stream().map(row -> (Long) row[0]).toList();
+                Map<Long, List<String>> ingredients = group(recipeSearchRepository.findIngredientNames(ids));
+                Map<Long, List<String>> categoryNames = new HashMap<>();
+                Map<Long, Set<Long>> categoryIds = new HashMap<>();
+                for (Object[] category : recipeSearchRepository.findCategories(ids)) {
+                    Long recipeId = (Long) category[0];
+                    categoryIds.computeIfAbsent(recipeId, id -> new HashSet<>()).add((Long) category[1]);
+                    if (category[2] != null) {
+                        categoryNames.computeIfAbsent(recipeId, id -> new ArrayList<>()).add((String) category[2]);
+                    }
+                }
+                Map<Long, Long> popularity = new HashMap<>();
+                count(recipeSearchRepository.findFavoriteCounts(ids), popularity);
+                Map<Long, Object[]> ratings = new HashMap<>();
+                for (Object[] totals : recipeSearchRepository.findRatingTotals(ids)) {
+                    ratings.put((Long) totals[0], totals);
+                    popularity.merge((Long) totals[0], (Long) totals[2], Long::sum);
+                }
+                for (Object[] row : rows) {
+                    Long id = (Long) row[0];
+                    SearchDocument document = new SearchDocument(id, (String) row[1], (String) row[2], (String) row[3],
+                            ingredients.getOrDefault(id, List.of()), categoryNames.getOrDefault(id, List.of()));
+                    rebuild.add(document);
+                    suggestionRebuild.add(document, popularity.getOrDefault(id, 0L));
+                    pantryRebuild.add(document);
+                    facetRebuild.add(new FacetDocument(id, categoryIds.getOrDefault(id, Set.of()), (Boolean) row[4],
+                            (Integer) row[5], (Integer) row[6], (RecipeStatus) row[7], (Long) row[8]));
+                    Object[] totals = ratings.get(id);
+                    leaderboardRebuild.add(id, totals != null ? (Long) totals[1] : 0, totals != null ? (Long) totals[2] : 0,
+                            categoryIds.getOrDefault(id, Set.of()));
+                }
+                indexed += rows.size();
+                lastId = ids.get(ids.size() - 1);
+            }
+        } catch (RuntimeException e) {
+            log.error("Search index rebuild failed after {} recipes: {}", indexed, e.getMessage());
+            index.abortRebuild(rebuild);
+            facetIndex.abortRebuild(facetRebuild);
+            suggestionIndex.abortRebuild(suggestionRebuild);
+            pantryIndex.abortRebuild(pantryRebuild);
+            ratingLeaderboard.abortRebuild(leaderboardRebuild);
+            return;
+        }
+        index.finishRebuild(rebuild);
+        facetIndex.finishRebuild(facetRebuild);
+        suggestionIndex.finishRebuild(suggestionRebuild);
+        pantryIndex.finishRebuild(pantryRebuild);
+        ratingLeaderboard.finishRebuild(leaderboardRebuild);
+        log.info("Indexed {} recipes for search in {} ms.", indexed, System.currentTimeMillis() - started);
+    }
+
+    /**
+     * Indexes a recipe once the current transaction commits. The document is captured now, while
+     * the recipe's collections can still be loaded.
+     */
+    public void recipeSaved(Recipe recipe) {
+        SearchDocument document = SearchDocument.from(recipe);
+        FacetDocument facets = FacetDocument.from(recipe);
+        TransactionUtils.afterCommit(() -> {
+            index.index(document);
+            facetIndex.index(facets);
+            suggestionIndex.index(document);
+            pantryIndex.index(document);
+            ratingLeaderboard.updateCategories(facets.recipeId(), facets.categoryIds());
+        });
+    }
+
+    /**
+     * Re-indexes only the facets, for changes such as approval that leave the text alone.
+     */
+    public void recipeFacetsChanged(Recipe recipe) {
+        FacetDocument facets = FacetDocument.from(recipe);
+        TransactionUtils.afterCommit(() -> {
+            facetIndex.index(facets);
+            ratingLeaderboard.updateCategories(facets.recipeId(), facets.categoryIds());
+        });
+    }
+
+    /**
+     * Moves a recipe on the rating leaderboard once the current transaction commits.
+     */
+    public void recipeRatingsChanged(Long recipeId, long scoreSum, long ratingCount) {
+        TransactionUtils.afterCommit(() -> ratingLeaderboard.updateTotals(recipeId, scoreSum, ratingCount));
+    }
+
+    /**
+     * Re-reads the committed rating totals and favorite counts of {@code recipeIds} and applies them
+     * to the leaderboard and suggestion popularity right away; recipes without live ratings drop to
+     * zero. Call outside a transaction, or after the one that changed the totals has committed.
+     */
+    public void refreshRatings(Collection<Long> recipeIds) {
+        Map<Long, Long> popularity = new HashMap<>();
+        count(recipeSearchRepository.findFavoriteCounts(recipeIds), popularity);
+        Map<Long, Object[]> ratings = new HashMap<>();
+        for (Object[] totals : recipeSearchRepository.findRatingTotals(recipeIds)) {
+            ratings.put((Long) totals[0], totals);
+            popularity.merge((Long) totals[0], (Long) totals[2], Long::sum);
+        }
+        for (Long id : recipeIds) {
+            Object[] totals = ratings.get(id);
+            ratingLeaderboard.updateTotals(id, totals != null ? (Long) totals[1] : 0, totals != null ? (Long) totals[2] : 0);
+            suggestionIndex.setPopularity(id, popularity.getOrDefault(id, 0L));
+        }
+    }
+
+    /**
+     * Counts {@code times} new scores towards the recipe's trending score once the current
+     * transaction commits.
+     */
+    public void recipeRated(Long recipeId, int times) {
+        TransactionUtils.afterCommit(() -> trendingIndex.record(recipeId, TrendingIndex.Event.RATING, times,
+                System.currentTimeMillis()));
+    }
+
+    public void recipeFavorited(Long recipeId) {
+        TransactionUtils.afterCommit(() -> {
+            trendingIndex.record(recipeId, TrendingIndex.Event.FAVORITE);
+            refreshRatings(List.of(recipeId));
+        });
+    }
+
+    public void recipeUnfavorited(Long recipeId) {
+        TransactionUtils.afterCommit(() -> refreshRatings(List.of(recipeId)));
+    }
+
+    public void recipeDeleted(Long recipeId) {
+        TransactionUtils.afterCommit(() -> {
+            index.remove(recipeId);
+            facetIndex.remove(recipeId);
+            suggestionIndex.remove(recipeId);
+            pantryIndex.remove(recipeId);
+            ratingLeaderboard.remove(recipeId);
+            trendingIndex.remove(recipeId);
+        });
+    }
+
+    private static void count(List<Object[]> counts, Map<Long, Long> totals) {
+        for (Object[] count : counts) {
+            totals.merge((Long) count[0], (Long) count[1], Long::sum);
+        }
+    }
+
+    private static Map<Long, List<String>> group(List<Object[]> pairs) {
+        Map<Long, List<String>> grouped = new HashMap<>();
+        for (Object[] pair : pairs) {
+            if (pair[1] != null) {
+                grouped.computeIfAbsent((Long) pair[0], id -> new ArrayList<>()).add((String) pair[1]);
+            }
+        }
+        return grouped;
+    }
+}
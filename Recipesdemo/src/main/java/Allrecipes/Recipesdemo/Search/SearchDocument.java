@@ -0,0 +1,38 @@
+package Allrecipes.Recipesdemo.Search;
+
+import Allrecipes.Recipesdemo.Entities.Category;
+import Allrecipes.Recipesdemo.Entities.Ingredient;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * The searchable text of one recipe.
+ */
+public record SearchDocument(long recipeId,
+                             String title,
+                             String description,
+                             String preparationSteps,
+                             List<String> ingredients,
+                             List<String> categories) {
+
+    public static SearchDocument from(Recipe recipe) {
+        return new SearchDocument(
+                recipe.getId(),
+                recipe.getTitle(),
+                recipe.getDescription(),
+                recipe.getPreparationSteps(),
+                names(recipe.getIngredients(), Ingredient::getName),
+                names(recipe.getCategories(), Category::getName));
+    }
+
+    private static <T> List<String> names(Collection<T> items, Function<T, String> name) {
+        if (items == null) {
+            return List.of();
+        }
+        return items.stream().map(name).filter(Objects::nonNull).toList();
+    }
+}
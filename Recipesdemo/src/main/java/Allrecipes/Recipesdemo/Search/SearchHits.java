@@ -0,0 +1,13 @@
+package Allrecipes.Recipesdemo.Search;
+
+import java.util.List;
+
+/**
+ * One page of search results: recipe ids in rank order and the total number of matching recipes.
+ */
+public record SearchHits(List<Long> recipeIds, long total) {
+
+    public static SearchHits empty() {
+        return new SearchHits(List.of(), 0);
+    }
+}
@@ -0,0 +1,13 @@
+package Allrecipes.Recipesdemo.Search;
+
+/**
+ * One typeahead completion. {@code weight} is the popularity it was ranked by.
+ */
+public record Suggestion(String text, Type type, long weight) {
+
+    public enum Type {
+        TITLE,
+        INGREDIENT,
+        CATEGORY
+    }
+}
@@ -0,0 +1,421 @@
+package Allrecipes.Recipesdemo.Search;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Popularity-weighted prefix index for typeahead over recipe titles, ingredient names and category
+ * names.
+ *
+ * Completions live in a character trie keyed by their folded, lowercased text. Titles are also
+ * keyed from each later word, so "soup" completes "Tomato Soup". Every node caches its top
+ * {@link #TOP_K} completions, overall and per {@link Suggestion.Type}, so a lookup is a walk down
+ * the prefix plus a copy of that cache. When a weight changes, only the caches on that completion's
+ * paths are recomputed.
+ *
+ * Weights:
+ * <ul>
+ *   <li>a title counts 1 plus the popularity of each recipe that has it;</li>
+ *   <li>an ingredient or category counts the recipes that use it.</li>
+ * </ul>
+ * Recipe popularity (favorites plus ratings) is set at rebuild time and then through
+ * {@link #setPopularity} as favorites and rating totals change.
+ */
+@Component
+@Slf4j
+public class SuggestionIndex {
+
+    public static final int TOP_K = 10;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private Segment current = new Segment();
+    private Rebuild rebuilding;
+
+    /**
+     * Adds or replaces the completions one recipe contributes, keeping its popularity.
+     */
+    public void index(SearchDocument document) {
+        lock.writeLock().lock();
+        try {
+            current.put(document, null);
+            if (rebuilding != null) {
+                rebuilding.journal.add(document);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void setPopularity(long recipeId, long popularity) {
+        lock.writeLock().lock();
+        try {
+            current.setPopularity(recipeId, popularity);
+            if (rebuilding != null) {
+                rebuilding.journal.add(new PopularityChange(recipeId, popularity));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long recipeId) {
+        lock.writeLock().lock();
+        try {
+            current.remove(recipeId);
+            if (rebuilding != null) {
+                rebuilding.journal.add(recipeId);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Top completions for {@code prefix}, most popular first; {@code type} narrows to one kind when set.
+     */
+    public List<Suggestion> suggest(String prefix, Suggestion.Type type, int limit) {
+        String key = normalize(prefix);
+        if (key.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        lock.readLock().lock();
+        try {
+            return current.suggest(key, type, Math.min(limit, TOP_K));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Rebuild startRebuild() {
+        lock.writeLock().lock();
+        try {
+            rebuilding = new Rebuild();
+            return rebuilding;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void finishRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding != rebuild) {
+                log.warn("Discarding a suggestion index rebuild that was superseded.");
+                return;
+            }
+            rebuild.segment.computeTops();
+            for (Object change : rebuild.journal) {
+                if (change instanceof SearchDocument document) {
+                    rebuild.segment.put(document, null);
+                } else if (change instanceof PopularityChange c) {
+                    rebuild.segment.setPopularity(c.recipeId(), c.popularity());
+                } else {
+                    rebuild.segment.remove((Long) change);
+                }
+            }
+            current = rebuild.segment;
+            rebuilding = null;
+            log.info("Suggestion index rebuilt with {} completions.", current.completions.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void abortRebuild(Rebuild rebuild) {
+        lock.writeLock().lock();
+        try {
+            if (rebuilding == rebuild) {
+                rebuilding = null;
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        return TextAnalyzer.fold(text).trim().replaceAll("\\s+", " ");
+    }
+
+    /**
+     * A segment under construction. Not thread-safe; one loader fills it.
+     */
+    public static final class Rebuild {
+        private final Segment segment = new Segment(true);
+        private final List<Object> journal = new ArrayList<>();
+
+        public void add(SearchDocument document, long popularity) {
+            segment.put(document, popularity);
+        }
+    }
+
+    private record PopularityChange(long recipeId, long popularity) {
+    }
+
+    /**
+     * What one recipe contributes, so it can be taken back out.
+     */
+    private record Contribution(Completion title, List<Completion> terms, long popularity) {
+    }
+
+    private static final class Completion {
+        private final String text;
+        private final Suggestion.Type type;
+        private final List<String> keys;
+        private long weight;
+
+        Completion(String text, Suggestion.Type type, List<String> keys) {
+            this.text = text;
+            this.type = type;
+            this.keys = keys;
+        }
+    }
+
+    private static final Comparator<Completion> BY_WEIGHT =
+            Comparator.comparingLong((Completion c) -> c.weight).reversed().thenComparing(c -> c.text);
+
+    private static final Suggestion.Type[] TYPES = Suggestion.Type.values();
+    private static final int SLOTS = TYPES.length + 1;
+
+    private static Completion[][] emptyTops() {
+        Completion[][] tops = new Completion[SLOTS][];
+        Arrays.fill(tops, new Completion[0]);
+        return tops;
+    }
+
+    private static final class Node {
+        private final Map<Character, Node> children = new HashMap<>(4);
+        private List<Completion> terminals = List.of();
+        // Slot 0 ranks every completion below this node; slot 1 + ordinal ranks one type only.
+        private Completion[][] tops = emptyTops();
+    }
+
+    private static final class Segment {
+        private final Node root = new Node();
+        private final Map<String, Completion> completions = new HashMap<>();
+        private final Map<Long, Contribution> recipes = new HashMap<>();
+        // While bulk loading, top lists are computed once at the end instead of after every change.
+        private boolean deferTops;
+
+        Segment() {
+            this(false);
+        }
+
+        Segment(boolean deferTops) {
+            this.deferTops = deferTops;
+        }
+
+        void computeTops() {
+            computeTops(root);
+            deferTops = false;
+        }
+
+        private void computeTops(Node node) {
+            for (Node child : node.children.values()) {
+                computeTops(child);
+            }
+            node.tops = topsOf(node);
+        }
+
+        void put(SearchDocument document, Long popularity) {
+            long recipeId = document.recipeId();
+            String title = document.title();
+            Contribution previous = recipes.get(recipeId);
+            long recipePopularity = popularity != null ? popularity : previous != null ? previous.popularity() : 0;
+            remove(recipeId);
+
+            Completion titleCompletion = title == null || normalize(title).isEmpty() ? null
+                    : adjust(title, Suggestion.Type.TITLE, 1 + recipePopularity);
+            List<Completion> terms = new ArrayList<>();
+            for (String ingredient : distinct(document.ingredients())) {
+                terms.add(adjust(ingredient, Suggestion.Type.INGREDIENT, 1));
+            }
+            for (String category : distinct(document.categories())) {
+                terms.add(adjust(category, Suggestion.Type.CATEGORY, 1));
+            }
+            recipes.put(recipeId, new Contribution(titleCompletion, terms, recipePopularity));
+        }
+
+        void remove(long recipeId) {
+            Contribution contribution = recipes.remove(recipeId);
+            if (contribution == null) {
+                return;
+            }
+            if (contribution.title() != null) {
+                adjust(contribution.title().text, Suggestion.Type.TITLE, -(1 + contribution.popularity()));
+            }
+            for (Completion term : contribution.terms()) {
+                adjust(term.text, term.type, -1);
+            }
+        }
+
+        void setPopularity(long recipeId, long popularity) {
+            Contribution contribution = recipes.get(recipeId);
+            if (contribution == null || contribution.popularity() == popularity) {
+                return;
+            }
+            if (contribution.title() != null) {
+                adjust(contribution.title().text, Suggestion.Type.TITLE, popularity - contribution.popularity());
+            }
+            recipes.put(recipeId, new Contribution(contribution.title(), contribution.terms(), popularity));
+        }
+
+        List<Suggestion> suggest(String prefix, Suggestion.Type type, int limit) {
+            Node node = root;
+            for (int i = 0; i < prefix.length() && node != null; i++) {
+                node = node.children.get(prefix.charAt(i));
+            }
+            if (node == null) {
+                return List.of();
+            }
+            List<Suggestion> result = new ArrayList<>(limit);
+            Set<String> seen = new HashSet<>();
+            for (Completion completion : node.tops[type == null ? 0 : 1 + type.ordinal()]) {
+                if (result.size() == limit) {
+                    break;
+                }
+                if (seen.add(completion.type + ":" + completion.text)) {
+                    result.add(new Suggestion(completion.text, completion.type, completion.weight));
+                }
+            }
+            return result;
+        }
+
+        /**
+         * Changes a completion's weight, creating it on first use and dropping it at zero, then
+         * refreshes the cached top lists along each of its keys.
+         */
+        private Completion adjust(String text, Suggestion.Type type, long delta) {
+            String normalized = normalize(text);
+            String id = type + ":" + normalized;
+            Completion completion = completions.get(id);
+            if (completion == null) {
+                completion = new Completion(text.trim(), type, keysFor(normalized, type));
+                completions.put(id, completion);
+                for (String key : completion.keys) {
+                    Node node = walk(key, true);
+                    List<Completion> terminals = new ArrayList<>(node.terminals);
+                    terminals.add(completion);
+                    node.terminals = terminals;
+                }
+            }
+            completion.weight += delta;
+            if (completion.weight <= 0) {
+                completions.remove(id);
+                for (String key : completion.keys) {
+                    Node node = walk(key, false);
+                    if (node != null) {
+                        List<Completion> terminals = new ArrayList<>(node.terminals);
+                        terminals.remove(completion);
+                        node.terminals = terminals;
+                    }
+                }
+            }
+            if (!deferTops) {
+                for (String key : completion.keys) {
+                    refresh(key);
+                }
+            }
+            return completion;
+        }
+
+        private Node walk(String key, boolean create) {
+            Node node = root;
+            for (int i = 0; i < key.length(); i++) {
+                Node child = node.children.get(key.charAt(i));
+                if (child == null) {
+                    if (!create) {
+                        return null;
+                    }
+                    child = new Node();
+                    node.children.put(key.charAt(i), child);
+                }
+                node = child;
+            }
+            return node;
+        }
+
+        /**
+         * Recomputes the top lists from the end of {@code key} back up to the root, pruning nodes
+         * that no longer lead anywhere.
+         */
+        private void refresh(String key) {
+            Node[] path = new Node[key.length() + 1];
+            path[0] = root;
+            for (int i = 0; i < key.length(); i++) {
+                path[i + 1] = path[i] == null ? null : path[i].children.get(key.charAt(i));
+            }
+            for (int depth = key.length(); depth >= 0; depth--) {
+                Node node = path[depth];
+                if (node == null) {
+                    continue;
+                }
+                node.tops = topsOf(node);
+                if (depth > 0 && node.tops[0].length == 0 && node.children.isEmpty() && path[depth - 1] != null) {
+                    path[depth - 1].children.remove(key.charAt(depth - 1));
+                }
+            }
+        }
+
+        /**
+         * The best {@link #TOP_K} of a node's own completions and its children's cached lists, for
+         * each slot.
+         */
+        private static Completion[][] topsOf(Node node) {
+            Completion[][] tops = new Completion[SLOTS][];
+            for (int slot = 0; slot < SLOTS; slot++) {
+                Suggestion.Type type = slot == 0 ? null : TYPES[slot - 1];
+                PriorityQueue<Completion> best = new PriorityQueue<>(BY_WEIGHT.reversed());
+                Set<Completion> candidates = new HashSet<>();
+                for (Completion terminal : node.terminals) {
+                    if (type == null || terminal.type == type) {
+                        candidates.add(terminal);
+                    }
+                }
+                for (Node child : node.children.values()) {
+                    candidates.addAll(Arrays.asList(child.tops[slot]));
+                }
+                for (Completion candidate : candidates) {
+                    best.add(candidate);
+                    if (best.size() > TOP_K) {
+                        best.poll();
+                    }
+                }
+                Completion[] top = best.toArray(new Completion[0]);
+                Arrays.sort(top, BY_WEIGHT);
+                tops[slot] = top;
+            }
+            return tops;
+        }
+
+        private static List<String> keysFor(String normalized, Suggestion.Type type) {
+            List<String> keys = new ArrayList<>();
+            keys.add(normalized);
+            if (type == Suggestion.Type.TITLE) {
+                for (int i = normalized.indexOf(' '); i >= 0; i = normalized.indexOf(' ', i + 1)) {
+                    keys.add(normalized.substring(i + 1));
+                }
+            }
+            return keys;
+        }
+
+        private static Collection<String> distinct(Collection<String> names) {
+            if (names == null) {
+                return List.of();
+            }
+            Map<String, String> byKey = new LinkedHashMap<>();
+            for (String name : names) {
+                String key = normalize(name);
+                if (!key.isEmpty()) {
+                    byKey.putIfAbsent(key, name);
+                }
+            }
+            return byKey.values();
+        }
+    }
+}
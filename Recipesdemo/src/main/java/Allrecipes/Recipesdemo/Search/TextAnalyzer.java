@@ -0,0 +1,138 @@
+package Allrecipes.Recipesdemo.Search;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Turns free text into index terms: Unicode-aware tokenizing, accent folding, lowercasing, stop word
+ * removal and a light English suffix stemmer. Documents and queries must go through the same
+ * analyzer, which is all the stemmer has to guarantee; its stems are not always real words
+ * ("baking", "baked" and "bake" all become "bak").
+ */
+public final class TextAnalyzer {
+
+    private static final int MAX_TOKEN_LENGTH = 40;
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "are", "as", "at", "be", "by", "for", "from", "in", "into", "is", "it",
+            "of", "on", "or", "the", "then", "to", "until", "with");
+
+    private TextAnalyzer() {
+    }
+
+    public static List<String> analyze(String text) {
+        List<String> terms = new ArrayList<>();
+        if (text == null || text.isEmpty()) {
+            return terms;
+        }
+        String folded = fold(text);
+        int start = -1;
+        for (int i = 0; i <= folded.length(); i++) {
+            boolean wordChar = i < folded.length() && Character.isLetterOrDigit(folded.charAt(i));
+            if (wordChar && start < 0) {
+                start = i;
+            } else if (!wordChar && start >= 0) {
+                addTerm(terms, folded.substring(start, i));
+                start = -1;
+            }
+        }
+        return terms;
+    }
+
+    /**
+     * The analyzed terms of a short name joined by single spaces, so "Tomatoes ", "tomato" and
+     * "TOMATO" share one key. Used to identify ingredient names.
+     */
+    public static String key(String text) {
+        return String.join(" ", analyze(text));
+    }
+
+    /**
+     * Lowercases and strips diacritics so "Crème brûlée" matches "creme brulee".
+     */
+    static String fold(String text) {
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        StringBuilder out = new StringBuilder(decomposed.length());
+        for (int i = 0; i < decomposed.length(); i++) {
+            char c = decomposed.charAt(i);
+            if (Character.getType(c) != Character.NON_SPACING_MARK) {
+                out.append(c);
+            }
+        }
+        return out.toString().toLowerCase(Locale.ROOT);
+    }
+
+    private static void addTerm(List<String> terms, String token) {
+        if (token.length() > MAX_TOKEN_LENGTH || STOP_WORDS.contains(token)) {
+            return;
+        }
+        terms.add(stem(token));
+    }
+
+    static String stem(String word) {
+        if (word.length() <= 3 || !isAlphabetic(word)) {
+            return word;
+        }
+        String w = word;
+        if (w.endsWith("ies") && w.length() > 4) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("sses")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("oes") || w.endsWith("xes") || w.endsWith("ches") || w.endsWith("shes")) {
+            w = w.substring(0, w.length() - 2);
+        } else if (w.endsWith("s") && !w.endsWith("ss") && !w.endsWith("us") && !w.endsWith("is")) {
+            w = w.substring(0, w.length() - 1);
+        }
+
+        if (w.endsWith("ing") && w.length() > 5 && hasVowel(w, w.length() - 3)) {
+            w = undouble(w.substring(0, w.length() - 3));
+        } else if (w.endsWith("ed") && w.length() > 4 && hasVowel(w, w.length() - 2)) {
+            w = undouble(w.substring(0, w.length() - 2));
+        } else if (w.endsWith("ly") && w.length() > 5) {
+            w = w.substring(0, w.length() - 2);
+        }
+
+        if (w.endsWith("e") && w.length() > 3) {
+            w = w.substring(0, w.length() - 1);
+        } else if (w.endsWith("y") && w.length() > 3 && hasVowel(w, w.length() - 1)) {
+            // "berry" and "berries" both end up as "berri".
+            w = w.substring(0, w.length() - 1) + "i";
+        }
+        return w;
+    }
+
+    private static String undouble(String w) {
+        int n = w.length();
+        if (n >= 2 && w.charAt(n - 1) == w.charAt(n - 2) && !isVowel(w.charAt(n - 1))
+                && w.charAt(n - 1) != 'l' && w.charAt(n - 1) != 's' && w.charAt(n - 1) != 'z') {
+            return w.substring(0, n - 1);
+        }
+        return w;
+    }
+
+    private static boolean hasVowel(String w, int end) {
+        for (int i = 0; i < end; i++) {
+            if (isVowel(w.charAt(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isVowel(char c) {
+        return c == 'a' || c == 'e' || c == 'i' || c == 'o' || c == 'u' || c == 'y';
+    }
+
+    private static boolean isAlphabetic(String word) {
+        for (int i = 0; i < word.length(); i++) {
+            char c = word.charAt(i);
+            if (c < 'a' || c > 'z') {
+                return false;
+            }
+        }
+        return true;
+    }
+}
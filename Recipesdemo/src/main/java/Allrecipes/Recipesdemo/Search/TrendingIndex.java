@@ -0,0 +1,268 @@
+package Allrecipes.Recipesdemo.Search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Recipes ranked by recent activity, kept in memory.
+ *
+ * Each recipe has one counter that every view, favorite and rating adds a weight to, and that decays
+ * exponentially with a half-life of {@code app.recipes.trending.half-life}. Rather than decaying every
+ * counter as time passes, events are added scaled up by {@code e^(λ(t - epoch))}: all counters shrink
+ * at the same rate, so their order only changes when an event arrives, and a counter's real value is
+ * its stored value scaled back down to now. The shared scale is folded into the counters before it
+ * can overflow, dropping counters that have decayed to nothing.
+ *
+ * Readers get the top {@code app.recipes.trending.feed-size} recipes from an immutable snapshot,
+ * re-published at most once per {@code app.recipes.trending.refresh-interval} and only after a change.
+ * The counters are written to {@code app.recipes.trending.snapshot-file} every
+ * {@code app.recipes.trending.snapshot-interval} and on shutdown, and read back on startup, so a restart
+ * keeps the feed without replaying history; activity between the last write and a crash is lost.
+ */
+@Component
+@Slf4j
+public class TrendingIndex {
+
+    public enum Event {
+        VIEW,
+        FAVORITE,
+        RATING
+    }
+
+    private static final int MAGIC = 0x54524E44; // "TRND"
+    private static final int FORMAT_VERSION = 1;
+
+    // Fold the shared scale into the counters once it reaches e^MAX_EXPONENT, far below overflow.
+    private static final double MAX_EXPONENT = 256;
+
+    // Counters whose real value has decayed below this are dropped when the scale is folded.
+    private static final double NEGLIGIBLE = 1e-3;
+
+    private final double decayPerMilli;
+    private final double[] weights;
+    private final int feedSize;
+    private final long refreshMillis;
+    private final Path snapshotFile;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Long, double[]> counters = new HashMap<>();
+    private long epoch = System.currentTimeMillis();
+    // Written under the lock; read without it so serving the feed never blocks on writers.
+    private volatile boolean dirty;
+    private volatile long lastPublished;
+    private volatile Ranking latest = Ranking.EMPTY;
+
+    public TrendingIndex(@Value("${app.recipes.trending.half-life:P1D}") Duration halfLife,
+                         @Value("${app.recipes.trending.view-weight:1}") double viewWeight,
+                         @Value("${app.recipes.trending.favorite-weight:5}") double favoriteWeight,
+                         @Value("${app.recipes.trending.rating-weight:3}") double ratingWeight,
+                         @Value("${app.recipes.trending.feed-size:100}") int feedSize,
+                         @Value("${app.recipes.trending.refresh-interval:5s}") Duration refreshInterval,
+                         @Value("${app.recipes.trending.snapshot-file:}") String snapshotFile) {
+        this.decayPerMilli = Math.log(2) / halfLife.toMillis();
+        this.weights = new double[]{viewWeight, favoriteWeight, ratingWeight};
+        this.feedSize = Math.max(1, feedSize);
+        this.refreshMillis = refreshInterval.toMillis();
+        this.snapshotFile = snapshotFile.isEmpty() ? null : Path.of(snapshotFile);
+    }
+
+    public void record(long recipeId, Event event) {
+        record(recipeId, event, 1, System.currentTimeMillis());
+    }
+
+    /**
+     * Adds {@code times} occurrences of {@code event} that happened at {@code now} (epoch millis).
+     */
+    public void record(long recipeId, Event event, int times, long now) {
+        lock.lock();
+        try {
+            double exponent = decayPerMilli * (now - epoch);
+            if (exponent > MAX_EXPONENT) {
+                rebase(now);
+                exponent = 0;
+            }
+            counters.computeIfAbsent(recipeId, id -> new double[1])[0] += times * weights[event.ordinal()] * Math.exp(exponent);
+            dirty = true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public void remove(long recipeId) {
+        lock.lock();
+        try {
+            if (counters.remove(recipeId) != null) {
+                dirty = true;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * The top {@code limit} recipes (at most {@code app.recipes.trending.feed-size}) with their decayed
+     * scores as of the snapshot they were read from.
+     */
+    public TrendingSlice top(int limit) {
+        return top(limit, System.currentTimeMillis());
+    }
+
+    TrendingSlice top(int limit, long now) {
+        if (dirty && now - lastPublished >= refreshMillis) {
+            lock.lock();
+            try {
+                if (dirty && now - lastPublished >= refreshMillis) {
+                    publish(now);
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+        Ranking ranking = latest;
+        int size = Math.min(Math.max(0, limit), ranking.ids.length);
+        List<Long> ids = new ArrayList<>(size);
+        List<Double> scores = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(ranking.ids[i]);
+            scores.add(ranking.scores[i]);
+        }
+        return new TrendingSlice(ranking.computedAt, ids, scores);
+    }
+
+    // Caller holds the lock.
+    private void publish(long now) {
+        PriorityQueue<Map.Entry<Long, double[]>> best = new PriorityQueue<>(feedSize + 1,
+                Comparator.comparingDouble((Map.Entry<Long, double[]> entry) -> entry.getValue()[0])
+                        .thenComparing(Map.Entry::getKey, Comparator.reverseOrder()));
+        for (Map.Entry<Long, double[]> entry : counters.entrySet()) {
+            best.add(entry);
+            if (best.size() > feedSize) {
+                best.poll();
+            }
+        }
+        double scale = Math.exp(-decayPerMilli * (now - epoch));
+        long[] ids = new long[best.size()];
+        double[] scores = new double[best.size()];
+        for (int i = ids.length - 1; i >= 0; i--) {
+            Map.Entry<Long, double[]> entry = best.poll();
+            ids[i] = entry.getKey();
+            scores[i] = entry.getValue()[0] * scale;
+        }
+        latest = new Ranking(ids, scores, now);
+        lastPublished = now;
+        dirty = false;
+    }
+
+    // Caller holds the lock.
+    private void rebase(long now) {
+        double scale = Math.exp(-decayPerMilli * (now - epoch));
+        Iterator<double[]> it = counters.values().iterator();
+        while (it.hasNext()) {
+            double[] counter = it.next();
+            counter[0] *= scale;
+            if (counter[0] < NEGLIGIBLE) {
+                it.remove();
+            }
+        }
+        epoch = now;
+    }
+
+    @PostConstruct
+    public void load() {
+        if (snapshotFile == null) {
+            return;
+        }
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile)))) {
+            if (in.readInt() != MAGIC || in.readInt() != FORMAT_VERSION) {
+                log.warn("Ignoring trending snapshot {} in an unknown format.", snapshotFile);
+                return;
+            }
+            long savedAt = in.readLong();
+            int size = in.readInt();
+            Map<Long, double[]> loaded = new HashMap<>(size * 2);
+            for (int i = 0; i < size; i++) {
+                loaded.put(in.readLong(), new double[]{in.readDouble()});
+            }
+            lock.lock();
+            try {
+                counters.clear();
+                counters.putAll(loaded);
+                epoch = savedAt;
+                dirty = true;
+            } finally {
+                lock.unlock();
+            }
+            log.info("Loaded {} trending counters saved at {}.", size, new Date(savedAt));
+        } catch (NoSuchFileException e) {
+            log.debug("No trending snapshot at {}; starting empty.", snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not read trending snapshot {}; starting empty.", snapshotFile, e);
+        }
+    }
+
+    @PreDestroy
+    @Scheduled(initialDelayString = "${app.recipes.trending.snapshot-interval:PT5M}",
+            fixedDelayString = "${app.recipes.trending.snapshot-interval:PT5M}")
+    public void save() {
+        if (snapshotFile == null) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        long[] ids;
+        double[] values;
+        lock.lock();
+        try {
+            // Stored values are decayed to now, so the file does not depend on the in-memory scale.
+            double scale = Math.exp(-decayPerMilli * (now - epoch));
+            ids = new long[counters.size()];
+            values = new double[counters.size()];
+            int i = 0;
+            for (Map.Entry<Long, double[]> entry : counters.entrySet()) {
+                ids[i] = entry.getKey();
+                values[i++] = entry.getValue()[0] * scale;
+            }
+        } finally {
+            lock.unlock();
+        }
+        try {
+            Path directory = snapshotFile.toAbsolutePath().getParent();
+            Files.createDirectories(directory);
+            Path temp = Files.createTempFile(directory, "trending-", ".part");
+            try {
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temp)))) {
+                    out.writeInt(MAGIC);
+                    out.writeInt(FORMAT_VERSION);
+                    out.writeLong(now);
+                    out.writeInt(ids.length);
+                    for (int i = 0; i < ids.length; i++) {
+                        out.writeLong(ids[i]);
+                        out.writeDouble(values[i]);
+                    }
+                }
+                Files.move(temp, snapshotFile, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } finally {
+                Files.deleteIfExists(temp);
+            }
+            log.debug("Saved {} trending counters to {}.", ids.length, snapshotFile);
+        } catch (IOException e) {
+            log.warn("Could not save trending snapshot {}.", snapshotFile, e);
+        }
+    }
+
+    private record Ranking(long[] ids, double[] scores, long computedAt) {
+        static final Ranking EMPTY = new Ranking(new long[0], new double[0], 0);
+    }
+}
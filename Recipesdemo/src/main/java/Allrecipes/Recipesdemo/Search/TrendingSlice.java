@@ -0,0 +1,10 @@
+package Allrecipes.Recipesdemo.Search;
+
+import java.util.List;
+
+/**
+ * The head of the trending ranking: recipe ids in rank order with their decayed scores, as of
+ * {@code computedAt} (epoch millis).
+ */
+public record TrendingSlice(long computedAt, List<Long> recipeIds, List<Double> scores) {
+}
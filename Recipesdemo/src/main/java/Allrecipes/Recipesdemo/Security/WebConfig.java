@@ -23,7 +23,7 @@ public class WebConfig {
                         .allowedOrigins("*")
                         .allowedMethods("GET", "POST", "PUT", "DELETE")
                         .allowedHeaders("Authorization", "Content-Type")
-                        .exposedHeaders("Authorization");
+                        .exposedHeaders("Authorization", "ETag", "Content-Range", "Accept-Ranges");
             }
         };
     }
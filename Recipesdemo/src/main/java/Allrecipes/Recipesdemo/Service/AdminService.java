@@ -4,6 +4,7 @@ import Allrecipes.Recipesdemo.Exceptions.RecipeNotFoundException;
 import Allrecipes.Recipesdemo.Recipe.Recipe;
 import Allrecipes.Recipesdemo.Entities.Enums.RecipeStatus;
 import Allrecipes.Recipesdemo.Repositories.RecipeRepository;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndexer;
 import lombok.RequiredArgsConstructor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -16,6 +17,7 @@ import java.util.List;
 @RequiredArgsConstructor
 public class AdminService {
     private final RecipeRepository recipeRepository;
+    private final RecipeSearchIndexer recipeSearchIndexer;
     private static final Logger logger = LoggerFactory.getLogger(AdminService.class);
 
     @Transactional(readOnly = true)
@@ -33,6 +35,7 @@ public class AdminService {
                 });
         recipe.setStatus(RecipeStatus.APPROVED); // Using enum constant directly
         recipeRepository.save(recipe);
+        recipeSearchIndexer.recipeFacetsChanged(recipe);
         logger.info("Recipe with ID {} approved.", id);
     }
 
@@ -46,6 +49,7 @@ public class AdminService {
                 });
         recipe.setStatus(RecipeStatus.REJECTED); // Using enum constant directly
         recipeRepository.save(recipe);
+        recipeSearchIndexer.recipeFacetsChanged(recipe);
         logger.info("Recipe with ID {} rejected.", id);
     }
 }
@@ -7,6 +7,7 @@ import Allrecipes.Recipesdemo.Entities.User;
 import Allrecipes.Recipesdemo.Exceptions.*;
 import Allrecipes.Recipesdemo.Repositories.RecipeRepository;
 import Allrecipes.Recipesdemo.Repositories.UserRepository;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndexer;
 import Allrecipes.Recipesdemo.Security.JWT.JWT;
 import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Value;
@@ -21,6 +22,7 @@ import java.util.stream.Collectors;
 public class CustomerService {
     private final UserRepository userRepository;
     private final RecipeRepository recipeRepository;
+    private final RecipeSearchIndexer recipeSearchIndexer;
     private final JWT jwt;
     
     // Admin configuration from environment variables
@@ -33,9 +35,11 @@ public class CustomerService {
     @Value("${admin.username:admin}")
     private String adminUsername;
 
-    public CustomerService(UserRepository userRepository, RecipeRepository recipeRepository) {
+    public CustomerService(UserRepository userRepository, RecipeRepository recipeRepository,
+                           RecipeSearchIndexer recipeSearchIndexer) {
         this.userRepository = userRepository;
         this.recipeRepository = recipeRepository;
+        this.recipeSearchIndexer = recipeSearchIndexer;
         this.jwt = new JWT();
     }
 
@@ -213,6 +217,7 @@ public class CustomerService {
         }
         user.getFavorites().add(recipe);
         userRepository.save(user);
+        recipeSearchIndexer.recipeFavorited(recipeId);
     }
 
     @Transactional
@@ -224,6 +229,7 @@ public class CustomerService {
         }
         user.getFavorites().remove(recipe);
         userRepository.save(user);
+        recipeSearchIndexer.recipeUnfavorited(recipeId);
     }
 
     @Transactional
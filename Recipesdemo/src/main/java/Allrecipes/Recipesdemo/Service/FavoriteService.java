@@ -6,6 +6,7 @@ import Allrecipes.Recipesdemo.Exceptions.FavoriteAlreadyExistsException;
 import Allrecipes.Recipesdemo.Exceptions.FavoriteNotFoundException;
 import Allrecipes.Recipesdemo.Recipe.Recipe;
 import Allrecipes.Recipesdemo.Repositories.FavoriteRepository;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndexer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
@@ -20,6 +21,7 @@ import java.util.Optional;
 public class FavoriteService {
 
     private final FavoriteRepository favoriteRepository;
+    private final RecipeSearchIndexer recipeSearchIndexer;
 
     @Transactional
     public Favorite addFavorite(User user, Recipe recipe) {
@@ -35,6 +37,7 @@ public class FavoriteService {
                 .recipe(recipe)
                 .build();
         Favorite savedFavorite = favoriteRepository.save(favorite);
+        recipeSearchIndexer.recipeFavorited(recipe.getId());
 
         log.info("Added recipe ID {} to favorites for user ID {}", recipe.getId(), user.getId());
         return savedFavorite;
@@ -51,6 +54,7 @@ public class FavoriteService {
         });
 
         favoriteRepository.delete(favorite);
+        recipeSearchIndexer.recipeUnfavorited(recipe.getId());
         log.info("Removed recipe ID {} from favorites for user ID {}", recipe.getId(), user.getId());
     }
 
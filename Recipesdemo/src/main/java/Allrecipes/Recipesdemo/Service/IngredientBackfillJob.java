@@ -0,0 +1,126 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Entities.CanonicalIngredient;
+import Allrecipes.Recipesdemo.Quantity.ParsedQuantity;
+import Allrecipes.Recipesdemo.Quantity.QuantityParser;
+import Allrecipes.Recipesdemo.Quantity.Rational;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Brings existing {@code ingredients} rows up to date with fields newer rows get on save: the
+ * {@link CanonicalIngredient} id and the parsed amount and unit.
+ *
+ * Each pass walks the rows still missing its field in id order, in batches of
+ * {@code app.ingredients.backfill.batch-size}, and writes results back with a JDBC batch update.
+ * Dictionary ids are resolved through the {@link IngredientDictionary} once per batch. Rows whose
+ * name has no content words keep a null id; every row gets a unit code, {@code OTHER} when the unit
+ * is not recognized. Once every row is mapped the job is a no-op.
+ */
+@Component
+@Slf4j
+public class IngredientBackfillJob {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IngredientDictionary ingredientDictionary;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public IngredientBackfillJob(JdbcTemplate jdbcTemplate,
+                                 IngredientDictionary ingredientDictionary,
+                                 @Value("${app.ingredients.backfill.enabled:true}") boolean enabled,
+                                 @Value("${app.ingredients.backfill.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ingredientDictionary = ingredientDictionary;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.debug("Ingredient dictionary backfill disabled.");
+            return;
+        }
+        backfill();
+        backfillQuantities();
+    }
+
+    /**
+     * Runs the dictionary backfill to completion and returns the number of rows mapped.
+     */
+    public int backfill() {
+        long lastId = 0;
+        int mapped = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, name FROM ingredients WHERE id > ? AND canonical_ingredient_id IS NULL ORDER BY id LIMIT ?",
+                    lastId, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<String> names = rows.stream().map(row -> (String) row.get("name")).toList();
+            Map<String, CanonicalIngredient> canonical = ingredientDictionary.resolveAll(names);
+
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                CanonicalIngredient entry = canonical.get(IngredientDictionary.normalize((String) row.get("name")));
+                if (entry != null) {
+                    updates.add(new Object[]{entry.getId(), row.get("id")});
+                }
+            }
+            jdbcTemplate.batchUpdate("UPDATE ingredients SET canonical_ingredient_id = ? WHERE id = ?", updates);
+            mapped += updates.size();
+            lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+            log.debug("Backfilled ingredient dictionary ids up to Ingredient ID {} ({} so far).", lastId, mapped);
+        }
+        if (mapped > 0) {
+            log.info("Ingredient dictionary backfill mapped {} rows.", mapped);
+        }
+        return mapped;
+    }
+
+    /**
+     * Parses quantity and unit text into the structured columns and returns the number of rows parsed.
+     */
+    public int backfillQuantities() {
+        long lastId = 0;
+        int parsed = 0;
+        while (true) {
+            List<Map<String, Object>> rows = jdbcTemplate.queryForList(
+                    "SELECT id, quantity, unit FROM ingredients WHERE id > ? AND unit_code IS NULL ORDER BY id LIMIT ?",
+                    lastId, batchSize);
+            if (rows.isEmpty()) {
+                break;
+            }
+            List<Object[]> updates = new ArrayList<>(rows.size());
+            for (Map<String, Object> row : rows) {
+                ParsedQuantity quantity = QuantityParser.parse((String) row.get("quantity"), (String) row.get("unit"));
+                Rational amount = quantity.amount();
+                updates.add(new Object[]{
+                        amount != null ? amount.getNumerator() : null,
+                        amount != null ? amount.getDenominator() : null,
+                        quantity.unit().name(),
+                        row.get("id")});
+            }
+            jdbcTemplate.batchUpdate(
+                    "UPDATE ingredients SET amount_numerator = ?, amount_denominator = ?, unit_code = ? WHERE id = ?", updates);
+            parsed += updates.size();
+            lastId = ((Number) rows.get(rows.size() - 1).get("id")).longValue();
+        }
+        if (parsed > 0) {
+            log.info("Ingredient quantity backfill parsed {} rows.", parsed);
+        }
+        return parsed;
+    }
+}
@@ -0,0 +1,128 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Entities.CanonicalIngredient;
+import Allrecipes.Recipesdemo.Repositories.CanonicalIngredientRepository;
+import Allrecipes.Recipesdemo.Search.TextAnalyzer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Maps free-text ingredient names to {@link CanonicalIngredient} ids.
+ *
+ * Names are normalized with {@link TextAnalyzer#key}. Resolved keys are interned in an in-process
+ * map, so after warm-up a lookup is a hash probe plus an entity reference, with no query. The
+ * dictionary only grows and has one entry per distinct ingredient, so the map is not bounded.
+ *
+ * New entries are inserted in their own transaction. When two requests add the same name at once,
+ * the loser hits the unique key and reads the winner's row instead.
+ */
+@Service
+@Slf4j
+public class IngredientDictionary {
+
+    private final CanonicalIngredientRepository canonicalIngredientRepository;
+    private final TransactionTemplate newTransaction;
+    private final Map<String, Long> idsByKey = new ConcurrentHashMap<>();
+
+    public IngredientDictionary(CanonicalIngredientRepository canonicalIngredientRepository,
+                                PlatformTransactionManager transactionManager) {
+        this.canonicalIngredientRepository = canonicalIngredientRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    public static String normalize(String name) {
+        return TextAnalyzer.key(name);
+    }
+
+    /**
+     * The dictionary entry for a name, created on first use; null when the name has no content
+     * words (for example "of").
+     */
+    @Transactional
+    public CanonicalIngredient resolve(String name) {
+        return resolveAll(List.of(name)).get(normalize(name));
+    }
+
+    /**
+     * Dictionary entries for many names at once, keyed by normalized name. Costs at most one
+     * query for the names not yet interned, plus an insert per name never seen before.
+     */
+    @Transactional
+    public Map<String, CanonicalIngredient> resolveAll(Collection<String> names) {
+        Map<String, String> firstSpelling = new LinkedHashMap<>();
+        for (String name : names) {
+            String key = normalize(name);
+            if (!key.isEmpty()) {
+                firstSpelling.putIfAbsent(key, name.trim());
+            }
+        }
+
+        Map<String, CanonicalIngredient> resolved = new HashMap<>();
+        List<String> misses = new ArrayList<>();
+        for (String key : firstSpelling.keySet()) {
+            Long id = idsByKey.get(key);
+            if (id != null) {
+                resolved.put(key, canonicalIngredientRepository.getReferenceById(id));
+            } else {
+                misses.add(key);
+            }
+        }
+        if (misses.isEmpty()) {
+            return resolved;
+        }
+
+        for (CanonicalIngredient existing : canonicalIngredientRepository.findByNormalizedNameIn(misses)) {
+            idsByKey.put(existing.getNormalizedName(), existing.getId());
+            resolved.put(existing.getNormalizedName(), existing);
+        }
+        for (String key : misses) {
+            if (!resolved.containsKey(key)) {
+                Long id = create(key, firstSpelling.get(key));
+                idsByKey.put(key, id);
+                resolved.put(key, canonicalIngredientRepository.getReferenceById(id));
+            }
+        }
+        return resolved;
+    }
+
+    /**
+     * The id for a name if it is in the dictionary; never creates an entry.
+     */
+    @Transactional(readOnly = true)
+    public Optional<Long> findId(String name) {
+        String key = normalize(name);
+        if (key.isEmpty()) {
+            return Optional.empty();
+        }
+        Long id = idsByKey.get(key);
+        if (id != null) {
+            return Optional.of(id);
+        }
+        Optional<Long> found = canonicalIngredientRepository.findByNormalizedName(key).map(CanonicalIngredient::getId);
+        found.ifPresent(value -> idsByKey.put(key, value));
+        return found;
+    }
+
+    private Long create(String key, String name) {
+        try {
+            Long id = newTransaction.execute(status -> canonicalIngredientRepository.saveAndFlush(
+                    CanonicalIngredient.builder().normalizedName(key).name(name).build()).getId());
+            log.debug("Added '{}' to the ingredient dictionary with ID {}.", key, id);
+            return id;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Ingredient '{}' was added concurrently; using the existing entry.", key);
+            return newTransaction.execute(status -> canonicalIngredientRepository.findByNormalizedName(key)
+                    .map(CanonicalIngredient::getId)
+                    .orElseThrow(() -> new IllegalStateException("Ingredient '" + key + "' vanished after a duplicate insert", e)));
+        }
+    }
+}
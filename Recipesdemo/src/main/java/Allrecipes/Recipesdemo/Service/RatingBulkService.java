@@ -0,0 +1,272 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Request.RatingCreateRequest;
+import Allrecipes.Recipesdemo.Response.BulkRatingResponse;
+import Allrecipes.Recipesdemo.Response.BulkRatingResult;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndexer;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Imports a batch of ratings with a fixed number of statements, whatever the batch size.
+ *
+ * Items are checked against the constraints on {@link RatingCreateRequest}. Recipe and user
+ * existence is checked with one IN query each, the ratings the batch touches are read and locked by
+ * their (recipe, user) pairs in chunks of {@value #LOCK_CHUNK}, and the writes go out as JDBC batches:
+ * the rating upserts, then the summed changes to {@code recipe_rating_stats} and
+ * {@code rating_daily_stats}. An existing rating is replaced, as with
+ * {@code PUT /api/ratings/recipe/{id}}. With MySQL the batches only collapse into multi-row
+ * statements when the connection URL sets {@code rewriteBatchedStatements=true}.
+ */
+@Service
+@Slf4j
+public class RatingBulkService {
+
+    private static final String FIND_RECIPES = "SELECT id FROM recipes WHERE id IN (:ids)";
+
+    private static final String FIND_USERS = "SELECT id FROM users WHERE id IN (:ids)";
+
+    // Pairs per locking query; each expands to two bind parameters.
+    private static final int LOCK_CHUNK = 500;
+
+    // Row constructors lock exactly the requested pairs, not the cross product of their recipes and users.
+    private static final String LOCK_EXISTING =
+            "SELECT recipe_id, user_id, score, comment, deleted, scored_at FROM ratings " +
+            "WHERE (recipe_id, user_id) IN (:pairs) FOR UPDATE";
+
+    // scored_at is assigned first because MySQL evaluates the assignments left to right.
+    private static final String UPSERT =
+            "INSERT INTO ratings (recipe_id, user_id, score, comment, deleted, created_at, updated_at, scored_at) " +
+            "VALUES (?, ?, ?, ?, false, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE scored_at = IF(deleted OR score <> VALUES(score), VALUES(scored_at), scored_at), " +
+            "score = VALUES(score), comment = VALUES(comment), deleted = false, updated_at = VALUES(updated_at)";
+
+    private static final String APPLY_TOTALS =
+            "INSERT INTO recipe_rating_stats (recipe_id, score_sum, rating_count, count_1, count_2, count_3, count_4, count_5) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE score_sum = score_sum + VALUES(score_sum), rating_count = rating_count + VALUES(rating_count), " +
+            "count_1 = count_1 + VALUES(count_1), count_2 = count_2 + VALUES(count_2), count_3 = count_3 + VALUES(count_3), " +
+            "count_4 = count_4 + VALUES(count_4), count_5 = count_5 + VALUES(count_5)";
+
+    private static final String APPLY_DAILY =
+            "INSERT INTO rating_daily_stats (recipe_id, day, count_1, count_2, count_3, count_4, count_5) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE count_1 = count_1 + VALUES(count_1), count_2 = count_2 + VALUES(count_2), " +
+            "count_3 = count_3 + VALUES(count_3), count_4 = count_4 + VALUES(count_4), count_5 = count_5 + VALUES(count_5)";
+
+    private static final String FIND_TOTALS =
+            "SELECT recipe_id, score_sum, rating_count FROM recipe_rating_stats WHERE recipe_id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final RecipeSearchIndexer recipeSearchIndexer;
+    private final Validator validator;
+    private final int maxBatchSize;
+
+    public RatingBulkService(NamedParameterJdbcTemplate jdbcTemplate, RecipeSearchIndexer recipeSearchIndexer,
+                             Validator validator,
+                             @Value("${app.ratings.bulk.max-batch-size:5000}") int maxBatchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.recipeSearchIndexer = recipeSearchIndexer;
+        this.validator = validator;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    private record Key(long recipeId, long userId) {
+    }
+
+    private record Existing(int score, String comment, boolean deleted, LocalDate scoredOn) {
+    }
+
+    /**
+     * Validates and upserts {@code items}, reporting one result per item. Invalid items, items for a
+     * missing recipe or user, and all but the last item for the same recipe and user are rejected
+     * without affecting the rest.
+     *
+     * @throws IllegalArgumentException if the batch is larger than {@code app.ratings.bulk.max-batch-size}
+     */
+    @Transactional
+    public BulkRatingResponse importRatings(List<RatingCreateRequest> items) {
+        if (items.size() > maxBatchSize) {
+            throw new IllegalArgumentException("A batch may hold at most " + maxBatchSize + " ratings.");
+        }
+        BulkRatingResult[] results = new BulkRatingResult[items.size()];
+
+        // Later items for the same recipe and user win, as if they had been sent one after another.
+        Map<Key, Integer> accepted = new HashMap<>();
+        for (int i = 0; i < items.size(); i++) {
+            String error = validate(items.get(i));
+            if (error != null) {
+                results[i] = BulkRatingResult.rejected(i, error);
+                continue;
+            }
+            Integer earlier = accepted.put(new Key(items.get(i).getRecipeId(), items.get(i).getUserId()), i);
+            if (earlier != null) {
+                results[earlier] = BulkRatingResult.rejected(earlier, "Superseded by item " + i + ".");
+            }
+        }
+
+        if (!accepted.isEmpty()) {
+            write(items, accepted, results);
+        }
+
+        int[] counts = new int[BulkRatingResult.Status.values().length];
+        for (BulkRatingResult result : results) {
+            counts[result.status().ordinal()]++;
+        }
+        log.info("Bulk rating import of {} items: {} created, {} updated, {} unchanged, {} rejected.", items.size(),
+                counts[0], counts[1], counts[2], counts[3]);
+        return new BulkRatingResponse(counts[0], counts[1], counts[2], counts[3], Arrays.asList(results));
+    }
+
+    private void write(List<RatingCreateRequest> items, Map<Key, Integer> accepted, BulkRatingResult[] results) {
+        Set<Long> recipeIds = new HashSet<>();
+        Set<Long> userIds = new HashSet<>();
+        accepted.keySet().forEach(key -> {
+            recipeIds.add(key.recipeId());
+            userIds.add(key.userId());
+        });
+        Set<Long> knownRecipes = new HashSet<>(jdbcTemplate.queryForList(FIND_RECIPES, Map.of("ids", recipeIds), Long.class));
+        Set<Long> knownUsers = new HashSet<>(jdbcTemplate.queryForList(FIND_USERS, Map.of("ids", userIds), Long.class));
+
+        accepted.entrySet().removeIf(entry -> {
+            Key key = entry.getKey();
+            if (!knownRecipes.contains(key.recipeId())) {
+                results[entry.getValue()] = BulkRatingResult.rejected(entry.getValue(), "Recipe not found with id: " + key.recipeId());
+                return true;
+            }
+            if (!knownUsers.contains(key.userId())) {
+                results[entry.getValue()] = BulkRatingResult.rejected(entry.getValue(), "User not found with id: " + key.userId());
+                return true;
+            }
+            return false;
+        });
+        if (accepted.isEmpty()) {
+            return;
+        }
+
+        Map<Key, Existing> existing = new HashMap<>();
+        List<Object[]> pairs = accepted.keySet().stream()
+                .map(key -> new Object[]{key.recipeId(), key.userId()})
+                .toList();
+        for (int from = 0; from < pairs.size(); from += LOCK_CHUNK) {
+            List<Object[]> chunk = pairs.subList(from, Math.min(from + LOCK_CHUNK, pairs.size()));
+            jdbcTemplate.query(LOCK_EXISTING, Map.of("pairs", chunk), rs -> {
+                Timestamp scoredAt = rs.getTimestamp(6);
+                existing.put(new Key(rs.getLong(1), rs.getLong(2)), new Existing(rs.getInt(3), rs.getString(4),
+                        rs.getBoolean(5), scoredAt != null ? scoredAt.toLocalDateTime().toLocalDate() : null));
+            });
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDate today = now.toLocalDate();
+        List<Object[]> upserts = new ArrayList<>(accepted.size());
+        Map<Long, long[]> totals = new HashMap<>();
+        Map<Long, Map<LocalDate, long[]>> daily = new HashMap<>();
+        Map<Long, Integer> rated = new HashMap<>();
+        accepted.forEach((key, index) -> {
+            RatingCreateRequest item = items.get(index);
+            int score = item.getScore();
+            Existing previous = existing.get(key);
+            BulkRatingResult.Status status;
+            if (previous == null) {
+                status = BulkRatingResult.Status.CREATED;
+            } else if (!previous.deleted() && previous.score() == score && Objects.equals(previous.comment(), item.getComment())) {
+                results[index] = new BulkRatingResult(index, BulkRatingResult.Status.UNCHANGED, null);
+                return;
+            } else {
+                status = BulkRatingResult.Status.UPDATED;
+            }
+            results[index] = new BulkRatingResult(index, status, null);
+            upserts.add(new Object[]{key.recipeId(), key.userId(), score, item.getComment(), now, now, now});
+
+            boolean live = previous != null && !previous.deleted();
+            if (live && previous.score() == score) {
+                return; // comment-only change
+            }
+            if (live) {
+                long[] delta = totals.computeIfAbsent(key.recipeId(), id -> new long[7]);
+                delta[0] -= previous.score();
+                delta[1]--;
+                delta[1 + previous.score()]--;
+                if (previous.scoredOn() != null) {
+                    daily.computeIfAbsent(key.recipeId(), id -> new HashMap<>())
+                            .computeIfAbsent(previous.scoredOn(), day -> new long[5])[previous.score() - 1]--;
+                }
+            }
+            rated.merge(key.recipeId(), 1, Integer::sum);
+            long[] delta = totals.computeIfAbsent(key.recipeId(), id -> new long[7]);
+            delta[0] += score;
+            delta[1]++;
+            delta[1 + score]++;
+            daily.computeIfAbsent(key.recipeId(), id -> new HashMap<>())
+                    .computeIfAbsent(today, day -> new long[5])[score - 1]++;
+        });
+
+        jdbcTemplate.getJdbcTemplate().batchUpdate(UPSERT, upserts);
+        applyStats(totals, daily);
+        rated.forEach(recipeSearchIndexer::recipeRated);
+    }
+
+    private void applyStats(Map<Long, long[]> totals, Map<Long, Map<LocalDate, long[]>> daily) {
+        List<Object[]> totalRows = new ArrayList<>(totals.size());
+        totals.forEach((recipeId, delta) -> {
+            // Sum and count can cancel out while the histogram still moves (1 -> 2 and 3 -> 2).
+            if (Arrays.stream(delta).anyMatch(value -> value != 0)) {
+                totalRows.add(new Object[]{recipeId, delta[0], delta[1], delta[2], delta[3], delta[4], delta[5], delta[6]});
+            }
+        });
+        List<Object[]> dailyRows = new ArrayList<>();
+        daily.forEach((recipeId, days) -> days.forEach((day, counts) -> {
+            if (Arrays.stream(counts).anyMatch(count -> count != 0)) {
+                dailyRows.add(new Object[]{recipeId, day, counts[0], counts[1], counts[2], counts[3], counts[4]});
+            }
+        }));
+        if (totalRows.isEmpty() && dailyRows.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.getJdbcTemplate().batchUpdate(APPLY_TOTALS, totalRows);
+        jdbcTemplate.getJdbcTemplate().batchUpdate(APPLY_DAILY, dailyRows);
+
+        if (!totalRows.isEmpty()) {
+            jdbcTemplate.query(FIND_TOTALS, Map.of("ids", totals.keySet()), rs -> {
+                recipeSearchIndexer.recipeRatingsChanged(rs.getLong(1), rs.getLong(2), rs.getLong(3));
+            });
+        }
+    }
+
+    /**
+     * The constraint violations of one item, sorted by field and joined, or null when it is valid.
+     */
+    private String validate(RatingCreateRequest item) {
+        if (item == null) {
+            return "Rating is required.";
+        }
+        Set<ConstraintViolation<RatingCreateRequest>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .sorted(Comparator.comparing(violation -> violation.getPropertyPath().toString()))
+                .map(ConstraintViolation::getMessage)
+                .collect(Collectors.joining("; ", "", "."));
+    }
+}
@@ -0,0 +1,116 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Entities.ArchivedRating;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Moves soft-deleted ratings out of {@code ratings} into {@link ArchivedRating}.
+ *
+ * A rating qualifies once it has been deleted for longer than {@code app.ratings.compaction.retention};
+ * until then rating the recipe again revives the row. Qualifying rows are walked in (deletion time, id)
+ * order, which the {@code (deleted, updated_at, id)} index serves without sorting, in batches of
+ * {@code app.ratings.compaction.batch-size}, each batch locked, copied and deleted in its
+ * own short transaction so live traffic is never blocked for long. A row revived after it was picked
+ * no longer matches the locked re-check and stays. The recipe totals and daily buckets only count
+ * live ratings, so archiving never changes them. Runs every {@code app.ratings.compaction.interval}.
+ */
+@Component
+@Slf4j
+public class RatingCompactionJob {
+
+    private static final String FIND_CANDIDATES =
+            "SELECT id, updated_at FROM ratings WHERE deleted = true AND updated_at < :cutoff " +
+            "AND (updated_at > :lastUpdated OR (updated_at = :lastUpdated AND id > :lastId)) " +
+            "ORDER BY updated_at, id LIMIT :limit";
+
+    private static final String LOCK =
+            "SELECT id FROM ratings WHERE id IN (:ids) AND deleted = true AND updated_at < :cutoff FOR UPDATE";
+
+    private static final String COPY =
+            "INSERT IGNORE INTO ratings_archive (id, recipe_id, user_id, score, comment, created_at, updated_at, scored_at, archived_at) " +
+            "SELECT id, recipe_id, user_id, score, comment, created_at, updated_at, scored_at, :now FROM ratings WHERE id IN (:ids)";
+
+    private static final String DELETE = "DELETE FROM ratings WHERE id IN (:ids)";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final Duration retention;
+    private final int batchSize;
+
+    public RatingCompactionJob(NamedParameterJdbcTemplate jdbcTemplate,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${app.ratings.compaction.enabled:true}") boolean enabled,
+                               @Value("${app.ratings.compaction.retention:P30D}") Duration retention,
+                               @Value("${app.ratings.compaction.batch-size:500}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.retention = retention;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.ratings.compaction.initial-delay:PT10M}",
+            fixedDelayString = "${app.ratings.compaction.interval:PT24H}")
+    public void onSchedule() {
+        if (!enabled) {
+            log.debug("Rating compaction disabled.");
+            return;
+        }
+        compact();
+    }
+
+    /**
+     * Runs one compaction pass and returns the number of ratings archived.
+     */
+    public int compact() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(retention);
+        LocalDateTime lastUpdated = LocalDateTime.of(1970, 1, 1, 0, 0);
+        long lastId = 0;
+        int archived = 0;
+        while (true) {
+            List<Object[]> candidates = jdbcTemplate.query(FIND_CANDIDATES, new MapSqlParameterSource()
+                    .addValue("cutoff", cutoff)
+                    .addValue("lastUpdated", lastUpdated)
+                    .addValue("lastId", lastId)
+                    .addValue("limit", batchSize),
+                    (rs, rowNum) -> new Object[]{rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()});
+            if (candidates.isEmpty()) {
+                break;
+            }
+            List<Long> ids = candidates.stream().map(candidate -> (Long) candidate[0]).toList();
+            Integer moved = transactionTemplate.execute(status -> {
+                List<Long> locked = jdbcTemplate.queryForList(LOCK, new MapSqlParameterSource()
+                        .addValue("ids", ids)
+                        .addValue("cutoff", cutoff), Long.class);
+                if (locked.isEmpty()) {
+                    return 0;
+                }
+                MapSqlParameterSource batch = new MapSqlParameterSource()
+                        .addValue("ids", locked)
+                        .addValue("now", LocalDateTime.now());
+                jdbcTemplate.update(COPY, batch);
+                return jdbcTemplate.update(DELETE, batch);
+            });
+            archived += moved != null ? moved : 0;
+            Object[] last = candidates.get(candidates.size() - 1);
+            lastId = (Long) last[0];
+            lastUpdated = (LocalDateTime) last[1];
+        }
+        if (archived > 0) {
+            log.info("Archived {} ratings deleted before {}.", archived, cutoff);
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,79 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Rating.RatingResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Service;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+
+/**
+ * Writes every active rating as newline-delimited JSON.
+ *
+ * Rows are read with a forward-only, read-only JDBC cursor at a fixed fetch size and each one is
+ * written to the output as soon as it is read, so memory stays flat whatever the table size. With
+ * MySQL the fetch size only takes effect when the connection URL sets {@code useCursorFetch=true};
+ * otherwise the driver buffers the whole result.
+ */
+@Service
+@Slf4j
+public class RatingExportService {
+
+    private static final String EXPORT =
+            "SELECT r.id, r.score, r.comment, r.recipe_id, r.user_id, rc.name, u.username " +
+            "FROM ratings r JOIN recipes rc ON rc.id = r.recipe_id JOIN users u ON u.id = r.user_id " +
+            "WHERE r.deleted = false ORDER BY r.id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectWriter writer;
+
+    public RatingExportService(DataSource dataSource, ObjectMapper objectMapper,
+                               @Value("${app.ratings.export.fetch-size:500}") int fetchSize) {
+        // A template of our own so the fetch size does not leak into other queries.
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.writer = objectMapper.writerFor(RatingResponse.class);
+    }
+
+    /**
+     * Streams the ratings to {@code out}, one JSON object per line, and returns how many were written.
+     * The caller owns {@code out} and closes it.
+     */
+    public long export(OutputStream out) throws IOException {
+        long[] written = {0};
+        RowCallbackHandler handler = rs -> {
+            RatingResponse rating = RatingResponse.builder()
+                    .id(rs.getLong(1))
+                    .score(rs.getInt(2))
+                    .comment(rs.getString(3))
+                    .recipeId(rs.getLong(4))
+                    .userId(rs.getLong(5))
+                    .recipeName(rs.getString(6))
+                    .userName(rs.getString(7))
+                    .build();
+            try {
+                out.write(writer.writeValueAsBytes(rating));
+                out.write('\n');
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            written[0]++;
+        };
+        try {
+            jdbcTemplate.query(EXPORT, handler);
+        } catch (UncheckedIOException e) {
+            // Usually the client went away; the cursor is closed on the way out.
+            throw e.getCause();
+        }
+        out.flush();
+        log.info("Exported {} ratings.", written[0]);
+        return written[0];
+    }
+}
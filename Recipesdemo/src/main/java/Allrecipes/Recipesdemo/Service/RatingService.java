@@ -4,21 +4,27 @@ import Allrecipes.Recipesdemo.Entities.Rating;
 import Allrecipes.Recipesdemo.Entities.User;
 import Allrecipes.Recipesdemo.Exceptions.ResourceNotFoundException;
 import Allrecipes.Recipesdemo.Exceptions.UnauthorizedActionException;
+import Allrecipes.Recipesdemo.Rating.RatingCursor;
 import Allrecipes.Recipesdemo.Rating.RatingResponse;
 import Allrecipes.Recipesdemo.Rating.RatingUpdateRequest;
 import Allrecipes.Recipesdemo.Recipe.Recipe;
+import Allrecipes.Recipesdemo.Repositories.RatingDailyStatsRepository;
 import Allrecipes.Recipesdemo.Repositories.RatingRepository;
+import Allrecipes.Recipesdemo.Repositories.RecipeRatingStatsRepository;
 import Allrecipes.Recipesdemo.Repositories.RecipeRepository;
-import Allrecipes.Recipesdemo.Repositories.UserRepository;
 import Allrecipes.Recipesdemo.Request.RatingCreateRequest;
+import Allrecipes.Recipesdemo.Response.CursorPage;
 import Allrecipes.Recipesdemo.Response.RatingMapper;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndexer;
 import jakarta.validation.ValidationException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -27,47 +33,79 @@ import java.util.stream.Collectors;
 @Slf4j
 public class RatingService {
 
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final RatingRepository ratingRepository;
     private final RecipeRepository recipeRepository;
-    private final UserRepository userRepository;
     private final RatingMapper ratingMapper;
+    private final RecipeRatingStatsRepository ratingStatsRepository;
+    private final RatingDailyStatsRepository dailyStatsRepository;
+    private final RecipeSearchIndexer recipeSearchIndexer;
 
     @Transactional
     public RatingResponse createRating(RatingCreateRequest request) {
         log.debug("Creating rating with Recipe ID: {} and User ID: {}", request.getRecipeId(), request.getUserId());
+        Rating rating = saveRating(request.getRecipeId(), request.getUserId(), request.getScore(), request.getComment(), false);
+        log.info("Rating created with ID: {}", rating.getId());
+        return ratingMapper.toDto(rating);
+    }
 
-        Recipe recipe = recipeRepository.findById(request.getRecipeId())
-                .orElseThrow(() -> {
-                    log.error("Recipe not found with id: {}", request.getRecipeId());
-                    return new ResourceNotFoundException("Recipe not found with id: " + request.getRecipeId());
-                });
+    /**
+     * Creates or replaces the user's rating of a recipe.
+     */
+    @Transactional
+    public RatingResponse rateRecipe(Long recipeId, RatingUpdateRequest request, User requestingUser) {
+        log.debug("Rating Recipe ID: {} by User ID: {}", recipeId, requestingUser.getId());
+        Rating rating = saveRating(recipeId, requestingUser.getId(), request.getScore(), request.getComment(), true);
+        log.info("Rating saved with ID: {}", rating.getId());
+        return ratingMapper.toDto(rating);
+    }
 
-        User user = userRepository.findById(request.getUserId())
+    /**
+     * The single write path for new scores, shared with {@link RecipeReviewService}.
+     *
+     * The row is inserted first and the unique (recipe, user) constraint decides whether it already
+     * existed, so a first rating costs no lookup beforehand. The row is then read back under a lock.
+     * An existing live rating is replaced when {@code replace} is set and rejected otherwise; a
+     * deleted one is revived either way.
+     */
+    @Transactional
+    public Rating saveRating(Long recipeId, Long userId, Integer score, String comment, boolean replace) {
+        if (score == null || score < 1 || score > 5) {
+            log.error("Invalid score: {}. Score must be between 1 and 5.", score);
+            throw new ValidationException("Score must be between 1 and 5.");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        boolean inserted = ratingRepository.insertIfAbsent(recipeId, userId, score, comment, now) == 1;
+        Rating rating = ratingRepository.findForUpdate(recipeId, userId)
                 .orElseThrow(() -> {
-                    log.error("User not found with id: {}", request.getUserId());
-                    return new ResourceNotFoundException("User not found with id: " + request.getUserId());
+                    if (!recipeRepository.existsById(recipeId)) {
+                        log.error("Recipe not found with id: {}", recipeId);
+                        return new ResourceNotFoundException("Recipe not found with id: " + recipeId);
+                    }
+                    log.error("User not found with id: {}", userId);
+                    return new ResourceNotFoundException("User not found with id: " + userId);
                 });
+        if (inserted) {
+            applyStatsChange(recipeId, null, null, score, now);
+            return rating;
+        }
 
-        if (ratingRepository.existsByRecipeIdAndUserId(recipe.getId(), user.getId())) {
-            log.error("User ID {} has already rated Recipe ID {}", user.getId(), recipe.getId());
+        if (!rating.isDeleted() && !replace) {
+            log.error("User ID {} has already rated Recipe ID {}", userId, recipeId);
             throw new ValidationException("User has already rated this recipe.");
         }
-
-        if (request.getScore() < 1 || request.getScore() > 5) {
-            log.error("Invalid score: {}. Score must be between 1 and 5.", request.getScore());
-            throw new ValidationException("Score must be between 1 and 5.");
+        Integer previousScore = rating.isDeleted() ? null : rating.getScore();
+        LocalDateTime previousScoredAt = rating.getScoredAt();
+        if (!score.equals(previousScore)) {
+            rating.setScore(score);
+            rating.setScoredAt(now);
         }
-
-        Rating rating = Rating.builder()
-                .score(request.getScore())
-                .comment(request.getComment())
-                .recipe(recipe)
-                .user(user)
-                .build();
-
-        Rating savedRating = ratingRepository.save(rating);
-        log.info("Rating created with ID: {}", savedRating.getId());
-        return ratingMapper.toDto(savedRating);
+        rating.setComment(comment);
+        rating.setDeleted(false);
+        applyStatsChange(recipeId, previousScore, previousScoredAt, score, rating.getScoredAt());
+        return rating;
     }
 
     @Transactional(readOnly = true)
@@ -97,12 +135,17 @@ public class RatingService {
             throw new UnauthorizedActionException("You are not authorized to modify this rating.");
         }
 
+        int previousScore = rating.getScore();
+        LocalDateTime previousScoredAt = rating.getScoredAt();
         if (request.getScore() != null) {
             if (request.getScore() < 1 || request.getScore() > 5) {
                 log.error("Invalid score: {}. Score must be between 1 and 5.", request.getScore());
                 throw new ValidationException("Score must be between 1 and 5.");
             }
-            rating.setScore(request.getScore());
+            if (request.getScore() != previousScore) {
+                rating.setScore(request.getScore());
+                rating.setScoredAt(LocalDateTime.now());
+            }
             log.debug("Updated score to {}", request.getScore());
         }
 
@@ -112,6 +155,10 @@ public class RatingService {
         }
 
         Rating updatedRating = ratingRepository.save(rating);
+        if (!updatedRating.isDeleted()) {
+            applyStatsChange(updatedRating.getRecipe().getId(), previousScore, previousScoredAt,
+                    updatedRating.getScore(), updatedRating.getScoredAt());
+        }
         log.info("Rating updated with ID: {}", updatedRating.getId());
         return ratingMapper.toDto(updatedRating);
     }
@@ -131,17 +178,29 @@ public class RatingService {
             throw new UnauthorizedActionException("You are not authorized to delete this rating.");
         }
 
-        ratingRepository.delete(rating);
+        if (!rating.isDeleted()) {
+            rating.setDeleted(true);
+            applyStatsChange(rating.getRecipe().getId(), rating.getScore(), rating.getScoredAt(), null, null);
+        }
         log.info("Rating deleted with ID: {}", id);
     }
 
+    /**
+     * Keyset-paginated listing of active ratings in id order: the {@code limit} ratings after
+     * {@code after} (null for the first slice). Cost does not grow with how deep the client has paged.
+     */
     @Transactional(readOnly = true)
-    public List<RatingResponse> getAllRatings() {
-        log.debug("Fetching all active ratings.");
-        return ratingRepository.findAllActive()
-                .stream()
-                .map(ratingMapper::toDto)
-                .collect(Collectors.toList());
+    public CursorPage<RatingResponse> getRatingsAfter(String after, int limit) {
+        int size = Math.max(1, Math.min(limit, MAX_PAGE_SIZE));
+        long afterId = after != null && !after.isEmpty() ? RatingCursor.decode(after).id() : 0;
+        log.debug("Fetching active ratings after ID {} - Limit: {}", afterId, size);
+
+        // One extra row tells us whether there is a next slice without counting.
+        List<RatingResponse> rows = ratingRepository.findActiveAfter(afterId, PageRequest.of(0, size + 1));
+        boolean hasNext = rows.size() > size;
+        List<RatingResponse> content = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = hasNext ? new RatingCursor(content.get(content.size() - 1).getId()).encode() : null;
+        return new CursorPage<>(content, nextCursor, null);
     }
 
     @Transactional(readOnly = true)
@@ -172,6 +231,24 @@ public class RatingService {
                 .collect(Collectors.toList());
     }
 
-
-
+    /**
+     * Updates the recipe's rating totals and daily buckets, reports the new totals to the
+     * leaderboard and counts a new score towards trending. A removed score without a known day
+     * (rows written before scoredAt existed) is left in its bucket for the reconciliation job to
+     * correct.
+     */
+    private void applyStatsChange(Long recipeId, Integer removedScore, LocalDateTime removedAt,
+                                  Integer addedScore, LocalDateTime addedAt) {
+        if (!ratingStatsRepository.applyChange(recipeId, removedScore, addedScore)) {
+            return;
+        }
+        if (addedScore != null) {
+            recipeSearchIndexer.recipeRated(recipeId, 1);
+        }
+        dailyStatsRepository.applyChange(recipeId, removedScore, removedAt != null ? removedAt.toLocalDate() : null,
+                addedScore, addedAt != null ? addedAt.toLocalDate() : null);
+        for (Object[] totals : ratingStatsRepository.findTotals(recipeId)) {
+            recipeSearchIndexer.recipeRatingsChanged(recipeId, (Long) totals[0], (Long) totals[1]);
+        }
+    }
 }
@@ -1,44 +1,193 @@
 package Allrecipes.Recipesdemo.Service;
 
+import Allrecipes.Recipesdemo.DTOs.RatingStatisticsDTO;
+import Allrecipes.Recipesdemo.Entities.RecipeRatingStats;
 import Allrecipes.Recipesdemo.Exceptions.ResourceNotFoundException;
-import Allrecipes.Recipesdemo.Recipe.Recipe;
-import Allrecipes.Recipesdemo.Repositories.RatingRepository;
+import Allrecipes.Recipesdemo.Rating.LeaderboardEntry;
+import Allrecipes.Recipesdemo.Rating.LeaderboardPage;
+import Allrecipes.Recipesdemo.Rating.RatingDistribution;
+import Allrecipes.Recipesdemo.Rating.RatingStatsReport;
+import Allrecipes.Recipesdemo.Rating.RatingTrendPoint;
+import Allrecipes.Recipesdemo.Rating.RatingWindow;
+import Allrecipes.Recipesdemo.Recipe.RecipeSummary;
+import Allrecipes.Recipesdemo.Repositories.RatingDailyStatsRepository;
+import Allrecipes.Recipesdemo.Repositories.RecipeRatingStatsRepository;
 import Allrecipes.Recipesdemo.Repositories.RecipeRepository;
+import Allrecipes.Recipesdemo.Search.LeaderboardSlice;
+import Allrecipes.Recipesdemo.Search.RatingLeaderboard;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class RatingStatisticsService {
 
-    private final RatingRepository ratingRepository;
+    // Longest range a report may cover, so a daily series stays a reasonable size.
+    private static final long MAX_RANGE_DAYS = 3 * 366;
+    private static final long DEFAULT_RANGE_DAYS = 90;
+
     private final RecipeRepository recipeRepository;
+    private final RecipeRatingStatsRepository ratingStatsRepository;
+    private final RatingDailyStatsRepository dailyStatsRepository;
+    private final RatingLeaderboard ratingLeaderboard;
+    private final RecipeQueryService recipeQueryService;
+
+    /**
+     * A page of the top-rated board, overall or for one category, served from {@link RatingLeaderboard}.
+     * Only the recipes on the page are loaded.
+     *
+     * @throws IllegalStateException while the leaderboard is still being built at startup
+     */
+    @Transactional(readOnly = true)
+    public LeaderboardPage getTopRatedRecipes(Long categoryId, Long snapshot, int offset, int limit) {
+        if (!ratingLeaderboard.isReady()) {
+            throw new IllegalStateException("The top-rated board is still warming up; try again shortly.");
+        }
+        int size = Math.max(1, Math.min(limit, RecipeQueryService.MAX_CURSOR_LIMIT));
+        LeaderboardSlice slice = ratingLeaderboard.page(categoryId, snapshot, Math.max(0, offset), size);
+        Map<Long, RecipeSummary> summaries = recipeQueryService.getSummariesByIds(slice.recipeIds()).stream()
+                .collect(Collectors.toMap(RecipeSummary::id, summary -> summary));
+        List<LeaderboardEntry> entries = new ArrayList<>(slice.recipeIds().size());
+        for (int i = 0; i < slice.recipeIds().size(); i++) {
+            RecipeSummary summary = summaries.get(slice.recipeIds().get(i));
+            if (summary != null) {
+                entries.add(new LeaderboardEntry(Math.max(0, offset) + i + 1, summary, slice.scores().get(i)));
+            }
+        }
+        log.debug("Served {} top-rated recipes from leaderboard snapshot {}.", entries.size(), slice.snapshot());
+        return new LeaderboardPage(slice.snapshot(), slice.total(), entries);
+    }
 
+    /**
+     * Average, count and score histogram of a recipe's active ratings, read from the
+     * maintained totals rather than aggregated from {@code ratings}.
+     */
     @Transactional(readOnly = true)
-    public List<Recipe> getTopRatedRecipes(int topN) {
-        log.debug("Fetching top {} rated recipes.", topN);
-        Pageable pageable = PageRequest.of(0, topN);
-        List<Recipe> topRecipes = ratingRepository.findTopRatedRecipes(pageable);
-        log.info("Retrieved {} top-rated recipes.", topRecipes.size());
-        return topRecipes;
+    public RatingStatisticsDTO getStatistics(Long recipeId) {
+        log.debug("Fetching rating statistics for Recipe ID: {}", recipeId);
+        RecipeRatingStats stats = ratingStatsRepository.findById(recipeId).orElse(null);
+        if (stats == null) {
+            if (!recipeRepository.existsById(recipeId)) {
+                log.error("Recipe not found with id: {}", recipeId);
+                throw new ResourceNotFoundException("Recipe not found with id: " + recipeId);
+            }
+            return new RatingStatisticsDTO(recipeId, 0, 0, new long[5]);
+        }
+        Double average = stats.getAverage();
+        return new RatingStatisticsDTO(recipeId, average != null ? average : 0, stats.getRatingCount(), stats.getHistogram());
     }
 
     @Transactional(readOnly = true)
     public long getTotalRatingsForRecipe(Long recipeId) {
-        log.debug("Counting total ratings for Recipe ID: {}", recipeId);
-        if (!recipeRepository.existsById(recipeId)) {
+        long count = getStatistics(recipeId).getTotalRatings();
+        log.info("Total ratings for Recipe ID {}: {}", recipeId, count);
+        return count;
+    }
+
+    /**
+     * Histogram, mean, variance, percentiles and a per-window trend of the ratings given between
+     * {@code from} and {@code to} (inclusive; the last 90 days by default), for one recipe, one
+     * category or, when both are null, every recipe. Built from the per-day buckets in
+     * {@code rating_daily_stats}; raw ratings are never read.
+     *
+     * @throws IllegalArgumentException for an inverted or over-long range, or both a recipe and a category
+     * @throws ResourceNotFoundException if the recipe has no ratings in range and does not exist
+     */
+    @Transactional(readOnly = true)
+    public RatingStatsReport getDistribution(Long recipeId, Long categoryId, LocalDate from, LocalDate to,
+                                             RatingWindow window) {
+        if (recipeId != null && categoryId != null) {
+            throw new IllegalArgumentException("Ask for a recipe or a category, not both.");
+        }
+        LocalDate end = to != null ? to : LocalDate.now();
+        LocalDate start = from != null ? from : end.minusDays(DEFAULT_RANGE_DAYS - 1);
+        if (start.isAfter(end)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'.");
+        }
+        if (ChronoUnit.DAYS.between(start, end) >= MAX_RANGE_DAYS) {
+            throw new IllegalArgumentException("Range must be at most " + MAX_RANGE_DAYS + " days.");
+        }
+        log.debug("Building rating distribution - Recipe: {}, Category: {}, From: {}, To: {}, Window: {}",
+                recipeId, categoryId, start, end, window);
+
+        List<Object[]> rows = recipeId != null ? dailyStatsRepository.findByRecipe(recipeId, start, end)
+                : categoryId != null ? dailyStatsRepository.findByCategory(categoryId, start, end)
+                : dailyStatsRepository.findOverall(start, end);
+        if (rows.isEmpty() && recipeId != null && !recipeRepository.existsById(recipeId)) {
             log.error("Recipe not found with id: {}", recipeId);
             throw new ResourceNotFoundException("Recipe not found with id: " + recipeId);
         }
-        long count = ratingRepository.countByRecipeId(recipeId);
-        log.info("Total ratings for Recipe ID {}: {}", recipeId, count);
-        return count;
+
+        TreeMap<LocalDate, RatingDistribution> byWindow = new TreeMap<>();
+        for (LocalDate bucket = window.start(start); !bucket.isAfter(end); bucket = next(bucket, window)) {
+            byWindow.put(bucket, new RatingDistribution());
+        }
+        RatingDistribution total = new RatingDistribution();
+        for (Object[] row : rows) {
+            RatingDistribution day = new RatingDistribution();
+            day.add(row, 1);
+            byWindow.get(window.start((LocalDate) row[0])).add(day);
+            total.add(day);
+        }
+
+        List<RatingTrendPoint> points = new ArrayList<>(byWindow.size());
+        byWindow.forEach((bucket, distribution) ->
+                points.add(new RatingTrendPoint(bucket, distribution.getCount(), distribution.getMean())));
+        return new RatingStatsReport(recipeId, categoryId, start, end, window, total.getCount(), total.getHistogram(),
+                total.getMean(), total.getVariance(), total.percentile(0.5), total.percentile(0.9), points, trend(points));
+    }
+
+    private static LocalDate next(LocalDate bucket, RatingWindow window) {
+        return switch (window) {
+            case DAY -> bucket.plusDays(1);
+            case WEEK -> bucket.plusWeeks(1);
+            case MONTH -> bucket.plusMonths(1);
+        };
+    }
+
+    /**
+     * Count-weighted least-squares slope of the window means against the window index; null with
+     * fewer than two rated windows.
+     */
+    static Double trend(List<RatingTrendPoint> points) {
+        double weight = 0;
+        double sumX = 0;
+        double sumY = 0;
+        int rated = 0;
+        for (int i = 0; i < points.size(); i++) {
+            RatingTrendPoint point = points.get(i);
+            if (point.count() > 0) {
+                weight += point.count();
+                sumX += point.count() * (double) i;
+                sumY += point.count() * point.mean();
+                rated++;
+            }
+        }
+        if (rated < 2) {
+            return null;
+        }
+        double meanX = sumX / weight;
+        double meanY = sumY / weight;
+        double covariance = 0;
+        double varianceX = 0;
+        for (int i = 0; i < points.size(); i++) {
+            RatingTrendPoint point = points.get(i);
+            if (point.count() > 0) {
+                covariance += point.count() * (i - meanX) * (point.mean() - meanY);
+                varianceX += point.count() * (i - meanX) * (i - meanX);
+            }
+        }
+        return covariance / varianceX;
     }
 }
@@ -0,0 +1,120 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Entities.RatingDailyStats;
+import Allrecipes.Recipesdemo.Entities.RecipeRatingStats;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndexer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Rewrites {@link RecipeRatingStats} and {@link RatingDailyStats} from the {@code ratings} table.
+ *
+ * The write paths keep the totals current on their own; this repairs rows left behind by anything
+ * that bypasses {@code RatingService} (admin SQL, imports, the rows that existed before the table).
+ * Recipes are walked in id order in batches of {@code app.ratings.stats.reconcile-batch-size}; each
+ * batch recomputes its totals with one grouped upsert, zeroes recipes whose ratings are all gone
+ * and rebuilds its daily buckets, all in one transaction. Finally rows for deleted recipes are
+ * dropped. Runs shortly after startup and then every {@code app.ratings.stats.reconcile-interval}.
+ *
+ * Each committed batch is also pushed to the rating leaderboard, which corrects totals that
+ * out-of-order commit callbacks left stale.
+ */
+@Component
+@Slf4j
+public class RatingStatsReconciliationJob {
+
+    private static final String RECOMPUTE =
+            "INSERT INTO recipe_rating_stats (recipe_id, score_sum, rating_count, count_1, count_2, count_3, count_4, count_5) " +
+            "SELECT recipe_id, SUM(score), COUNT(*), SUM(score = 1), SUM(score = 2), SUM(score = 3), SUM(score = 4), SUM(score = 5) " +
+            "FROM ratings WHERE deleted = false AND recipe_id > ? AND recipe_id <= ? GROUP BY recipe_id " +
+            "ON DUPLICATE KEY UPDATE score_sum = VALUES(score_sum), rating_count = VALUES(rating_count), " +
+            "count_1 = VALUES(count_1), count_2 = VALUES(count_2), count_3 = VALUES(count_3), " +
+            "count_4 = VALUES(count_4), count_5 = VALUES(count_5)";
+
+    private static final String ZERO_UNRATED =
+            "UPDATE recipe_rating_stats s SET score_sum = 0, rating_count = 0, count_1 = 0, count_2 = 0, count_3 = 0, " +
+            "count_4 = 0, count_5 = 0 WHERE s.recipe_id > ? AND s.recipe_id <= ? AND s.rating_count <> 0 " +
+            "AND NOT EXISTS (SELECT 1 FROM ratings r WHERE r.recipe_id = s.recipe_id AND r.deleted = false)";
+
+    private static final String CLEAR_DAILY =
+            "DELETE FROM rating_daily_stats WHERE recipe_id > ? AND recipe_id <= ?";
+
+    // Rows written before scored_at existed fall back to their last write.
+    private static final String RECOMPUTE_DAILY =
+            "INSERT INTO rating_daily_stats (recipe_id, day, count_1, count_2, count_3, count_4, count_5) " +
+            "SELECT recipe_id, DATE(COALESCE(scored_at, updated_at, created_at)) AS day, " +
+            "SUM(score = 1), SUM(score = 2), SUM(score = 3), SUM(score = 4), SUM(score = 5) " +
+            "FROM ratings WHERE deleted = false AND recipe_id > ? AND recipe_id <= ? " +
+            "AND COALESCE(scored_at, updated_at, created_at) IS NOT NULL GROUP BY recipe_id, day";
+
+    private static final String DROP_ORPHANS =
+            "DELETE FROM recipe_rating_stats WHERE NOT EXISTS (SELECT 1 FROM recipes r WHERE r.id = recipe_rating_stats.recipe_id)";
+
+    private static final String DROP_DAILY_ORPHANS =
+            "DELETE FROM rating_daily_stats WHERE NOT EXISTS (SELECT 1 FROM recipes r WHERE r.id = rating_daily_stats.recipe_id)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final RecipeSearchIndexer recipeSearchIndexer;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public RatingStatsReconciliationJob(JdbcTemplate jdbcTemplate,
+                                        PlatformTransactionManager transactionManager,
+                                        RecipeSearchIndexer recipeSearchIndexer,
+                                        @Value("${app.ratings.stats.reconcile-enabled:true}") boolean enabled,
+                                        @Value("${app.ratings.stats.reconcile-batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.recipeSearchIndexer = recipeSearchIndexer;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(initialDelayString = "${app.ratings.stats.reconcile-initial-delay:PT1M}",
+            fixedDelayString = "${app.ratings.stats.reconcile-interval:PT6H}")
+    public void onSchedule() {
+        if (!enabled) {
+            log.debug("Rating stats reconciliation disabled.");
+            return;
+        }
+        reconcile();
+    }
+
+    /**
+     * Runs one reconciliation pass and returns the number of recipes visited.
+     */
+    public int reconcile() {
+        long lastId = 0;
+        int visited = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM recipes WHERE id > ? ORDER BY id LIMIT ?", Long.class, lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long from = lastId;
+            long upTo = ids.get(ids.size() - 1);
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.update(RECOMPUTE, from, upTo);
+                jdbcTemplate.update(ZERO_UNRATED, from, upTo);
+                jdbcTemplate.update(CLEAR_DAILY, from, upTo);
+                jdbcTemplate.update(RECOMPUTE_DAILY, from, upTo);
+            });
+            recipeSearchIndexer.refreshRatings(ids);
+            visited += ids.size();
+            lastId = upTo;
+        }
+        int dropped = jdbcTemplate.update(DROP_ORPHANS);
+        jdbcTemplate.update(DROP_DAILY_ORPHANS);
+        log.info("Rating stats reconciled for {} recipes; {} orphaned rows dropped.", visited, dropped);
+        return visited;
+    }
+}
@@ -0,0 +1,109 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Entities.Category;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import Allrecipes.Recipesdemo.Utils.TransactionUtils;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Recipe counts per listing filter (all recipes, or one category), so paged responses can report
+ * {@code totalElements} without a COUNT(*) on every request.
+ *
+ * Write paths report what changed and cached counts are adjusted in place once the transaction
+ * commits; filters nobody has asked for yet are not tracked. Every entry is also reloaded after
+ * {@code app.recipes.count-cache.ttl}, which bounds drift from writes that bypass the services.
+ * Counts are therefore approximate between a write and its commit.
+ */
+@Component
+@Slf4j
+public class RecipeCountCache {
+
+    public static final String ALL = "all";
+
+    private final long ttlMillis;
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public RecipeCountCache(@Value("${app.recipes.count-cache.ttl:5m}") Duration ttl) {
+        this.ttlMillis = ttl.toMillis();
+    }
+
+    public static String category(Long categoryId) {
+        return "category:" + categoryId;
+    }
+
+    /**
+     * Returns the cached count for {@code key}, running {@code loader} when it is missing or expired.
+     */
+    public long get(String key, LongSupplier loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(key);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.count;
+        }
+        long count = loader.getAsLong();
+        entries.put(key, new Entry(count, now + ttlMillis));
+        log.debug("Loaded recipe count {} = {}.", key, count);
+        return count;
+    }
+
+    public void recipeCreated(Recipe recipe) {
+        Set<String> keys = keysFor(recipe);
+        TransactionUtils.afterCommit(() -> adjust(keys, 1));
+    }
+
+    public void recipeDeleted(Recipe recipe) {
+        Set<String> keys = keysFor(recipe);
+        TransactionUtils.afterCommit(() -> adjust(keys, -1));
+    }
+
+    public void categoriesChanged(Collection<Long> before, Collection<Long> after) {
+        Set<String> removed = before.stream().filter(id -> !after.contains(id))
+                .map(RecipeCountCache::category).collect(Collectors.toSet());
+        Set<String> added = after.stream().filter(id -> !before.contains(id))
+                .map(RecipeCountCache::category).collect(Collectors.toSet());
+        if (removed.isEmpty() && added.isEmpty()) {
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            adjust(removed, -1);
+            adjust(added, 1);
+        });
+    }
+
+    public static Set<Long> categoryIds(Collection<Category> categories) {
+        if (categories == null) {
+            return Set.of();
+        }
+        return categories.stream().map(Category::getId).collect(Collectors.toSet());
+    }
+
+    // Resolved while the recipe is still attached, before the commit callback runs.
+    private static Set<String> keysFor(Recipe recipe) {
+        Set<String> keys = categoryIds(recipe.getCategories()).stream()
+                .map(RecipeCountCache::category)
+                .collect(Collectors.toCollection(HashSet::new));
+        keys.add(ALL);
+        return keys;
+    }
+
+    private void adjust(Set<String> keys, long delta) {
+        for (String key : keys) {
+            // Only entries someone has loaded are tracked; the rest load fresh on first use.
+            entries.computeIfPresent(key, (k, entry) -> new Entry(Math.max(0, entry.count + delta), entry.expiresAt));
+        }
+    }
+
+    private record Entry(long count, long expiresAt) {
+    }
+}
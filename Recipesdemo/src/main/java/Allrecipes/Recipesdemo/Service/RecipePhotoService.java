@@ -0,0 +1,126 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Exceptions.InvalidRecipeDataException;
+import Allrecipes.Recipesdemo.Photo.ImageDimensions;
+import Allrecipes.Recipesdemo.Photo.PhotoSize;
+import Allrecipes.Recipesdemo.Photo.PhotoStore;
+import Allrecipes.Recipesdemo.Photo.PhotoVariantGenerator;
+import Allrecipes.Recipesdemo.Photo.ValidatingPhotoInputStream;
+import Allrecipes.Recipesdemo.Photo.StoredPhoto;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import Allrecipes.Recipesdemo.Repositories.RecipeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Optional;
+
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class RecipePhotoService {
+
+    private final PhotoStore photoStore;
+    private final RecipeRepository recipeRepository;
+    private final PhotoVariantGenerator photoVariantGenerator;
+
+    @Value("${spring.servlet.multipart.max-file-size:5MB}")
+    private DataSize maxPhotoSize;
+
+    /**
+     * Stores a Base64 encoded photo and points the recipe at it. A null or empty value leaves the recipe untouched.
+     * The string is decoded as it is streamed into the store rather than into a separate byte array.
+     */
+    public void attachBase64Photo(Recipe recipe, String photoBase64) {
+        if (photoBase64 == null || photoBase64.isEmpty()) {
+            return;
+        }
+        InputStream decoded = Base64.getDecoder().wrap(
+                new ByteArrayInputStream(photoBase64.getBytes(StandardCharsets.ISO_8859_1)));
+        attachPhoto(recipe, decoded);
+    }
+
+    /**
+     * Stores an uploaded file part and points the recipe at it. A null or empty part leaves the recipe untouched.
+     */
+    public void attachPhoto(Recipe recipe, MultipartFile photo) {
+        if (photo == null || photo.isEmpty()) {
+            return;
+        }
+        try (InputStream in = photo.getInputStream()) {
+            attachPhoto(recipe, in);
+        } catch (IOException e) {
+            throw new InvalidRecipeDataException("Error reading photo", e);
+        }
+    }
+
+    /**
+     * Streams a photo into the store, checking its format and size on the way, and points the recipe at it.
+     * Memory use is a small fixed buffer regardless of the photo size.
+     */
+    public void attachPhoto(Recipe recipe, InputStream upload) {
+        try {
+            attach(recipe, photoStore.save(new ValidatingPhotoInputStream(upload, maxPhotoSize.toBytes())));
+        } catch (IOException e) {
+            throw new InvalidRecipeDataException("Error storing photo", e);
+        }
+    }
+
+    public void attach(Recipe recipe, StoredPhoto photo) {
+        recipe.setPhotoHash(photo.getHash());
+        recipe.setPhotoDirectory(photoStore.getRoot());
+        Optional<ImageDimensions> dimensions = photoStore.locate(photo.getHash()).flatMap(ImageDimensions::read);
+        recipe.setPhotoWidth(dimensions.map(ImageDimensions::getWidth).orElse(null));
+        recipe.setPhotoHeight(dimensions.map(ImageDimensions::getHeight).orElse(null));
+        photoVariantGenerator.requestVariants(photo.getHash());
+    }
+
+    /**
+     * Reads a recipe's photo back as Base64, for clients that still expect it inline.
+     */
+    public String getPhotoAsBase64(Recipe recipe) {
+        if (recipe == null || !recipe.hasPhoto()) {
+            return null;
+        }
+        try (InputStream in = photoStore.open(recipe.getPhotoHash())) {
+            return Base64.getEncoder().encodeToString(in.readAllBytes());
+        } catch (IOException e) {
+            log.warn("Photo {} for Recipe ID {} could not be read: {}", recipe.getPhotoHash(), recipe.getId(), e.getMessage());
+            return null;
+        }
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<String> findPhotoHash(Long recipeId) {
+        return recipeRepository.findPhotoHashById(recipeId);
+    }
+
+    public Optional<Path> locate(String hash) {
+        return photoStore.locate(hash);
+    }
+
+    /**
+     * Finds the file for the requested size. An empty result for a variant means it has not been
+     * generated yet; generation is requested and the caller should fall back to the original.
+     */
+    public Optional<Path> locate(String hash, PhotoSize size) {
+        if (!size.isVariant()) {
+            return photoStore.locate(hash);
+        }
+        Optional<Path> variant = photoStore.locateVariant(hash, size.getParam());
+        if (variant.isEmpty() && photoStore.exists(hash)) {
+            photoVariantGenerator.requestVariants(hash);
+        }
+        return variant;
+    }
+}
@@ -0,0 +1,277 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Photo.PhotoUrls;
+import Allrecipes.Recipesdemo.Recipe.PantryMatch;
+import Allrecipes.Recipesdemo.Recipe.RecipeCursor;
+import Allrecipes.Recipesdemo.Recipe.RecipeSummary;
+import Allrecipes.Recipesdemo.Recipe.RecipeSummaryRow;
+import Allrecipes.Recipesdemo.Recipe.TrendingRecipe;
+import Allrecipes.Recipesdemo.Repositories.RecipeSummaryRepository;
+import Allrecipes.Recipesdemo.Response.CursorPage;
+import Allrecipes.Recipesdemo.Search.FacetQuery;
+import Allrecipes.Recipesdemo.Search.FacetResult;
+import Allrecipes.Recipesdemo.Search.PantryHit;
+import Allrecipes.Recipesdemo.Search.PantryIndex;
+import Allrecipes.Recipesdemo.Search.RecipeFacetIndex;
+import Allrecipes.Recipesdemo.Search.Suggestion;
+import Allrecipes.Recipesdemo.Search.SuggestionIndex;
+import Allrecipes.Recipesdemo.Search.TrendingIndex;
+import Allrecipes.Recipesdemo.Search.TrendingSlice;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Read side of the recipe list endpoints. Rows are selected as projections and assembled into
+ * {@link RecipeSummary} records, so the persistence context never holds a {@code Recipe}: no
+ * snapshots, no proxies, no LOB columns. Each call is one query for the rows plus one for category
+ * names and one for rating aggregates, whatever the number of recipes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class RecipeQueryService {
+
+    public static final int MAX_CURSOR_LIMIT = 100;
+
+    // First-page position: above every real row in descending order.
+    private static final LocalDateTime NEWEST_START = LocalDateTime.of(9999, 12, 31, 23, 59);
+    private static final BigDecimal RATING_START = BigDecimal.TEN;
+
+    private final RecipeSummaryRepository recipeSummaryRepository;
+    private final RecipeCountCache recipeCountCache;
+    private final RecipeFacetIndex recipeFacetIndex;
+    private final SuggestionIndex suggestionIndex;
+    private final PantryIndex pantryIndex;
+    private final TrendingIndex trendingIndex;
+
+    public Page<RecipeSummary> getSummaries(Pageable pageable) {
+        return PageableExecutionUtils.getPage(assemble(recipeSummaryRepository.findRows(pageable)), pageable,
+                () -> approximateTotal(null));
+    }
+
+    public Page<RecipeSummary> getSummariesByCategory(Long categoryId, Pageable pageable) {
+        return PageableExecutionUtils.getPage(assemble(recipeSummaryRepository.findRowsByCategoryId(categoryId, pageable)),
+                pageable, () -> approximateTotal(categoryId));
+    }
+
+    /**
+     * Summaries in the order the ids were given; unknown ids are skipped.
+     */
+    public List<RecipeSummary> getSummariesByIds(List<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, RecipeSummary> byId = assemble(recipeSummaryRepository.findRowsByIdIn(new LinkedHashSet<>(ids))).stream()
+                .collect(Collectors.toMap(RecipeSummary::id, summary -> summary));
+        return ids.stream()
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    public List<RecipeSummary> getSummariesByAuthor(Long userId) {
+        return assemble(recipeSummaryRepository.findRowsByCreatedById(userId));
+    }
+
+    /**
+     * Filters recipes on any combination of facets and counts every facet value, without touching
+     * the database. Only the resulting page of ids is loaded, by {@link #getSummariesByIds}.
+     *
+     * @throws IllegalStateException while the facet index is still being built at startup
+     */
+    public FacetResult filter(FacetQuery query, int page, int size) {
+        if (!recipeFacetIndex.isReady()) {
+            throw new IllegalStateException("Recipe filters are still warming up; try again shortly.");
+        }
+        return recipeFacetIndex.query(query, page, Math.max(1, Math.min(size, MAX_CURSOR_LIMIT)));
+    }
+
+    /**
+     * Recipes that can be cooked from a pantry, fewest missing ingredients first. Ranking runs on the
+     * in-memory ingredient index; only the resulting recipes are loaded.
+     *
+     * @throws IllegalStateException while the pantry index is still being built at startup
+     */
+    public List<PantryMatch> findByPantry(List<String> ingredients, int limit, Integer maxMissing) {
+        if (!pantryIndex.isReady()) {
+            throw new IllegalStateException("Pantry search is still warming up; try again shortly.");
+        }
+        List<PantryHit> hits = pantryIndex.query(ingredients, Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT)), maxMissing);
+        Map<Long, RecipeSummary> summaries = getSummariesByIds(hits.stream().map(PantryHit::recipeId).toList()).stream()
+                .collect(Collectors.toMap(RecipeSummary::id, summary -> summary));
+        return hits.stream()
+                .filter(hit -> summaries.containsKey(hit.recipeId()))
+                .map(hit -> new PantryMatch(summaries.get(hit.recipeId()), hit.matched(), hit.missing(), hit.missingIngredients()))
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * The most active recipes right now, served from {@link TrendingIndex}; only the listed recipes
+     * are loaded. Recipes deleted since the ranking was computed are skipped.
+     */
+    public List<TrendingRecipe> getTrending(int limit) {
+        TrendingSlice slice = trendingIndex.top(Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT)));
+        Map<Long, RecipeSummary> summaries = getSummariesByIds(slice.recipeIds()).stream()
+                .collect(Collectors.toMap(RecipeSummary::id, summary -> summary));
+        List<TrendingRecipe> trending = new ArrayList<>(slice.recipeIds().size());
+        for (int i = 0; i < slice.recipeIds().size(); i++) {
+            RecipeSummary summary = summaries.get(slice.recipeIds().get(i));
+            if (summary != null) {
+                trending.add(new TrendingRecipe(trending.size() + 1, summary, slice.scores().get(i)));
+            }
+        }
+        return trending;
+    }
+
+    /**
+     * Counts a view of the recipe towards trending. In memory only; nothing is written.
+     */
+    public void recordView(Long recipeId) {
+        trendingIndex.record(recipeId, TrendingIndex.Event.VIEW);
+    }
+
+    /**
+     * Typeahead completions for {@code prefix} across titles, ingredients and categories, most
+     * popular first. Served from memory; empty until the index has been built at startup.
+     */
+    public List<Suggestion> suggest(String prefix, Suggestion.Type type, int limit) {
+        return suggestionIndex.suggest(prefix, type, limit);
+    }
+
+    /**
+     * Keyset-paginated listing: the {@code limit} recipes after {@code after} (null for the first slice),
+     * optionally restricted to a category. Cost is independent of how deep the client has paged and no
+     * total is counted unless {@code includeTotal} is set.
+     */
+    public CursorPage<RecipeSummary> getSummariesAfter(Long categoryId, RecipeCursor.Order order, String after,
+                                                       int limit, boolean includeTotal) {
+        int size = Math.max(1, Math.min(limit, MAX_CURSOR_LIMIT));
+        RecipeCursor cursor = after != null && !after.isEmpty() ? RecipeCursor.decode(after) : null;
+        if (cursor != null && cursor.order() != order) {
+            throw new IllegalArgumentException("Cursor was issued for sort order " + cursor.order() + ".");
+        }
+
+        // One extra row tells us whether there is a next slice without counting.
+        PageRequest window = PageRequest.of(0, size + 1);
+        long lastId = cursor != null ? cursor.id() : Long.MAX_VALUE;
+        if (order == RecipeCursor.Order.RATING) {
+            return getRatedSummariesAfter(categoryId, cursor != null ? cursor.rating() : RATING_START, lastId,
+                    size, includeTotal);
+        }
+        LocalDateTime createdAt = cursor != null ? cursor.createdAt() : NEWEST_START;
+        List<RecipeSummaryRow> rows = categoryId != null
+                ? recipeSummaryRepository.findRowsNewestAfterInCategory(categoryId, createdAt, lastId, window)
+                : recipeSummaryRepository.findRowsNewestAfter(createdAt, lastId, window);
+
+        boolean hasNext = rows.size() > size;
+        List<RecipeSummaryRow> slice = hasNext ? rows.subList(0, size) : rows;
+        String nextCursor = null;
+        if (hasNext) {
+            RecipeSummaryRow lastRow = slice.get(slice.size() - 1);
+            nextCursor = RecipeCursor.newest(lastRow.createdAt(), lastRow.id()).encode();
+        }
+        List<RecipeSummary> content = assemble(slice);
+        Long total = includeTotal ? approximateTotal(categoryId) : null;
+        return new CursorPage<>(content, nextCursor, total);
+    }
+
+    /**
+     * The rating order: keys come from the stored average index first, then, once the rated recipes
+     * run out, the unrated ones by id. A zero rating in the cursor means the client is already past
+     * the rated recipes.
+     */
+    private CursorPage<RecipeSummary> getRatedSummariesAfter(Long categoryId, BigDecimal rating, long lastId,
+                                                             int size, boolean includeTotal) {
+        Map<Long, BigDecimal> keys = new LinkedHashMap<>();
+        if (rating.signum() > 0) {
+            List<Object[]> rated = categoryId != null
+                    ? recipeSummaryRepository.findRatingKeysAfterInCategory(categoryId, rating, lastId, PageRequest.of(0, size + 1))
+                    : recipeSummaryRepository.findRatingKeysAfter(rating, lastId, PageRequest.of(0, size + 1));
+            for (Object[] key : rated) {
+                keys.put((Long) key[0], (BigDecimal) key[1]);
+            }
+        }
+        if (keys.size() <= size) {
+            long unratedAfter = rating.signum() > 0 ? Long.MAX_VALUE : lastId;
+            PageRequest rest = PageRequest.of(0, size + 1 - keys.size());
+            List<Long> unrated = categoryId != null
+                    ? recipeSummaryRepository.findUnratedIdsAfterInCategory(categoryId, unratedAfter, rest)
+                    : recipeSummaryRepository.findUnratedIdsAfter(unratedAfter, rest);
+            for (Long id : unrated) {
+                keys.put(id, BigDecimal.ZERO);
+            }
+        }
+
+        List<Long> ids = new ArrayList<>(keys.keySet());
+        boolean hasNext = ids.size() > size;
+        List<Long> slice = hasNext ? ids.subList(0, size) : ids;
+        String nextCursor = null;
+        if (hasNext) {
+            Long lastSeen = slice.get(slice.size() - 1);
+            nextCursor = RecipeCursor.rating(keys.get(lastSeen), lastSeen).encode();
+        }
+        Long total = includeTotal ? approximateTotal(categoryId) : null;
+        return new CursorPage<>(getSummariesByIds(slice), nextCursor, total);
+    }
+
+    /**
+     * Recipe count for a listing, from {@link RecipeCountCache}, so cursor clients that show a total
+     * do not reintroduce a COUNT(*) per request.
+     */
+    public long approximateTotal(Long categoryId) {
+        return categoryId != null
+                ? recipeCountCache.get(RecipeCountCache.category(categoryId), () -> recipeSummaryRepository.countByCategoryId(categoryId))
+                : recipeCountCache.get(RecipeCountCache.ALL, recipeSummaryRepository::countAll);
+    }
+
+    private List<RecipeSummary> assemble(List<RecipeSummaryRow> rows) {
+        if (rows.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Long> ids = rows.stream().map(RecipeSummaryRow::id).collect(Collectors.toList());
+
+        Map<Long, List<String>> categories = new HashMap<>();
+        for (Object[] pair : recipeSummaryRepository.findCategoryNames(ids)) {
+            categories.computeIfAbsent((Long) pair[0], id -> new ArrayList<>()).add((String) pair[1]);
+        }
+        Map<Long, Object[]> ratings = new HashMap<>();
+        for (Object[] aggregate : recipeSummaryRepository.findRatingAggregates(ids)) {
+            ratings.put((Long) aggregate[0], aggregate);
+        }
+        log.debug("Assembled {} recipe summaries.", rows.size());
+
+        return rows.stream()
+                .map(row -> toSummary(row, categories.getOrDefault(row.id(), Collections.emptyList()), ratings.get(row.id())))
+                .collect(Collectors.toList());
+    }
+
+    private static RecipeSummary toSummary(RecipeSummaryRow row, List<String> categories, Object[] rating) {
+        return new RecipeSummary(
+                row.id(),
+                row.title(),
+                row.cookingTime(),
+                row.servings(),
+                row.containsGluten(),
+                row.status() != null ? row.status().name() : "UNKNOWN",
+                row.createdByUsername() != null ? row.createdByUsername() : "UNKNOWN",
+                List.copyOf(categories),
+                rating != null ? ((Number) rating[1]).doubleValue() : null,
+                rating != null ? ((Number) rating[2]).longValue() : 0L,
+                PhotoUrls.forRecipe(row.id(), row.photoHash()),
+                row.photoWidth(),
+                row.photoHeight());
+    }
+}
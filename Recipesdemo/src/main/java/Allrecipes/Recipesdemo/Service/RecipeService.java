@@ -1,5 +1,6 @@
 package Allrecipes.Recipesdemo.Service;
 
+import Allrecipes.Recipesdemo.Entities.CanonicalIngredient;
 import Allrecipes.Recipesdemo.Entities.Category;
 import Allrecipes.Recipesdemo.Entities.Enums.UserType;
 import Allrecipes.Recipesdemo.Entities.Ingredient;
@@ -7,27 +8,40 @@ import Allrecipes.Recipesdemo.Entities.User;
 import Allrecipes.Recipesdemo.Exceptions.InvalidRecipeDataException;
 import Allrecipes.Recipesdemo.Exceptions.RecipeNotFoundException;
 import Allrecipes.Recipesdemo.Exceptions.UnauthorizedActionException;
+import Allrecipes.Recipesdemo.Mappers.RecipeMapper;
+import Allrecipes.Recipesdemo.Photo.PhotoUrls;
+import Allrecipes.Recipesdemo.Quantity.QuantityParser;
 import Allrecipes.Recipesdemo.Recipe.Recipe;
 import Allrecipes.Recipesdemo.Recipe.RecipeResponse;
 import Allrecipes.Recipesdemo.Entities.Enums.RecipeStatus;
 import Allrecipes.Recipesdemo.Repositories.IngredientsRepo;
+import Allrecipes.Recipesdemo.Repositories.RecipeRatingStatsRepository;
 import Allrecipes.Recipesdemo.Repositories.RecipeRepository;
 import Allrecipes.Recipesdemo.Repositories.CategoryRepository;
+import Allrecipes.Recipesdemo.Repositories.RecipeSearchRepository;
+import Allrecipes.Recipesdemo.Request.IngredientRequest;
+import Allrecipes.Recipesdemo.Request.MealPlanRequest;
 import Allrecipes.Recipesdemo.Request.RecipeCreateRequest;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndex;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndexer;
+import Allrecipes.Recipesdemo.Search.SearchHits;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.support.PageableExecutionUtils;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.multipart.MultipartFile;
 
-import javax.sql.rowset.serial.SerialBlob;
-import javax.sql.rowset.serial.SerialException;
+import java.io.InputStream;
 import java.nio.file.Files;
 import java.nio.file.Path;
-import java.sql.Blob;
-import java.sql.SQLException;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
 import java.util.stream.Collectors;
 
 @Service
@@ -36,10 +50,28 @@ public class RecipeService {
     private final RecipeRepository recipeRepository;
     private final CategoryRepository categoryRepository;
     private final IngredientsRepo ingredientsRepo;
-    public RecipeService(RecipeRepository recipeRepository, CategoryRepository categoryRepository, IngredientsRepo ingredientsRepo) {
+    private final RecipePhotoService recipePhotoService;
+    private final RecipeCountCache recipeCountCache;
+    private final RecipeSearchIndex recipeSearchIndex;
+    private final RecipeSearchIndexer recipeSearchIndexer;
+    private final RecipeSearchRepository recipeSearchRepository;
+    private final IngredientDictionary ingredientDictionary;
+    private final RecipeRatingStatsRepository recipeRatingStatsRepository;
+    public RecipeService(RecipeRepository recipeRepository, CategoryRepository categoryRepository, IngredientsRepo ingredientsRepo,
+                         RecipePhotoService recipePhotoService, RecipeCountCache recipeCountCache,
+                         RecipeSearchIndex recipeSearchIndex, RecipeSearchIndexer recipeSearchIndexer,
+                         RecipeSearchRepository recipeSearchRepository, IngredientDictionary ingredientDictionary,
+                         RecipeRatingStatsRepository recipeRatingStatsRepository) {
         this.recipeRepository = recipeRepository;
         this.categoryRepository = categoryRepository;
         this.ingredientsRepo = ingredientsRepo;
+        this.recipePhotoService = recipePhotoService;
+        this.recipeCountCache = recipeCountCache;
+        this.recipeSearchIndex = recipeSearchIndex;
+        this.recipeSearchIndexer = recipeSearchIndexer;
+        this.recipeSearchRepository = recipeSearchRepository;
+        this.ingredientDictionary = ingredientDictionary;
+        this.recipeRatingStatsRepository = recipeRatingStatsRepository;
     }
 
     public void savePhoto(String base64Photo, String targetPath) {
@@ -50,12 +82,49 @@ public class RecipeService {
             System.err.println("Error saving photo: " + e.getMessage());
         }}
 
+    @Transactional(readOnly = true)
     public Page<Recipe> getRecipesByCategory(Long categoryId, Pageable pageable) {
-        return recipeRepository.findByCategoryId(categoryId, pageable);
+        List<Long> ids = recipeRepository.findIdsByCategoryId(categoryId, pageable);
+        return loadPage(ids, pageable, recipeRepository::findSummariesByIdIn, () -> countByCategory(categoryId));
     }
 
+    @Transactional(readOnly = true)
     public Page<Recipe> getAllRecipes(Pageable pageable) {
-        return recipeRepository.findAll(pageable);
+        List<Long> ids = recipeRepository.findIds(pageable);
+        return loadPage(ids, pageable, recipeRepository::findSummariesByIdIn, this::countAll);
+    }
+
+    public long countAll() {
+        return recipeCountCache.get(RecipeCountCache.ALL, recipeRepository::count);
+    }
+
+    public long countByCategory(Long categoryId) {
+        return recipeCountCache.get(RecipeCountCache.category(categoryId), () -> recipeRepository.countByCategoryId(categoryId));
+    }
+
+    /**
+     * Second phase of a paged listing: loads the recipes for a page of ids using the loader's fetch
+     * plan. The total is only looked up when the page itself cannot tell it (a full page, or page > 0).
+     */
+    private Page<Recipe> loadPage(List<Long> ids, Pageable pageable, Function<Collection<Long>, List<Recipe>> loader,
+                                  LongSupplier total) {
+        return PageableExecutionUtils.getPage(loadInOrder(ids, loader), pageable, total);
+    }
+
+    /**
+     * Loads recipes in one query and puts them back in the order of {@code ids}. Recipes deleted in
+     * between are dropped.
+     */
+    private List<Recipe> loadInOrder(List<Long> ids, Function<Collection<Long>, List<Recipe>> loader) {
+        if (ids.isEmpty()) {
+            return Collections.emptyList();
+        }
+        Map<Long, Recipe> byId = loader.apply(ids).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        return ids.stream()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
     }
 
 
@@ -81,6 +150,24 @@ public class RecipeService {
         }
 
         recipeRepository.delete(recipe);
+        recipeCountCache.recipeDeleted(recipe);
+        recipeSearchIndexer.recipeDeleted(recipe.getId());
+    }
+
+    // ================================
+    //  REPLACE PHOTO (raw streamed body)
+    // ================================
+    public Recipe replacePhoto(Long id, InputStream photo, User user) {
+        Recipe recipe = recipeRepository.findById(id)
+                .orElseThrow(() -> new RecipeNotFoundException("Recipe with ID " + id + " not found"));
+
+        if (!recipe.getCreatedBy().getId().equals(user.getId()) && user.getUserType() != UserType.ADMIN) {
+            throw new UnauthorizedActionException("You do not have permission to update this recipe");
+        }
+
+        recipePhotoService.attachPhoto(recipe, photo);
+        recipe.setUpdatedAt(LocalDateTime.now());
+        return recipeRepository.save(recipe);
     }
 
     public String getPhotoDirectory() {
@@ -95,8 +182,26 @@ public class RecipeService {
     // ================================
     @Transactional(readOnly = true)
     public Page<RecipeResponse> getAllRecipesWithResponse(Pageable pageable) {
-        Page<Recipe> recipesPage = recipeRepository.findAll(pageable);
-        return recipesPage.map(this::toRecipeResponse);
+        return getAllRecipesWithResponse(pageable, false);
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RecipeResponse> getAllRecipesWithResponse(Pageable pageable, boolean inlinePhoto) {
+        Page<RecipeResponse> page = getAllRecipes(pageable).map(recipe -> toRecipeResponse(recipe, inlinePhoto));
+        withRatings(page.getContent());
+        return page;
+    }
+
+    /**
+     * Paged listing for the admin dashboard, loaded with the admin fetch plan.
+     */
+    @Transactional(readOnly = true)
+    public Page<RecipeResponse> getAllRecipesForAdmin(Pageable pageable) {
+        List<Long> ids = recipeRepository.findIds(pageable);
+        Page<RecipeResponse> page = loadPage(ids, pageable, recipeRepository::findForAdminByIdIn, this::countAll)
+                .map(this::toRecipeResponse);
+        withRatings(page.getContent());
+        return page;
     }
 
     // ================================
@@ -104,16 +209,23 @@ public class RecipeService {
     // ================================
     @Transactional(readOnly = true)
     public List<RecipeResponse> getAllRecipes() {
-        List<Recipe> recipes = recipeRepository.findAll();
-        return recipes.stream()
+        List<Recipe> recipes = recipeRepository.findAllSummaries();
+        return withRatings(recipes.stream()
                 .map(this::toRecipeResponse)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
 
     // ================================
     //  CREATE RECIPE
     // ================================
     public Recipe createRecipe(RecipeCreateRequest req, User user) {
+        return createRecipe(req, user, null);
+    }
+
+    /**
+     * Creates a recipe whose photo arrives as a multipart file part instead of Base64 in {@code req}.
+     */
+    public Recipe createRecipe(RecipeCreateRequest req, User user, MultipartFile photo) {
         validateRecipeRequest(req);
 
         // 1) Load categories from DB using the numeric IDs from req.getCategoryIds()
@@ -127,29 +239,22 @@ public class RecipeService {
             }
         }
 
-        // 2) Build list of Ingredient entities
+        // 2) Build list of Ingredient entities, each linked to its dictionary entry
+        Map<String, CanonicalIngredient> canonical = resolveIngredients(req);
         List<Ingredient> ingredients = req.getIngredients().stream()
-                .map(dto -> Ingredient.builder()
-                        .name(dto.getName())
-                        .quantity(dto.getQuantity())
-                        .unit(dto.getUnit())
-                        .build()
-                )
+                .map(dto -> {
+                    Ingredient ingredient = Ingredient.builder()
+                            .name(dto.getName().trim())
+                            .quantity(dto.getQuantity())
+                            .unit(dto.getUnit())
+                            .canonical(canonical.get(IngredientDictionary.normalize(dto.getName())))
+                            .build();
+                    ingredient.setParsedQuantity(QuantityParser.parse(dto.getQuantity(), dto.getUnit()));
+                    return ingredient;
+                })
                 .collect(Collectors.toList());
 
-        // 3) Convert Base64 photo to Blob (if present)
-        Blob photoBlob = null;
-        if (req.getPhoto() != null && !req.getPhoto().isEmpty()) {
-            try {
-                photoBlob = new javax.sql.rowset.serial.SerialBlob(
-                        Base64.getDecoder().decode(req.getPhoto())
-                );
-            } catch (SQLException e) {
-                throw new InvalidRecipeDataException("Error decoding photo", e);
-            }
-        }
-
-        // 4) Build & save the Recipe entity, including the attached categories
+        // 3) Build & save the Recipe entity, including the attached categories
         Recipe recipe = Recipe.builder()
                 .title(req.getTitle())
                 .description(req.getDescription())
@@ -164,9 +269,12 @@ public class RecipeService {
                 .updatedAt(LocalDateTime.now())
                 .containsGluten(req.getContainsGlutenOrDefault())
                 .categories(categories)
-                .photo(photoBlob)
                 .build();
 
+        // 4) Store the photo (if present) and keep only its hash on the recipe
+        recipePhotoService.attachBase64Photo(recipe, req.getPhoto());
+        recipePhotoService.attachPhoto(recipe, photo);
+
         // Associate each Ingredient with the new Recipe
         ingredients.forEach(ingredient -> ingredient.setRecipe(recipe));
 
@@ -174,6 +282,8 @@ public class RecipeService {
 
         // Maintain bidirectional relationship
         categories.forEach(category -> category.getRecipes().add(savedRecipe));
+        recipeCountCache.recipeCreated(savedRecipe);
+        recipeSearchIndexer.recipeSaved(savedRecipe);
 
         return savedRecipe;
     }
@@ -184,6 +294,11 @@ public class RecipeService {
     // ================================
     @Transactional
     public Recipe updateRecipe(Long id, RecipeCreateRequest req, User user) {
+        return updateRecipe(id, req, user, null);
+    }
+
+    @Transactional
+    public Recipe updateRecipe(Long id, RecipeCreateRequest req, User user, MultipartFile photo) {
         Recipe existing = recipeRepository.findById(id)
                 .orElseThrow(() -> new RecipeNotFoundException("Recipe with ID " + id + " not found"));
 
@@ -215,8 +330,14 @@ public class RecipeService {
         });
 
         // ✅ Add or Update Ingredients
+        Map<String, CanonicalIngredient> canonical = resolveIngredients(req);
         List<Ingredient> updatedIngredients = req.getIngredients().stream()
-                .map(dto -> new Ingredient(dto.getName(), dto.getQuantity(), dto.getUnit(), existing))
+                .map(dto -> {
+                    Ingredient ingredient = new Ingredient(dto.getName().trim(), dto.getQuantity(), dto.getUnit(), existing);
+                    ingredient.setCanonical(canonical.get(IngredientDictionary.normalize(dto.getName())));
+                    ingredient.setParsedQuantity(QuantityParser.parse(dto.getQuantity(), dto.getUnit()));
+                    return ingredient;
+                })
                 .collect(Collectors.toList());
 
         existing.getIngredients().clear(); // Ensure Hibernate handles relationships correctly
@@ -234,16 +355,26 @@ public class RecipeService {
         existing.setDietaryInfo(req.getDietaryInfo());
         existing.setUpdatedAt(LocalDateTime.now());
         existing.setContainsGluten(req.getContainsGlutenOrDefault());
+        recipeCountCache.categoriesChanged(RecipeCountCache.categoryIds(existing.getCategories()),
+                RecipeCountCache.categoryIds(categories));
         existing.setCategories(categories);
+        recipePhotoService.attachBase64Photo(existing, req.getPhoto());
+        recipePhotoService.attachPhoto(existing, photo);
 
         // ✅ Ensure Recipe Updates Immediately
-        return recipeRepository.saveAndFlush(existing);
+        Recipe saved = recipeRepository.saveAndFlush(existing);
+        recipeSearchIndexer.recipeSaved(saved);
+        return saved;
     }
 
 
     // ================================
     //  VALIDATE RECIPE
     // ================================
+    private Map<String, CanonicalIngredient> resolveIngredients(RecipeCreateRequest req) {
+        return ingredientDictionary.resolveAll(req.getIngredients().stream().map(IngredientRequest::getName).toList());
+    }
+
     private void validateRecipeRequest(RecipeCreateRequest req) {
         if (req.getTitle() == null || req.getTitle().trim().isEmpty()) {
             throw new InvalidRecipeDataException("Recipe title cannot be empty");
@@ -273,6 +404,14 @@ public class RecipeService {
     //  MAP RECIPE -> RECIPE RESPONSE
     // ================================
     public RecipeResponse toRecipeResponse(Recipe recipe) {
+        return toRecipeResponse(recipe, false);
+    }
+
+    /**
+     * @param inlinePhoto also embed the photo as Base64; only legacy clients need this, everyone else
+     *                    should load {@code photoUrl} so the bytes can be cached.
+     */
+    public RecipeResponse toRecipeResponse(Recipe recipe, boolean inlinePhoto) {
         if (recipe == null) {
             throw new RecipeNotFoundException("Recipe is null or invalid");
         }
@@ -299,16 +438,52 @@ public class RecipeService {
                 .containsGluten(recipe.getContainsGluten())
                 .status(recipe.getStatus() != null ? recipe.getStatus().name() : "UNKNOWN")
                 .createdByUsername(recipe.getCreatedBy() != null ? recipe.getCreatedBy().getUsername() : "UNKNOWN")
-                .photo(recipe.getPhotoAsBase64())
+                .photo(inlinePhoto ? recipePhotoService.getPhotoAsBase64(recipe) : null)
+                .photoUrl(PhotoUrls.forRecipe(recipe.getId(), recipe.getPhotoHash()))
+                .photoHash(recipe.getPhotoHash())
+                .photoWidth(recipe.getPhotoWidth())
+                .photoHeight(recipe.getPhotoHeight())
                 .categories(categoryNames)
                 .build();
     }
 
+    /**
+     * Fills {@code averageRating} and {@code ratingCount} from {@code recipe_rating_stats} with one
+     * query for all the responses, so listings pay for the totals once per page rather than per row.
+     * Recipes without ratings keep a null average and a zero count.
+     */
+    @Transactional(readOnly = true)
+    public List<RecipeResponse> withRatings(List<RecipeResponse> responses) {
+        if (responses.isEmpty()) {
+            return responses;
+        }
+        Set<Long> ids = responses.stream().map(RecipeResponse::getId).collect(Collectors.toSet());
+        Map<Long, Object[]> totals = new HashMap<>();
+        for (Object[] row : recipeRatingStatsRepository.findTotalsByRecipeIdIn(ids)) {
+            totals.put((Long) row[0], row);
+        }
+        for (RecipeResponse response : responses) {
+            Object[] row = totals.get(response.getId());
+            if (row != null) {
+                long count = ((Number) row[2]).longValue();
+                response.setAverageRating((double) ((Number) row[1]).longValue() / count);
+                response.setRatingCount(count);
+            }
+        }
+        return responses;
+    }
+
+    @Transactional(readOnly = true)
+    public RecipeResponse withRatings(RecipeResponse response) {
+        withRatings(List.of(response));
+        return response;
+    }
+
     // ================================
     //  GET RECIPE BY ID
     // ================================
     public Recipe getRecipeById(Long id) {
-        return recipeRepository.findByIdWithCategories(id)
+        return recipeRepository.findDetailById(id)
                 .orElseThrow(() -> new RecipeNotFoundException("Recipe with ID " + id + " not found"));
     }
 
@@ -317,38 +492,94 @@ public class RecipeService {
     // ================================
     @Transactional(readOnly = true)
     public List<RecipeResponse> getRecipesByIds(List<Long> ids) {
+        return getRecipesByIds(ids, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipeResponse> getRecipesByIds(List<Long> ids, boolean inlinePhoto) {
         if (ids == null || ids.isEmpty()) {
             return Collections.emptyList();
         }
-        List<Recipe> recipes = recipeRepository.findAllById(ids);
-        return recipes.stream()
-                .map(this::toRecipeResponse)
-                .collect(Collectors.toList());
+        List<Recipe> recipes = recipeRepository.findSummariesByIdIn(ids);
+        return withRatings(recipes.stream()
+                .map(recipe -> toRecipeResponse(recipe, inlinePhoto))
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * Recipes for a meal plan, each rescaled to the servings requested for it, in request order.
+     * One query loads every recipe and one more their ingredients; the same recipe may appear more than once.
+     */
+    @Transactional(readOnly = true)
+    public List<RecipeResponse> getScaledRecipes(List<MealPlanRequest.Entry> entries) {
+        Map<Long, Recipe> byId = recipeRepository.findDetailsByIdIn(
+                        entries.stream().map(MealPlanRequest.Entry::getRecipeId).collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(Recipe::getId, Function.identity()));
+        List<RecipeResponse> responses = new ArrayList<>(entries.size());
+        for (MealPlanRequest.Entry entry : entries) {
+            Recipe recipe = byId.get(entry.getRecipeId());
+            if (recipe == null) {
+                throw new RecipeNotFoundException("Recipe with ID " + entry.getRecipeId() + " not found");
+            }
+            int servings = entry.getServings() != null ? entry.getServings() : recipe.getServings();
+            responses.add(RecipeMapper.toRecipeResponse(recipe, null, servings));
+        }
+        return withRatings(responses);
     }
 
     // ================================
-    //  SEARCH RECIPE BY TITLE
+    //  SEARCH
     // ================================
-    public List<RecipeResponse> searchRecipesByTitle(String title) {
-        if (title == null || title.trim().isEmpty()) {
-            throw new InvalidRecipeDataException("Search title cannot be null or empty");
+    /**
+     * Ranked full-text search over title, description, steps, ingredient and category names.
+     * Until the search index has finished its first build, falls back to a title substring match.
+     */
+    @Transactional(readOnly = true)
+    public Page<Long> searchRecipeIds(String query, Pageable pageable) {
+        if (query == null || query.trim().isEmpty()) {
+            throw new InvalidRecipeDataException("Search query cannot be null or empty");
         }
-        List<Recipe> recipes = recipeRepository.findByTitleContainingIgnoreCase(title);
-        if (recipes.isEmpty()) {
-            throw new RecipeNotFoundException("No recipes found with title containing: " + title);
+        if (!recipeSearchIndex.isReady()) {
+            String title = query.trim();
+            List<Long> ids = recipeSearchRepository.findIdsByTitleContaining(title, pageable);
+            return PageableExecutionUtils.getPage(ids, pageable, () -> recipeSearchRepository.countByTitleContaining(title));
         }
-        return recipes.stream()
+        SearchHits hits = recipeSearchIndex.search(query, pageable.getPageNumber(), pageable.getPageSize());
+        return new PageImpl<>(hits.recipeIds(), pageable, hits.total());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<RecipeResponse> searchRecipes(String query, Pageable pageable) {
+        Page<Long> ids = searchRecipeIds(query, pageable);
+        List<RecipeResponse> responses = loadInOrder(ids.getContent(), recipeRepository::findSummariesByIdIn).stream()
                 .map(this::toRecipeResponse)
                 .collect(Collectors.toList());
+        return new PageImpl<>(withRatings(responses), pageable, ids.getTotalElements());
+    }
+
+    /**
+     * First page of {@link #searchRecipes}; an empty list when nothing matches.
+     */
+    @Transactional(readOnly = true)
+    public List<RecipeResponse> searchRecipesByTitle(String title) {
+        if (title == null || title.trim().isEmpty()) {
+            throw new InvalidRecipeDataException("Search title cannot be null or empty");
+        }
+        return searchRecipes(title, PageRequest.of(0, 20)).getContent();
     }
 
     @Transactional(readOnly = true)
     public List<RecipeResponse> getRecipesCreatedByUser(Long userId) {
+        return getRecipesCreatedByUser(userId, false);
+    }
+
+    @Transactional(readOnly = true)
+    public List<RecipeResponse> getRecipesCreatedByUser(Long userId, boolean inlinePhoto) {
         List<Recipe> recipes = recipeRepository.findByCreatedById(userId);
         // Convert each Recipe -> RecipeResponse
-        return recipes.stream()
-                .map(this::toRecipeResponse)
-                .collect(Collectors.toList());
+        return withRatings(recipes.stream()
+                .map(recipe -> toRecipeResponse(recipe, inlinePhoto))
+                .collect(Collectors.toList()));
     }
 
 }
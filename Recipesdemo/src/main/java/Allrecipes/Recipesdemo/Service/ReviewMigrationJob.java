@@ -0,0 +1,110 @@
+package Allrecipes.Recipesdemo.Service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Component;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * Moves rows left in the legacy {@code recipe_reviews} table into {@code ratings}.
+ *
+ * Reviews are now ratings with a comment, so the entity for the old table is gone and this works on
+ * plain JDBC. It walks the table in id order in batches of {@code app.ratings.review-migration.batch-size},
+ * merges each batch with one {@code INSERT ... SELECT ... ON DUPLICATE KEY UPDATE} and deletes the
+ * merged rows. A user who both rated and reviewed a recipe keeps the rating's score, and the review's
+ * comment is added when the rating has none, so no review text is lost. A rating the user has since
+ * withdrawn is soft-deleted and is brought back with the review's score, comment and timestamps.
+ * Rating totals are then reconciled once.
+ * When the table is empty or gone the job is a no-op.
+ */
+@Component
+@Slf4j
+public class ReviewMigrationJob {
+
+    private static final String LEGACY_TABLE = "recipe_reviews";
+
+    private static final String COPY =
+            "INSERT INTO ratings (recipe_id, user_id, score, comment, deleted, created_at, updated_at, scored_at) " +
+            "SELECT recipe_id, user_id, score, LEFT(comment, 500), false, created_at, created_at, created_at " +
+            "FROM recipe_reviews WHERE id > ? AND id <= ? " +
+            // MySQL applies the assignments left to right, so deleted is read before it is cleared.
+            "ON DUPLICATE KEY UPDATE " +
+            "score = IF(ratings.deleted, VALUES(score), ratings.score), " +
+            "comment = IF(ratings.deleted, VALUES(comment), COALESCE(ratings.comment, VALUES(comment))), " +
+            "created_at = IF(ratings.deleted, VALUES(created_at), ratings.created_at), " +
+            "updated_at = IF(ratings.deleted, VALUES(updated_at), ratings.updated_at), " +
+            "scored_at = IF(ratings.deleted, VALUES(scored_at), ratings.scored_at), " +
+            "deleted = false";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final RatingStatsReconciliationJob reconciliationJob;
+    private final boolean enabled;
+    private final int batchSize;
+
+    public ReviewMigrationJob(JdbcTemplate jdbcTemplate,
+                              RatingStatsReconciliationJob reconciliationJob,
+                              @Value("${app.ratings.review-migration.enabled:true}") boolean enabled,
+                              @Value("${app.ratings.review-migration.batch-size:1000}") int batchSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.reconciliationJob = reconciliationJob;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+    }
+
+    @Async("taskExecutor")
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        if (!enabled) {
+            log.debug("Legacy review migration disabled.");
+            return;
+        }
+        if (!legacyTableExists()) {
+            log.debug("No legacy {} table; nothing to migrate.", LEGACY_TABLE);
+            return;
+        }
+        if (migrate() > 0) {
+            reconciliationJob.reconcile();
+        }
+    }
+
+    /**
+     * Runs the migration to completion and returns the number of reviews merged into ratings.
+     */
+    public int migrate() {
+        long lastId = 0;
+        int merged = 0;
+        while (true) {
+            List<Long> ids = jdbcTemplate.queryForList(
+                    "SELECT id FROM recipe_reviews WHERE id > ? ORDER BY id LIMIT ?", Long.class, lastId, batchSize);
+            if (ids.isEmpty()) {
+                break;
+            }
+            long upTo = ids.get(ids.size() - 1);
+            jdbcTemplate.update(COPY, lastId, upTo);
+            jdbcTemplate.update("DELETE FROM recipe_reviews WHERE id > ? AND id <= ?", lastId, upTo);
+            merged += ids.size();
+            lastId = upTo;
+        }
+        if (merged > 0) {
+            log.info("Legacy review migration finished: {} reviews merged into ratings.", merged);
+        }
+        return merged;
+    }
+
+    private boolean legacyTableExists() {
+        Boolean exists = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection -> {
+            try (ResultSet tables = connection.getMetaData()
+                    .getTables(connection.getCatalog(), null, LEGACY_TABLE, new String[]{"TABLE"})) {
+                return tables.next();
+            }
+        });
+        return Boolean.TRUE.equals(exists);
+    }
+}
@@ -0,0 +1,139 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Exceptions.RecipeNotFoundException;
+import Allrecipes.Recipesdemo.Quantity.IngredientScaler;
+import Allrecipes.Recipesdemo.Quantity.Rational;
+import Allrecipes.Recipesdemo.Quantity.Unit;
+import Allrecipes.Recipesdemo.Repositories.IngredientsRepo;
+import Allrecipes.Recipesdemo.Request.MealPlanRequest;
+import Allrecipes.Recipesdemo.Response.ShoppingListItem;
+import Allrecipes.Recipesdemo.Utils.LongMap;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Builds a merged shopping list for a set of recipes and servings.
+ *
+ * All ingredients are read in one scalar query. Each amount is scaled by its recipe's servings
+ * factor and added to a running total per canonical ingredient and dimension in a {@link LongMap}.
+ * Volumes are converted into the first volume unit seen for that ingredient, and masses likewise,
+ * so "1 cup" and "4 tbsp" of milk total "1 1/4 cups". Amounts that cannot be totalled that way are
+ * grouped by ingredient and listed as notes: numeric amounts in a unit we do not know ("2 sprigs")
+ * are summed per unit as written, and text without an amount ("to taste") is listed once.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ShoppingListService {
+
+    // Low bits of a LongMap key: 0 volume, 1 mass, 2 + ordinal for units that only add to themselves.
+    private static final int UNIT_BITS = 5;
+
+    private final IngredientsRepo ingredientsRepo;
+
+    @Transactional(readOnly = true)
+    public List<ShoppingListItem> buildShoppingList(List<MealPlanRequest.Entry> entries) {
+        Set<Long> recipeIds = new LinkedHashSet<>();
+        entries.forEach(entry -> recipeIds.add(entry.getRecipeId()));
+        List<Object[]> rows = ingredientsRepo.findShoppingRows(recipeIds);
+
+        Map<Long, Integer> servings = new HashMap<>();
+        for (Object[] row : rows) {
+            servings.putIfAbsent((Long) row[0], (Integer) row[1]);
+        }
+        Map<Long, Rational> factors = new HashMap<>();
+        for (MealPlanRequest.Entry entry : entries) {
+            Integer recipeServings = servings.get(entry.getRecipeId());
+            if (recipeServings == null) {
+                throw new RecipeNotFoundException("Recipe with ID " + entry.getRecipeId() + " not found");
+            }
+            int wanted = entry.getServings() != null ? entry.getServings() : recipeServings;
+            factors.merge(entry.getRecipeId(), IngredientScaler.factor(recipeServings, wanted), Rational::add);
+        }
+
+        LongMap<Line> measured = new LongMap<>(rows.size());
+        Map<String, Line> unmeasured = new HashMap<>();
+        for (Object[] row : rows) {
+            String name = (String) row[4];
+            if (name == null) {
+                continue;
+            }
+            Long recipeId = (Long) row[0];
+            Long canonicalId = (Long) row[2];
+            String displayName = row[3] != null ? (String) row[3] : name;
+            Unit unit = (Unit) row[9];
+            Rational amount = row[7] != null && row[8] != null ? Rational.of((Long) row[7], (Long) row[8]) : null;
+
+            if (canonicalId != null && amount != null && unit != null && unit != Unit.OTHER) {
+                Line line = measured.computeIfAbsent(key(canonicalId, unit),
+                        k -> new Line(canonicalId, displayName, unit));
+                Rational scaled = amount.multiply(factors.get(recipeId));
+                line.amount = line.amount.add(unit == line.unit ? scaled : unit.convert(scaled, line.unit));
+                line.recipeIds.add(recipeId);
+            } else {
+                String key = canonicalId != null ? canonicalId.toString() : IngredientDictionary.normalize(name);
+                Line line = unmeasured.computeIfAbsent(key, k -> new Line(canonicalId, displayName, null));
+                String unitText = row[6] != null ? ((String) row[6]).trim() : "";
+                if (amount != null) {
+                    line.amounts.merge(unitText, amount.multiply(factors.get(recipeId)), Rational::add);
+                } else {
+                    line.notes.add(note((String) row[5], unitText));
+                }
+                line.recipeIds.add(recipeId);
+            }
+        }
+
+        List<ShoppingListItem> items = new ArrayList<>(measured.size() + unmeasured.size());
+        for (Line line : measured.values()) {
+            Unit shown = line.unit.bestFor(line.amount);
+            Rational total = line.unit.convert(line.amount, shown);
+            items.add(new ShoppingListItem(line.ingredientId, line.name, total.format(), shown.label(total), null,
+                    List.copyOf(line.recipeIds)));
+        }
+        for (Line line : unmeasured.values()) {
+            List<String> notes = new ArrayList<>(line.amounts.size() + line.notes.size());
+            line.amounts.forEach((unitText, amount) -> notes.add(note(amount.format(), unitText)));
+            notes.addAll(line.notes);
+            items.add(new ShoppingListItem(line.ingredientId, line.name, null, null, notes,
+                    List.copyOf(line.recipeIds)));
+        }
+        items.sort(Comparator.comparing((ShoppingListItem item) -> item.name().toLowerCase(Locale.ROOT))
+                .thenComparing(item -> item.unit() != null ? item.unit() : ""));
+        log.debug("Built a shopping list of {} items from {} recipes.", items.size(), recipeIds.size());
+        return items;
+    }
+
+    private static String note(String quantity, String unitText) {
+        return unitText.isBlank() ? quantity : quantity + " " + unitText;
+    }
+
+    static long key(long canonicalId, Unit unit) {
+        int slot = switch (unit.getDimension()) {
+            case VOLUME -> 0;
+            case MASS -> 1;
+            case NONE -> 2 + unit.ordinal();
+        };
+        return canonicalId << UNIT_BITS | slot;
+    }
+
+    private static final class Line {
+        private final Long ingredientId;
+        private final String name;
+        private final Unit unit;
+        private Rational amount = Rational.ZERO;
+        // Unit as written -> summed amount, for numeric amounts that cannot be converted.
+        private final Map<String, Rational> amounts = new LinkedHashMap<>();
+        private final Set<String> notes = new LinkedHashSet<>();
+        private final Set<Long> recipeIds = new LinkedHashSet<>();
+
+        Line(Long ingredientId, String name, Unit unit) {
+            this.ingredientId = ingredientId;
+            this.name = name;
+            this.unit = unit;
+        }
+    }
+}
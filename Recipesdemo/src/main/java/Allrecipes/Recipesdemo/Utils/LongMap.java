@@ -0,0 +1,116 @@
+package Allrecipes.Recipesdemo.Utils;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * Open-addressing hash map from primitive {@code long} keys to values.
+ *
+ * Keys are stored in a plain {@code long[]} probed linearly, so lookups neither box the key nor
+ * allocate an entry object, which matters when aggregating thousands of rows per request. Not
+ * thread-safe; entries cannot be removed.
+ */
+public final class LongMap<V> {
+
+    private static final float LOAD_FACTOR = 0.5f;
+
+    private long[] keys;
+    private Object[] values;
+    private boolean[] used;
+    private int size;
+
+    public LongMap() {
+        this(16);
+    }
+
+    public LongMap(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(4, (int) (expectedSize / LOAD_FACTOR)) - 1) << 1;
+        keys = new long[capacity];
+        values = new Object[capacity];
+        used = new boolean[capacity];
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        int slot = find(key);
+        return used[slot] ? (V) values[slot] : null;
+    }
+
+    public void put(long key, V value) {
+        int slot = find(key);
+        if (!used[slot]) {
+            used[slot] = true;
+            keys[slot] = key;
+            size++;
+        }
+        values[slot] = value;
+        if (size > keys.length * LOAD_FACTOR) {
+            grow();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long key, LongFunction<V> create) {
+        int slot = find(key);
+        if (used[slot]) {
+            return (V) values[slot];
+        }
+        V value = create.apply(key);
+        put(key, value);
+        return value;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * The values in no particular order.
+     */
+    @SuppressWarnings("unchecked")
+    public List<V> values() {
+        List<V> result = new ArrayList<>(size);
+        for (int i = 0; i < keys.length; i++) {
+            if (used[i]) {
+                result.add((V) values[i]);
+            }
+        }
+        return result;
+    }
+
+    private int find(long key) {
+        int mask = keys.length - 1;
+        int slot = mix(key) & mask;
+        while (used[slot] && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        boolean[] oldUsed = used;
+        keys = new long[oldKeys.length * 2];
+        values = new Object[oldKeys.length * 2];
+        used = new boolean[oldKeys.length * 2];
+        size = 0;
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldUsed[i]) {
+                int slot = find(oldKeys[i]);
+                used[slot] = true;
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+                size++;
+            }
+        }
+        Arrays.fill(oldValues, null);
+    }
+
+    private static int mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -0,0 +1,27 @@
+package Allrecipes.Recipesdemo.Utils;
+
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Utility class for transaction-bound side effects.
+ */
+public class TransactionUtils {
+
+    /**
+     * Runs {@code action} once the current transaction commits, or right away when there is none.
+     * Use it to keep in-memory state (caches, indexes) from seeing writes that are later rolled back.
+     */
+    public static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
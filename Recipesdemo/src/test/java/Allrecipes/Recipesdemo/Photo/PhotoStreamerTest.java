@@ -0,0 +1,39 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoStreamerTest {
+
+    @Test
+    void parseRange_ExplicitBounds_ShouldReturnInclusiveRange() {
+        assertArrayEquals(new long[]{0, 99}, PhotoStreamer.parseRange("bytes=0-99", 1000));
+    }
+
+    @Test
+    void parseRange_OpenEnded_ShouldRunToEndOfFile() {
+        assertArrayEquals(new long[]{500, 999}, PhotoStreamer.parseRange("bytes=500-", 1000));
+    }
+
+    @Test
+    void parseRange_Suffix_ShouldReturnLastBytes() {
+        assertArrayEquals(new long[]{900, 999}, PhotoStreamer.parseRange("bytes=-100", 1000));
+    }
+
+    @Test
+    void parseRange_EndPastFile_ShouldBeClamped() {
+        assertArrayEquals(new long[]{10, 999}, PhotoStreamer.parseRange("bytes=10-5000", 1000));
+    }
+
+    @Test
+    void parseRange_StartPastFile_ShouldBeUnsatisfiable() {
+        assertNull(PhotoStreamer.parseRange("bytes=1000-", 1000));
+    }
+
+    @Test
+    void parseRange_MultipleRangesOrOtherUnits_ShouldServeWholeFile() {
+        assertEquals(0, PhotoStreamer.parseRange("bytes=0-1,5-9", 1000).length);
+        assertEquals(0, PhotoStreamer.parseRange("items=0-1", 1000).length);
+    }
+}
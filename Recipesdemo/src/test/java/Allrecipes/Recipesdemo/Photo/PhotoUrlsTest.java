@@ -0,0 +1,25 @@
+package Allrecipes.Recipesdemo.Photo;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PhotoUrlsTest {
+
+    private static final String HASH = "3f2a9c0b7d1e4f5a6b7c8d9e0f1a2b3c4d5e6f7a8b9c0d1e2f3a4b5c6d7e8f9a";
+
+    @Test
+    void forRecipe_ShouldUseTheHashPrefixAsVersion() {
+        assertEquals("/api/recipes/7/photo?v=3f2a9c0b7d1e4f5a", PhotoUrls.forRecipe(7L, HASH));
+        assertNull(PhotoUrls.forRecipe(7L, null));
+    }
+
+    @Test
+    void isVersionOf_ShouldOnlyAcceptTheFullVersion() {
+        assertTrue(PhotoUrls.isVersionOf(HASH, "3f2a9c0b7d1e4f5a"));
+        assertFalse(PhotoUrls.isVersionOf(HASH, "3"));
+        assertFalse(PhotoUrls.isVersionOf(HASH, "3f2a9c0b7d1e4f5a6"));
+        assertFalse(PhotoUrls.isVersionOf(HASH, ""));
+        assertFalse(PhotoUrls.isVersionOf(HASH, null));
+    }
+}
@@ -0,0 +1,45 @@
+package Allrecipes.Recipesdemo.Quantity;
+
+import Allrecipes.Recipesdemo.Entities.Ingredient;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IngredientScalerTest {
+
+    @Test
+    void scale_ShouldMultiplyAmountsExactly() {
+        Rational half = IngredientScaler.factor(4, 2);
+
+        assertEquals(List.of("3/4 cup of flour", "1 egg"),
+                IngredientScaler.scale(List.of(ingredient("1 1/2", "cup", "flour"), ingredient("2", "", "egg")), half));
+    }
+
+    @Test
+    void scale_ShouldMoveToTheMostReadableUnit() {
+        assertEquals("1 tbsp of sugar", IngredientScaler.describe(ingredient("1", "tsp", "sugar"), IngredientScaler.factor(1, 3)));
+        assertEquals("2 tbsp of milk", IngredientScaler.describe(ingredient("1/4", "cup", "milk"), IngredientScaler.factor(2, 1)));
+        assertEquals("1 1/2 kg of potatoes", IngredientScaler.describe(ingredient("750", "g", "potatoes"), IngredientScaler.factor(2, 4)));
+    }
+
+    @Test
+    void scale_ShouldKeepUnparsedAmountsAsWritten() {
+        assertEquals("to taste pinch of salt",
+                IngredientScaler.describe(ingredient("to taste", "pinch", "salt"), IngredientScaler.factor(2, 8)));
+    }
+
+    @Test
+    void factor_ShouldRejectServingsOutOfRange() {
+        assertThrows(IllegalArgumentException.class, () -> IngredientScaler.factor(0, 2));
+        assertThrows(IllegalArgumentException.class, () -> IngredientScaler.factor(2, -1));
+        assertThrows(IllegalArgumentException.class, () -> IngredientScaler.factor(2, IngredientScaler.MAX_SERVINGS + 1));
+    }
+
+    private static Ingredient ingredient(String quantity, String unit, String name) {
+        Ingredient ingredient = new Ingredient(name, quantity, unit, null);
+        ingredient.setParsedQuantity(QuantityParser.parse(quantity, unit));
+        return ingredient;
+    }
+}
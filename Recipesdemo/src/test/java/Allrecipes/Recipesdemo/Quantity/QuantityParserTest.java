@@ -0,0 +1,65 @@
+package Allrecipes.Recipesdemo.Quantity;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class QuantityParserTest {
+
+    @Test
+    void parse_ShouldReadCommonAmountForms() {
+        assertEquals(Rational.of(2), amount("2"));
+        assertEquals(Rational.of(3, 2), amount("1.5"));
+        assertEquals(Rational.of(3, 2), amount("1,5"));
+        assertEquals(Rational.of(3, 4), amount("3/4"));
+        assertEquals(Rational.of(3, 2), amount("1 1/2"));
+        assertEquals(Rational.of(3, 2), amount("1½"));
+        assertEquals(Rational.of(1, 4), amount("¼"));
+        assertEquals(Rational.ONE, amount("a"));
+        assertEquals(Rational.of(2), amount("2-3"));
+        assertEquals(Rational.of(2), amount("2 to 3"));
+        assertNull(amount("to taste"));
+    }
+
+    @Test
+    void parse_ShouldMapUnitSpellings() {
+        assertEquals(Unit.TABLESPOON, QuantityParser.parse("1", "Tbsp.").unit());
+        assertEquals(Unit.TABLESPOON, QuantityParser.parse("1", "T").unit());
+        assertEquals(Unit.TEASPOON, QuantityParser.parse("1", "t").unit());
+        assertEquals(Unit.CUP, QuantityParser.parse("2", "cups").unit());
+        assertEquals(Unit.GRAM, QuantityParser.parse("200", "grams").unit());
+        assertEquals(Unit.CLOVE, QuantityParser.parse("3", "cloves").unit());
+        assertEquals(Unit.PIECE, QuantityParser.parse("3", "").unit());
+        assertEquals(Unit.OTHER, QuantityParser.parse("1", "handful").unit());
+    }
+
+    @Test
+    void parse_ShouldTakeUnitFromQuantityWhenUnitIsBlank() {
+        ParsedQuantity parsed = QuantityParser.parse("2 cups", " ");
+
+        assertEquals(Rational.of(2), parsed.amount());
+        assertEquals(Unit.CUP, parsed.unit());
+    }
+
+    @Test
+    void rational_ShouldFormatForRecipeCards() {
+        assertEquals("1 1/2", Rational.of(3, 2).format());
+        assertEquals("3/4", Rational.of(3, 4).format());
+        assertEquals("2", Rational.of(4, 2).format());
+        assertEquals("1/3", Rational.of(33, 100).format());
+        assertEquals("0.42", Rational.of(5, 12).format());
+    }
+
+    @Test
+    void unit_ShouldConvertWithinADimensionOnly() {
+        assertEquals(Rational.of(3), Unit.TABLESPOON.convert(Rational.ONE, Unit.TEASPOON));
+        assertEquals(Rational.of(1, 2), Unit.GRAM.convert(Rational.of(500), Unit.KILOGRAM));
+        assertFalse(Unit.CUP.convertsTo(Unit.GRAM));
+        assertFalse(Unit.PINCH.convertsTo(Unit.CLOVE));
+        assertThrows(IllegalArgumentException.class, () -> Unit.CUP.convert(Rational.ONE, Unit.GRAM));
+    }
+
+    private static Rational amount(String quantity) {
+        return QuantityParser.parse(quantity, "cup").amount();
+    }
+}
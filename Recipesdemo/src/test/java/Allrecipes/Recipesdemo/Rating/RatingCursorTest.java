@@ -0,0 +1,19 @@
+package Allrecipes.Recipesdemo.Rating;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingCursorTest {
+
+    @Test
+    void decode_ShouldRoundTrip() {
+        assertEquals(12345, RatingCursor.decode(new RatingCursor(12345).encode()).id());
+    }
+
+    @Test
+    void decode_Garbage_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RatingCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> RatingCursor.decode("LTE")); // "-1"
+    }
+}
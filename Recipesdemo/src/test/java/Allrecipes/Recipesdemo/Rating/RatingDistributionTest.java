@@ -0,0 +1,48 @@
+package Allrecipes.Recipesdemo.Rating;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingDistributionTest {
+
+    @Test
+    void add_ShouldMergeDailyBucketsByCount() {
+        RatingDistribution total = new RatingDistribution();
+        total.add(new Object[]{LocalDate.of(2024, 3, 1), 1L, 0L, 0L, 2L, 1L}, 1);
+        total.add(new Object[]{LocalDate.of(2024, 3, 2), 0L, 0L, 1L, null, 3L}, 1);
+
+        assertArrayEquals(new long[]{1, 0, 1, 2, 4}, total.getHistogram());
+        assertEquals(8, total.getCount());
+    }
+
+    @Test
+    void getMeanAndVariance_ShouldMatchTheRawScores() {
+        RatingDistribution distribution = new RatingDistribution();
+        distribution.add(new Object[]{1L, 0L, 0L, 0L, 3L}, 0); // scores 1, 5, 5, 5
+
+        assertEquals(4.0, distribution.getMean(), 1e-9);
+        assertEquals(3.0, distribution.getVariance(), 1e-9);
+    }
+
+    @Test
+    void percentile_ShouldReturnTheScoreAtTheRank() {
+        RatingDistribution distribution = new RatingDistribution();
+        distribution.add(new Object[]{1L, 1L, 1L, 1L, 6L}, 0);
+
+        assertEquals(5, distribution.percentile(0.5));
+        assertEquals(1, distribution.percentile(0.0));
+        assertEquals(4, distribution.percentile(0.4));
+    }
+
+    @Test
+    void getMean_ShouldBeNullWhenEmpty() {
+        RatingDistribution distribution = new RatingDistribution();
+
+        assertNull(distribution.getMean());
+        assertNull(distribution.getVariance());
+        assertNull(distribution.percentile(0.9));
+    }
+}
@@ -0,0 +1,43 @@
+package Allrecipes.Recipesdemo.Recipe;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeCursorTest {
+
+    @Test
+    void decode_NewestCursor_ShouldRoundTrip() {
+        LocalDateTime createdAt = LocalDateTime.of(2024, 5, 1, 12, 30, 15, 123_000_000);
+        RecipeCursor cursor = RecipeCursor.decode(RecipeCursor.newest(createdAt, 42).encode());
+
+        assertEquals(RecipeCursor.Order.NEWEST, cursor.order());
+        assertEquals(createdAt, cursor.createdAt());
+        assertEquals(42, cursor.id());
+    }
+
+    @Test
+    void decode_RatingCursor_ShouldRoundTrip() {
+        RecipeCursor cursor = RecipeCursor.decode(RecipeCursor.rating(new BigDecimal("4.3333"), 7).encode());
+
+        assertEquals(RecipeCursor.Order.RATING, cursor.order());
+        assertEquals(new BigDecimal("4.3333"), cursor.rating());
+        assertEquals(7, cursor.id());
+    }
+
+    @Test
+    void decode_Garbage_ShouldBeRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RecipeCursor.decode("not a cursor"));
+        assertThrows(IllegalArgumentException.class, () -> RecipeCursor.decode("TkVXRVNUfHh8MQ"));
+    }
+
+    @Test
+    void fromParam_Unknown_ShouldBeRejected() {
+        assertEquals(RecipeCursor.Order.NEWEST, RecipeCursor.Order.fromParam(null));
+        assertEquals(RecipeCursor.Order.RATING, RecipeCursor.Order.fromParam("rating"));
+        assertThrows(IllegalArgumentException.class, () -> RecipeCursor.Order.fromParam("popular"));
+    }
+}
@@ -0,0 +1,72 @@
+package Allrecipes.Recipesdemo.Repositories;
+
+import Allrecipes.Recipesdemo.Entities.Category;
+import Allrecipes.Recipesdemo.Entities.Enums.FoodCategories;
+import Allrecipes.Recipesdemo.Entities.Enums.UserType;
+import Allrecipes.Recipesdemo.Entities.Ingredient;
+import Allrecipes.Recipesdemo.Entities.User;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class RecipeRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RecipeRepository recipeRepository;
+
+    private Long recipeId;
+
+    @BeforeEach
+    void setUp() {
+        User author = entityManager.persist(User.builder().username("cook").email("cook@example.com")
+                .password("secret").userType(UserType.CUSTOMER).build());
+        Category dinner = entityManager.persist(Category.builder().name("Dinner").foodCategory(FoodCategories.values()[0]).build());
+        Category quick = entityManager.persist(Category.builder().name("Quick").foodCategory(FoodCategories.values()[1]).build());
+
+        Recipe recipe = new Recipe();
+        recipe.setTitle("Shakshuka");
+        recipe.setCookingTime(30);
+        recipe.setServings(2);
+        recipe.setCreatedBy(author);
+        recipe.setIngredients(new ArrayList<>());
+        recipe.setCategories(new HashSet<>(Set.of(dinner, quick)));
+        entityManager.persist(recipe);
+        for (String name : List.of("eggs", "tomatoes", "onion")) {
+            entityManager.persist(new Ingredient(name, "2", "piece", recipe));
+        }
+        entityManager.flush();
+        entityManager.clear();
+        recipeId = recipe.getId();
+    }
+
+    @Test
+    void findDetailById_ShouldNotRepeatIngredientsPerCategory() {
+        Recipe recipe = recipeRepository.findDetailById(recipeId).orElseThrow();
+
+        assertEquals(2, recipe.getCategories().size());
+        assertEquals(3, recipe.getIngredients().size());
+    }
+
+    @Test
+    void findDetailsByIdIn_ShouldNotRepeatIngredientsPerCategory() {
+        List<Recipe> recipes = recipeRepository.findDetailsByIdIn(List.of(recipeId));
+
+        assertEquals(1, recipes.size());
+        assertEquals(2, recipes.get(0).getCategories().size());
+        assertEquals(3, recipes.get(0).getIngredients().size());
+    }
+}
@@ -0,0 +1,78 @@
+package Allrecipes.Recipesdemo.Repositories;
+
+import Allrecipes.Recipesdemo.Entities.Enums.UserType;
+import Allrecipes.Recipesdemo.Entities.RecipeRatingStats;
+import Allrecipes.Recipesdemo.Entities.User;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.data.domain.PageRequest;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+class RecipeSummaryRepositoryTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private RecipeSummaryRepository recipeSummaryRepository;
+
+    private final List<Long> ids = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        User author = entityManager.persist(User.builder().username("cook").email("cook@example.com")
+                .password("secret").userType(UserType.CUSTOMER).build());
+        for (int i = 0; i < 5; i++) {
+            Recipe recipe = new Recipe();
+            recipe.setTitle("Recipe " + i);
+            recipe.setCookingTime(10);
+            recipe.setServings(2);
+            recipe.setCreatedBy(author);
+            recipe.setIngredients(new ArrayList<>());
+            recipe.setCategories(new HashSet<>());
+            ids.add(entityManager.persist(recipe).getId());
+        }
+        stats(ids.get(0), 13, 3);  // 4.3333
+        stats(ids.get(1), 9, 2);   // 4.5
+        stats(ids.get(2), 26, 6);  // 4.3333, same average as the first
+        stats(ids.get(3), 0, 0);   // every rating withdrawn
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    void findRatingKeysAfter_ShouldPageByStoredAverageThenId() {
+        List<Object[]> first = recipeSummaryRepository.findRatingKeysAfter(BigDecimal.TEN, Long.MAX_VALUE, PageRequest.of(0, 2));
+
+        assertEquals(List.of(ids.get(1), ids.get(2)), first.stream().map(key -> key[0]).toList());
+        BigDecimal tied = (BigDecimal) first.get(1)[1];
+        assertEquals(0, new BigDecimal("4.3333").compareTo(tied));
+
+        List<Object[]> second = recipeSummaryRepository.findRatingKeysAfter(tied, ids.get(2), PageRequest.of(0, 2));
+
+        assertEquals(List.of(ids.get(0)), second.stream().map(key -> key[0]).toList());
+    }
+
+    @Test
+    void findUnratedIdsAfter_ShouldReturnRecipesWithoutAnAverage() {
+        assertEquals(List.of(ids.get(4), ids.get(3)),
+                recipeSummaryRepository.findUnratedIdsAfter(Long.MAX_VALUE, PageRequest.of(0, 10)));
+        assertEquals(List.of(ids.get(3)),
+                recipeSummaryRepository.findUnratedIdsAfter(ids.get(4), PageRequest.of(0, 10)));
+    }
+
+    private void stats(Long recipeId, long scoreSum, long ratingCount) {
+        entityManager.persist(RecipeRatingStats.builder().recipeId(recipeId).scoreSum(scoreSum).ratingCount(ratingCount).build());
+    }
+}
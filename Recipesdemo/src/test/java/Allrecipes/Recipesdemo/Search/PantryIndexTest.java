@@ -0,0 +1,63 @@
+package Allrecipes.Recipesdemo.Search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PantryIndexTest {
+
+    private PantryIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PantryIndex();
+        PantryIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(doc(1, "Tomatoes", "Basil", "Olive oil"));
+        rebuild.add(doc(2, "Tomato", "Pasta", "Garlic", "Parmesan"));
+        rebuild.add(doc(3, "Flour", "Sugar", "Eggs", "Butter", "Cocoa"));
+        rebuild.add(doc(4, "TOMATOES ", "Salt"));
+        index.finishRebuild(rebuild);
+    }
+
+    @Test
+    void query_ShouldRankByFewestMissingIngredients() {
+        List<PantryHit> hits = index.query(List.of("tomato", "basil", "olive oil", "salt"), 10, null);
+
+        assertEquals(List.of(1L, 4L, 2L), hits.stream().map(PantryHit::recipeId).toList());
+        assertEquals(0, hits.get(0).missing());
+        assertEquals(3, hits.get(0).matched());
+        assertEquals(List.of("Pasta", "Garlic", "Parmesan"), hits.get(2).missingIngredients());
+    }
+
+    @Test
+    void query_ShouldPreferMoreCoveredIngredientsOnTies() {
+        List<PantryHit> hits = index.query(List.of("tomatoes", "basil", "pasta", "garlic"), 10, null);
+
+        // Recipes 1, 2 and 4 each miss one ingredient; 2 covers three of its four.
+        assertEquals(List.of(2L, 1L, 4L), hits.stream().map(PantryHit::recipeId).toList());
+    }
+
+    @Test
+    void query_ShouldHonourLimitAndMaxMissing() {
+        assertEquals(List.of(4L), index.query(List.of("salt", "tomato"), 1, null).stream().map(PantryHit::recipeId).toList());
+        assertEquals(List.of(4L, 1L), index.query(List.of("salt", "tomato"), 10, 2).stream().map(PantryHit::recipeId).toList());
+        assertTrue(index.query(List.of("saffron"), 10, null).isEmpty());
+    }
+
+    @Test
+    void indexAndRemove_ShouldUpdateIncrementally() {
+        index.index(doc(3, "Salt", "Pepper"));
+        assertEquals(3L, index.query(List.of("salt", "pepper"), 1, null).get(0).recipeId());
+
+        index.remove(3);
+        index.remove(4);
+        assertTrue(index.query(List.of("salt", "pepper"), 10, null).isEmpty());
+    }
+
+    private static SearchDocument doc(long id, String... ingredients) {
+        return new SearchDocument(id, "Recipe " + id, null, null, List.of(ingredients), List.of());
+    }
+}
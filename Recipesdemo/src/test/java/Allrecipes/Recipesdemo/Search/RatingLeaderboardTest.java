@@ -0,0 +1,105 @@
+package Allrecipes.Recipesdemo.Search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RatingLeaderboardTest {
+
+    private RatingLeaderboard leaderboard;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new RatingLeaderboard(10, Duration.ZERO, 2);
+        RatingLeaderboard.Rebuild rebuild = leaderboard.startRebuild();
+        rebuild.add(1L, 5, 1, Set.of(100L));          // a single 5-star vote
+        rebuild.add(2L, 180, 40, Set.of(100L, 200L)); // 4.5 over 40 votes
+        rebuild.add(3L, 90, 30, Set.of(200L));        // 3.0 over 30 votes
+        rebuild.add(4L, 0, 0, Set.of(100L));          // unrated
+        leaderboard.finishRebuild(rebuild);
+    }
+
+    @Test
+    void page_ShouldNotLetASingleVoteTopTheBoard() {
+        LeaderboardSlice slice = leaderboard.page(null, null, 0, 10);
+
+        assertEquals(List.of(2L, 1L, 3L), slice.recipeIds());
+        assertEquals(3, slice.total());
+        assertTrue(slice.scores().get(1) < 5.0);
+    }
+
+    @Test
+    void page_ShouldRankWithinACategory() {
+        assertEquals(List.of(2L, 1L), leaderboard.page(100L, null, 0, 10).recipeIds());
+        assertEquals(List.of(2L, 3L), leaderboard.page(200L, null, 0, 10).recipeIds());
+        assertEquals(List.of(), leaderboard.page(300L, null, 0, 10).recipeIds());
+    }
+
+    @Test
+    void updateTotals_ShouldMoveARecipeOnTheBoard() {
+        leaderboard.updateTotals(2L, 40, 40);
+
+        assertEquals(List.of(3L, 1L, 2L), leaderboard.page(null, null, 0, 10).recipeIds());
+    }
+
+    @Test
+    void updateTotals_Unchanged_ShouldNotPublishANewSnapshot() {
+        long first = leaderboard.page(null, null, 0, 10).snapshot();
+
+        leaderboard.updateTotals(2L, 180, 40);
+
+        assertEquals(first, leaderboard.page(null, null, 0, 10).snapshot());
+    }
+
+    @Test
+    void updateCategories_ShouldMoveARecipeBetweenCategoryBoards() {
+        leaderboard.updateCategories(1L, List.of(200L));
+
+        assertEquals(List.of(2L), leaderboard.page(100L, null, 0, 10).recipeIds());
+        assertEquals(List.of(2L, 1L, 3L), leaderboard.page(200L, null, 0, 10).recipeIds());
+    }
+
+    @Test
+    void page_ShouldKeepServingTheRequestedSnapshot() {
+        LeaderboardSlice first = leaderboard.page(null, null, 0, 1);
+
+        leaderboard.remove(2L);
+        LeaderboardSlice second = leaderboard.page(null, first.snapshot(), 1, 2);
+        LeaderboardSlice latest = leaderboard.page(null, null, 0, 10);
+
+        assertEquals(first.snapshot(), second.snapshot());
+        assertEquals(List.of(1L, 3L), second.recipeIds());
+        assertNotEquals(first.snapshot(), latest.snapshot());
+        assertEquals(List.of(1L, 3L), latest.recipeIds());
+    }
+
+    @Test
+    void page_ShouldFallBackToTheLatestSnapshotOnceExpired() {
+        long first = leaderboard.page(null, null, 0, 1).snapshot();
+        for (long score = 1; score <= 3; score++) {
+            leaderboard.updateTotals(4L, score, 1);
+            leaderboard.page(null, null, 0, 1);
+        }
+
+        LeaderboardSlice slice = leaderboard.page(null, first, 0, 10);
+
+        assertNotEquals(first, slice.snapshot());
+        assertEquals(4, slice.total());
+    }
+
+    @Test
+    void finishRebuild_ShouldReplayChangesMadeDuringTheRebuild() {
+        RatingLeaderboard.Rebuild rebuild = leaderboard.startRebuild();
+        rebuild.add(1L, 5, 1, Set.of());
+        leaderboard.updateTotals(1L, 250, 50);
+        leaderboard.remove(3L);
+        leaderboard.finishRebuild(rebuild);
+
+        assertEquals(List.of(1L), leaderboard.page(null, null, 0, 10).recipeIds());
+    }
+}
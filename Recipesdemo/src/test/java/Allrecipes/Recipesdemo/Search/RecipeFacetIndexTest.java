@@ -0,0 +1,70 @@
+package Allrecipes.Recipesdemo.Search;
+
+import Allrecipes.Recipesdemo.Entities.Enums.RecipeStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeFacetIndexTest {
+
+    private RecipeFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RecipeFacetIndex();
+        RecipeFacetIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(new FacetDocument(1, Set.of(10L), true, 10, 2, RecipeStatus.APPROVED, 100L));
+        rebuild.add(new FacetDocument(2, Set.of(10L, 20L), false, 45, 4, RecipeStatus.APPROVED, 100L));
+        rebuild.add(new FacetDocument(3, Set.of(20L), false, 90, 8, RecipeStatus.PENDING_APPROVAL, 200L));
+        index.finishRebuild(rebuild);
+    }
+
+    @Test
+    void query_NoSelection_ShouldReturnEverythingNewestFirst() {
+        FacetResult result = index.query(new FacetQuery(), 0, 10);
+
+        assertEquals(3, result.total());
+        assertEquals(List.of(3L, 2L, 1L), result.recipeIds());
+        assertEquals(Map.of("10", 2L, "20", 2L), result.facets().get("category"));
+    }
+
+    @Test
+    void query_CategoriesAnyVersusAll() {
+        FacetQuery any = new FacetQuery().select(Facet.CATEGORY, List.of(10L, 20L));
+        FacetQuery all = new FacetQuery().select(Facet.CATEGORY, List.of(10L, 20L)).matchAllCategories(true);
+
+        assertEquals(3, index.query(any, 0, 10).total());
+        assertEquals(List.of(2L), index.query(all, 0, 10).recipeIds());
+    }
+
+    @Test
+    void query_FacetCountsShouldIgnoreTheirOwnSelection() {
+        FacetQuery query = new FacetQuery()
+                .select(Facet.CONTAINS_GLUTEN, List.of(false))
+                .select(Facet.STATUS, List.of("APPROVED"));
+
+        FacetResult result = index.query(query, 0, 10);
+
+        assertEquals(List.of(2L), result.recipeIds());
+        // Gluten counts are taken over APPROVED recipes only, status counts over gluten-free ones only.
+        assertEquals(Map.of("true", 1L, "false", 1L), result.facets().get("containsGluten"));
+        assertEquals(Map.of("APPROVED", 1L, "PENDING_APPROVAL", 1L), result.facets().get("status"));
+        assertEquals(Map.of("31-60", 1L), result.facets().get("cookingTime"));
+    }
+
+    @Test
+    void indexAndRemove_ShouldKeepBitmapsCurrent() {
+        index.index(new FacetDocument(1, Set.of(20L), true, 10, 2, RecipeStatus.REJECTED, 100L));
+        index.remove(3);
+
+        FacetResult result = index.query(new FacetQuery().select(Facet.CATEGORY, List.of(20L)), 0, 10);
+
+        assertEquals(List.of(2L, 1L), result.recipeIds());
+        assertEquals(Map.of("100", 2L), result.facets().get("author"));
+    }
+}
@@ -0,0 +1,133 @@
+package Allrecipes.Recipesdemo.Search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeSearchIndexTest {
+
+    private RecipeSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new RecipeSearchIndex();
+        RecipeSearchIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(doc(1, "Tomato Soup", "A warm soup", List.of("tomatoes", "basil"), List.of("Soups")));
+        rebuild.add(doc(2, "Basil Pesto Pasta", "Fresh pasta with pesto", List.of("basil", "pine nuts"), List.of("Pasta")));
+        rebuild.add(doc(3, "Chocolate Cake", "Rich and moist", List.of("cocoa", "flour"), List.of("Desserts")));
+        index.finishRebuild(rebuild);
+    }
+
+    @Test
+    void search_TitleMatchShouldOutrankIngredientMatch() {
+        SearchHits hits = index.search("basil", 0, 10);
+
+        assertEquals(2, hits.total());
+        assertEquals(List.of(2L, 1L), hits.recipeIds());
+    }
+
+    @Test
+    void search_ShouldMatchStemmedForms() {
+        assertEquals(List.of(1L), index.search("tomato soups", 0, 10).recipeIds());
+    }
+
+    @Test
+    void search_ShouldPageResults() {
+        SearchHits second = index.search("basil", 1, 1);
+
+        assertEquals(2, second.total());
+        assertEquals(List.of(1L), second.recipeIds());
+        assertTrue(index.search("basil", 5, 1).recipeIds().isEmpty());
+    }
+
+    @Test
+    void indexAndRemove_ShouldUpdateIncrementally() {
+        index.index(doc(3, "Chocolate Basil Cake", "Odd but good", List.of("cocoa"), List.of()));
+        assertEquals(3, index.search("basil", 0, 10).total());
+
+        index.remove(2);
+        assertEquals(List.of(3L, 1L), index.search("basil", 0, 10).recipeIds());
+        assertEquals(2, index.size());
+    }
+
+    @Test
+    void finishRebuild_ShouldReplayWritesMadeDuringTheRebuild() {
+        RecipeSearchIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(doc(1, "Tomato Soup", "", List.of(), List.of()));
+        index.index(doc(4, "Tomato Salad", "", List.of(), List.of()));
+        index.finishRebuild(rebuild);
+
+        assertEquals(2, index.search("tomato", 0, 10).total());
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void search_ShouldCorrectMisspelledTerms() {
+        index.index(doc(4, "Classic Lasagna", "Layered pasta bake", List.of("mozzarella"), List.of("Pasta")));
+
+        assertEquals(List.of(4L), index.search("lazagna", 0, 10).recipeIds());
+        assertEquals(List.of(3L), index.search("chocolat cake", 0, 10).recipeIds());
+        assertEquals(List.of(4L), index.search("mozarella", 0, 10).recipeIds());
+    }
+
+    @Test
+    void search_ExactMatchesShouldOutrankCorrections() {
+        index.index(doc(4, "Pesto Pasta", "", List.of(), List.of()));
+        index.index(doc(5, "Pasty", "", List.of(), List.of()));
+
+        assertEquals(5L, index.search("pasty", 0, 10).recipeIds().get(0));
+    }
+
+    @Test
+    void search_ShouldCountATermOnceWhenSeveralMisspellingsCorrectToIt() {
+        index.index(doc(4, "Lasagna", "", List.of(), List.of()));
+        index.index(doc(5, "Spinach", "", List.of(), List.of()));
+
+        assertEquals(List.of(5L, 4L), index.search("lazagna lasagnna lasanga spinach", 0, 10).recipeIds());
+    }
+
+    @Test
+    void search_ShouldNotCorrectShortTerms() {
+        assertEquals(0, index.search("cac", 0, 10).total());
+    }
+
+    @Test
+    void index_ShouldReuseDocNumbersOnceUpdatesPileUp() {
+        for (int i = 0; i < 3 * RecipeSearchIndex.MIN_GARBAGE; i++) {
+            index.index(doc(2, "Basil Pesto Pasta " + (i % 2 == 0 ? "Classic" : "Verde"), "", List.of("basil"), List.of()));
+        }
+
+        assertTrue(index.docSlots() <= RecipeSearchIndex.MIN_GARBAGE + 3);
+        assertEquals(3, index.size());
+        assertEquals(List.of(2L, 1L), index.search("basil", 0, 10).recipeIds());
+        assertEquals(List.of(3L), index.search("chocolate", 0, 10).recipeIds());
+    }
+
+    @Test
+    void remove_ShouldPruneTermsNoRecipeUses() {
+        for (int i = 0; i < 3 * RecipeSearchIndex.MIN_GARBAGE; i++) {
+            index.index(doc(100 + i, "Stew number" + i, "", List.of(), List.of()));
+            index.remove(100 + i);
+        }
+
+        assertTrue(index.vocabularySize() < 2 * RecipeSearchIndex.MIN_GARBAGE);
+        assertEquals(0, index.search("stew", 0, 10).total());
+        assertEquals(List.of(2L, 1L), index.search("basil", 0, 10).recipeIds());
+        assertEquals(List.of(1L), index.search("tomatos", 0, 10).recipeIds());
+    }
+
+    @Test
+    void editDistance_ShouldCountTranspositionsAsOneEdit() {
+        assertEquals(0, RecipeSearchIndex.editDistance("basil", "basil", 2));
+        assertEquals(1, RecipeSearchIndex.editDistance("basil", "bsail", 2));
+        assertEquals(2, RecipeSearchIndex.editDistance("lasagna", "lazagne", 2));
+        assertEquals(2, RecipeSearchIndex.editDistance("cocoa", "flour", 1));
+    }
+
+    private static SearchDocument doc(long id, String title, String description, List<String> ingredients, List<String> categories) {
+        return new SearchDocument(id, title, description, null, ingredients, categories);
+    }
+}
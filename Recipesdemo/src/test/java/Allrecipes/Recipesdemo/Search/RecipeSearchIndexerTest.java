@@ -0,0 +1,55 @@
+package Allrecipes.Recipesdemo.Search;
+
+import Allrecipes.Recipesdemo.Repositories.RecipeSearchRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class RecipeSearchIndexerTest {
+
+    private RecipeSearchRepository repository;
+    private SuggestionIndex suggestionIndex;
+    private RatingLeaderboard leaderboard;
+    private RecipeSearchIndexer indexer;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(RecipeSearchRepository.class);
+        suggestionIndex = new SuggestionIndex();
+        SuggestionIndex.Rebuild rebuild = suggestionIndex.startRebuild();
+        rebuild.add(new SearchDocument(1L, "Tomato Soup", null, null, List.of(), List.of()), 0);
+        rebuild.add(new SearchDocument(2L, "Tomato Salad", null, null, List.of(), List.of()), 3);
+        suggestionIndex.finishRebuild(rebuild);
+        leaderboard = new RatingLeaderboard(10, Duration.ZERO, 2);
+        indexer = new RecipeSearchIndexer(new RecipeSearchIndex(), mock(RecipeFacetIndex.class), suggestionIndex,
+                mock(PantryIndex.class), leaderboard, mock(TrendingIndex.class), repository, 100);
+    }
+
+    @Test
+    void recipeFavorited_ShouldRaiseSuggestionPopularity() {
+        when(repository.findFavoriteCounts(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{1L, 4L}));
+        when(repository.findRatingTotals(anyCollection())).thenReturn(List.<Object[]>of(new Object[]{1L, 5L, 1L}));
+
+        indexer.recipeFavorited(1L);
+
+        assertEquals("Tomato Soup", suggestionIndex.suggest("tomato", Suggestion.Type.TITLE, 10).get(0).text());
+        assertEquals(List.of(1L), leaderboard.page(null, null, 0, 10).recipeIds());
+    }
+
+    @Test
+    void refreshRatings_ShouldZeroRecipesWithoutLiveRatings() {
+        leaderboard.updateTotals(2L, 20, 4);
+
+        indexer.refreshRatings(List.of(2L));
+
+        assertEquals(List.of(), leaderboard.page(null, null, 0, 10).recipeIds());
+        assertEquals(List.of(1L, 1L), suggestionIndex.suggest("tomato", Suggestion.Type.TITLE, 10).stream()
+                .map(Suggestion::weight).toList());
+    }
+}
@@ -0,0 +1,87 @@
+package Allrecipes.Recipesdemo.Search;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SuggestionIndexTest {
+
+    private SuggestionIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new SuggestionIndex();
+        SuggestionIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(doc(1, "Tomato Soup", List.of("Tomatoes", "Basil"), List.of("Soups")), 0);
+        rebuild.add(doc(2, "Tomato Salad", List.of("Tomatoes", "Feta"), List.of("Salads")), 5);
+        rebuild.add(doc(3, "Basil Pesto", List.of("Basil", "Pine nuts"), List.of("Sauces")), 1);
+        index.finishRebuild(rebuild);
+    }
+
+    @Test
+    void suggest_ShouldRankByPopularity() {
+        List<Suggestion> suggestions = index.suggest("tom", null, 10);
+
+        assertEquals(List.of("Tomato Salad", "Tomatoes", "Tomato Soup"), texts(suggestions));
+        assertEquals(Suggestion.Type.INGREDIENT, suggestions.get(1).type());
+        assertEquals(2, suggestions.get(1).weight());
+    }
+
+    @Test
+    void suggest_ShouldCompleteLaterWordsOfTitles() {
+        assertEquals(List.of("Tomato Soup"), texts(index.suggest("sou", Suggestion.Type.TITLE, 10)));
+    }
+
+    @Test
+    void suggest_ShouldFoldCaseAndAccents() {
+        assertEquals(List.of("Basil", "Basil Pesto"), texts(index.suggest("  BÁS", null, 10)));
+    }
+
+    @Test
+    void suggest_ShouldHonourLimitAndType() {
+        assertEquals(List.of("Tomato Salad"), texts(index.suggest("t", Suggestion.Type.TITLE, 1)));
+        assertEquals(List.of("Salads"), texts(index.suggest("s", Suggestion.Type.CATEGORY, 1)));
+        assertEquals(List.of("Soups"), texts(index.suggest("so", Suggestion.Type.CATEGORY, 10)));
+        assertTrue(index.suggest("", null, 10).isEmpty());
+    }
+
+    @Test
+    void index_ShouldReplaceAndRemoveContributions() {
+        index.index(doc(1, "Gazpacho", List.of("Tomatoes"), List.of("Soups")));
+        assertTrue(index.suggest("tomato so", null, 10).isEmpty());
+        assertEquals(List.of("Gazpacho"), texts(index.suggest("gaz", null, 10)));
+
+        index.remove(2);
+        assertEquals(1, index.suggest("tomatoes", null, 10).get(0).weight());
+        assertTrue(index.suggest("feta", null, 10).isEmpty());
+    }
+
+    @Test
+    void setPopularity_ShouldReorderTitles() {
+        index.setPopularity(1, 10);
+
+        assertEquals("Tomato Soup", index.suggest("tomato", Suggestion.Type.TITLE, 10).get(0).text());
+    }
+
+    @Test
+    void finishRebuild_ShouldReplayChangesMadeDuringRebuild() {
+        SuggestionIndex.Rebuild rebuild = index.startRebuild();
+        rebuild.add(doc(1, "Tomato Soup", List.of(), List.of()), 0);
+        index.index(doc(4, "Lemon Tart", List.of("Lemons"), List.of()));
+        index.finishRebuild(rebuild);
+
+        assertEquals(List.of("Lemon Tart", "Lemons"), texts(index.suggest("lem", null, 10)));
+        assertTrue(index.suggest("feta", null, 10).isEmpty());
+    }
+
+    private static SearchDocument doc(long id, String title, List<String> ingredients, List<String> categories) {
+        return new SearchDocument(id, title, null, null, ingredients, categories);
+    }
+
+    private static List<String> texts(List<Suggestion> suggestions) {
+        return suggestions.stream().map(Suggestion::text).toList();
+    }
+}
@@ -0,0 +1,32 @@
+package Allrecipes.Recipesdemo.Search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TextAnalyzerTest {
+
+    @Test
+    void analyze_ShouldFoldCaseAccentsAndDropStopWords() {
+        assertEquals(List.of("crem", "brule"), TextAnalyzer.analyze("Crème Brûlée"));
+        assertEquals(List.of("salt", "pepper"), TextAnalyzer.analyze("Salt and the pepper!"));
+    }
+
+    @Test
+    void stem_InflectionsShouldShareAStem() {
+        assertEquals(TextAnalyzer.stem("tomato"), TextAnalyzer.stem("tomatoes"));
+        assertEquals(TextAnalyzer.stem("berry"), TextAnalyzer.stem("berries"));
+        assertEquals(TextAnalyzer.stem("bake"), TextAnalyzer.stem("baking"));
+        assertEquals(TextAnalyzer.stem("bake"), TextAnalyzer.stem("baked"));
+        assertEquals(TextAnalyzer.stem("chop"), TextAnalyzer.stem("chopped"));
+        assertEquals(TextAnalyzer.stem("dish"), TextAnalyzer.stem("dishes"));
+    }
+
+    @Test
+    void stem_ShortWordsAndNumbersShouldBeKept() {
+        assertEquals("egg", TextAnalyzer.stem("egg"));
+        assertEquals("350", TextAnalyzer.stem("350"));
+    }
+}
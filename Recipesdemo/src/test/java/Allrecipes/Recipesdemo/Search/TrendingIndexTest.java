@@ -0,0 +1,87 @@
+package Allrecipes.Recipesdemo.Search;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrendingIndexTest {
+
+    private static final long HOUR = Duration.ofHours(1).toMillis();
+
+    @TempDir
+    Path dir;
+
+    private TrendingIndex index(String snapshotFile) {
+        return new TrendingIndex(Duration.ofHours(1), 1, 5, 3, 10, Duration.ZERO, snapshotFile);
+    }
+
+    @Test
+    void top_ShouldLetRecentActivityOvertakeOlderActivity() {
+        TrendingIndex index = index("");
+        long start = System.currentTimeMillis();
+        index.record(1L, TrendingIndex.Event.VIEW, 8, start);
+        index.record(2L, TrendingIndex.Event.VIEW, 3, start + 2 * HOUR);
+
+        TrendingSlice slice = index.top(10, start + 2 * HOUR);
+
+        // Two half-lives later recipe 1's 8 views are worth 2.
+        assertEquals(List.of(2L, 1L), slice.recipeIds());
+        assertEquals(3.0, slice.scores().get(0), 1e-6);
+        assertEquals(2.0, slice.scores().get(1), 1e-6);
+    }
+
+    @Test
+    void top_ShouldWeightEventsByKind() {
+        TrendingIndex index = index("");
+        long now = System.currentTimeMillis();
+        index.record(1L, TrendingIndex.Event.VIEW, 4, now);
+        index.record(2L, TrendingIndex.Event.FAVORITE, 1, now);
+        index.record(3L, TrendingIndex.Event.RATING, 1, now);
+        index.remove(3L);
+
+        assertEquals(List.of(2L, 1L), index.top(10, now).recipeIds());
+    }
+
+    @Test
+    void top_ShouldSurviveRescalingFarInTheFuture() {
+        TrendingIndex index = index("");
+        long start = System.currentTimeMillis();
+        index.record(1L, TrendingIndex.Event.VIEW, 1, start);
+        index.record(2L, TrendingIndex.Event.VIEW, 1, start + 1000 * HOUR);
+
+        TrendingSlice slice = index.top(10, start + 1000 * HOUR);
+
+        assertEquals(List.of(2L), slice.recipeIds());
+        assertEquals(1.0, slice.scores().get(0), 1e-9);
+    }
+
+    @Test
+    void load_ShouldRestoreCountersSavedBeforeARestart() {
+        String file = dir.resolve("trending.bin").toString();
+        TrendingIndex before = index(file);
+        long now = System.currentTimeMillis();
+        before.record(1L, TrendingIndex.Event.VIEW, 2, now);
+        before.record(2L, TrendingIndex.Event.FAVORITE, 1, now);
+        before.save();
+
+        TrendingIndex after = index(file);
+        after.load();
+        TrendingSlice slice = after.top(10, now);
+
+        assertEquals(List.of(2L, 1L), slice.recipeIds());
+        assertEquals(5.0, slice.scores().get(0), 0.01);
+    }
+
+    @Test
+    void load_ShouldStartEmptyWithoutASnapshot() {
+        TrendingIndex index = index(dir.resolve("missing.bin").toString());
+        index.load();
+
+        assertTrue(index.top(10).recipeIds().isEmpty());
+    }
+}
@@ -0,0 +1,64 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Entities.CanonicalIngredient;
+import Allrecipes.Recipesdemo.Repositories.CanonicalIngredientRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class IngredientDictionaryTest {
+
+    private CanonicalIngredientRepository repository;
+    private IngredientDictionary dictionary;
+
+    @BeforeEach
+    void setUp() {
+        repository = mock(CanonicalIngredientRepository.class);
+        dictionary = new IngredientDictionary(repository, mock(PlatformTransactionManager.class));
+        when(repository.getReferenceById(anyLong())).thenAnswer(call ->
+                CanonicalIngredient.builder().id(call.getArgument(0)).build());
+    }
+
+    @Test
+    void resolveAll_ShouldShareOneEntryAcrossSpellings() {
+        when(repository.findByNormalizedNameIn(anyCollection())).thenReturn(List.of());
+        when(repository.saveAndFlush(any())).thenAnswer(call -> {
+            CanonicalIngredient entry = call.getArgument(0);
+            entry.setId(7L);
+            return entry;
+        });
+
+        Map<String, CanonicalIngredient> resolved = dictionary.resolveAll(List.of("Tomato", "tomatoes ", "TOMATO"));
+
+        assertEquals(1, resolved.size());
+        assertEquals(7L, resolved.get("tomato").getId());
+        verify(repository, times(1)).saveAndFlush(argThat(entry ->
+                entry.getNormalizedName().equals("tomato") && entry.getName().equals("Tomato")));
+    }
+
+    @Test
+    void resolveAll_ShouldServeInternedNamesWithoutQuerying() {
+        when(repository.findByNormalizedNameIn(anyCollection())).thenReturn(List.of(
+                CanonicalIngredient.builder().id(3L).normalizedName("basil").name("Basil").build()));
+        dictionary.resolveAll(List.of("Basil"));
+
+        assertEquals(3L, dictionary.resolve("basil ").getId());
+        assertEquals(3L, dictionary.findId("BASIL").orElseThrow());
+        verify(repository, times(1)).findByNormalizedNameIn(anyCollection());
+        verify(repository, never()).findByNormalizedName(anyString());
+    }
+
+    @Test
+    void resolve_ShouldIgnoreNamesWithoutContentWords() {
+        assertNull(dictionary.resolve(" of "));
+        assertTrue(dictionary.findId("").isEmpty());
+        verifyNoInteractions(repository);
+    }
+}
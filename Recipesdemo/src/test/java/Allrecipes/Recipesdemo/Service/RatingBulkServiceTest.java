@@ -0,0 +1,159 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Request.RatingCreateRequest;
+import Allrecipes.Recipesdemo.Response.BulkRatingResponse;
+import Allrecipes.Recipesdemo.Response.BulkRatingResult;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndexer;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Captor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.mockito.junit.jupiter.MockitoSettings;
+import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@MockitoSettings(strictness = Strictness.LENIENT)
+class RatingBulkServiceTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbc;
+    @Mock
+    private JdbcTemplate jdbc;
+    @Mock
+    private RecipeSearchIndexer recipeSearchIndexer;
+    @Captor
+    private ArgumentCaptor<List<Object[]>> rows;
+    private RatingBulkService service;
+
+    @BeforeEach
+    void setUp() {
+        when(namedJdbc.getJdbcTemplate()).thenReturn(jdbc);
+        when(namedJdbc.queryForList(contains("FROM recipes"), anyMap(), eq(Long.class))).thenReturn(List.of(1L, 2L));
+        when(namedJdbc.queryForList(contains("FROM users"), anyMap(), eq(Long.class))).thenReturn(List.of(10L));
+        service = new RatingBulkService(namedJdbc, recipeSearchIndexer, VALIDATOR, 100);
+    }
+
+    @Test
+    void importRatings_ShouldReportEachItem() {
+        BulkRatingResponse response = service.importRatings(List.of(
+                item(1L, 10L, 4),
+                item(1L, 10L, 9),  // invalid score
+                item(3L, 10L, 5),  // unknown recipe
+                item(2L, 10L, 2),  // superseded by the next item
+                item(2L, 10L, 3)));
+
+        assertEquals(List.of(BulkRatingResult.Status.CREATED, BulkRatingResult.Status.REJECTED,
+                        BulkRatingResult.Status.REJECTED, BulkRatingResult.Status.REJECTED, BulkRatingResult.Status.CREATED),
+                response.results().stream().map(BulkRatingResult::status).toList());
+        assertEquals("Score must be at most 5.", response.results().get(1).error());
+        assertEquals("Recipe not found with id: 3", response.results().get(2).error());
+        assertEquals(2, response.created());
+        assertEquals(3, response.rejected());
+    }
+
+    @Test
+    void importRatings_ShouldMoveAReplacedScoreOutOfItsOldBuckets() throws Exception {
+        existingRating(1L, 10L, 2, LocalDateTime.of(2024, 3, 1, 9, 0));
+
+        BulkRatingResponse response = service.importRatings(List.of(item(1L, 10L, 5)));
+
+        assertEquals(1, response.updated());
+        verify(jdbc).batchUpdate(startsWith("INSERT INTO recipe_rating_stats"), rows.capture());
+        assertArrayEquals(new Object[]{1L, 3L, 0L, 0L, -1L, 0L, 0L, 1L}, rows.getValue().get(0));
+        verify(jdbc).batchUpdate(startsWith("INSERT INTO rating_daily_stats"), rows.capture());
+        assertEquals(2, rows.getValue().size());
+        Map<Object, Object[]> byDay = Map.of(rows.getValue().get(0)[1], rows.getValue().get(0),
+                rows.getValue().get(1)[1], rows.getValue().get(1));
+        assertArrayEquals(new Object[]{1L, LocalDate.of(2024, 3, 1), 0L, -1L, 0L, 0L, 0L}, byDay.get(LocalDate.of(2024, 3, 1)));
+        assertArrayEquals(new Object[]{1L, LocalDate.now(), 0L, 0L, 0L, 0L, 1L}, byDay.get(LocalDate.now()));
+    }
+
+    @Test
+    void importRatings_ShouldApplyHistogramChangesThatCancelOutInTheTotals() throws Exception {
+        when(namedJdbc.queryForList(contains("FROM users"), anyMap(), eq(Long.class))).thenReturn(List.of(10L, 11L));
+        LocalDateTime scoredAt = LocalDateTime.of(2024, 3, 1, 9, 0);
+        existingRatings(new Object[]{1L, 10L, 1, scoredAt}, new Object[]{1L, 11L, 3, scoredAt});
+
+        BulkRatingResponse response = service.importRatings(List.of(item(1L, 10L, 2), item(1L, 11L, 2)));
+
+        assertEquals(2, response.updated());
+        verify(jdbc).batchUpdate(startsWith("INSERT INTO recipe_rating_stats"), rows.capture());
+        assertEquals(1, rows.getValue().size());
+        assertArrayEquals(new Object[]{1L, 0L, 0L, -1L, 2L, -1L, 0L, 0L}, rows.getValue().get(0));
+    }
+
+    @Test
+    void importRatings_ShouldSkipIdenticalRatings() throws Exception {
+        existingRating(1L, 10L, 4, LocalDateTime.of(2024, 3, 1, 9, 0));
+
+        BulkRatingResponse response = service.importRatings(List.of(item(1L, 10L, 4)));
+
+        assertEquals(1, response.unchanged());
+        verify(jdbc).batchUpdate(startsWith("INSERT INTO ratings"), eq(List.of()));
+        verify(jdbc, never()).batchUpdate(startsWith("INSERT INTO recipe_rating_stats"), anyList());
+    }
+
+    @Test
+    void importRatings_ShouldRejectItemsThatBreakTheRequestConstraints() {
+        RatingCreateRequest noScoreLongComment = RatingCreateRequest.builder().recipeId(1L).userId(10L)
+                .comment("x".repeat(501)).build();
+
+        BulkRatingResponse response = service.importRatings(List.of(noScoreLongComment));
+
+        assertEquals("Comment must be at most 500 characters; Score is required.", response.results().get(0).error());
+        verifyNoInteractions(jdbc);
+    }
+
+    @Test
+    void importRatings_ShouldRejectOversizedBatches() {
+        RatingBulkService small = new RatingBulkService(namedJdbc, recipeSearchIndexer, VALIDATOR, 1);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> small.importRatings(List.of(item(1L, 10L, 4), item(2L, 10L, 4))));
+    }
+
+    private void existingRating(long recipeId, long userId, int score, LocalDateTime scoredAt) throws Exception {
+        existingRatings(new Object[]{recipeId, userId, score, scoredAt});
+    }
+
+    // Each row is {recipeId, userId, score, scoredAt}; all are live and without a comment.
+    private void existingRatings(Object[]... rows) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        int[] current = {0};
+        when(rs.getLong(anyInt())).thenAnswer(call -> rows[current[0]][call.<Integer>getArgument(0) - 1]);
+        when(rs.getInt(3)).thenAnswer(call -> rows[current[0]][2]);
+        when(rs.getBoolean(5)).thenReturn(false);
+        when(rs.getTimestamp(6)).thenAnswer(call -> Timestamp.valueOf((LocalDateTime) rows[current[0]][3]));
+        doAnswer(call -> {
+            for (current[0] = 0; current[0] < rows.length; current[0]++) {
+                call.<RowCallbackHandler>getArgument(2).processRow(rs);
+            }
+            return null;
+        }).when(namedJdbc).query(contains("FOR UPDATE"), anyMap(), any(RowCallbackHandler.class));
+    }
+
+    private static RatingCreateRequest item(Long recipeId, Long userId, int score) {
+        return RatingCreateRequest.builder().recipeId(recipeId).userId(userId).score(score).build();
+    }
+}
@@ -0,0 +1,72 @@
+package Allrecipes.Recipesdemo.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.ArgumentMatchers;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.core.namedparam.SqlParameterSource;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RatingCompactionJobTest {
+
+    private static final LocalDateTime DELETED_AT = LocalDateTime.of(2024, 1, 1, 12, 0);
+
+    private NamedParameterJdbcTemplate jdbc;
+    private RatingCompactionJob job;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = mock(NamedParameterJdbcTemplate.class);
+        job = new RatingCompactionJob(jdbc, mock(PlatformTransactionManager.class), true, Duration.ofDays(30), 2);
+    }
+
+    @Test
+    void compact_ShouldArchiveBatchesAndContinueAfterTheLastRow() {
+        when(jdbc.query(startsWith("SELECT id, updated_at"), any(SqlParameterSource.class), ArgumentMatchers.<RowMapper<Object[]>>any()))
+                .thenReturn(List.<Object[]>of(candidate(1L, DELETED_AT), candidate(2L, DELETED_AT.plusHours(1))))
+                .thenReturn(List.<Object[]>of(candidate(3L, DELETED_AT.plusHours(1))))
+                .thenReturn(List.of());
+        when(jdbc.queryForList(contains("FOR UPDATE"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of(1L, 2L))
+                .thenReturn(List.of(3L));
+        when(jdbc.update(startsWith("DELETE"), any(SqlParameterSource.class))).thenReturn(2, 1);
+
+        assertEquals(3, job.compact());
+
+        ArgumentCaptor<MapSqlParameterSource> pages = ArgumentCaptor.forClass(MapSqlParameterSource.class);
+        verify(jdbc, times(3)).query(startsWith("SELECT id, updated_at"), pages.capture(), ArgumentMatchers.<RowMapper<Object[]>>any());
+        assertEquals(0L, pages.getAllValues().get(0).getValue("lastId"));
+        assertEquals(2L, pages.getAllValues().get(1).getValue("lastId"));
+        assertEquals(DELETED_AT.plusHours(1), pages.getAllValues().get(1).getValue("lastUpdated"));
+        assertEquals(3L, pages.getAllValues().get(2).getValue("lastId"));
+        verify(jdbc, times(2)).update(startsWith("INSERT IGNORE INTO ratings_archive"), any(SqlParameterSource.class));
+    }
+
+    @Test
+    void compact_ShouldLeaveRowsRevivedSinceTheyWerePicked() {
+        when(jdbc.query(startsWith("SELECT id, updated_at"), any(SqlParameterSource.class), ArgumentMatchers.<RowMapper<Object[]>>any()))
+                .thenReturn(List.<Object[]>of(candidate(1L, DELETED_AT)))
+                .thenReturn(List.of());
+        when(jdbc.queryForList(contains("FOR UPDATE"), any(SqlParameterSource.class), eq(Long.class)))
+                .thenReturn(List.of());
+
+        assertEquals(0, job.compact());
+
+        verify(jdbc, never()).update(anyString(), any(SqlParameterSource.class));
+    }
+
+    private static Object[] candidate(long id, LocalDateTime updatedAt) {
+        return new Object[]{id, updatedAt};
+    }
+}
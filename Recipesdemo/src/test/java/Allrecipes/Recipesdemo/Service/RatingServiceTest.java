@@ -0,0 +1,219 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Entities.Rating;
+import Allrecipes.Recipesdemo.Entities.User;
+import Allrecipes.Recipesdemo.Exceptions.ResourceNotFoundException;
+import Allrecipes.Recipesdemo.Rating.RatingResponse;
+import Allrecipes.Recipesdemo.Rating.RatingUpdateRequest;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import Allrecipes.Recipesdemo.Repositories.RatingDailyStatsRepository;
+import Allrecipes.Recipesdemo.Repositories.RatingRepository;
+import Allrecipes.Recipesdemo.Repositories.RecipeRatingStatsRepository;
+import Allrecipes.Recipesdemo.Repositories.RecipeRepository;
+import Allrecipes.Recipesdemo.Request.RatingCreateRequest;
+import Allrecipes.Recipesdemo.Response.CursorPage;
+import Allrecipes.Recipesdemo.Response.RatingMapper;
+import Allrecipes.Recipesdemo.Search.RecipeSearchIndexer;
+import jakarta.validation.ValidationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RatingServiceTest {
+
+    private RatingRepository ratingRepository;
+    private RecipeRepository recipeRepository;
+    private RecipeRatingStatsRepository statsRepository;
+    private RatingDailyStatsRepository dailyStatsRepository;
+    private RecipeSearchIndexer indexer;
+    private RatingService ratingService;
+
+    private final Recipe recipe = Recipe.builder().id(3L).build();
+    private final User user = User.builder().id(9L).build();
+
+    @BeforeEach
+    void setUp() {
+        ratingRepository = mock(RatingRepository.class);
+        recipeRepository = mock(RecipeRepository.class);
+        statsRepository = mock(RecipeRatingStatsRepository.class, CALLS_REAL_METHODS);
+        doNothing().when(statsRepository).applyDelta(anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        when(statsRepository.findTotals(anyLong())).thenReturn(List.<Object[]>of(new Object[]{12L, 3L}));
+        dailyStatsRepository = mock(RatingDailyStatsRepository.class, CALLS_REAL_METHODS);
+        doNothing().when(dailyStatsRepository).applyDelta(anyLong(), any(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        indexer = mock(RecipeSearchIndexer.class);
+        ratingService = new RatingService(ratingRepository, recipeRepository,
+                mock(RatingMapper.class), statsRepository, dailyStatsRepository, indexer);
+        when(ratingRepository.save(any())).thenAnswer(call -> call.getArgument(0));
+    }
+
+    @Test
+    void createRating_ShouldAddToRecipeTotals() {
+        when(ratingRepository.insertIfAbsent(eq(3L), eq(9L), eq(4), any(), any())).thenReturn(1);
+        when(ratingRepository.findForUpdate(3L, 9L)).thenReturn(Optional.of(rating(4)));
+
+        ratingService.createRating(RatingCreateRequest.builder().recipeId(3L).userId(9L).score(4).build());
+
+        verify(statsRepository).applyDelta(3L, 4, 1, 0, 0, 0, 1, 0);
+        verify(indexer).recipeRatingsChanged(3L, 12L, 3L);
+    }
+
+    @Test
+    void createRating_ShouldRejectASecondLiveRating() {
+        when(ratingRepository.findForUpdate(3L, 9L)).thenReturn(Optional.of(rating(4)));
+
+        assertThrows(ValidationException.class, () -> ratingService.createRating(
+                RatingCreateRequest.builder().recipeId(3L).userId(9L).score(2).build()));
+        verifyNoInteractions(indexer);
+    }
+
+    @Test
+    void rateRecipe_ShouldReplaceAnExistingRating() {
+        Rating existing = rating(4);
+        when(ratingRepository.findForUpdate(3L, 9L)).thenReturn(Optional.of(existing));
+
+        ratingService.rateRecipe(3L, RatingUpdateRequest.builder().score(2).comment("Too salty").build(), user);
+
+        assertEquals(2, existing.getScore());
+        assertEquals("Too salty", existing.getComment());
+        verify(statsRepository).applyDelta(3L, -2, 0, 0, 1, 0, -1, 0);
+    }
+
+    @Test
+    void rateRecipe_ShouldReviveADeletedRating() {
+        Rating existing = rating(4);
+        existing.setDeleted(true);
+        when(ratingRepository.findForUpdate(3L, 9L)).thenReturn(Optional.of(existing));
+
+        ratingService.rateRecipe(3L, RatingUpdateRequest.builder().score(5).build(), user);
+
+        assertFalse(existing.isDeleted());
+        verify(statsRepository).applyDelta(3L, 5, 1, 0, 0, 0, 0, 1);
+    }
+
+    @Test
+    void rateRecipe_ShouldReportAMissingRecipe() {
+        when(ratingRepository.findForUpdate(3L, 9L)).thenReturn(Optional.empty());
+        when(recipeRepository.existsById(3L)).thenReturn(false);
+
+        assertThrows(ResourceNotFoundException.class,
+                () -> ratingService.rateRecipe(3L, RatingUpdateRequest.builder().score(5).build(), user));
+    }
+
+    @Test
+    void updateRating_ShouldMoveTheScoreBetweenBuckets() {
+        when(ratingRepository.findById(1L)).thenReturn(Optional.of(rating(2)));
+
+        ratingService.updateRating(1L, RatingUpdateRequest.builder().score(5).build(), user);
+
+        verify(statsRepository).applyDelta(3L, 3, 0, 0, -1, 0, 0, 1);
+    }
+
+    @Test
+    void updateRating_ShouldLeaveTotalsAloneForCommentEdits() {
+        when(ratingRepository.findById(1L)).thenReturn(Optional.of(rating(2)));
+
+        ratingService.updateRating(1L, RatingUpdateRequest.builder().comment("Even better reheated").build(), user);
+
+        verify(statsRepository, never()).applyDelta(anyLong(), anyLong(), anyLong(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+        verifyNoInteractions(indexer);
+    }
+
+    @Test
+    void deleteRating_ShouldSubtractFromRecipeTotals() {
+        when(ratingRepository.findById(1L)).thenReturn(Optional.of(rating(1)));
+
+        ratingService.deleteRating(1L, user);
+
+        verify(statsRepository).applyDelta(3L, -1, -1, -1, 0, 0, 0, 0);
+    }
+
+    @Test
+    void createRating_ShouldCountTheScoreToday() {
+        when(ratingRepository.insertIfAbsent(eq(3L), eq(9L), eq(4), any(), any())).thenReturn(1);
+        when(ratingRepository.findForUpdate(3L, 9L)).thenReturn(Optional.of(rating(4)));
+
+        ratingService.createRating(RatingCreateRequest.builder().recipeId(3L).userId(9L).score(4).build());
+
+        verify(dailyStatsRepository).applyDelta(3L, LocalDate.now(), 0, 0, 0, 1, 0);
+    }
+
+    @Test
+    void updateRating_ShouldMoveAnOlderScoreToToday() {
+        Rating existing = rating(2);
+        existing.setScoredAt(LocalDateTime.of(2024, 3, 1, 12, 0));
+        when(ratingRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        ratingService.updateRating(1L, RatingUpdateRequest.builder().score(5).build(), user);
+
+        verify(dailyStatsRepository).applyDelta(3L, LocalDate.of(2024, 3, 1), 0, -1, 0, 0, 0);
+        verify(dailyStatsRepository).applyDelta(3L, LocalDate.now(), 0, 0, 0, 0, 1);
+        assertEquals(LocalDate.now(), existing.getScoredAt().toLocalDate());
+    }
+
+    @Test
+    void rateRecipe_ShouldKeepTheScoreDayWhenOnlyTheCommentChanges() {
+        Rating existing = rating(4);
+        existing.setScoredAt(LocalDateTime.of(2024, 3, 1, 12, 0));
+        when(ratingRepository.findForUpdate(3L, 9L)).thenReturn(Optional.of(existing));
+
+        ratingService.rateRecipe(3L, RatingUpdateRequest.builder().score(4).comment("Still great").build(), user);
+
+        assertEquals(LocalDateTime.of(2024, 3, 1, 12, 0), existing.getScoredAt());
+        verify(dailyStatsRepository, never()).applyDelta(anyLong(), any(),
+                anyLong(), anyLong(), anyLong(), anyLong(), anyLong());
+    }
+
+    @Test
+    void deleteRating_ShouldSubtractFromTheScoreDay() {
+        Rating existing = rating(1);
+        existing.setScoredAt(LocalDateTime.of(2024, 3, 1, 12, 0));
+        when(ratingRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        ratingService.deleteRating(1L, user);
+
+        verify(dailyStatsRepository).applyDelta(3L, LocalDate.of(2024, 3, 1), -1, 0, 0, 0, 0);
+    }
+
+    @Test
+    void deleteRating_ShouldOnlyFlagTheRow() {
+        Rating existing = rating(1);
+        when(ratingRepository.findById(1L)).thenReturn(Optional.of(existing));
+
+        ratingService.deleteRating(1L, user);
+
+        assertTrue(existing.isDeleted());
+        verify(ratingRepository, never()).delete(any());
+    }
+
+    @Test
+    void getRatingsAfter_ShouldReturnACursorOnlyWhenMoreRemain() {
+        when(ratingRepository.findActiveAfter(eq(0L), any())).thenReturn(List.of(response(4), response(7), response(9)));
+        when(ratingRepository.findActiveAfter(eq(7L), any())).thenReturn(List.of(response(9)));
+
+        CursorPage<RatingResponse> first = ratingService.getRatingsAfter(null, 2);
+        CursorPage<RatingResponse> second = ratingService.getRatingsAfter(first.nextCursor(), 2);
+
+        assertEquals(List.of(4L, 7L), first.content().stream().map(RatingResponse::getId).toList());
+        assertEquals(List.of(9L), second.content().stream().map(RatingResponse::getId).toList());
+        assertNull(second.nextCursor());
+    }
+
+    private RatingResponse response(long id) {
+        return RatingResponse.builder().id(id).score(3).recipeId(3L).userId(9L).build();
+    }
+
+    private Rating rating(int score) {
+        return Rating.builder().id(1L).recipe(recipe).user(user).score(score).build();
+    }
+}
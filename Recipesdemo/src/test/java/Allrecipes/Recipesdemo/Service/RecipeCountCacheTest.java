@@ -0,0 +1,78 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Entities.Category;
+import Allrecipes.Recipesdemo.Entities.Enums.RecipeStatus;
+import Allrecipes.Recipesdemo.Entities.User;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecipeCountCacheTest {
+
+    private final RecipeCountCache cache = new RecipeCountCache(Duration.ofMinutes(5));
+
+    @Test
+    void get_Cached_ShouldNotReload() {
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(RecipeCountCache.ALL, () -> { loads.incrementAndGet(); return 10; });
+        long count = cache.get(RecipeCountCache.ALL, () -> { loads.incrementAndGet(); return 99; });
+
+        assertEquals(10, count);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void recipeCreated_ShouldAdjustLoadedFiltersOnly() {
+        cache.get(RecipeCountCache.ALL, () -> 10);
+        cache.get(RecipeCountCache.category(1L), () -> 3);
+
+        cache.recipeCreated(recipe(1L, 2L));
+
+        assertEquals(11, cache.get(RecipeCountCache.ALL, () -> -1));
+        assertEquals(4, cache.get(RecipeCountCache.category(1L), () -> -1));
+        assertEquals(7, cache.get(RecipeCountCache.category(2L), () -> 7));
+    }
+
+    @Test
+    void categoriesChanged_ShouldMoveCounts() {
+        cache.get(RecipeCountCache.category(1L), () -> 4);
+        cache.get(RecipeCountCache.category(2L), () -> 0);
+
+        cache.categoriesChanged(List.of(1L), List.of(2L));
+
+        assertEquals(3, cache.get(RecipeCountCache.category(1L), () -> -1));
+        assertEquals(1, cache.get(RecipeCountCache.category(2L), () -> -1));
+    }
+
+    @Test
+    void get_Expired_ShouldReload() {
+        RecipeCountCache expiring = new RecipeCountCache(Duration.ZERO);
+        expiring.get(RecipeCountCache.ALL, () -> 10);
+
+        assertEquals(12, expiring.get(RecipeCountCache.ALL, () -> 12));
+    }
+
+    private static Recipe recipe(Long... categoryIds) {
+        User author = new User();
+        author.setId(5L);
+        Set<Category> categories = new HashSet<>();
+        for (Long id : categoryIds) {
+            Category category = new Category();
+            category.setId(id);
+            categories.add(category);
+        }
+        return Recipe.builder()
+                .title("Soup")
+                .status(RecipeStatus.PENDING_APPROVAL)
+                .createdBy(author)
+                .categories(categories)
+                .build();
+    }
+}
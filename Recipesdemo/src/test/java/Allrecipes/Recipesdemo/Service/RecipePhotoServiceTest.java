@@ -0,0 +1,89 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Exceptions.InvalidRecipeDataException;
+import Allrecipes.Recipesdemo.Exceptions.PhotoTooLargeException;
+import Allrecipes.Recipesdemo.Photo.LocalPhotoStore;
+import Allrecipes.Recipesdemo.Photo.PhotoVariantGenerator;
+import Allrecipes.Recipesdemo.Recipe.Recipe;
+import Allrecipes.Recipesdemo.Repositories.RecipeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class RecipePhotoServiceTest {
+
+    @TempDir
+    Path photos;
+
+    private PhotoVariantGenerator variantGenerator;
+    private RecipePhotoService service;
+
+    @BeforeEach
+    void setUp() {
+        variantGenerator = mock(PhotoVariantGenerator.class);
+        service = new RecipePhotoService(new LocalPhotoStore(photos.toString()), mock(RecipeRepository.class), variantGenerator);
+        ReflectionTestUtils.setField(service, "maxPhotoSize", DataSize.ofKilobytes(1));
+    }
+
+    @Test
+    void attachBase64Photo_ShouldStoreAValidImage() throws IOException {
+        Recipe recipe = new Recipe();
+
+        service.attachBase64Photo(recipe, Base64.getEncoder().encodeToString(png(4, 3)));
+
+        assertNotNull(recipe.getPhotoHash());
+        assertEquals(4, recipe.getPhotoWidth());
+        assertEquals(3, recipe.getPhotoHeight());
+        verify(variantGenerator).requestVariants(recipe.getPhotoHash());
+    }
+
+    @Test
+    void attachBase64Photo_ShouldRejectMalformedBase64() {
+        Recipe recipe = new Recipe();
+
+        assertThrows(InvalidRecipeDataException.class, () -> service.attachBase64Photo(recipe, "not base64!"));
+        assertNull(recipe.getPhotoHash());
+    }
+
+    @Test
+    void attachBase64Photo_ShouldRejectBytesThatAreNotAnImage() {
+        Recipe recipe = new Recipe();
+        String text = Base64.getEncoder().encodeToString("just some text".getBytes());
+
+        InvalidRecipeDataException e = assertThrows(InvalidRecipeDataException.class,
+                () -> service.attachBase64Photo(recipe, text));
+        assertFalse(e instanceof PhotoTooLargeException);
+        assertNull(recipe.getPhotoHash());
+    }
+
+    @Test
+    void attachBase64Photo_ShouldRejectOversizedPhotos() throws IOException {
+        Recipe recipe = new Recipe();
+        byte[] image = png(4, 3);
+        byte[] padded = Arrays.copyOf(image, 4096);
+
+        assertThrows(PhotoTooLargeException.class,
+                () -> service.attachBase64Photo(recipe, Base64.getEncoder().encodeToString(padded)));
+        assertNull(recipe.getPhotoHash());
+        verifyNoInteractions(variantGenerator);
+    }
+
+    private static byte[] png(int width, int height) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB), "png", out);
+        return out.toByteArray();
+    }
+}
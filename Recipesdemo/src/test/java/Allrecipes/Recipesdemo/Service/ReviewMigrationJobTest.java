@@ -0,0 +1,68 @@
+package Allrecipes.Recipesdemo.Service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ReviewMigrationJobTest {
+
+    private JdbcTemplate jdbc;
+    private ReviewMigrationJob job;
+
+    @BeforeEach
+    void setUp() {
+        jdbc = mock(JdbcTemplate.class);
+        job = new ReviewMigrationJob(jdbc, mock(RatingStatsReconciliationJob.class), true, 2);
+    }
+
+    @Test
+    void migrate_ShouldMergeAndDeleteEachBatch() {
+        when(jdbc.queryForList(startsWith("SELECT id FROM recipe_reviews"), eq(Long.class), any(), any()))
+                .thenReturn(List.of(3L, 7L))
+                .thenReturn(List.of(9L))
+                .thenReturn(List.of());
+
+        assertEquals(3, job.migrate());
+
+        verify(jdbc).update(startsWith("INSERT INTO ratings"), eq(0L), eq(7L));
+        verify(jdbc).update(startsWith("INSERT INTO ratings"), eq(7L), eq(9L));
+        verify(jdbc).update(startsWith("DELETE FROM recipe_reviews"), eq(0L), eq(7L));
+        verify(jdbc).update(startsWith("DELETE FROM recipe_reviews"), eq(7L), eq(9L));
+    }
+
+    @Test
+    void migrate_ShouldReviveWithdrawnRatingsWithTheReview() {
+        when(jdbc.queryForList(startsWith("SELECT id FROM recipe_reviews"), eq(Long.class), any(), any()))
+                .thenReturn(List.of(1L))
+                .thenReturn(List.of());
+
+        job.migrate();
+
+        ArgumentCaptor<String> statements = ArgumentCaptor.forClass(String.class);
+        verify(jdbc, times(2)).update(statements.capture(), eq(0L), eq(1L));
+        String copy = statements.getAllValues().get(0);
+        String update = copy.substring(copy.indexOf("ON DUPLICATE KEY UPDATE"));
+        for (String column : List.of("score", "created_at", "updated_at", "scored_at")) {
+            assertTrue(update.contains(column + " = IF(ratings.deleted, VALUES(" + column + "), ratings." + column + ")"), column);
+        }
+        assertTrue(update.contains("comment = IF(ratings.deleted, VALUES(comment), COALESCE(ratings.comment, VALUES(comment)))"));
+        // Every other assignment must still see the old deleted flag.
+        assertTrue(update.endsWith("deleted = false"));
+    }
+
+    @Test
+    void migrate_EmptyTable_ShouldDoNothing() {
+        when(jdbc.queryForList(anyString(), eq(Long.class), any(), any())).thenReturn(List.of());
+
+        assertEquals(0, job.migrate());
+
+        verify(jdbc, never()).update(anyString(), any(), any());
+    }
+}
@@ -0,0 +1,106 @@
+package Allrecipes.Recipesdemo.Service;
+
+import Allrecipes.Recipesdemo.Exceptions.RecipeNotFoundException;
+import Allrecipes.Recipesdemo.Quantity.Unit;
+import Allrecipes.Recipesdemo.Repositories.IngredientsRepo;
+import Allrecipes.Recipesdemo.Request.MealPlanRequest;
+import Allrecipes.Recipesdemo.Response.ShoppingListItem;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+class ShoppingListServiceTest {
+
+    private IngredientsRepo ingredientsRepo;
+    private ShoppingListService service;
+
+    @BeforeEach
+    void setUp() {
+        ingredientsRepo = mock(IngredientsRepo.class);
+        service = new ShoppingListService(ingredientsRepo);
+    }
+
+    @Test
+    void buildShoppingList_ShouldMergeUnitsAcrossRecipes() {
+        when(ingredientsRepo.findShoppingRows(anyCollection())).thenReturn(List.of(
+                row(1L, 4, 10L, "milk", "Milk", "1", "cup", 1L, 1L, Unit.CUP),
+                row(2L, 2, 10L, "milk", "whole milk", "4", "tbsp", 4L, 1L, Unit.TABLESPOON),
+                row(2L, 2, 20L, "flour", "Flour", "500", "g", 500L, 1L, Unit.GRAM)));
+
+        List<ShoppingListItem> items = service.buildShoppingList(List.of(
+                entry(1L, 4), entry(2L, 4)));
+
+        assertEquals(List.of("flour", "milk"), items.stream().map(ShoppingListItem::name).toList());
+        ShoppingListItem flour = items.get(0);
+        assertEquals("1", flour.quantity());
+        assertEquals("kg", flour.unit());
+        ShoppingListItem milk = items.get(1);
+        assertEquals("1 1/2", milk.quantity());
+        assertEquals("cups", milk.unit());
+        assertEquals(List.of(1L, 2L), milk.recipeIds());
+    }
+
+    @Test
+    void buildShoppingList_ShouldAddRepeatedEntriesForTheSameRecipe() {
+        when(ingredientsRepo.findShoppingRows(anyCollection())).thenReturn(List.<Object[]>of(
+                row(1L, 2, 30L, "egg", "Eggs", "2", "", 2L, 1L, Unit.PIECE)));
+
+        List<ShoppingListItem> items = service.buildShoppingList(List.of(entry(1L, null), entry(1L, 4)));
+
+        assertEquals("6", items.get(0).quantity());
+    }
+
+    @Test
+    void buildShoppingList_ShouldListUnmeasuredAmountsAsNotes() {
+        when(ingredientsRepo.findShoppingRows(anyCollection())).thenReturn(List.of(
+                row(1L, 2, 40L, "salt", "Salt", "to taste", null, null, null, Unit.OTHER),
+                row(2L, 2, 40L, "salt", "salt", "to taste", null, null, null, Unit.OTHER),
+                row(2L, 2, null, null, "Saffron", "a few", "threads", null, null, null)));
+
+        List<ShoppingListItem> items = service.buildShoppingList(List.of(entry(1L, null), entry(2L, null)));
+
+        assertEquals(2, items.size());
+        assertEquals("Saffron", items.get(0).name());
+        assertEquals(List.of("a few threads"), items.get(0).notes());
+        assertEquals("salt", items.get(1).name());
+        assertNull(items.get(1).quantity());
+        assertEquals(List.of("to taste"), items.get(1).notes());
+        assertEquals(List.of(1L, 2L), items.get(1).recipeIds());
+    }
+
+    @Test
+    void buildShoppingList_ShouldSumUnconvertibleAmountsPerUnit() {
+        when(ingredientsRepo.findShoppingRows(anyCollection())).thenReturn(List.of(
+                row(1L, 2, 50L, "thyme", "Thyme", "2", "sprigs", 2L, 1L, Unit.OTHER),
+                row(2L, 2, 50L, "thyme", "thyme", "2", "sprigs", 2L, 1L, Unit.OTHER),
+                row(2L, 2, 50L, "thyme", "thyme", "1", "bunch", 1L, 1L, Unit.OTHER)));
+
+        List<ShoppingListItem> items = service.buildShoppingList(List.of(entry(1L, null), entry(2L, null)));
+
+        assertEquals(List.of("4 sprigs", "1 bunch"), items.get(0).notes());
+    }
+
+    @Test
+    void buildShoppingList_ShouldRejectUnknownRecipes() {
+        when(ingredientsRepo.findShoppingRows(anyCollection())).thenReturn(List.<Object[]>of(
+                row(1L, 2, null, null, null, null, null, null, null, null)));
+
+        assertThrows(RecipeNotFoundException.class,
+                () -> service.buildShoppingList(List.of(entry(1L, null), entry(99L, null))));
+    }
+
+    private static MealPlanRequest.Entry entry(Long recipeId, Integer servings) {
+        return new MealPlanRequest.Entry(recipeId, servings);
+    }
+
+    private static Object[] row(Long recipeId, Integer servings, Long canonicalId, String canonicalName, String name,
+                                String quantity, String unit, Long numerator, Long denominator, Unit unitCode) {
+        return new Object[]{recipeId, servings, canonicalId, canonicalName, name, quantity, unit, numerator,
+                denominator, unitCode};
+    }
+}
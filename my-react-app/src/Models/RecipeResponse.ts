@@ -13,5 +13,9 @@ export interface RecipeResponse {
     updatedAt: string;
     createdByUsername: string;
     photo?: string;
+    photoUrl?: string;
+    photoHash?: string;
+    photoWidth?: number;
+    photoHeight?: number;
     categories: string[];
 }
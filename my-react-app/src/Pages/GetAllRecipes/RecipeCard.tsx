@@ -1,6 +1,7 @@
 import React from 'react';
 import { useNavigate } from 'react-router-dom';
 import { RecipeResponse } from '../../Models/RecipeResponse';
+import { getRecipePhotoSrc } from '../../Utiles/recipePhoto';
 import RecipeActions from './RecipeActions';
 
 interface RecipeCardProps {
@@ -33,10 +34,10 @@ const RecipeCard: React.FC<RecipeCardProps> = ({
       
       {/* Recipe Image */}
       <div className="photo-preview">
-        {recipe.photo ? (
+        {getRecipePhotoSrc(recipe) ? (
           <img
             className="preview-image"
-            src={`data:image/png;base64,${recipe.photo}`}
+            src={getRecipePhotoSrc(recipe, "card")}
             alt={recipe.title}
           />
         ) : (
@@ -4,6 +4,7 @@ import { useSelector } from 'react-redux';
 import { RootState } from '../Redux/store';
 import { useRecipes } from '../../hooks';
 import { RecipeResponse } from '../../Models/RecipeResponse';
+import { getRecipePhotoSrc } from '../../Utiles/recipePhoto';
 // Using global design system instead of component-specific CSS
 
 const HomePage: React.FC = () => {
@@ -204,14 +205,14 @@ const HomePage: React.FC = () => {
                   }}
                 >
                   {/* Recipe Image */}
-                  {recipe.photo && (
+                  {getRecipePhotoSrc(recipe) && (
                     <div style={{
                       height: '160px',
                       backgroundColor: 'var(--background-tertiary)',
                       overflow: 'hidden'
                     }}>
                       <img
-                        src={`data:image/png;base64,${recipe.photo}`}
+                        src={getRecipePhotoSrc(recipe, "card")}
                         alt={recipe.title}
                         style={{
                           width: '100%',
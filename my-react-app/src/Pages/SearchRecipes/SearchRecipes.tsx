@@ -25,8 +25,8 @@ const SearchRecipes: React.FC = () => {
         return;
       }
 
-      const response = await axios.get<RecipeResponse[]>(
-        `/api/recipes/search?title=${encodeURIComponent(title)}`,
+      const response = await axios.get<{ content: RecipeResponse[] }>(
+        `/api/recipes/search?q=${encodeURIComponent(title)}`,
         {
           headers: {
             Authorization: `Bearer ${token}`
@@ -34,11 +34,11 @@ const SearchRecipes: React.FC = () => {
         }
       );
 
-      if (response.data.length === 0) {
+      if (response.data.content.length === 0) {
         setError(`No recipes found with the title containing "${title}"`);
         notify.error(`No recipes found with the title containing "${title}"`);
       } else {
-        setResults(response.data);
+        setResults(response.data.content);
         notify.success('Recipes found!');
       }
     // eslint-disable-next-line @typescript-eslint/no-explicit-any
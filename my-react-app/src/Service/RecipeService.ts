@@ -177,10 +177,12 @@ class RecipeService extends BaseApiService {
   // SEARCH RECIPES BY TITLE
   // ===========================
   public async searchRecipesByTitle(
-    title: string
-  ): Promise<AxiosResponse<RecipeResponse[]>> {
-    const url = this.buildUrl('/recipes/search', { title });
-    return this.get<RecipeResponse[]>(url);
+    title: string,
+    pageNumber: number = 0,
+    pageSize: number = 10
+  ): Promise<AxiosResponse<PaginatedRecipes>> {
+    const url = this.buildUrl('/recipes/search', { q: title, page: pageNumber, size: pageSize });
+    return this.get<PaginatedRecipes>(url);
   }
 
   // ===========================
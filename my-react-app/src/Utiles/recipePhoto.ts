@@ -0,0 +1,16 @@
+import { config } from "../config/environment";
+import { RecipeResponse } from "../Models/RecipeResponse";
+
+export type RecipePhotoSize = "thumb" | "card" | "full";
+
+// Prefer the cacheable photo URL; fall back to an inline Base64 photo from legacy responses.
+export const getRecipePhotoSrc = (recipe: RecipeResponse, size: RecipePhotoSize = "full"): string | undefined => {
+  if (recipe.photoUrl) {
+    const sizeParam = size === "full" ? "" : `&size=${size}`;
+    return `${config.BACKEND_URL}${recipe.photoUrl}${sizeParam}`;
+  }
+  if (recipe.photo) {
+    return `data:image/png;base64,${recipe.photo}`;
+  }
+  return undefined;
+};
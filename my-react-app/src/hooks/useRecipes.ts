@@ -322,13 +322,13 @@ export function useRecipes(): RecipesHookReturn {
   const searchRecipes = useCallback(async (title: string): Promise<RecipeResponse[] | null> => {
     try {
       const token = recipeSystem.getState().auth.token;
-      const response = await axios.get(`http://localhost:8080/api/recipes/search?title=${encodeURIComponent(title)}`, {
+      const response = await axios.get(`http://localhost:8080/api/recipes/search?q=${encodeURIComponent(title)}`, {
         headers: {
           'Authorization': token ? `Bearer ${token}` : '',
           'Content-Type': 'application/json'
         }
       });
-      return normalizeRecipes(response.data);
+      return normalizeRecipes(response.data.content);
     } catch (error) {
       console.error('Error searching recipes:', error);
       const errorMessage = error instanceof AppError 